@@ -50,6 +50,14 @@ public class ClientApplication extends Application implements Observer {
         //mainStage.show();
     }
 
+    /**
+     * Stops the application, part of JAVA FX
+     */
+    @Override
+    public void stop() {
+        this.LBMS.close();
+    }
+
     /**
      * update when observed updates
      * @param observable
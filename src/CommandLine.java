@@ -26,6 +26,7 @@ public class CommandLine {
 
             // Complete the request.
             if (input.toLowerCase().equals("exit;")) {
+                system.close();
                 break;
             } else {
                 System.out.println(system.performRequest(input));
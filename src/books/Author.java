@@ -10,6 +10,9 @@ import java.io.Serializable;
  * @author Zachary Cook
  */
 public class Author implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 6771560726873117062L;
+
     private Name name;
 
     /**
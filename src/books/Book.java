@@ -6,6 +6,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Class representing a book.
@@ -14,6 +15,9 @@ import java.util.Collections;
  * @author Zachary Cook
  */
 public class Book implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -4694971087113369678L;
+
     private ArrayList<Author> authors;
     private Publisher publisher;
     private long ISBN;
@@ -23,6 +27,10 @@ public class Book implements Serializable {
     private int numCopiesCheckedOut;
     private String name;
     private int id;
+    private transient List<Author> authorsView;
+    private transient String lowercaseName;
+    private transient String[] lowercaseAuthorNames;
+    private transient String lowercasePublisher;
 
     /**
      * Creates a book.
@@ -127,6 +135,65 @@ public class Book implements Serializable {
         return new ArrayList<>(authors);
     }
 
+    /**
+     * Gets a read-only view of the authors of the book. Unlike
+     * getAuthors, the authors aren't copied.
+     *
+     * @return the authors of the book.
+     */
+    public List<Author> getAuthorsView() {
+        if (this.authorsView == null) {
+            this.authorsView = Collections.unmodifiableList(this.authors);
+        }
+        return this.authorsView;
+    }
+
+    /**
+     * Gets the lowercase name of the book, which is used
+     * for searching and sorting. Books without a name, such
+     * as some results of Google Books, have an empty name.
+     *
+     * @return the lowercase name of the book.
+     */
+    public String getLowercaseName() {
+        if (this.lowercaseName == null) {
+            this.lowercaseName = (this.name == null ? "" : this.name.toLowerCase());
+        }
+        return this.lowercaseName;
+    }
+
+    /**
+     * Gets the lowercase names of the authors of the book, which are
+     * used for searching. The array is shared and must not be changed.
+     *
+     * @return the lowercase names of the authors.
+     */
+    public String[] getLowercaseAuthorNames() {
+        if (this.lowercaseAuthorNames == null) {
+            String[] authorNames = new String[this.authors.size()];
+            for (int i = 0; i < authorNames.length; i++) {
+                authorNames[i] = this.authors.get(i).getName().toLowerCase();
+            }
+            this.lowercaseAuthorNames = authorNames;
+        }
+        return this.lowercaseAuthorNames;
+    }
+
+    /**
+     * Gets the lowercase name of the publisher of the book,
+     * which is used for searching. Books without a publisher
+     * name have an empty name.
+     *
+     * @return the lowercase name of the publisher.
+     */
+    public String getLowercasePublisher() {
+        if (this.lowercasePublisher == null) {
+            String publisherName = (this.publisher == null ? null : this.publisher.getName());
+            this.lowercasePublisher = (publisherName == null ? "" : publisherName.toLowerCase());
+        }
+        return this.lowercasePublisher;
+    }
+
     /**
      * Gets the publisher of this book.
      *
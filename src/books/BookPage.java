@@ -0,0 +1,79 @@
+package books;
+
+import books.search.FacetCounts;
+
+/**
+ * Page of the results of a book search. The page is part of the
+ * sorted results, and keeps the total amount of results.
+ *
+ * @author Zachary Cook
+ */
+public class BookPage {
+    private Books books;
+    private int total;
+    private FacetCounts facetCounts;
+
+    /**
+     * Creates a page of results.
+     *
+     * @param books the books in the page.
+     * @param total the total amount of results.
+     */
+    public BookPage(Books books,int total) {
+        this(books,total,null);
+    }
+
+    /**
+     * Creates a page of results with facet counts.
+     *
+     * @param books the books in the page.
+     * @param total the total amount of results.
+     * @param facetCounts the counts of all of the results, or null if none were counted.
+     */
+    public BookPage(Books books,int total,FacetCounts facetCounts) {
+        this.books = books;
+        this.total = total;
+        this.facetCounts = facetCounts;
+    }
+
+    /**
+     * Creates a page from sorted results.
+     *
+     * @param sortedBooks the sorted results.
+     * @param offset the amount of results before the page.
+     * @param limit the maximum amount of results in the page.
+     * @return the page of results.
+     */
+    public static BookPage fromBooks(Books sortedBooks,int offset,int limit) {
+        int start = Math.min(offset,sortedBooks.size());
+        int end = (int) Math.min((long) start + limit,sortedBooks.size());
+        return new BookPage(new Books(sortedBooks.subList(start,end)),sortedBooks.size());
+    }
+
+    /**
+     * Returns the books in the page.
+     *
+     * @return the books in the page.
+     */
+    public Books getBooks() {
+        return this.books;
+    }
+
+    /**
+     * Returns the total amount of results.
+     *
+     * @return the total amount of results.
+     */
+    public int getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Returns the facet counts of all of the results.
+     *
+     * @return the facet counts, or null if none were counted.
+     */
+    public FacetCounts getFacetCounts() {
+        return this.facetCounts;
+    }
+}
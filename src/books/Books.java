@@ -13,6 +13,9 @@ import java.util.List;
  * @author Zachary Cook
  */
 public class Books extends ArrayList<Book> implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 4872795457022219908L;
+
     /**
      * The sorting methods.
      */
@@ -88,7 +91,7 @@ public class Books extends ArrayList<Book> implements Serializable {
             this.sort(new Comparator<Book>() {
                 @Override
                 public int compare(Book o1, Book o2) {
-                    return o1.getName().toLowerCase().compareTo(o2.getName().toLowerCase());
+                    return o1.getLowercaseName().compareTo(o2.getLowercaseName());
                 }
             });
         }
@@ -98,7 +101,7 @@ public class Books extends ArrayList<Book> implements Serializable {
             this.sort(new Comparator<Book>() {
                 @Override
                 public int compare(Book o1, Book o2) {
-                    return o2.getPublishedDate().getTimestamp() - o1.getPublishedDate().getTimestamp();
+                    return Long.compare(o2.getPublishedDate().getEpochSeconds(),o1.getPublishedDate().getEpochSeconds());
                 }
             });
         }
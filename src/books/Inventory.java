@@ -1,7 +1,10 @@
 package books;
 
+import books.search.BookIndex;
+import books.search.FacetCounts;
 
 import java.io.Serializable;
+import java.util.Set;
 
 /**
  * Class representing the inventory of books.
@@ -10,7 +13,11 @@ import java.io.Serializable;
  * @author Zachary Cook
  */
 public class Inventory implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 3185288211410965231L;
+
     private Books books;
+    private transient BookIndex index;
 
     /**
      * Creates the inventory of book.
@@ -19,6 +26,15 @@ public class Inventory implements Serializable {
         this.books = new Books();
     }
 
+    /**
+     * Creates the inventory of existing books.
+     *
+     * @param books the books in the inventory.
+     */
+    public Inventory(Books books) {
+        this.books = books;
+    }
+
     /**
      * Registers a book in the inventory.
      *
@@ -28,9 +44,22 @@ public class Inventory implements Serializable {
         // If the book doesn't exist, add the book.
         if (this.getBook(book.getISBN()) == null) {
             this.books.add(book);
+            this.getIndex().update();
         }
     }
 
+    /**
+     * Returns the search index of the books, creating it if needed.
+     *
+     * @return the search index of the books.
+     */
+    private BookIndex getIndex() {
+        if (this.index == null) {
+            this.index = new BookIndex(this.books);
+        }
+        return this.index;
+    }
+
     /**
      * Returns the book for the ISBN number.
      *
@@ -39,15 +68,7 @@ public class Inventory implements Serializable {
      * @return the book with the corresponding ISBN number.
      */
     public Book getBook(long isbn) {
-        // Find and return the book.
-        for (Book book : this.books) {
-            if (book.getISBN() == isbn) {
-                return book;
-            }
-        }
-
-        // Return null (not found).
-        return null;
+        return this.getIndex().getBook(isbn);
     }
 
     /**
@@ -60,7 +81,55 @@ public class Inventory implements Serializable {
      * @return the filtered books.
      */
     public Books getBooks(String title,String authors,String isbn,String publisher) {
-        return this.books.filterBooks(title,authors,isbn,publisher);
+        return this.getIndex().filterBooks(title,authors,isbn,publisher);
+    }
+
+    /**
+     * Returns the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @return the filtered and sorted books.
+     */
+    public Books getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod) {
+        return this.getIndex().filterBooks(title,authors,isbn,publisher,sortingMethod);
+    }
+
+    /**
+     * Returns a page of the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @param offset the amount of books before the page.
+     * @param limit the maximum amount of books in the page.
+     * @return the page of filtered and sorted books.
+     */
+    public BookPage getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod,int offset,int limit) {
+        return this.getIndex().filterBooks(title,authors,isbn,publisher,sortingMethod,offset,limit);
+    }
+
+    /**
+     * Returns a page of the books for the given search, sorted by a method,
+     * with the facet counts of all of the books that matched.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @param offset the amount of books before the page.
+     * @param limit the maximum amount of books in the page.
+     * @param facets the facets to count. If empty, no facets are counted.
+     * @return the page of filtered and sorted books.
+     */
+    public BookPage getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod,int offset,int limit,Set<FacetCounts.Facet> facets) {
+        return this.getIndex().filterBooks(title,authors,isbn,publisher,sortingMethod,offset,limit,facets);
     }
 
     /**
@@ -8,6 +8,9 @@ import java.io.Serializable;
  * @author Zachary Cook
  */
 public class Publisher implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -3958732804726332801L;
+
     private String name;
 
     /**
@@ -3,8 +3,12 @@ package books.purchases;
 import books.Book;
 import time.Date;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Class representing the purchase history of books.
@@ -12,7 +16,11 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class PurchaseHistory implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 7234122086154440813L;
+
     private ArrayList<PurchaseLog> purchaseLogs;
+    private transient Supplier<? extends List<PurchaseLog>> closedPurchaseLogsLoader;
 
     /**
      * Creates a purchase history.
@@ -21,6 +29,38 @@ public class PurchaseHistory implements Serializable {
         this.purchaseLogs = new ArrayList<>();
     }
 
+    /**
+     * Sets the closed purchase logs to load the first time all of the
+     * purchase logs are needed. The closed purchase logs were made before
+     * the purchase logs in the history.
+     *
+     * @param loader the loader of the closed purchase logs.
+     */
+    public void setClosedPurchaseLogs(Supplier<? extends List<PurchaseLog>> loader) {
+        this.closedPurchaseLogsLoader = loader;
+    }
+
+    /**
+     * Returns if the closed purchase logs haven't been loaded.
+     *
+     * @return if the closed purchase logs are unloaded.
+     */
+    public boolean hasUnloadedPurchaseLogs() {
+        return this.closedPurchaseLogsLoader != null;
+    }
+
+    /**
+     * Loads the closed purchase logs, if they haven't been loaded.
+     */
+    private void loadClosedPurchaseLogs() {
+        if (this.closedPurchaseLogsLoader != null) {
+            ArrayList<PurchaseLog> purchaseLogs = new ArrayList<>(this.closedPurchaseLogsLoader.get());
+            purchaseLogs.addAll(this.purchaseLogs);
+            this.purchaseLogs = purchaseLogs;
+            this.closedPurchaseLogsLoader = null;
+        }
+    }
+
     /**
      * Adds a purchase log.
      *
@@ -39,6 +79,7 @@ public class PurchaseHistory implements Serializable {
      */
     public void unregisterPurchase(Book book,Date purchaseDate) {
         // Get the index to remove.
+        this.loadClosedPurchaseLogs();
         int indexToRemove = -1;
         for (int i = 0; i <= this.purchaseLogs.size(); i++) {
             PurchaseLog log = this.purchaseLogs.get(i);
@@ -60,7 +101,28 @@ public class PurchaseHistory implements Serializable {
      * @return the purchase logs.
      */
     public ArrayList<PurchaseLog> getPurchaseLogs() {
+        this.loadClosedPurchaseLogs();
         return new ArrayList<>(this.purchaseLogs);
     }
 
+    /**
+     * Returns the purchase logs that are loaded, without loading
+     * the closed purchase logs.
+     *
+     * @return the loaded purchase logs.
+     */
+    public ArrayList<PurchaseLog> getLoadedPurchaseLogs() {
+        return new ArrayList<>(this.purchaseLogs);
+    }
+
+    /**
+     * Loads the closed purchase logs before the history is serialized.
+     *
+     * @param output the stream to write to.
+     * @throws IOException if the history can't be written.
+     */
+    private void writeObject(ObjectOutputStream output) throws IOException {
+        this.loadClosedPurchaseLogs();
+        output.defaultWriteObject();
+    }
 }
@@ -11,6 +11,9 @@ import java.io.Serializable;
  * @author Zachary Cook
  */
 public class PurchaseLog implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 6423619546880703171L;
+
     private Book book;
     private Date date;
 
@@ -1,6 +1,5 @@
 package books.search;
 
-import books.Author;
 import books.Book;
 import books.Books;
 
@@ -14,6 +13,7 @@ import java.util.ArrayList;
 public class AuthorFilter implements BookFilter {
     private BookFilter bookFilter;
     private String filterString;
+    private ArrayList<String> lowercaseAuthors;
 
     /**
      * Creates the filter.
@@ -24,6 +24,12 @@ public class AuthorFilter implements BookFilter {
     public AuthorFilter(BookFilter subFilter,String filterString) {
         this.bookFilter = subFilter;
         this.filterString = filterString;
+
+        // Split the authors.
+        this.lowercaseAuthors = new ArrayList<>();
+        for (String authorName : filterString.split(",")) {
+            this.lowercaseAuthors.add(authorName.trim().toLowerCase());
+        }
     }
 
     /**
@@ -41,40 +47,48 @@ public class AuthorFilter implements BookFilter {
         // Create the base books.
         Books filteredBooks = new Books();
 
-        // Split the authors.
-        ArrayList<String> authors = new ArrayList<>();
-        for (String authorName : this.filterString.split(",")) {
-            authors.add(authorName.trim());
-        }
-
         // Iterate through the books.
         for (Book book : this.bookFilter.filterBooks()) {
-            // Determine if all authors are present.
-            boolean authorsPresent = true;
-            for (String author : authors) {
-                // Determine if the author was found.
-                boolean specificAuthorPresent = false;
-                for (Author bookAuthor : book.getAuthors()) {
-                    if (bookAuthor.getName().toLowerCase().contains(author.toLowerCase())) {
-                        specificAuthorPresent = true;
-                        break;
-                    }
-                }
+            if (this.matches(book)) {
+                filteredBooks.add(book);
+            }
+        }
+
+        // Return the books.
+        return filteredBooks;
+    }
+
+    /**
+     * Returns if a book passes this filter.
+     *
+     * @param book the book to check.
+     * @return whether the book passes the filter.
+     */
+    @Override
+    public boolean matches(Book book) {
+        // Return true if the filter is "*".
+        if (this.filterString.equals("*")) {
+            return true;
+        }
 
-                // Set the search as failed if the author wasn't found.
-                if (!specificAuthorPresent) {
-                    authorsPresent = false;
+        // Determine if all authors are present.
+        for (String author : this.lowercaseAuthors) {
+            // Determine if the author was found.
+            boolean specificAuthorPresent = false;
+            for (String bookAuthorName : book.getLowercaseAuthorNames()) {
+                if (bookAuthorName.contains(author)) {
+                    specificAuthorPresent = true;
                     break;
                 }
             }
 
-            // Add the book if the authors exist.
-            if (authorsPresent) {
-                filteredBooks.add(book);
+            // Return false if the author wasn't found.
+            if (!specificAuthorPresent) {
+                return false;
             }
         }
 
-        // Return the books.
-        return filteredBooks;
+        // Return true (all authors found).
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package books.search;
 
+import books.Book;
 import books.Books;
 
 /**
@@ -14,4 +15,13 @@ public interface BookFilter {
      * @return the filtered books.
      */
     Books filterBooks();
+
+    /**
+     * Returns if a book passes this filter. The filters this
+     * filter is applied onto aren't checked.
+     *
+     * @param book the book to check.
+     * @return whether the book passes the filter.
+     */
+    boolean matches(Book book);
 }
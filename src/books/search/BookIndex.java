@@ -0,0 +1,269 @@
+package books.search;
+
+import books.Book;
+import books.BookPage;
+import books.Books;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Index of the titles, authors and publishers of a list of books. The
+ * index finds the few books that can match a search, and the filters
+ * are then applied to only those books, so the results are the same
+ * as filtering every book. Searches with a trigram are found with the
+ * trigrams of the fields, and shorter searches with the words of the
+ * fields. Books are only appended to the list, so the index catches up
+ * by indexing the books after the last indexed one. Sorted results
+ * are ordered with the sorted views of the list instead of comparing
+ * the books. The index isn't saved, and is rebuilt from the list when
+ * it is loaded.
+ *
+ * @author Zachary Cook
+ */
+public class BookIndex {
+    private Books books;
+    private int indexedBooks;
+    private TokenIndex titleIndex;
+    private TokenIndex authorIndex;
+    private TokenIndex publisherIndex;
+    private TrigramIndex titleTrigrams;
+    private TrigramIndex authorTrigrams;
+    private TrigramIndex publisherTrigrams;
+    private ISBNIndex isbnIndex;
+    private LongHashMap<Book> isbnBooks;
+    private SortedViews sortedViews;
+    private ParallelScan scan;
+
+    /**
+     * Creates an index of a list of books.
+     *
+     * @param books the books to index.
+     */
+    public BookIndex(Books books) {
+        this.books = books;
+        this.indexedBooks = 0;
+        this.titleIndex = new TokenIndex();
+        this.authorIndex = new TokenIndex();
+        this.publisherIndex = new TokenIndex();
+        this.titleTrigrams = new TrigramIndex();
+        this.authorTrigrams = new TrigramIndex();
+        this.publisherTrigrams = new TrigramIndex();
+        this.isbnIndex = new ISBNIndex();
+        this.isbnBooks = new LongHashMap<>();
+        this.sortedViews = new SortedViews(books);
+        this.scan = new ParallelScan(books);
+        this.update();
+    }
+
+    /**
+     * Indexes the books that were added since the last update.
+     */
+    public void update() {
+        while (this.indexedBooks < this.books.size()) {
+            Book book = this.books.get(this.indexedBooks);
+            this.titleIndex.add(this.indexedBooks,book.getLowercaseName());
+            this.titleTrigrams.add(this.indexedBooks,book.getLowercaseName());
+            for (String authorName : book.getLowercaseAuthorNames()) {
+                this.authorIndex.add(this.indexedBooks,authorName);
+                this.authorTrigrams.add(this.indexedBooks,authorName);
+            }
+            this.publisherIndex.add(this.indexedBooks,book.getLowercasePublisher());
+            this.publisherTrigrams.add(this.indexedBooks,book.getLowercasePublisher());
+            this.isbnIndex.add(this.indexedBooks,book.getISBN());
+            this.isbnBooks.putIfAbsent(book.getISBN(),book);
+            this.indexedBooks++;
+        }
+    }
+
+    /**
+     * Returns the first book with an ISBN number.
+     *
+     * @param isbn the ISBN number of the book.
+     * @return the book with the ISBN number, or null if it doesn't exist.
+     */
+    public Book getBook(long isbn) {
+        this.update();
+        return this.isbnBooks.get(isbn);
+    }
+
+    /**
+     * Returns the most books with a field that can contain a string.
+     *
+     * @param tokenIndex the words of the field.
+     * @param trigramIndex the trigrams of the field.
+     * @param search the string to search for.
+     * @return the most books that can contain it, or -1 if every book can contain it.
+     */
+    private static int estimate(TokenIndex tokenIndex,TrigramIndex trigramIndex,String search) {
+        int estimate = trigramIndex.estimate(search);
+        if (estimate == -1) {
+            estimate = tokenIndex.estimate(search);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the positions of the books with a field that can contain a string.
+     *
+     * @param tokenIndex the words of the field.
+     * @param trigramIndex the trigrams of the field.
+     * @param search the string to search for.
+     * @return the positions of the books, or null if every book can contain it.
+     */
+    private static PostingList find(TokenIndex tokenIndex,TrigramIndex trigramIndex,String search) {
+        PostingList positions = trigramIndex.find(search);
+        if (positions == null) {
+            positions = tokenIndex.find(search);
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the plan for a search. Each field is a predicate that is
+     * checked by its filter, and narrowed by the index of the field.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @return the plan for the search.
+     */
+    private QueryPlan plan(String title,String authors,String isbn,String publisher) {
+        this.update();
+        QueryPlan plan = new QueryPlan(this.books.size());
+        RootContainer rootContainer = new RootContainer(this.books);
+
+        // Add the title.
+        if (!title.equals("*")) {
+            plan.addPredicate(new TitleFilter(rootContainer,title),estimate(this.titleIndex,this.titleTrigrams,title),() -> find(this.titleIndex,this.titleTrigrams,title));
+        }
+
+        // Add the authors, narrowed by the least common author.
+        if (!authors.equals("*")) {
+            String leastCommonAuthor = null;
+            int leastCommonEstimate = -1;
+            for (String author : authors.split(",")) {
+                int estimate = estimate(this.authorIndex,this.authorTrigrams,author.trim());
+                if (estimate != -1 && (leastCommonEstimate == -1 || estimate < leastCommonEstimate)) {
+                    leastCommonAuthor = author.trim();
+                    leastCommonEstimate = estimate;
+                }
+            }
+            String narrowingAuthor = leastCommonAuthor;
+            plan.addPredicate(new AuthorFilter(rootContainer,authors),leastCommonEstimate,() -> find(this.authorIndex,this.authorTrigrams,narrowingAuthor));
+        }
+
+        // Add the ISBN number and publisher.
+        if (!isbn.equals("*")) {
+            plan.addPredicate(new ISBNFilter(rootContainer,isbn),this.isbnIndex.estimate(isbn),() -> this.isbnIndex.find(isbn));
+        }
+        if (!publisher.equals("*")) {
+            plan.addPredicate(new PublisherFilter(rootContainer,publisher),estimate(this.publisherIndex,this.publisherTrigrams,publisher),() -> find(this.publisherIndex,this.publisherTrigrams,publisher));
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the positions of the books that match a search, in the
+     * order of the list.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @return the positions of the books.
+     */
+    private PostingList findPositions(String title,String authors,String isbn,String publisher) {
+        QueryPlan plan = this.plan(title,authors,isbn,publisher);
+        PostingList candidates = plan.getCandidates();
+
+        // Check the candidates, or every book if the search can't be narrowed.
+        return this.scan.scan(plan,candidates);
+    }
+
+    /**
+     * Returns the books for the given search, in the order of the list.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @return the filtered books.
+     */
+    public Books filterBooks(String title,String authors,String isbn,String publisher) {
+        PostingList positions = this.findPositions(title,authors,isbn,publisher);
+        Books foundBooks = new Books();
+        for (int i = 0; i < positions.size(); i++) {
+            foundBooks.add(this.books.get(positions.get(i)));
+        }
+        return foundBooks;
+    }
+
+    /**
+     * Returns the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @return the filtered and sorted books.
+     */
+    public Books filterBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod) {
+        return this.filterBooks(title,authors,isbn,publisher,sortingMethod,0,Integer.MAX_VALUE).getBooks();
+    }
+
+    /**
+     * Returns a page of the books for the given search, sorted by a method.
+     * Only the books up to the end of the page are sorted.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @param offset the amount of books before the page.
+     * @param limit the maximum amount of books in the page.
+     * @return the page of filtered and sorted books.
+     */
+    public BookPage filterBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod,int offset,int limit) {
+        return this.filterBooks(title,authors,isbn,publisher,sortingMethod,offset,limit,EnumSet.noneOf(FacetCounts.Facet.class));
+    }
+
+    /**
+     * Returns a page of the books for the given search, sorted by a method,
+     * with the facet counts of all of the books that matched.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @param offset the amount of books before the page.
+     * @param limit the maximum amount of books in the page.
+     * @param facets the facets to count. If empty, no facets are counted.
+     * @return the page of filtered and sorted books.
+     */
+    public BookPage filterBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod,int offset,int limit,Set<FacetCounts.Facet> facets) {
+        int[] positions = this.findPositions(title,authors,isbn,publisher).toArray();
+
+        // Count the facets of the matched books.
+        FacetCounts facetCounts = null;
+        if (!facets.isEmpty()) {
+            facetCounts = new FacetCounts(facets);
+            for (int position : positions) {
+                facetCounts.add(this.books.get(position));
+            }
+        }
+
+        // Sort the positions up to the end of the page and return the page.
+        int count = (int) Math.min((long) offset + limit,positions.length);
+        int[] sortedPositions = this.sortedViews.select(positions,sortingMethod,count);
+        Books pageBooks = new Books();
+        for (int i = offset; i < sortedPositions.length; i++) {
+            pageBooks.add(this.books.get(sortedPositions[i]));
+        }
+        return new BookPage(pageBooks,positions.length,facetCounts);
+    }
+}
@@ -0,0 +1,107 @@
+package books.search;
+
+import books.Author;
+import books.Book;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts of the results of a search by author, publisher, year
+ * published and availability. The counts are added from the books
+ * that matched the search, so no search is run for each facet.
+ *
+ * @author Zachary Cook
+ */
+public class FacetCounts {
+    /**
+     * The facets that can be counted.
+     */
+    public enum Facet {
+        AUTHOR,
+        PUBLISHER,
+        YEAR,
+        AVAILABILITY
+    }
+
+    private EnumMap<Facet,HashMap<String,Integer>> counts;
+
+    /**
+     * Creates empty counts.
+     *
+     * @param facets the facets to count.
+     */
+    public FacetCounts(Set<Facet> facets) {
+        this.counts = new EnumMap<>(Facet.class);
+        for (Facet facet : facets) {
+            this.counts.put(facet,new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds one to the count of a value.
+     *
+     * @param facet the facet of the value.
+     * @param value the value to count.
+     */
+    private void increment(Facet facet,String value) {
+        this.counts.get(facet).merge(value,1,Integer::sum);
+    }
+
+    /**
+     * Adds a book that matched the search.
+     *
+     * @param book the book to add.
+     */
+    public void add(Book book) {
+        if (this.counts.containsKey(Facet.AUTHOR)) {
+            for (Author author : book.getAuthorsView()) {
+                this.increment(Facet.AUTHOR,author.getName());
+            }
+        }
+        if (this.counts.containsKey(Facet.PUBLISHER) && book.getPublisher() != null && book.getPublisher().getName() != null) {
+            this.increment(Facet.PUBLISHER,book.getPublisher().getName());
+        }
+        if (this.counts.containsKey(Facet.YEAR)) {
+            this.increment(Facet.YEAR,Integer.toString(book.getPublishedDate().getYear()));
+        }
+        if (this.counts.containsKey(Facet.AVAILABILITY)) {
+            this.increment(Facet.AVAILABILITY,(book.getNumCopies() > book.getNumCopiesCheckedOut() ? "available" : "unavailable"));
+        }
+    }
+
+    /**
+     * Returns the facets that are counted.
+     *
+     * @return the facets that are counted.
+     */
+    public Set<Facet> getFacets() {
+        return this.counts.keySet();
+    }
+
+    /**
+     * Returns the most common values of a facet, with the largest count
+     * first. Values with the same count are ordered by value.
+     *
+     * @param facet the facet to return.
+     * @param maxValues the most values to return.
+     * @return the values and their counts.
+     */
+    public List<Map.Entry<String,Integer>> getTopCounts(Facet facet,int maxValues) {
+        HashMap<String,Integer> facetCounts = this.counts.get(facet);
+        if (facetCounts == null) {
+            return Collections.emptyList();
+        }
+        ArrayList<Map.Entry<String,Integer>> entries = new ArrayList<>(facetCounts.entrySet());
+        entries.sort((entry,otherEntry) -> {
+            int compare = Integer.compare(otherEntry.getValue(),entry.getValue());
+            return (compare != 0 ? compare : entry.getKey().compareTo(otherEntry.getKey()));
+        });
+        return entries.subList(0,Math.min(maxValues,entries.size()));
+    }
+}
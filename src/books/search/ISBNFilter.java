@@ -40,7 +40,7 @@ public class ISBNFilter implements BookFilter {
 
         // Iterate through the books.
         for (Book book : this.bookFilter.filterBooks()) {
-            if (Long.toString(book.getISBN()).contains(this.filterString)) {
+            if (this.matches(book)) {
                 filteredBooks.add(book);
             }
         }
@@ -48,4 +48,15 @@ public class ISBNFilter implements BookFilter {
         // Return the books.
         return filteredBooks;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns if a book passes this filter.
+     *
+     * @param book the book to check.
+     * @return whether the book passes the filter.
+     */
+    @Override
+    public boolean matches(Book book) {
+        return this.filterString.equals("*") || Long.toString(book.getISBN()).contains(this.filterString);
+    }
+}
@@ -0,0 +1,151 @@
+package books.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * Index of the digits of the ISBN numbers of books. Every run of 1, 2
+ * and 3 digits of an ISBN number is stored in an array of posting lists
+ * indexed by the digits, so a search of up to 3 digits is a single
+ * list, and a longer search is the intersection of the lists of its
+ * runs of 3 digits.
+ *
+ * @author Zachary Cook
+ */
+class ISBNIndex {
+    // The longest run of digits that is indexed.
+    public static final int MAX_DIGITS = 3;
+
+    private PostingList[][] digits;
+
+    /**
+     * Creates an empty ISBN index.
+     */
+    ISBNIndex() {
+        this.digits = new PostingList[MAX_DIGITS + 1][];
+        int lists = 1;
+        for (int length = 1; length <= MAX_DIGITS; length++) {
+            lists *= 10;
+            this.digits[length] = new PostingList[lists];
+            for (int i = 0; i < lists; i++) {
+                this.digits[length][i] = new PostingList();
+            }
+        }
+    }
+
+    /**
+     * Returns if a string is only digits.
+     *
+     * @param string the string to check.
+     * @return whether the string is only digits.
+     */
+    private static boolean isDigits(String string) {
+        if (string.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            char character = string.charAt(i);
+            if (character < '0' || character > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of the digits in part of a string.
+     *
+     * @param string the string of the digits.
+     * @param start the start of the digits.
+     * @param end the end of the digits.
+     * @return the number of the digits, or -1 if a character isn't a digit.
+     */
+    private static int getNumber(String string,int start,int end) {
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            char character = string.charAt(i);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            number = (number * 10) + (character - '0');
+        }
+        return number;
+    }
+
+    /**
+     * Adds the ISBN number of a book.
+     *
+     * @param position the position of the book.
+     * @param isbn the ISBN number of the book.
+     */
+    void add(int position,long isbn) {
+        String isbnString = Long.toString(isbn);
+        for (int length = 1; length <= MAX_DIGITS; length++) {
+            for (int i = 0; i + length <= isbnString.length(); i++) {
+                int number = getNumber(isbnString,i,i + length);
+                if (number != -1) {
+                    this.digits[length][number].add(position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the most books with an ISBN number that can contain a
+     * string, which is the amount of books with its least common run
+     * of digits.
+     *
+     * @param search the string to search for.
+     * @return the most books that can contain it, or -1 if the string isn't only digits.
+     */
+    int estimate(String search) {
+        if (!isDigits(search)) {
+            return -1;
+        }
+        if (search.length() <= MAX_DIGITS) {
+            return this.digits[search.length()][getNumber(search,0,search.length())].size();
+        }
+
+        // Find the least common run of digits.
+        int estimate = Integer.MAX_VALUE;
+        for (int i = 0; i + MAX_DIGITS <= search.length(); i++) {
+            estimate = Math.min(estimate,this.digits[MAX_DIGITS][getNumber(search,i,i + MAX_DIGITS)].size());
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the positions of the books with an ISBN number that can
+     * contain a string. The books still need to be checked, since the
+     * runs of digits may be in a different order in the ISBN number.
+     *
+     * @param search the string to search for.
+     * @return the positions of the books, or null if the string isn't only digits.
+     */
+    PostingList find(String search) {
+        if (!isDigits(search)) {
+            return null;
+        }
+        if (search.length() <= MAX_DIGITS) {
+            return this.digits[search.length()][getNumber(search,0,search.length())];
+        }
+
+        // Get the posting lists of the runs of digits.
+        ArrayList<PostingList> postingLists = new ArrayList<>();
+        for (int i = 0; i + MAX_DIGITS <= search.length(); i++) {
+            postingLists.add(this.digits[MAX_DIGITS][getNumber(search,i,i + MAX_DIGITS)]);
+        }
+
+        // Intersect the posting lists, starting with the shortest.
+        Collections.sort(postingLists,Comparator.comparingInt(PostingList::size));
+        PostingList positions = null;
+        for (PostingList postingList : postingLists) {
+            positions = PostingList.intersect(positions,postingList);
+            if (positions.size() == 0) {
+                break;
+            }
+        }
+        return positions;
+    }
+}
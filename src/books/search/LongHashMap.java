@@ -0,0 +1,119 @@
+package books.search;
+
+/**
+ * Hash map from primitive long keys to values. Keys are stored in an
+ * array instead of as boxed Longs, and collisions are probed in the
+ * same array, so looking up a key doesn't create any objects.
+ *
+ * @author Zachary Cook
+ */
+public class LongHashMap<V> {
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * Creates an empty hash map.
+     */
+    public LongHashMap() {
+        this.keys = new long[16];
+        this.values = new Object[16];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the slot to start probing for a key at.
+     *
+     * @param key the key to hash.
+     * @param mask the mask of the size of the table.
+     * @return the slot of the key.
+     */
+    private static int getSlot(long key,int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the amount of keys.
+     *
+     * @return the amount of keys.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key the key to find.
+     * @return the value of the key, or null if it doesn't exist.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int mask = this.keys.length - 1;
+        int slot = getSlot(key,mask);
+        while (this.values[slot] != null) {
+            if (this.keys[slot] == key) {
+                return (V) this.values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Return null (not found).
+        return null;
+    }
+
+    /**
+     * Sets the value of a key if the key doesn't have a value.
+     *
+     * @param key the key to set.
+     * @param value the value to set. Can't be null.
+     * @return the existing value of the key, or null if the value was set.
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(long key,V value) {
+        // Grow the table if it is over half full.
+        if ((this.size + 1) * 2 > this.keys.length) {
+            this.resize(this.keys.length * 2);
+        }
+
+        // Find the key or an empty slot.
+        int mask = this.keys.length - 1;
+        int slot = getSlot(key,mask);
+        while (this.values[slot] != null) {
+            if (this.keys[slot] == key) {
+                return (V) this.values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Add the key.
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.size++;
+        return null;
+    }
+
+    /**
+     * Moves the keys to a larger table.
+     *
+     * @param capacity the new size of the table.
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = getSlot(oldKeys[i],mask);
+                while (this.values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+}
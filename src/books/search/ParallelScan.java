@@ -0,0 +1,114 @@
+package books.search;
+
+import books.Books;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Checks the candidates of a query plan against every predicate. When
+ * there are enough candidates, such as a search that no index can
+ * narrow, they are split into chunks that are checked in parallel.
+ * The positions of each chunk are merged in the order of the chunks,
+ * so the results are in the order of the list either way.
+ *
+ * @author Zachary Cook
+ */
+class ParallelScan {
+    // The amount of candidates above which the candidates are checked in parallel.
+    public static int PARALLEL_THRESHOLD = 50000;
+
+    // The amount of candidates in each chunk that is checked in parallel.
+    public static int CHUNK_BOOKS = 8192;
+
+    private Books books;
+    private ForkJoinPool pool;
+
+    /**
+     * Creates a scan of a list of books.
+     *
+     * @param books the books to scan.
+     */
+    ParallelScan(Books books) {
+        this(books,ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a scan of a list of books.
+     *
+     * @param books the books to scan.
+     * @param pool the pool to check the chunks with.
+     */
+    ParallelScan(Books books,ForkJoinPool pool) {
+        this.books = books;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the positions of the candidates in a range that pass every
+     * predicate of a plan.
+     *
+     * @param plan the plan to check the books with.
+     * @param candidates the positions of the candidates, or null for every book.
+     * @param start the index of the first candidate to check.
+     * @param end the index after the last candidate to check.
+     * @return the positions of the books that pass.
+     */
+    private PostingList scanRange(QueryPlan plan,PostingList candidates,int start,int end) {
+        PostingList positions = new PostingList();
+        for (int i = start; i < end; i++) {
+            int position = (candidates == null ? i : candidates.get(i));
+            if (plan.matches(this.books.get(position))) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the positions of the candidates that pass every predicate
+     * of a plan, in the order of the list.
+     *
+     * @param plan the plan to check the books with.
+     * @param candidates the positions of the candidates, or null for every book.
+     * @return the positions of the books that pass.
+     */
+    PostingList scan(QueryPlan plan,PostingList candidates) {
+        int candidateCount = (candidates == null ? this.books.size() : candidates.size());
+        if (candidateCount < PARALLEL_THRESHOLD) {
+            return this.scanRange(plan,candidates,0,candidateCount);
+        }
+
+        // Check the chunks in parallel.
+        plan.order();
+        ArrayList<Callable<PostingList>> tasks = new ArrayList<>();
+        for (int chunkStart = 0; chunkStart < candidateCount; chunkStart += CHUNK_BOOKS) {
+            int start = chunkStart;
+            int end = Math.min(chunkStart + CHUNK_BOOKS,candidateCount);
+            tasks.add(() -> this.scanRange(plan,candidates,start,end));
+        }
+        PostingList positions = new PostingList();
+        try {
+            for (Future<PostingList> future : this.pool.invokeAll(tasks)) {
+                // Merge the positions of the chunk.
+                PostingList chunkPositions = future.get();
+                for (int i = 0; i < chunkPositions.size(); i++) {
+                    positions.add(chunkPositions.get(i));
+                }
+            }
+        } catch (InterruptedException e) {
+            // Check the candidates on this thread if the chunks were interrupted.
+            Thread.currentThread().interrupt();
+            return this.scanRange(plan,candidates,0,candidateCount);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Chunk of the books could not be checked.",e.getCause());
+        }
+        return positions;
+    }
+}
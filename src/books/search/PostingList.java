@@ -0,0 +1,149 @@
+package books.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted list of the positions of the books that contain a key
+ * of an index. Positions are added in increasing order, since
+ * books are only appended to the lists that are indexed.
+ *
+ * @author Zachary Cook
+ */
+class PostingList {
+    private int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty posting list.
+     */
+    PostingList() {
+        this.positions = new int[4];
+        this.size = 0;
+    }
+
+    /**
+     * Creates a posting list from sorted positions.
+     *
+     * @param positions the sorted positions.
+     * @param size the amount of positions.
+     */
+    private PostingList(int[] positions,int size) {
+        this.positions = positions;
+        this.size = size;
+    }
+
+    /**
+     * Returns the amount of positions.
+     *
+     * @return the amount of positions.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the position at an index.
+     *
+     * @param index the index of the position.
+     * @return the position at the index.
+     */
+    int get(int index) {
+        return this.positions[index];
+    }
+
+    /**
+     * Returns the positions as an array.
+     *
+     * @return the positions.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(this.positions,this.size);
+    }
+
+    /**
+     * Adds a position. Positions that are not after the last
+     * position are ignored, so a book is only added once.
+     *
+     * @param position the position to add.
+     */
+    void add(int position) {
+        if (this.size > 0 && this.positions[this.size - 1] >= position) {
+            return;
+        }
+        if (this.size == this.positions.length) {
+            this.positions = Arrays.copyOf(this.positions,this.size * 2);
+        }
+        this.positions[this.size] = position;
+        this.size++;
+    }
+
+    /**
+     * Returns the positions in both lists. A null list contains
+     * every position.
+     *
+     * @param first the first list, or null.
+     * @param second the second list, or null.
+     * @return the positions in both lists, or null.
+     */
+    static PostingList intersect(PostingList first,PostingList second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+
+        // Merge the sorted positions.
+        int[] positions = new int[Math.min(first.size,second.size)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.size && j < second.size) {
+            if (first.positions[i] < second.positions[j]) {
+                i++;
+            } else if (first.positions[i] > second.positions[j]) {
+                j++;
+            } else {
+                positions[size] = first.positions[i];
+                size++;
+                i++;
+                j++;
+            }
+        }
+        return new PostingList(positions,size);
+    }
+
+    /**
+     * Returns the positions in any of the lists.
+     *
+     * @param lists the lists to combine.
+     * @return the positions in any of the lists.
+     */
+    static PostingList union(List<PostingList> lists) {
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+
+        // Combine, sort, and remove the duplicate positions.
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+        int[] positions = new int[total];
+        int offset = 0;
+        for (PostingList list : lists) {
+            System.arraycopy(list.positions,0,positions,offset,list.size);
+            offset += list.size;
+        }
+        Arrays.sort(positions);
+        int size = 0;
+        for (int i = 0; i < total; i++) {
+            if (size == 0 || positions[size - 1] != positions[i]) {
+                positions[size] = positions[i];
+                size++;
+            }
+        }
+        return new PostingList(positions,size);
+    }
+}
@@ -11,6 +11,7 @@ import books.Books;
 public class PublisherFilter implements BookFilter {
     private BookFilter bookFilter;
     private String filterString;
+    private String lowercaseFilterString;
 
     /**
      * Creates the filter.
@@ -21,6 +22,7 @@ public class PublisherFilter implements BookFilter {
     public PublisherFilter(BookFilter subFilter,String filterString) {
         this.bookFilter = subFilter;
         this.filterString = filterString;
+        this.lowercaseFilterString = filterString.toLowerCase();
     }
 
     /**
@@ -40,7 +42,7 @@ public class PublisherFilter implements BookFilter {
 
         // Iterate through the books.
         for (Book book : this.bookFilter.filterBooks()) {
-            if (book.getPublisher().toString().toLowerCase().contains(this.filterString.toLowerCase())) {
+            if (this.matches(book)) {
                 filteredBooks.add(book);
             }
         }
@@ -48,4 +50,15 @@ public class PublisherFilter implements BookFilter {
         // Return the books.
         return filteredBooks;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns if a book passes this filter.
+     *
+     * @param book the book to check.
+     * @return whether the book passes the filter.
+     */
+    @Override
+    public boolean matches(Book book) {
+        return this.filterString.equals("*") || book.getLowercasePublisher().contains(this.lowercaseFilterString);
+    }
+}
@@ -0,0 +1,131 @@
+package books.search;
+
+import books.Book;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.function.Supplier;
+
+/**
+ * Plan for running a search through the indexes of a list of books.
+ * Each predicate of the search has an estimate of the most books that
+ * pass it, taken from the sizes of the posting lists. Only the most
+ * selective predicate is run through its index, and every candidate is
+ * then checked against all of the predicates in one pass, most
+ * selective first, without creating a list for each filter.
+ *
+ * @author Zachary Cook
+ */
+class QueryPlan {
+    /**
+     * Predicate of a search.
+     */
+    private static class Predicate {
+        private BookFilter filter;
+        private int estimate;
+        private Supplier<PostingList> positions;
+
+        /**
+         * Creates a predicate.
+         *
+         * @param filter the filter that checks the books.
+         * @param estimate the most books that pass the filter.
+         * @param positions the positions of the books that can pass the filter, or null if there is no index.
+         */
+        private Predicate(BookFilter filter,int estimate,Supplier<PostingList> positions) {
+            this.filter = filter;
+            this.estimate = estimate;
+            this.positions = positions;
+        }
+    }
+
+    // The fraction of the books above which scanning every book is cheaper than the index.
+    public static int SCAN_FRACTION = 4;
+
+    private int totalBooks;
+    private ArrayList<Predicate> predicates;
+    private boolean ordered;
+
+    /**
+     * Creates an empty query plan.
+     *
+     * @param totalBooks the amount of books that are searched.
+     */
+    QueryPlan(int totalBooks) {
+        this.totalBooks = totalBooks;
+        this.predicates = new ArrayList<>();
+        this.ordered = true;
+    }
+
+    /**
+     * Adds a predicate that can't be narrowed by an index.
+     *
+     * @param filter the filter that checks the books.
+     */
+    void addPredicate(BookFilter filter) {
+        this.predicates.add(new Predicate(filter,Integer.MAX_VALUE,null));
+        this.ordered = false;
+    }
+
+    /**
+     * Adds a predicate that can be narrowed by an index.
+     *
+     * @param filter the filter that checks the books.
+     * @param estimate the most books that pass the filter, or -1 if the index can't narrow it.
+     * @param positions the positions of the books that can pass the filter.
+     */
+    void addPredicate(BookFilter filter,int estimate,Supplier<PostingList> positions) {
+        if (estimate == -1) {
+            this.addPredicate(filter);
+            return;
+        }
+        this.predicates.add(new Predicate(filter,estimate,positions));
+        this.ordered = false;
+    }
+
+    /**
+     * Orders the predicates by the most selective first. This is
+     * done before the plan is checked by more than one thread.
+     */
+    void order() {
+        if (!this.ordered) {
+            Collections.sort(this.predicates,Comparator.comparingInt(predicate -> predicate.estimate));
+            this.ordered = true;
+        }
+    }
+
+    /**
+     * Returns the positions of the books that can match, from the
+     * index of the most selective predicate. If the predicate can
+     * match a large part of the books, every book is checked instead.
+     *
+     * @return the positions of the books, or null if every book should be checked.
+     */
+    PostingList getCandidates() {
+        this.order();
+        if (this.predicates.isEmpty() || this.predicates.get(0).positions == null) {
+            return null;
+        }
+        if ((long) this.predicates.get(0).estimate * SCAN_FRACTION >= this.totalBooks) {
+            return null;
+        }
+        return this.predicates.get(0).positions.get();
+    }
+
+    /**
+     * Returns if a book passes every predicate.
+     *
+     * @param book the book to check.
+     * @return whether the book passes every predicate.
+     */
+    boolean matches(Book book) {
+        this.order();
+        for (Predicate predicate : this.predicates) {
+            if (!predicate.filter.matches(book)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
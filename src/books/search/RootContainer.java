@@ -1,5 +1,6 @@
 package books.search;
 
+import books.Book;
 import books.Books;
 
 /**
@@ -29,4 +30,16 @@ public class RootContainer implements BookFilter {
     public Books filterBooks() {
         return this.books;
     }
+
+    /**
+     * Returns if a book passes this filter. Every book passes,
+     * since no filter is applied.
+     *
+     * @param book the book to check.
+     * @return whether the book passes the filter.
+     */
+    @Override
+    public boolean matches(Book book) {
+        return true;
+    }
 }
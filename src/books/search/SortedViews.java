@@ -0,0 +1,238 @@
+package books.search;
+
+import books.Book;
+import books.Books;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Orders of a list of books by title and by publish date. Each order
+ * is kept as the positions of the books in order, and the rank of each
+ * position in that order, so search results are sorted by comparing
+ * ints instead of lowercasing titles or converting dates. Ties are
+ * ordered by position, the same as a stable sort of the list. The
+ * orders are rebuilt after books are added to the list.
+ *
+ * @author Zachary Cook
+ */
+class SortedViews {
+    // The fraction of the books above which the results are taken from the order instead of sorted.
+    public static final int MERGE_FRACTION = 8;
+
+    private Books books;
+    private int sortedBooks;
+    private int[] titleOrder;
+    private int[] titleRanks;
+    private int[] dateOrder;
+    private int[] dateRanks;
+
+    /**
+     * Creates the orders of a list of books.
+     *
+     * @param books the books to order.
+     */
+    SortedViews(Books books) {
+        this.books = books;
+        this.sortedBooks = -1;
+    }
+
+    /**
+     * Returns the ranks of the positions of an order.
+     *
+     * @param order the positions in order.
+     * @return the rank of each position.
+     */
+    private static int[] getRanks(int[] order) {
+        int[] ranks = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ranks[order[i]] = i;
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns the positions of the books in order.
+     *
+     * @param comparator the comparator of the positions.
+     * @return the positions in order.
+     */
+    private int[] getOrder(Comparator<Integer> comparator) {
+        Integer[] positions = new Integer[this.sortedBooks];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        Arrays.sort(positions,comparator.thenComparingInt(position -> position));
+        int[] order = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            order[i] = positions[i];
+        }
+        return order;
+    }
+
+    /**
+     * Rebuilds the orders if books were added.
+     */
+    private void update() {
+        if (this.sortedBooks == this.books.size()) {
+            return;
+        }
+        this.sortedBooks = this.books.size();
+
+        // Create the keys of the books.
+        String[] titles = new String[this.sortedBooks];
+        long[] dates = new long[this.sortedBooks];
+        for (int i = 0; i < this.sortedBooks; i++) {
+            Book book = this.books.get(i);
+            titles[i] = book.getLowercaseName();
+            dates[i] = book.getPublishedDate().getEpochSeconds();
+        }
+
+        // Order the books by title, and by newest publish date.
+        this.titleOrder = this.getOrder((position,otherPosition) -> titles[position].compareTo(titles[otherPosition]));
+        this.titleRanks = getRanks(this.titleOrder);
+        this.dateOrder = this.getOrder((position,otherPosition) -> Long.compare(dates[otherPosition],dates[position]));
+        this.dateRanks = getRanks(this.dateOrder);
+    }
+
+    /**
+     * Returns the packed keys of positions. Each key is the rank or
+     * other int key of a position followed by the position, so ties
+     * are ordered by position.
+     *
+     * @param positions the positions to get the keys of.
+     * @param method the method to sort by.
+     * @return the packed keys of the positions.
+     */
+    private long[] getPackedKeys(int[] positions,Books.SortingMethod method) {
+        long[] packedKeys = new long[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            int key;
+            if (method == Books.SortingMethod.TITLE) {
+                key = this.titleRanks[positions[i]];
+            } else if (method == Books.SortingMethod.PUBLISH_DATE) {
+                key = this.dateRanks[positions[i]];
+            } else {
+                // Sort by the most copies available, which changes as books are borrowed.
+                Book book = this.books.get(positions[i]);
+                key = book.getNumCopiesCheckedOut() - book.getNumCopies();
+            }
+            packedKeys[i] = ((long) key << 32) | positions[i];
+        }
+        return packedKeys;
+    }
+
+    /**
+     * Moves a key of a heap down until it is larger than its children.
+     *
+     * @param heap the keys of the heap.
+     * @param index the index of the key to move.
+     */
+    private static void siftDown(long[] heap,int index) {
+        while (true) {
+            int largest = index;
+            int left = (index * 2) + 1;
+            int right = left + 1;
+            if (left < heap.length && heap[left] > heap[largest]) {
+                largest = left;
+            }
+            if (right < heap.length && heap[right] > heap[largest]) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            long key = heap[index];
+            heap[index] = heap[largest];
+            heap[largest] = key;
+            index = largest;
+        }
+    }
+
+    /**
+     * Returns the smallest packed keys in order. The keys are kept in a
+     * heap of the count, so the other keys are never sorted.
+     *
+     * @param packedKeys the packed keys to select from.
+     * @param count the amount of keys to return.
+     * @return the smallest keys in order.
+     */
+    private static long[] selectSmallest(long[] packedKeys,int count) {
+        if (count >= packedKeys.length) {
+            Arrays.sort(packedKeys);
+            return packedKeys;
+        }
+
+        // Keep the smallest keys in a heap with the largest key first.
+        long[] heap = Arrays.copyOf(packedKeys,count);
+        for (int i = (count / 2) - 1; i >= 0; i--) {
+            siftDown(heap,i);
+        }
+        for (int i = count; i < packedKeys.length; i++) {
+            if (count > 0 && packedKeys[i] < heap[0]) {
+                heap[0] = packedKeys[i];
+                siftDown(heap,0);
+            }
+        }
+
+        // Sort the smallest keys.
+        Arrays.sort(heap);
+        return heap;
+    }
+
+    /**
+     * Returns the first positions of an order that are in a list
+     * of positions.
+     *
+     * @param positions the distinct positions to select from.
+     * @param order the positions in order.
+     * @param count the amount of positions to return.
+     * @return the first positions in order.
+     */
+    private static int[] selectFromOrder(int[] positions,int[] order,int count) {
+        boolean[] found = new boolean[order.length];
+        for (int position : positions) {
+            found[position] = true;
+        }
+        int[] selectedPositions = new int[Math.min(count,positions.length)];
+        int size = 0;
+        for (int i = 0; i < order.length && size < selectedPositions.length; i++) {
+            if (found[order[i]]) {
+                selectedPositions[size] = order[i];
+                size++;
+            }
+        }
+        return selectedPositions;
+    }
+
+    /**
+     * Returns the first positions of books when sorted. If the positions
+     * are a large part of the books, they are taken from the order of the
+     * books instead of compared.
+     *
+     * @param positions the distinct positions to sort.
+     * @param method the method to sort by.
+     * @param count the amount of positions to return.
+     * @return the first positions in order.
+     */
+    int[] select(int[] positions,Books.SortingMethod method,int count) {
+        this.update();
+
+        // Take the positions from the order of the books.
+        if (positions.length * MERGE_FRACTION >= this.sortedBooks) {
+            if (method == Books.SortingMethod.TITLE) {
+                return selectFromOrder(positions,this.titleOrder,count);
+            } else if (method == Books.SortingMethod.PUBLISH_DATE) {
+                return selectFromOrder(positions,this.dateOrder,count);
+            }
+        }
+
+        // Select the smallest keys.
+        long[] packedKeys = selectSmallest(this.getPackedKeys(positions,method),count);
+        int[] selectedPositions = new int[packedKeys.length];
+        for (int i = 0; i < packedKeys.length; i++) {
+            selectedPositions[i] = (int) packedKeys[i];
+        }
+        return selectedPositions;
+    }
+}
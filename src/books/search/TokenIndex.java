@@ -0,0 +1,191 @@
+package books.search;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index of the lowercase words of a field of books. A
+ * word is a run of letters and digits. Words are stored in order and
+ * reversed, so words that start or end with a string are found as a
+ * range instead of scanning every word.
+ *
+ * The index only narrows down the books that can contain a string. A
+ * string contained in a field is split into words the same way: its
+ * inner words are whole words of the field, its first word is the end
+ * of a word, and its last word is the start of a word.
+ *
+ * @author Zachary Cook
+ */
+class TokenIndex {
+    private TreeMap<String,PostingList> words;
+    private TreeMap<String,PostingList> reversedWords;
+
+    /**
+     * Creates an empty token index.
+     */
+    TokenIndex() {
+        this.words = new TreeMap<>();
+        this.reversedWords = new TreeMap<>();
+    }
+
+    /**
+     * Returns the words of a lowercase string.
+     *
+     * @param string the string to split.
+     * @return the words of the string.
+     */
+    static ArrayList<String> getWords(String string) {
+        ArrayList<String> words = new ArrayList<>();
+        int wordStart = -1;
+        for (int i = 0; i <= string.length(); i++) {
+            boolean wordCharacter = i < string.length() && Character.isLetterOrDigit(string.charAt(i));
+            if (wordCharacter && wordStart == -1) {
+                wordStart = i;
+            } else if (!wordCharacter && wordStart != -1) {
+                words.add(string.substring(wordStart,i));
+                wordStart = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Adds the words of a field of a book.
+     *
+     * @param position the position of the book.
+     * @param field the field of the book.
+     */
+    void add(int position,String field) {
+        for (String word : getWords(field.toLowerCase())) {
+            PostingList postingList = this.words.get(word);
+            if (postingList == null) {
+                postingList = new PostingList();
+                this.words.put(word,postingList);
+                this.reversedWords.put(new StringBuilder(word).reverse().toString(),postingList);
+            }
+            postingList.add(position);
+        }
+    }
+
+    /**
+     * Returns the posting lists of the keys that start with a prefix.
+     *
+     * @param map the map to search.
+     * @param prefix the prefix of the keys.
+     * @return the posting lists of the keys.
+     */
+    private static ArrayList<PostingList> getPrefixed(TreeMap<String,PostingList> map,String prefix) {
+        SortedMap<String,PostingList> range = map.subMap(prefix,prefix + Character.MAX_VALUE);
+        return new ArrayList<>(range.values());
+    }
+
+    /**
+     * Returns the posting lists of the words that match a word
+     * of a search.
+     *
+     * @param word the word of the search.
+     * @param matchesStart whether the word must match the start of a word.
+     * @param matchesEnd whether the word must match the end of a word.
+     * @return the posting lists of the words.
+     */
+    private ArrayList<PostingList> getPostingLists(String word,boolean matchesStart,boolean matchesEnd) {
+        ArrayList<PostingList> postingLists = new ArrayList<>();
+        if (matchesStart && matchesEnd) {
+            PostingList postingList = this.words.get(word);
+            if (postingList != null) {
+                postingLists.add(postingList);
+            }
+        } else if (matchesStart) {
+            postingLists = getPrefixed(this.words,word);
+        } else if (matchesEnd) {
+            postingLists = getPrefixed(this.reversedWords,new StringBuilder(word).reverse().toString());
+        } else {
+            for (Map.Entry<String,PostingList> entry : this.words.entrySet()) {
+                if (entry.getKey().contains(word)) {
+                    postingLists.add(entry.getValue());
+                }
+            }
+        }
+        return postingLists;
+    }
+
+    /**
+     * Returns the positions of the books with a word that matches
+     * a word of a search.
+     *
+     * @param word the word of the search.
+     * @param matchesStart whether the word must match the start of a word.
+     * @param matchesEnd whether the word must match the end of a word.
+     * @return the positions of the books.
+     */
+    private PostingList findWord(String word,boolean matchesStart,boolean matchesEnd) {
+        ArrayList<PostingList> postingLists = this.getPostingLists(word,matchesStart,matchesEnd);
+        if (postingLists.isEmpty()) {
+            return new PostingList();
+        }
+        return PostingList.union(postingLists);
+    }
+
+    /**
+     * Returns the most books that can contain a string, which is the
+     * least amount of postings of the words of the string. The posting
+     * lists aren't combined, so a book can be counted more than once.
+     *
+     * @param search the string to search for.
+     * @return the most books that can contain it, or -1 if every book can contain it.
+     */
+    int estimate(String search) {
+        String lowercaseSearch = search.toLowerCase();
+        ArrayList<String> searchWords = getWords(lowercaseSearch);
+        if (searchWords.isEmpty()) {
+            return -1;
+        }
+
+        // Find the least amount of postings of the words.
+        boolean startsInWord = Character.isLetterOrDigit(lowercaseSearch.charAt(0));
+        boolean endsInWord = Character.isLetterOrDigit(lowercaseSearch.charAt(lowercaseSearch.length() - 1));
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < searchWords.size(); i++) {
+            boolean matchesStart = (i > 0 || !startsInWord);
+            boolean matchesEnd = (i < searchWords.size() - 1 || !endsInWord);
+            long postings = 0;
+            for (PostingList postingList : this.getPostingLists(searchWords.get(i),matchesStart,matchesEnd)) {
+                postings += postingList.size();
+            }
+            estimate = Math.min(estimate,postings);
+        }
+        return (int) Math.min(estimate,Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the positions of the books that can contain a string.
+     * The books still need to be checked, since the words of the
+     * string may be in a different order in the field.
+     *
+     * @param search the string to search for.
+     * @return the positions of the books, or null if every book can contain it.
+     */
+    PostingList find(String search) {
+        String lowercaseSearch = search.toLowerCase();
+        ArrayList<String> searchWords = getWords(lowercaseSearch);
+        if (searchWords.isEmpty()) {
+            return null;
+        }
+
+        // Intersect the books of each word.
+        boolean startsInWord = Character.isLetterOrDigit(lowercaseSearch.charAt(0));
+        boolean endsInWord = Character.isLetterOrDigit(lowercaseSearch.charAt(lowercaseSearch.length() - 1));
+        PostingList positions = null;
+        for (int i = 0; i < searchWords.size(); i++) {
+            boolean matchesStart = (i > 0 || !startsInWord);
+            boolean matchesEnd = (i < searchWords.size() - 1 || !endsInWord);
+            positions = PostingList.intersect(positions,this.findWord(searchWords.get(i),matchesStart,matchesEnd));
+            if (positions.size() == 0) {
+                break;
+            }
+        }
+        return positions;
+    }
+}
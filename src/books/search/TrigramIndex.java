@@ -0,0 +1,124 @@
+package books.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Index of the trigrams (every 3 characters in a row) of the lowercase
+ * fields of books. A field contains a string only if it contains every
+ * trigram of the string, so substrings inside of words, like "unn" in
+ * "Running", are found without scanning every field.
+ *
+ * @author Zachary Cook
+ */
+class TrigramIndex {
+    // The length of the trigrams.
+    public static final int GRAM_LENGTH = 3;
+
+    private HashMap<Long,PostingList> trigrams;
+
+    /**
+     * Creates an empty trigram index.
+     */
+    TrigramIndex() {
+        this.trigrams = new HashMap<>();
+    }
+
+    /**
+     * Returns the key of the trigram at an index of a string.
+     *
+     * @param string the string of the trigram.
+     * @param index the start of the trigram.
+     * @return the key of the trigram.
+     */
+    static long getKey(String string,int index) {
+        return ((long) string.charAt(index) << 32) | ((long) string.charAt(index + 1) << 16) | string.charAt(index + 2);
+    }
+
+    /**
+     * Adds the trigrams of a field of a book.
+     *
+     * @param position the position of the book.
+     * @param field the field of the book.
+     */
+    void add(int position,String field) {
+        String lowercaseField = field.toLowerCase();
+        for (int i = 0; i + GRAM_LENGTH <= lowercaseField.length(); i++) {
+            long key = getKey(lowercaseField,i);
+            PostingList postingList = this.trigrams.get(key);
+            if (postingList == null) {
+                postingList = new PostingList();
+                this.trigrams.put(key,postingList);
+            }
+            postingList.add(position);
+        }
+    }
+
+    /**
+     * Returns the most books that can contain a string, which is the
+     * amount of books with its least common trigram.
+     *
+     * @param search the string to search for.
+     * @return the most books that can contain it, or -1 if the string is too short to have trigrams.
+     */
+    int estimate(String search) {
+        String lowercaseSearch = search.toLowerCase();
+        if (lowercaseSearch.length() < GRAM_LENGTH) {
+            return -1;
+        }
+
+        // Find the least common trigram.
+        int estimate = Integer.MAX_VALUE;
+        for (int i = 0; i + GRAM_LENGTH <= lowercaseSearch.length(); i++) {
+            PostingList postingList = this.trigrams.get(getKey(lowercaseSearch,i));
+            if (postingList == null) {
+                return 0;
+            }
+            estimate = Math.min(estimate,postingList.size());
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the positions of the books that can contain a string.
+     * The books still need to be checked, since the trigrams may be
+     * in a different order in the field.
+     *
+     * @param search the string to search for.
+     * @return the positions of the books, or null if the string is too short to have trigrams.
+     */
+    PostingList find(String search) {
+        String lowercaseSearch = search.toLowerCase();
+        if (lowercaseSearch.length() < GRAM_LENGTH) {
+            return null;
+        }
+
+        // Get the posting lists of the trigrams.
+        HashSet<Long> keys = new HashSet<>();
+        ArrayList<PostingList> postingLists = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= lowercaseSearch.length(); i++) {
+            long key = getKey(lowercaseSearch,i);
+            if (keys.add(key)) {
+                PostingList postingList = this.trigrams.get(key);
+                if (postingList == null) {
+                    return new PostingList();
+                }
+                postingLists.add(postingList);
+            }
+        }
+
+        // Intersect the posting lists, starting with the shortest.
+        Collections.sort(postingLists,Comparator.comparingInt(PostingList::size));
+        PostingList positions = null;
+        for (PostingList postingList : postingLists) {
+            positions = PostingList.intersect(positions,postingList);
+            if (positions.size() == 0) {
+                break;
+            }
+        }
+        return positions;
+    }
+}
@@ -1,6 +1,7 @@
 package books.store;
 
 import books.Book;
+import books.BookPage;
 import books.Books;
 
 import java.io.Serializable;
@@ -12,6 +13,8 @@ import java.io.Serializable;
  * @author Zachary Cook
  */
 public class BookStore implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 7905303453148726822L;
 
     /**
      * Services that can be used for searching.
@@ -38,6 +41,48 @@ public class BookStore implements Serializable {
         this.googleSearch = new GoogleSearch(books);
     }
 
+    /**
+     * Creates the book store with existing books.
+     *
+     * @param books the main list of books.
+     * @param currentService the current service.
+     * @param localSearch the local search that uses the books.
+     * @param googleSearch the Google search that uses the books.
+     */
+    public BookStore(Books books,SearchService currentService,StoreSearchService localSearch,StoreSearchService googleSearch) {
+        this.books = books;
+        this.currentService = currentService;
+        this.localSearch = localSearch;
+        this.googleSearch = googleSearch;
+    }
+
+    /**
+     * Returns the main list of books, ordered by id.
+     *
+     * @return the main list of books.
+     */
+    public Books getBooks() {
+        return this.books;
+    }
+
+    /**
+     * Returns the local search service.
+     *
+     * @return the local search service.
+     */
+    public StoreSearchService getLocalSearch() {
+        return this.localSearch;
+    }
+
+    /**
+     * Returns the Google search service.
+     *
+     * @return the Google search service.
+     */
+    public StoreSearchService getGoogleSearch() {
+        return this.googleSearch;
+    }
+
     /**
      * Sets the current service.
      *
@@ -47,6 +92,15 @@ public class BookStore implements Serializable {
         this.currentService = service;
     }
 
+    /**
+     * Returns the type of the current book search service.
+     *
+     * @return the type of the current book search service.
+     */
+    public SearchService getCurrentSearchService() {
+        return this.currentService;
+    }
+
     /**
      * Returns the current book search service.
      *
@@ -63,12 +117,26 @@ public class BookStore implements Serializable {
     }
 
     /**
-     * Returns the book for a given id.
+     * Returns the book for a given id. The searches give each book the
+     * next id when they add it to the main list, so the book with an id
+     * is at the position before it.
      *
      * @param id the id to return.
      * @return the book with the id.
      */
     public Book getBook(int id) {
+        // Return null if the id isn't in the list.
+        if (id < 1 || id > this.books.size()) {
+            return null;
+        }
+
+        // Return the book at the position of the id.
+        Book book = this.books.get(id - 1);
+        if (book.getId() == id) {
+            return book;
+        }
+
+        // Find the book if the list isn't ordered by id.
         return this.books.getBookById(id);
     }
 
@@ -84,4 +152,34 @@ public class BookStore implements Serializable {
     public Books getBooks(String title,String authors,String isbn,String publisher) {
         return this.getSearchService().getBooks(title,authors,isbn,publisher);
     }
+
+    /**
+     * Returns the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @return the filtered and sorted books.
+     */
+    public Books getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod) {
+        return this.getSearchService().getBooks(title,authors,isbn,publisher,sortingMethod);
+    }
+
+    /**
+     * Returns a page of the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @param offset the amount of books before the page.
+     * @param limit the maximum amount of books in the page.
+     * @return the page of filtered and sorted books.
+     */
+    public BookPage getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod,int offset,int limit) {
+        return this.getSearchService().getBooks(title,authors,isbn,publisher,sortingMethod,offset,limit);
+    }
 }
@@ -0,0 +1,401 @@
+package books.store;
+
+import books.Author;
+import books.Publisher;
+import system.CSVTokenizer;
+import time.Date;
+import user.Name;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Imports the books of a catalog file into a book store. The file
+ * is memory mapped and split into chunks at line breaks. The chunks
+ * are parsed in parallel, and the books are added in the order of the
+ * file so the ids are the same as importing the lines one at a time.
+ * Lines that can't be parsed are added to the rejects instead of
+ * stopping the import.
+ *
+ * @author Zachary Cook
+ */
+public class CatalogImporter {
+    // The size of the chunks of the file that are parsed in parallel.
+    public static int CHUNK_SIZE = 1024 * 1024;
+
+    private File file;
+    private ForkJoinPool pool;
+    private ArrayList<Reject> rejects;
+
+    /**
+     * Line of a catalog that couldn't be parsed.
+     */
+    public static class Reject {
+        private long lineNumber;
+        private long offset;
+        private String reason;
+        private String line;
+
+        /**
+         * Creates a reject.
+         *
+         * @param lineNumber the number of the line, starting at 1.
+         * @param offset the byte offset of the line in the file.
+         * @param reason the reason the line was rejected.
+         * @param line the line that was rejected.
+         */
+        public Reject(long lineNumber,long offset,String reason,String line) {
+            this.lineNumber = lineNumber;
+            this.offset = offset;
+            this.reason = reason;
+            this.line = line;
+        }
+
+        /**
+         * Returns the number of the line, starting at 1.
+         *
+         * @return the number of the line.
+         */
+        public long getLineNumber() {
+            return this.lineNumber;
+        }
+
+        /**
+         * Returns the byte offset of the line in the file.
+         *
+         * @return the offset of the line.
+         */
+        public long getOffset() {
+            return this.offset;
+        }
+
+        /**
+         * Returns the reason the line was rejected.
+         *
+         * @return the reason the line was rejected.
+         */
+        public String getReason() {
+            return this.reason;
+        }
+
+        /**
+         * Returns the line that was rejected.
+         *
+         * @return the line that was rejected.
+         */
+        public String getLine() {
+            return this.line;
+        }
+
+        /**
+         * Returns a string representation of the object.
+         *
+         * @return a string representation of the object.
+         */
+        @Override
+        public String toString() {
+            return "Line " + this.lineNumber + " (offset " + this.offset + "): " + this.reason + "; ignoring: " + this.line;
+        }
+    }
+
+    /**
+     * Book parsed from a line of a catalog.
+     */
+    static class ParsedBook {
+        private long isbn;
+        private String name;
+        private ArrayList<Author> authors;
+        private Publisher publisher;
+        private Date date;
+        private int pageCount;
+
+        /**
+         * Adds the book to a book store.
+         *
+         * @param search the book store to add to.
+         */
+        void addTo(LocalSearch search) {
+            search.addBook(this.isbn,this.name,this.authors,this.publisher,this.date,this.pageCount);
+        }
+    }
+
+    /**
+     * Books and rejects of a chunk of a catalog.
+     */
+    private static class Chunk {
+        private ArrayList<ParsedBook> books = new ArrayList<>();
+        private ArrayList<Reject> rejects = new ArrayList<>();
+        private long lines;
+    }
+
+    /**
+     * Creates a catalog importer that uses the common pool.
+     *
+     * @param file the catalog file to import.
+     */
+    public CatalogImporter(File file) {
+        this(file,ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a catalog importer.
+     *
+     * @param file the catalog file to import.
+     * @param pool the pool to parse the chunks on.
+     */
+    public CatalogImporter(File file,ForkJoinPool pool) {
+        this.file = file;
+        this.pool = pool;
+        this.rejects = new ArrayList<>();
+    }
+
+    /**
+     * Returns the lines rejected by the last import, in the order of the file.
+     *
+     * @return the rejected lines.
+     */
+    public ArrayList<Reject> getRejects() {
+        return this.rejects;
+    }
+
+    /**
+     * Parses a line of a catalog.
+     *
+     * @param tokenizer the tokenizer to split the line with.
+     * @param line the line to parse.
+     * @param lineNumber the number of the line.
+     * @param offset the byte offset of the line.
+     * @param rejects the rejects to add to if the line is invalid.
+     * @return the parsed book, or null if the line was rejected.
+     */
+    static ParsedBook parseLine(CSVTokenizer tokenizer,String line,long lineNumber,long offset,List<Reject> rejects) {
+        // Split the string.
+        int fieldCount = tokenizer.tokenize(line);
+        if (fieldCount < 6) {
+            rejects.add(new Reject(lineNumber,offset,"Fields missing (" + fieldCount + " of 6)",line));
+            return null;
+        }
+        ParsedBook book = new ParsedBook();
+
+        // Parse the ISBN.
+        String isbnString = tokenizer.getString(0);
+        try {
+            book.isbn = Long.parseLong(isbnString);
+        } catch (NumberFormatException e) {
+            rejects.add(new Reject(lineNumber,offset,"ISBN number invalid (" + isbnString + ")",line));
+            return null;
+        }
+
+        // Parse the book name.
+        book.name = tokenizer.getString(1);
+
+        // Parse the authors.
+        book.authors = new ArrayList<>();
+        for (String authorName : tokenizer.getString(2).split(",")) {
+            book.authors.add(new Author(new Name(authorName)));
+        }
+
+        // Parse the publisher.
+        book.publisher = new Publisher(tokenizer.getString(3));
+
+        // Parse the published date.
+        String dateString = tokenizer.getString(4);
+        int year = 0;
+        int month = 1;
+        int day = 1;
+        try {
+            if (dateString.length() > 0) {
+                year = Integer.parseInt(dateString.substring(0,4));
+            }
+            if (dateString.length() > 4) {
+                month = Integer.parseInt(dateString.substring(5,7));
+            }
+            if (dateString.length() > 7) {
+                day = Integer.parseInt(dateString.substring(8,10));
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            rejects.add(new Reject(lineNumber,offset,"Published date invalid (" + dateString + ")",line));
+            return null;
+        }
+        book.date = new Date(month,day,year,0,0,0);
+
+        // Parse the page count.
+        String pageCountString = tokenizer.getString(5);
+        try {
+            book.pageCount = Integer.parseInt(pageCountString);
+        } catch (NumberFormatException e) {
+            rejects.add(new Reject(lineNumber,offset,"Page count invalid (" + pageCountString + ")",line));
+            return null;
+        }
+
+        // Return the book.
+        return book;
+    }
+
+    /**
+     * Returns the offsets the chunks of the file start at. Each
+     * chunk after the first starts after a line break.
+     *
+     * @param channel the channel of the file.
+     * @param size the size of the file.
+     * @return the start offsets of the chunks, followed by the size.
+     */
+    private static ArrayList<Long> getChunkOffsets(FileChannel channel,long size) throws IOException {
+        ArrayList<Long> offsets = new ArrayList<>();
+        offsets.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = CHUNK_SIZE;
+        while (position < size) {
+            // Find the next line break.
+            long lineEnd = -1;
+            while (lineEnd == -1 && position < size) {
+                buffer.clear();
+                int read = channel.read(buffer,position);
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        lineEnd = position + i;
+                        break;
+                    }
+                }
+                if (lineEnd == -1) {
+                    position += read;
+                }
+            }
+
+            // Add the chunk and move to the next.
+            if (lineEnd == -1 || lineEnd + 1 >= size) {
+                break;
+            }
+            offsets.add(lineEnd + 1);
+            position = lineEnd + 1 + CHUNK_SIZE;
+        }
+        offsets.add(size);
+        return offsets;
+    }
+
+    /**
+     * Parses a chunk of the file. The line numbers of the rejects
+     * are relative to the start of the chunk.
+     *
+     * @param channel the channel of the file.
+     * @param start the offset of the start of the chunk.
+     * @param end the offset of the end of the chunk.
+     * @return the parsed chunk.
+     */
+    private static Chunk parseChunk(FileChannel channel,long start,long end) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("Line at offset " + start + " is too long to import.");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,start,end - start);
+        Chunk chunk = new Chunk();
+        CSVTokenizer tokenizer = new CSVTokenizer();
+        byte[] lineBytes = new byte[256];
+        int lineStart = 0;
+        int limit = buffer.limit();
+        while (lineStart < limit) {
+            // Find the end of the line.
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int length = lineEnd - lineStart;
+            if (length > 0 && buffer.get(lineEnd - 1) == '\r') {
+                length--;
+            }
+            chunk.lines++;
+
+            // Parse the line, ignoring blank lines.
+            if (length > 0) {
+                if (lineBytes.length < length) {
+                    lineBytes = new byte[Math.max(length,lineBytes.length * 2)];
+                }
+                for (int i = 0; i < length; i++) {
+                    lineBytes[i] = buffer.get(lineStart + i);
+                }
+                String line = new String(lineBytes,0,length,StandardCharsets.UTF_8);
+                ParsedBook book = parseLine(tokenizer,line,chunk.lines,start + lineStart,chunk.rejects);
+                if (book != null) {
+                    chunk.books.add(book);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Imports the books of the file into the book store.
+     *
+     * @param search the book store to add the books to.
+     * @return the amount of books that were imported.
+     * @throws IOException if the file can't be read.
+     */
+    public int importBooks(LocalSearch search) throws IOException {
+        this.rejects = new ArrayList<>();
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file,"r")) {
+            FileChannel channel = randomAccessFile.getChannel();
+            ArrayList<Long> offsets = getChunkOffsets(channel,channel.size());
+
+            // Parse the chunks in parallel.
+            ArrayList<Callable<Chunk>> tasks = new ArrayList<>();
+            for (int i = 0; i < offsets.size() - 1; i++) {
+                long start = offsets.get(i);
+                long end = offsets.get(i + 1);
+                tasks.add(() -> parseChunk(channel,start,end));
+            }
+            for (Future<Chunk> future : this.pool.invokeAll(tasks)) {
+                try {
+                    chunks.add(future.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Import of the catalog was interrupted.",e);
+                } catch (ExecutionException e) {
+                    throw new IOException("Chunk of the catalog could not be parsed.",e.getCause());
+                }
+            }
+        }
+
+        // Add the books and rejects in the order of the file.
+        int importedBooks = 0;
+        long lineNumber = 0;
+        for (Chunk chunk : chunks) {
+            for (ParsedBook book : chunk.books) {
+                book.addTo(search);
+            }
+            for (Reject reject : chunk.rejects) {
+                this.rejects.add(new Reject(lineNumber + reject.getLineNumber(),reject.getOffset(),reject.getReason(),reject.getLine()));
+            }
+            importedBooks += chunk.books.size();
+            lineNumber += chunk.lines;
+        }
+        return importedBooks;
+    }
+
+    /**
+     * Writes the rejects of the last import as CSV lines of the
+     * line number, offset, reason, and line.
+     *
+     * @param reportFile the file to write to.
+     * @throws IOException if the file can't be written.
+     */
+    public void writeRejects(File reportFile) throws IOException {
+        try (PrintWriter writer = new PrintWriter(reportFile,"UTF-8")) {
+            for (Reject reject : this.rejects) {
+                writer.println(reject.getLineNumber() + "," + reject.getOffset() + ",\"" + reject.getReason() + "\"," + reject.getLine());
+            }
+        }
+    }
+}
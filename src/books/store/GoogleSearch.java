@@ -2,8 +2,10 @@ package books.store;
 
 import books.Author;
 import books.Book;
+import books.BookPage;
 import books.Books;
 import books.Publisher;
+import books.search.BookIndex;
 import com.google.gson.Gson;
 import time.Date;
 import user.Name;
@@ -25,8 +27,12 @@ import java.util.Map;
  * @author Zachary Cook
  */
 public class GoogleSearch implements StoreSearchService,Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -7481929174216039844L;
+
     private Books localStoreBooks;
     private Books sharedBooks;
+    private transient BookIndex index;
 
     /**
      * Creates the book store.
@@ -34,10 +40,30 @@ public class GoogleSearch implements StoreSearchService,Serializable {
      * @param books the main list of books.
      */
     public GoogleSearch(Books books) {
-        this.localStoreBooks = new Books();
+        this(books,new Books());
+    }
+
+    /**
+     * Creates the book store with existing books.
+     *
+     * @param books the main list of books.
+     * @param storeBooks the books added by the store.
+     */
+    public GoogleSearch(Books books,Books storeBooks) {
+        this.localStoreBooks = storeBooks;
         this.sharedBooks = books;
     }
 
+    /**
+     * Returns the books that were added by the store.
+     *
+     * @return the books added by the store.
+     */
+    @Override
+    public Books getStoreBooks() {
+        return this.localStoreBooks;
+    }
+
     /**
      * Adds a book to the book store.
      *
@@ -51,10 +77,9 @@ public class GoogleSearch implements StoreSearchService,Serializable {
      */
     public int addBook(long isbn,String name,ArrayList<Author> authors,Publisher publisher,Date date,int pageCount) {
         // Return if the book exists.
-        for (Book book : this.localStoreBooks) {
-            if (book.getISBN() == isbn) {
-                return book.getId();
-            }
+        Book existingBook = this.getIndex().getBook(isbn);
+        if (existingBook != null) {
+            return existingBook.getId();
         }
 
         // Add the book.
@@ -66,6 +91,18 @@ public class GoogleSearch implements StoreSearchService,Serializable {
         return book.getId();
     }
 
+    /**
+     * Returns the search index of the store books, creating it if needed.
+     *
+     * @return the search index of the store books.
+     */
+    private BookIndex getIndex() {
+        if (this.index == null) {
+            this.index = new BookIndex(this.localStoreBooks);
+        }
+        return this.index;
+    }
+
     /**
      * Returns the books for the given search.
      *
@@ -177,9 +214,8 @@ public class GoogleSearch implements StoreSearchService,Serializable {
 
                     // Add the book if the ISBN number is defined.
                     if (bookISBN != 0 && (isbn.equals("*") || Long.toString(bookISBN).contains(isbn))) {
-                        int bookId = this.addBook(bookISBN,bookName,bookAuthors,bookPublisher,bookPublishDate,pageCount);
-                        Book book = this.localStoreBooks.getBookById(bookId);
-                        foundBooks.add(book);
+                        this.addBook(bookISBN,bookName,bookAuthors,bookPublisher,bookPublishDate,pageCount);
+                        foundBooks.add(this.getIndex().getBook(bookISBN));
                     }
                 }
             }
@@ -188,4 +224,36 @@ public class GoogleSearch implements StoreSearchService,Serializable {
         // Return the found books.
         return foundBooks;
     }
+
+    /**
+     * Returns the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @return the filtered and sorted books.
+     */
+    public Books getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod) {
+        Books foundBooks = this.getBooks(title,authors,isbn,publisher);
+        foundBooks.sort(sortingMethod);
+        return foundBooks;
+    }
+
+    /**
+     * Returns a page of the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @param offset the amount of books before the page.
+     * @param limit the maximum amount of books in the page.
+     * @return the page of filtered and sorted books.
+     */
+    public BookPage getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod,int offset,int limit) {
+        return BookPage.fromBooks(this.getBooks(title,authors,isbn,publisher,sortingMethod),offset,limit);
+    }
 }
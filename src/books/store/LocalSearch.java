@@ -2,18 +2,17 @@ package books.store;
 
 import books.Author;
 import books.Book;
+import books.BookPage;
 import books.Books;
 import books.Publisher;
-import system.CSV;
+import books.search.BookIndex;
+import system.CSVTokenizer;
 import time.Date;
-import user.Name;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
 
 /**
  * Performs searching on the local book store.
@@ -21,11 +20,18 @@ import java.util.Arrays;
  * @author Zachary Cook
  */
 public class LocalSearch implements StoreSearchService,Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 2941596960033986043L;
+
     // The default file location of the book store file.
     public static String BOOK_STORE_FILE_LOCATION = "books.txt";
 
+    // The default file location of the books in the book store that couldn't be read.
+    public static String BOOK_STORE_REJECTS_LOCATION = "books_rejects.txt";
+
     private Books localStoreBooks;
     private Books sharedBooks;
+    private transient BookIndex index;
 
     /**
      * Creates the book store.
@@ -33,10 +39,30 @@ public class LocalSearch implements StoreSearchService,Serializable {
      * @param books the main list of books.
      */
     public LocalSearch(Books books) {
-        this.localStoreBooks = new Books();
+        this(books,new Books());
+    }
+
+    /**
+     * Creates the book store with existing books.
+     *
+     * @param books the main list of books.
+     * @param storeBooks the books added by the store.
+     */
+    public LocalSearch(Books books,Books storeBooks) {
+        this.localStoreBooks = storeBooks;
         this.sharedBooks = books;
     }
 
+    /**
+     * Returns the books that were added by the store.
+     *
+     * @return the books added by the store.
+     */
+    @Override
+    public Books getStoreBooks() {
+        return this.localStoreBooks;
+    }
+
     /**
      * Adds a book to the book store.
      *
@@ -51,6 +77,7 @@ public class LocalSearch implements StoreSearchService,Serializable {
         Book book = new Book(authors,publisher,isbn,date,pageCount,0,0,name,sharedBooks.size() + 1);
         this.localStoreBooks.add(book);
         this.sharedBooks.add(book);
+        this.getIndex().update();
     }
 
     /**
@@ -59,62 +86,16 @@ public class LocalSearch implements StoreSearchService,Serializable {
      * @param csvLine the line to parse.
      */
     public void addBookFromCSV(String csvLine) {
-        // Split the string.
-        ArrayList<String> entries = CSV.parseCSV(csvLine);
-
-        // Parse the ISBN.
-        long isbn;
-        try {
-            isbn = Long.parseLong(entries.get(0));
-        } catch (NumberFormatException e) {
-            System.out.println("ISBN number invalid (" + entries.get(0) + "); ignoring: " + csvLine);
-            return;
-        }
-
-        // Parse the book name.
-        String bookName = entries.get(1);
-
-        // Parse the authors.
-        String authorString = entries.get(2);
-        ArrayList<Author> authors = new ArrayList<>();
-        for (String authorName : Arrays.asList(authorString.split(","))) {
-            authors.add(new Author(new Name(authorName)));
-        }
-
-        // Parse the publisher.
-        String publisher = entries.get(3);
-
-        // Parse the published date.
-        String dateString = entries.get(4);
-        int year = 0;
-        int month = 1;
-        int day = 1;
-        try {
-            if (dateString.length() > 0) {
-                year = Integer.parseInt(dateString.substring(0,4));
-            }
-            if (dateString.length() > 4) {
-                month = Integer.parseInt(dateString.substring(5, 7));
-            }
-            if (dateString.length() > 7) {
-                day = Integer.parseInt(dateString.substring(8, 10));
-            }
-        } catch (NumberFormatException e) {
-            System.out.println("Page count invalid (" + entries.get(4) + ") ; ignoring: " + csvLine);
-            return;
-        }
-
-        // Parse the page count.
-        int pageCount;
-        try {
-            pageCount = Integer.parseInt(entries.get(5));
-        } catch (NumberFormatException e) {
-            System.out.println("Page count invalid (" + entries.get(5) + "); ignoring: " + csvLine);
+        // Parse the book.
+        ArrayList<CatalogImporter.Reject> rejects = new ArrayList<>();
+        CatalogImporter.ParsedBook book = CatalogImporter.parseLine(new CSVTokenizer(),csvLine,1,0,rejects);
+        if (book == null) {
+            System.out.println(rejects.get(0).getReason() + "; ignoring: " + csvLine);
             return;
         }
 
         // Add the book.
-        this.addBook(isbn,bookName,authors,new Publisher(publisher),new Date(month,day,year,0,0,0),pageCount);
+        book.addTo(this);
     }
 
     /**
@@ -127,7 +108,49 @@ public class LocalSearch implements StoreSearchService,Serializable {
      * @return the filtered books.
      */
     public Books getBooks(String title,String authors,String isbn,String publisher) {
-        return this.localStoreBooks.filterBooks(title,authors,isbn,publisher);
+        return this.getIndex().filterBooks(title,authors,isbn,publisher);
+    }
+
+    /**
+     * Returns the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @return the filtered and sorted books.
+     */
+    public Books getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod) {
+        return this.getIndex().filterBooks(title,authors,isbn,publisher,sortingMethod);
+    }
+
+    /**
+     * Returns a page of the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @param offset the amount of books before the page.
+     * @param limit the maximum amount of books in the page.
+     * @return the page of filtered and sorted books.
+     */
+    public BookPage getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod,int offset,int limit) {
+        return this.getIndex().filterBooks(title,authors,isbn,publisher,sortingMethod,offset,limit);
+    }
+
+    /**
+     * Returns the search index of the store books, creating it if needed.
+     *
+     * @return the search index of the store books.
+     */
+    private BookIndex getIndex() {
+        if (this.index == null) {
+            this.index = new BookIndex(this.localStoreBooks);
+        }
+        return this.index;
     }
 
     /**
@@ -139,25 +162,25 @@ public class LocalSearch implements StoreSearchService,Serializable {
         // Create the bookstore.
         LocalSearch bookSearch = new LocalSearch(books);
 
-        // Read the files by each line.
-        BufferedReader reader;
+        // Import the books.
+        CatalogImporter importer = new CatalogImporter(new File(BOOK_STORE_FILE_LOCATION));
         try {
-            // Create the reader.
-            reader = new BufferedReader(new FileReader(BOOK_STORE_FILE_LOCATION));
-
-            // Keep reading lines until the lines have ended.
-            String line = reader.readLine();
-            while (line != null) {
-                // Parse the book and add read the next line.
-                bookSearch.addBookFromCSV(line);
-                line = reader.readLine();
-            }
-            reader.close();
+            importer.importBooks(bookSearch);
         } catch (IOException e) {
             System.out.println("Warning: The books in the book store (" +  BOOK_STORE_FILE_LOCATION + ") is unreadable.");
             // e.printStackTrace();
         }
 
+        // Write the lines that were rejected.
+        if (!importer.getRejects().isEmpty()) {
+            try {
+                importer.writeRejects(new File(BOOK_STORE_REJECTS_LOCATION));
+                System.out.println("Warning: " + importer.getRejects().size() + " books in the book store were ignored; see " + BOOK_STORE_REJECTS_LOCATION + ".");
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
         // Return the bookstore.
         return bookSearch;
     }
@@ -1,5 +1,6 @@
 package books.store;
 
+import books.BookPage;
 import books.Books;
 
 /**
@@ -18,4 +19,37 @@ public interface StoreSearchService {
      * @return the filtered books.
      */
     public Books getBooks(String title,String authors,String isbn,String publisher);
+
+    /**
+     * Returns the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @return the filtered and sorted books.
+     */
+    public Books getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod);
+
+    /**
+     * Returns a page of the books for the given search, sorted by a method.
+     *
+     * @param title the title of the book. To ignore this, leave it empty or use "*".
+     * @param authors the authors of the book. To ignore this, leave it empty or use "*".
+     * @param isbn the authors of the book. To ignore this, leave it empty or use "*".
+     * @param publisher the publisher of the book. To ignore this, leave it empty or use "*".
+     * @param sortingMethod the method to sort the books by.
+     * @param offset the amount of books before the page.
+     * @param limit the maximum amount of books in the page.
+     * @return the page of filtered and sorted books.
+     */
+    public BookPage getBooks(String title,String authors,String isbn,String publisher,Books.SortingMethod sortingMethod,int offset,int limit);
+
+    /**
+     * Returns the books that were added by the service.
+     *
+     * @return the books added by the service.
+     */
+    public Books getStoreBooks();
 }
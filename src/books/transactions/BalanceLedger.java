@@ -0,0 +1,110 @@
+package books.transactions;
+
+import user.Visitor;
+
+import java.util.HashMap;
+
+/**
+ * Ledger of the open loans of each visitor. Each open transaction adds
+ * its unreturned book, the late fee it was returned with and its partial
+ * payments to the totals of its visitor, so the totals are changed by
+ * the difference when a transaction changes instead of being added up
+ * again. The late fees of unreturned books change with the time, so
+ * they are kept by the {@link DueDateQueue} instead.
+ *
+ * @author Zachary Cook
+ */
+class BalanceLedger {
+    /**
+     * Amounts of a transaction or of the transactions of a visitor.
+     */
+    private static class Amounts {
+        private int unreturnedBooks;
+        private int returnedFees;
+        private int paidFees;
+
+        /**
+         * Adds amounts to the amounts.
+         *
+         * @param amounts the amounts to add.
+         * @param sign 1 to add the amounts, or -1 to subtract them.
+         */
+        private void add(Amounts amounts,int sign) {
+            this.unreturnedBooks += sign * amounts.unreturnedBooks;
+            this.returnedFees += sign * amounts.returnedFees;
+            this.paidFees += sign * amounts.paidFees;
+        }
+    }
+
+    private HashMap<Integer,Amounts> transactionAmounts;
+    private HashMap<Visitor,Amounts> visitorAmounts;
+
+    /**
+     * Creates an empty ledger.
+     */
+    BalanceLedger() {
+        this.transactionAmounts = new HashMap<>();
+        this.visitorAmounts = new HashMap<>();
+    }
+
+    /**
+     * Removes the amounts of a transaction. Nothing is done if the
+     * transaction isn't in the ledger.
+     *
+     * @param transaction the transaction to remove.
+     */
+    void remove(Transaction transaction) {
+        Amounts amounts = this.transactionAmounts.remove(transaction.getId());
+        if (amounts != null) {
+            Amounts totals = this.visitorAmounts.get(transaction.getVisitor());
+            totals.add(amounts,-1);
+            if (totals.unreturnedBooks == 0 && totals.returnedFees == 0 && totals.paidFees == 0) {
+                this.visitorAmounts.remove(transaction.getVisitor());
+            }
+        }
+    }
+
+    /**
+     * Adds or updates the amounts of a transaction after it was created
+     * or changed. Closed transactions are removed, since they have
+     * nothing left to return or pay.
+     *
+     * @param transaction the transaction to update.
+     */
+    void update(Transaction transaction) {
+        this.remove(transaction);
+        if (transaction.isClosed()) {
+            return;
+        }
+
+        // Determine the amounts of the transaction.
+        Amounts amounts = new Amounts();
+        if (!transaction.getReturned()) {
+            amounts.unreturnedBooks = 1;
+        } else if (!transaction.getLateFeedPaid()) {
+            amounts.returnedFees = (int) transaction.calculateFee(transaction.getReturnedDate());
+        }
+        if (!transaction.getLateFeedPaid()) {
+            amounts.paidFees = transaction.getPartialLateFeePaid();
+        }
+
+        // Add the amounts.
+        this.transactionAmounts.put(transaction.getId(),amounts);
+        this.visitorAmounts.computeIfAbsent(transaction.getVisitor(),visitor -> new Amounts()).add(amounts,1);
+    }
+
+    /**
+     * Returns the balance of a visitor.
+     *
+     * @param visitor the visitor to get the balance of.
+     * @param unreturnedFees the late fees of the unreturned books of the visitor.
+     * @return the balance of the visitor.
+     */
+    VisitorBalance getBalance(Visitor visitor,int unreturnedFees) {
+        Amounts totals = this.visitorAmounts.get(visitor);
+        if (totals == null) {
+            return new VisitorBalance(0,unreturnedFees,0);
+        }
+        return new VisitorBalance(totals.unreturnedBooks,totals.returnedFees + unreturnedFees,totals.paidFees);
+    }
+}
@@ -0,0 +1,248 @@
+package books.transactions;
+
+import user.Visitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+/**
+ * Queue of the unreturned loans by the time their late fee next goes
+ * up. A loan becomes overdue the second after it is due, with a fee of
+ * 10 dollars, and the fee goes up by 2 dollars every week after until
+ * it is 30 dollars. When the time is advanced, only the loans with a
+ * step in the fee are taken from the queue, and the late fees of the
+ * unreturned loans of each visitor are kept up to date.
+ *
+ * @author Zachary Cook
+ */
+public class DueDateQueue {
+    /**
+     * Step in the late fee of a loan.
+     */
+    public static class FeeStep {
+        private Transaction transaction;
+        private int fee;
+
+        /**
+         * Creates a fee step.
+         *
+         * @param transaction the transaction of the loan.
+         * @param fee the late fee after the step.
+         */
+        private FeeStep(Transaction transaction,int fee) {
+            this.transaction = transaction;
+            this.fee = fee;
+        }
+
+        /**
+         * Returns the transaction of the loan.
+         *
+         * @return the transaction of the loan.
+         */
+        public Transaction getTransaction() {
+            return this.transaction;
+        }
+
+        /**
+         * Returns the late fee after the step.
+         *
+         * @return the late fee after the step.
+         */
+        public int getFee() {
+            return this.fee;
+        }
+
+        /**
+         * Returns if the step is the loan becoming overdue.
+         *
+         * @return if the loan became overdue.
+         */
+        public boolean isOverdue() {
+            return this.fee == BASE_FEE;
+        }
+    }
+
+    /**
+     * Loan in the queue.
+     */
+    private static class Entry {
+        private Transaction transaction;
+        private long stepSeconds;
+        private int fee;
+
+        /**
+         * Creates an entry.
+         *
+         * @param transaction the transaction of the loan.
+         * @param stepSeconds the time of the next step in the fee, in seconds since the epoch.
+         * @param fee the current late fee.
+         */
+        private Entry(Transaction transaction,long stepSeconds,int fee) {
+            this.transaction = transaction;
+            this.stepSeconds = stepSeconds;
+            this.fee = fee;
+        }
+    }
+
+    // The late fee when a loan becomes overdue.
+    public static final int BASE_FEE = 10;
+
+    // The amount the late fee goes up each week.
+    public static final int WEEKLY_FEE = 2;
+
+    // The highest late fee.
+    public static final int MAX_FEE = 30;
+
+    // The seconds in a week.
+    private static final long WEEK_SECONDS = 7 * 24 * 60 * 60;
+
+    private long currentSeconds;
+    private PriorityQueue<Entry> queue;
+    private HashMap<Integer,Entry> entries;
+    private HashMap<Visitor,Integer> accruedFees;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param currentSeconds the current time, in seconds since the epoch.
+     */
+    DueDateQueue(long currentSeconds) {
+        this.currentSeconds = currentSeconds;
+        this.queue = new PriorityQueue<>((entry,otherEntry) -> {
+            int compare = Long.compare(entry.stepSeconds,otherEntry.stepSeconds);
+            return (compare != 0 ? compare : Integer.compare(entry.transaction.getId(),otherEntry.transaction.getId()));
+        });
+        this.entries = new HashMap<>();
+        this.accruedFees = new HashMap<>();
+    }
+
+    /**
+     * Returns the late fee of a loan at a time. This is the same as
+     * the fee of {@link Transaction#calculateFee(time.Date)} for an
+     * unreturned loan.
+     *
+     * @param dueSeconds the due date of the loan, in seconds since the epoch.
+     * @param seconds the time to get the fee at, in seconds since the epoch.
+     * @return the late fee.
+     */
+    static int getFee(long dueSeconds,long seconds) {
+        if (seconds <= dueSeconds) {
+            return 0;
+        }
+        long weeks = (seconds - dueSeconds) / WEEK_SECONDS;
+        return (int) Math.min(BASE_FEE + (weeks * WEEKLY_FEE),MAX_FEE);
+    }
+
+    /**
+     * Returns the time of the next step in the late fee of a loan.
+     *
+     * @param dueSeconds the due date of the loan, in seconds since the epoch.
+     * @param fee the current late fee.
+     * @return the time of the next step, or -1 if the fee is at the highest.
+     */
+    static long getNextStepSeconds(long dueSeconds,int fee) {
+        if (fee == 0) {
+            return dueSeconds + 1;
+        }
+        if (fee >= MAX_FEE) {
+            return -1;
+        }
+        return dueSeconds + ((((fee - BASE_FEE) / WEEKLY_FEE) + 1) * WEEK_SECONDS);
+    }
+
+    /**
+     * Adds to the late fees of the unreturned loans of a visitor.
+     *
+     * @param visitor the visitor to add to.
+     * @param amount the amount to add.
+     */
+    private void addAccruedFee(Visitor visitor,int amount) {
+        if (amount != 0) {
+            this.accruedFees.merge(visitor,amount,Integer::sum);
+        }
+    }
+
+    /**
+     * Adds an unreturned loan to the queue. The steps in the fee before
+     * the current time are counted without being returned as steps.
+     *
+     * @param transaction the transaction of the loan.
+     */
+    void add(Transaction transaction) {
+        this.remove(transaction);
+        long dueSeconds = transaction.getDueDate().getEpochSeconds();
+        int fee = getFee(dueSeconds,this.currentSeconds);
+        Entry entry = new Entry(transaction,getNextStepSeconds(dueSeconds,fee),fee);
+        this.entries.put(transaction.getId(),entry);
+        this.addAccruedFee(transaction.getVisitor(),fee);
+        if (entry.stepSeconds != -1) {
+            this.queue.add(entry);
+        }
+    }
+
+    /**
+     * Removes a loan from the queue, such as when it was returned.
+     * Nothing is done if the loan isn't in the queue.
+     *
+     * @param transaction the transaction of the loan.
+     */
+    void remove(Transaction transaction) {
+        Entry entry = this.entries.remove(transaction.getId());
+        if (entry != null) {
+            // The entry is skipped when it is taken from the queue.
+            this.addAccruedFee(entry.transaction.getVisitor(),-entry.fee);
+        }
+    }
+
+    /**
+     * Advances the time and returns the steps in the late fees up to
+     * the time, ordered by time.
+     *
+     * @param seconds the time to advance to, in seconds since the epoch.
+     * @return the steps in the late fees.
+     */
+    ArrayList<FeeStep> advance(long seconds) {
+        this.currentSeconds = Math.max(this.currentSeconds,seconds);
+        ArrayList<FeeStep> steps = new ArrayList<>();
+        while (!this.queue.isEmpty() && this.queue.peek().stepSeconds <= this.currentSeconds) {
+            // Skip the entries of loans that were removed.
+            Entry entry = this.queue.poll();
+            if (this.entries.get(entry.transaction.getId()) != entry) {
+                continue;
+            }
+
+            // Step the fee and add the entry back for the next step.
+            long dueSeconds = entry.transaction.getDueDate().getEpochSeconds();
+            int fee = getFee(dueSeconds,entry.stepSeconds);
+            this.addAccruedFee(entry.transaction.getVisitor(),fee - entry.fee);
+            entry.fee = fee;
+            entry.stepSeconds = getNextStepSeconds(dueSeconds,fee);
+            steps.add(new FeeStep(entry.transaction,fee));
+            if (entry.stepSeconds != -1) {
+                this.queue.add(entry);
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * Returns the late fees of the unreturned loans of a visitor at the
+     * current time, without the payments made towards them.
+     *
+     * @param visitor the visitor to get the fees of.
+     * @return the late fees of the unreturned loans.
+     */
+    int getAccruedFees(Visitor visitor) {
+        return this.accruedFees.getOrDefault(visitor,0);
+    }
+
+    /**
+     * Returns the amount of loans in the queue.
+     *
+     * @return the amount of loans.
+     */
+    int size() {
+        return this.entries.size();
+    }
+}
@@ -14,6 +14,9 @@ import java.util.Objects;
  * @author Zachary Cook
  */
 public class Transaction implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 7339653495379729637L;
+
     private int id;
     private Visitor visitor;
     private Book book;
@@ -33,14 +36,30 @@ public class Transaction implements Serializable {
      * @param dueDate the due date of the book.
      */
     public Transaction(int id,Visitor visitor,Book book,Date checkedOut,Date dueDate) {
+        this(id,visitor,book,checkedOut,dueDate,null,null,0);
+    }
+
+    /**
+     * Creates a transaction with an existing state.
+     *
+     * @param id the id of the transaction.
+     * @param visitor the visitor involved in the transaction.
+     * @param book the book involved in the transaction.
+     * @param checkedOut the date the book was checked out.
+     * @param dueDate the due date of the book.
+     * @param returnedDate the date the book was returned, or null.
+     * @param lateFeePaidDate the date the late fee was paid, or null.
+     * @param partialLateFeePaid the amount of the late fee that was paid.
+     */
+    public Transaction(int id,Visitor visitor,Book book,Date checkedOut,Date dueDate,Date returnedDate,Date lateFeePaidDate,int partialLateFeePaid) {
         this.id = id;
         this.visitor = visitor;
         this.book = book;
         this.checkedOut = checkedOut;
         this.dueDate = dueDate;
-        this.returnedDate = null;
-        this.lateFeePaidDate = null;
-        this.partialLateFeePaid = 0;
+        this.returnedDate = returnedDate;
+        this.lateFeePaidDate = lateFeePaidDate;
+        this.partialLateFeePaid = partialLateFeePaid;
     }
 
     /**
@@ -124,6 +143,16 @@ public class Transaction implements Serializable {
         return this.lateFeePaidDate != null;
     }
 
+    /**
+     * Returns if the transaction is closed. Closed transactions are
+     * returned and have no late fee left to pay.
+     *
+     * @return if the transaction is closed.
+     */
+    public boolean isClosed() {
+        return this.getReturned() && this.calculateFee(this.getReturnedDate()) == 0;
+    }
+
     /**
      * Returns the partial late fee paid.
      *
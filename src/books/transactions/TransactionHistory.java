@@ -1,13 +1,21 @@
 package books.transactions;
 
 import books.Book;
+import time.Clock;
 import time.Date;
 import user.Visitor;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Class for storing transactions.
@@ -16,7 +24,17 @@ import java.util.HashMap;
  * @author Zachary Cook
  */
 public class TransactionHistory implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -5911432562854107169L;
+
     private final HashMap<Integer,Transaction> transactions;
+    private transient Supplier<? extends Collection<Transaction>> closedTransactionsLoader;
+    private int archivedMaxId;
+    private int maxId;
+    private transient HashMap<Visitor,TreeMap<Integer,Transaction>> visitorTransactions;
+    private transient HashMap<Visitor,TreeMap<Integer,Transaction>> openVisitorTransactions;
+    private transient DueDateQueue dueDateQueue;
+    private transient BalanceLedger balanceLedger;
 
     /**
      * Creates the inventory of book.
@@ -25,13 +43,331 @@ public class TransactionHistory implements Serializable {
         this.transactions = new HashMap<>();
     }
 
+    /**
+     * Sets the closed transactions to load the first time all of the
+     * transactions are needed. Until then, only the transactions in
+     * the history are searched when looking for open transactions.
+     *
+     * @param loader the loader of the closed transactions.
+     * @param maxId the highest id of the closed transactions.
+     */
+    public void setClosedTransactions(Supplier<? extends Collection<Transaction>> loader,int maxId) {
+        this.closedTransactionsLoader = loader;
+        this.maxId = Math.max(this.maxId,maxId);
+    }
+
+    /**
+     * Returns if the closed transactions haven't been loaded.
+     *
+     * @return if the closed transactions are unloaded.
+     */
+    public boolean hasUnloadedTransactions() {
+        return this.closedTransactionsLoader != null;
+    }
+
+    /**
+     * Loads the closed transactions, if they haven't been loaded.
+     */
+    private void loadClosedTransactions() {
+        if (this.closedTransactionsLoader != null) {
+            Supplier<? extends Collection<Transaction>> loader = this.closedTransactionsLoader;
+            this.closedTransactionsLoader = null;
+            for (Transaction transaction : loader.get()) {
+                if (this.transactions.putIfAbsent(transaction.getId(),transaction) == null) {
+                    this.addToIndex(transaction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the index of the transactions by visitor and the ledger of
+     * their balances, if they haven't been created. The index isn't
+     * serialized, so it is created again after the history is read.
+     */
+    private void createIndex() {
+        if (this.visitorTransactions == null) {
+            this.visitorTransactions = new HashMap<>();
+            this.openVisitorTransactions = new HashMap<>();
+            this.balanceLedger = new BalanceLedger();
+            for (Transaction transaction : this.transactions.values()) {
+                this.addToIndex(transaction);
+            }
+        }
+    }
+
+    /**
+     * Returns if the late fee of a transaction goes up with the time,
+     * which is when the book is unreturned and the fee isn't paid off.
+     *
+     * @param transaction the transaction to check.
+     * @return if the late fee goes up with the time.
+     */
+    private static boolean isAccruing(Transaction transaction) {
+        return !transaction.getReturned() && !transaction.getLateFeedPaid();
+    }
+
+    /**
+     * Adds a transaction to the index of the transactions by visitor.
+     * Open transactions are also added to the index of the open
+     * transactions and the ledger. Nothing is done if the index hasn't
+     * been created.
+     *
+     * @param transaction the transaction to add.
+     */
+    private void addToIndex(Transaction transaction) {
+        if (this.visitorTransactions == null) {
+            return;
+        }
+        this.visitorTransactions.computeIfAbsent(transaction.getVisitor(),visitor -> new TreeMap<>()).put(transaction.getId(),transaction);
+        if (!transaction.isClosed()) {
+            this.openVisitorTransactions.computeIfAbsent(transaction.getVisitor(),visitor -> new TreeMap<>()).put(transaction.getId(),transaction);
+        }
+        this.balanceLedger.update(transaction);
+        if (this.dueDateQueue != null && isAccruing(transaction)) {
+            this.dueDateQueue.add(transaction);
+        }
+    }
+
+    /**
+     * Removes a transaction from the indexes of the transactions by visitor.
+     *
+     * @param transaction the transaction to remove.
+     */
+    private void removeFromIndex(Transaction transaction) {
+        if (this.visitorTransactions == null) {
+            return;
+        }
+        TreeMap<Integer,Transaction> transactions = this.visitorTransactions.get(transaction.getVisitor());
+        if (transactions != null) {
+            transactions.remove(transaction.getId());
+        }
+        TreeMap<Integer,Transaction> openTransactions = this.openVisitorTransactions.get(transaction.getVisitor());
+        if (openTransactions != null) {
+            openTransactions.remove(transaction.getId());
+        }
+        this.balanceLedger.remove(transaction);
+        if (this.dueDateQueue != null) {
+            this.dueDateQueue.remove(transaction);
+        }
+    }
+
+    /**
+     * Updates the indexes and the ledger after a transaction was changed,
+     * such as when the book was returned, the late fee was paid, or either
+     * was undone.
+     *
+     * @param transaction the transaction that was changed.
+     */
+    public void updateTransaction(Transaction transaction) {
+        if (this.visitorTransactions == null || this.transactions.get(transaction.getId()) != transaction) {
+            return;
+        }
+
+        // Add the transaction back to the open transactions if it was reopened.
+        if (!transaction.isClosed()) {
+            this.openVisitorTransactions.computeIfAbsent(transaction.getVisitor(),visitor -> new TreeMap<>()).put(transaction.getId(),transaction);
+        }
+
+        // Update the balance and add or remove the loan from the due dates.
+        this.balanceLedger.update(transaction);
+        if (this.dueDateQueue != null) {
+            if (isAccruing(transaction)) {
+                this.dueDateQueue.add(transaction);
+            } else {
+                this.dueDateQueue.remove(transaction);
+            }
+        }
+    }
+
+    /**
+     * Returns the queue of the due dates of the unreturned loans, and
+     * creates it if it hasn't been created. The queue isn't serialized,
+     * so it is created again after the history is read. After it is
+     * created, the queue is only moved forward by {@link #advanceDueDates}.
+     *
+     * @param startDate the date to create the queue at, which must be the date of the clock.
+     * @return the queue of the due dates.
+     */
+    private DueDateQueue getDueDateQueue(Date startDate) {
+        if (this.dueDateQueue == null) {
+            this.createIndex();
+            this.dueDateQueue = new DueDateQueue(startDate.getEpochSeconds());
+            for (TreeMap<Integer,Transaction> transactions : this.openVisitorTransactions.values()) {
+                for (Transaction transaction : transactions.values()) {
+                    if (isAccruing(transaction)) {
+                        this.dueDateQueue.add(transaction);
+                    }
+                }
+            }
+        }
+        return this.dueDateQueue;
+    }
+
+    /**
+     * Advances the due dates of the unreturned loans after the clock was
+     * advanced, and returns the steps in their late fees in between. If
+     * the queue of the due dates hasn't been created, it is created at
+     * the date before the clock was advanced.
+     *
+     * @param previousDate the date of the clock before it was advanced.
+     * @param currentDate the date of the clock after it was advanced.
+     * @return the steps in the late fees, ordered by time.
+     */
+    public ArrayList<DueDateQueue.FeeStep> advanceDueDates(Date previousDate,Date currentDate) {
+        return this.getDueDateQueue(previousDate).advance(currentDate.getEpochSeconds());
+    }
+
+    /**
+     * Returns the late fees of the unreturned loans of a visitor at the
+     * date of the clock, without the payments made towards them.
+     *
+     * @param visitor the visitor to get the fees of.
+     * @param clock the clock of the services, which the due dates are created at if they haven't been.
+     * @return the late fees of the unreturned loans.
+     */
+    public int getAccruedFees(Visitor visitor,Clock clock) {
+        return this.getDueDateQueue(clock.getDate()).getAccruedFees(visitor);
+    }
+
+    /**
+     * Returns the balance of a visitor at the date of the clock from the
+     * ledger, without adding up the fees of the transactions of the visitor.
+     *
+     * @param visitor the visitor to get the balance of.
+     * @param clock the clock of the services, which the due dates are created at if they haven't been.
+     * @return the balance of the visitor.
+     */
+    public VisitorBalance getBalance(Visitor visitor,Clock clock) {
+        int unreturnedFees = this.getAccruedFees(visitor,clock);
+        return this.balanceLedger.getBalance(visitor,unreturnedFees);
+    }
+
+    /**
+     * Checks the ledger against the balances added up from the open
+     * transactions at the date of the clock, and creates the ledger and
+     * the indexes again if any balance is different.
+     *
+     * @param clock the clock of the services.
+     * @return if every balance was the same.
+     */
+    public boolean checkBalances(Clock clock) {
+        // Add up the balances of the open transactions.
+        HashMap<Visitor,int[]> expectedAmounts = new HashMap<>();
+        for (Transaction transaction : this.transactions.values()) {
+            if (!transaction.isClosed()) {
+                int[] amounts = expectedAmounts.computeIfAbsent(transaction.getVisitor(),visitor -> new int[3]);
+                if (!transaction.getReturned()) {
+                    amounts[0] += 1;
+                }
+                if (!transaction.getLateFeedPaid()) {
+                    amounts[1] += (int) transaction.calculateFee(clock.getDate());
+                    amounts[2] += transaction.getPartialLateFeePaid();
+                }
+            }
+        }
+
+        // Compare the balances, including the visitors without open transactions.
+        boolean consistent = true;
+        this.createIndex();
+        for (Visitor visitor : this.visitorTransactions.keySet()) {
+            expectedAmounts.computeIfAbsent(visitor,otherVisitor -> new int[3]);
+        }
+        for (Visitor visitor : expectedAmounts.keySet()) {
+            int[] amounts = expectedAmounts.get(visitor);
+            if (!this.getBalance(visitor,clock).equals(new VisitorBalance(amounts[0],amounts[1],amounts[2]))) {
+                consistent = false;
+                break;
+            }
+        }
+
+        // Create the ledger and indexes again if they are different.
+        if (!consistent) {
+            this.visitorTransactions = null;
+            this.dueDateQueue = null;
+            this.createIndex();
+        }
+        return consistent;
+    }
+
+    /**
+     * Returns the highest id of the archived transactions.
+     *
+     * @return the highest id of the archived transactions.
+     */
+    public int getArchivedMaxId() {
+        return this.archivedMaxId;
+    }
+
+    /**
+     * Sets the highest id of the archived transactions.
+     *
+     * @param archivedMaxId the highest id of the archived transactions.
+     */
+    public void setArchivedMaxId(int archivedMaxId) {
+        this.archivedMaxId = archivedMaxId;
+        this.maxId = Math.max(this.maxId,archivedMaxId);
+    }
+
+    /**
+     * Returns the highest id that was given to a transaction. Ids
+     * aren't reused, even if the transaction was unregistered.
+     *
+     * @return the highest id of the transactions.
+     */
+    public int getMaxId() {
+        return this.maxId;
+    }
+
+    /**
+     * Sets the highest id that was given to a transaction. The id
+     * is ignored if a higher id was already given.
+     *
+     * @param maxId the highest id of the transactions.
+     */
+    public void setMaxId(int maxId) {
+        this.maxId = Math.max(this.maxId,maxId);
+    }
+
+    /**
+     * Removes the transactions that match a filter so they can be
+     * archived. The ids of the removed transactions aren't reused.
+     *
+     * @param filter the filter of the transactions to remove.
+     * @return the removed transactions, ordered by id.
+     */
+    public ArrayList<Transaction> removeTransactions(Predicate<Transaction> filter) {
+        // Remove the transactions.
+        this.loadClosedTransactions();
+        ArrayList<Transaction> removedTransactions = new ArrayList<>();
+        for (Transaction transaction : this.transactions.values()) {
+            if (filter.test(transaction)) {
+                removedTransactions.add(transaction);
+            }
+        }
+        for (Transaction transaction : removedTransactions) {
+            this.transactions.remove(transaction.getId());
+            this.removeFromIndex(transaction);
+            this.archivedMaxId = Math.max(this.archivedMaxId,transaction.getId());
+        }
+
+        // Return the transactions.
+        removedTransactions.sort((transaction,otherTransaction) -> Integer.compare(transaction.getId(),otherTransaction.getId()));
+        return removedTransactions;
+    }
+
     /**
      * Registers a transaction in the transaction history.
      *
      * @param transaction the transaction to register.
      */
     public void registerTransaction(Transaction transaction) {
-        this.transactions.put(transaction.getId(),transaction);
+        this.maxId = Math.max(this.maxId,transaction.getId());
+        Transaction replacedTransaction = this.transactions.put(transaction.getId(),transaction);
+        if (replacedTransaction != null) {
+            this.removeFromIndex(replacedTransaction);
+        }
+        this.addToIndex(transaction);
     }
 
     /**
@@ -41,45 +377,32 @@ public class TransactionHistory implements Serializable {
      * @param visitor the visitor part of the transaction.
      * @param checkoutDate the checkout date.
      * @param dueDate the due date.
+     * @return the registered transaction.
      */
-    public void registerTransaction(Book book, Visitor visitor, Date checkoutDate, Date dueDate) {
-        // Determine the next id.
-        int nextId = 0;
-        for (int i : this.transactions.keySet()) {
-            if (i > nextId) {
-                nextId = i;
-            }
-        }
-        nextId = nextId + 1;
-
-        // Create and store the transaction.
-        Transaction transaction = new Transaction(nextId,visitor,book,checkoutDate,dueDate);
+    public Transaction registerTransaction(Book book, Visitor visitor, Date checkoutDate, Date dueDate) {
+        // Create and store the transaction with the next id.
+        this.maxId += 1;
+        Transaction transaction = new Transaction(this.maxId,visitor,book,checkoutDate,dueDate);
         this.registerTransaction(transaction);
+        return transaction;
     }
 
     /**
-     * Registers a transaction in the transaction history.
+     * Unregisters a transaction from the transaction history. The id
+     * of the transaction isn't given to another transaction.
      *
-     * @param book the book part of the transaction.
-     * @param visitor the visitor part of the transaction.
-     * @param checkoutDate the checkout date.
-     * @param dueDate the due date.
+     * @param id the id of the transaction to remove.
+     * @return the removed transaction, or null.
      */
-    public void unregisterTransaction(Book book,Visitor visitor,Date checkoutDate,Date dueDate) {
-        // Get the id to remove.
-        int indexToRemove = -1;
-        for (Integer id : this.transactions.keySet()) {
-            Transaction transaction = this.getTransaction(id);
-            if (transaction.getBook().equals(book) && transaction.getVisitor().equals(visitor) && transaction.getCheckedOut().equals(checkoutDate) && transaction.getDueDate().equals(dueDate)) {
-                indexToRemove = id;
-                break;
-            }
+    public Transaction unregisterTransaction(int id) {
+        if (!this.transactions.containsKey(id)) {
+            this.loadClosedTransactions();
         }
-
-        // Remove the id.
-        if (indexToRemove != -1) {
-            this.transactions.remove(indexToRemove);
+        Transaction transaction = this.transactions.remove(id);
+        if (transaction != null) {
+            this.removeFromIndex(transaction);
         }
+        return transaction;
     }
 
     /**
@@ -89,9 +412,32 @@ public class TransactionHistory implements Serializable {
      * @return the transaction for the given id.
      */
     public Transaction getTransaction(int id){
+        if (!this.transactions.containsKey(id)) {
+            this.loadClosedTransactions();
+        }
         return transactions.get(id);
     }
 
+    /**
+     * Returns all of the transactions.
+     *
+     * @return the transactions.
+     */
+    public ArrayList<Transaction> getTransactions() {
+        this.loadClosedTransactions();
+        return new ArrayList<>(this.transactions.values());
+    }
+
+    /**
+     * Returns the transactions that are loaded, without loading
+     * the closed transactions.
+     *
+     * @return the loaded transactions.
+     */
+    public ArrayList<Transaction> getLoadedTransactions() {
+        return new ArrayList<>(this.transactions.values());
+    }
+
     /**
      * Gets an ArrayList of transactions by a specific visitor.
      *
@@ -99,11 +445,42 @@ public class TransactionHistory implements Serializable {
      * @return an ArrayList of transactions by the given visitor.
      */
     public ArrayList<Transaction> getTransactionsByVisitor(Visitor visitor){
-        // Search for the transactions by the visitor.
+        // Get the transactions by the visitor from the index.
+        this.loadClosedTransactions();
+        this.createIndex();
+        TreeMap<Integer,Transaction> transactions = this.visitorTransactions.get(visitor);
+        if (transactions == null) {
+            return new ArrayList<>();
+        }
+
+        // Return the transactions.
+        return new ArrayList<>(transactions.values());
+    }
+
+    /**
+     * Gets an ArrayList of the open transactions by a specific visitor. Open
+     * transactions are unreturned or have a late fee. The closed transactions
+     * are not loaded to find them.
+     *
+     * @param visitor the visitor whose transactions you want to find.
+     * @return an ArrayList of the open transactions by the given visitor.
+     */
+    public ArrayList<Transaction> getOpenTransactionsByVisitor(Visitor visitor){
+        // Get the open transactions by the visitor from the index.
+        this.createIndex();
         ArrayList<Transaction> output = new ArrayList<>();
-        Collection<Transaction> transactions = this.transactions.values();
-        for(Transaction transaction: transactions){
-            if (transaction.getVisitor().equals(visitor)){
+        TreeMap<Integer,Transaction> transactions = this.openVisitorTransactions.get(visitor);
+        if (transactions == null) {
+            return output;
+        }
+
+        // Remove the transactions that were closed since they were indexed.
+        Iterator<Transaction> iterator = transactions.values().iterator();
+        while (iterator.hasNext()) {
+            Transaction transaction = iterator.next();
+            if (transaction.isClosed()) {
+                iterator.remove();
+            } else {
                 output.add(transaction);
             }
         }
@@ -120,6 +497,7 @@ public class TransactionHistory implements Serializable {
      */
     public ArrayList<Transaction> getTransactionsCheckedOutOn(Date checkedOut){
         // Search for the transactions by the date.
+        this.loadClosedTransactions();
         ArrayList<Transaction> output = new ArrayList<>();
         Collection<Transaction> transactions = this.transactions.values();
         for(Transaction transaction: transactions){
@@ -140,6 +518,7 @@ public class TransactionHistory implements Serializable {
      */
     public ArrayList<Transaction> getTransactionsDueOn(Date dueDate){
         // Search for the transactions by the date.
+        this.loadClosedTransactions();
         ArrayList<Transaction> output = new ArrayList<>();
         Collection<Transaction> transactions = this.transactions.values();
         for(Transaction transaction: transactions){
@@ -151,4 +530,31 @@ public class TransactionHistory implements Serializable {
         // Return the transactions.
         return output;
     }
+
+    /**
+     * Loads the closed transactions before the history is serialized.
+     *
+     * @param output the stream to write to.
+     * @throws IOException if the history can't be written.
+     */
+    private void writeObject(ObjectOutputStream output) throws IOException {
+        this.loadClosedTransactions();
+        output.defaultWriteObject();
+    }
+
+    /**
+     * Reads the history and determines the highest id for histories
+     * that were written before the highest id was stored.
+     *
+     * @param input the stream to read from.
+     * @throws IOException if the history can't be read.
+     * @throws ClassNotFoundException if a class of the history can't be found.
+     */
+    private void readObject(ObjectInputStream input) throws IOException,ClassNotFoundException {
+        input.defaultReadObject();
+        this.maxId = Math.max(this.maxId,this.archivedMaxId);
+        for (int id : this.transactions.keySet()) {
+            this.maxId = Math.max(this.maxId,id);
+        }
+    }
 }
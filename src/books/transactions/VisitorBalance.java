@@ -0,0 +1,106 @@
+package books.transactions;
+
+import java.util.Objects;
+
+/**
+ * Balance of the loans of a visitor: the amount of unreturned books,
+ * the late fees that aren't paid off and the partial payments made
+ * towards them.
+ *
+ * @author Zachary Cook
+ */
+public class VisitorBalance {
+    private int unreturnedBooks;
+    private int fees;
+    private int paidFees;
+
+    /**
+     * Creates a balance.
+     *
+     * @param unreturnedBooks the amount of unreturned books.
+     * @param fees the late fees that aren't paid off.
+     * @param paidFees the partial payments made towards the late fees.
+     */
+    public VisitorBalance(int unreturnedBooks,int fees,int paidFees) {
+        this.unreturnedBooks = unreturnedBooks;
+        this.fees = fees;
+        this.paidFees = paidFees;
+    }
+
+    /**
+     * Returns the amount of unreturned books.
+     *
+     * @return the amount of unreturned books.
+     */
+    public int getUnreturnedBooks() {
+        return this.unreturnedBooks;
+    }
+
+    /**
+     * Returns the late fees that aren't paid off, without the partial
+     * payments made towards them.
+     *
+     * @return the late fees.
+     */
+    public int getFees() {
+        return this.fees;
+    }
+
+    /**
+     * Returns the partial payments made towards the late fees.
+     *
+     * @return the partial payments.
+     */
+    public int getPaidFees() {
+        return this.paidFees;
+    }
+
+    /**
+     * Returns the amount left to pay.
+     *
+     * @return the late fees minus the partial payments.
+     */
+    public int getBalance() {
+        return this.fees - this.paidFees;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return this.unreturnedBooks + " unreturned, " + this.fees + " fees, " + this.paidFees + " paid";
+    }
+
+    /**
+     * Returns a hash code value for the object.
+     *
+     * @return a hash code value for this object.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.unreturnedBooks,this.fees,this.paidFees);
+    }
+
+    /**
+     * Indicates whether some other object is "equal to" this one.
+     *
+     * @param obj the reference object with which to compare.
+     *
+     * @return true if this object is the same as the obj argument;
+     * false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        // Return false if the class isn't the same.
+        if (!(obj instanceof VisitorBalance)) {
+            return false;
+        }
+
+        // Cast the object and return if the fields are the same.
+        VisitorBalance balance = (VisitorBalance) obj;
+        return this.unreturnedBooks == balance.unreturnedBooks && this.fees == balance.fees && this.paidFees == balance.paidFees;
+    }
+}
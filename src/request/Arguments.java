@@ -12,6 +12,12 @@ import java.util.List;
  * @author Zachary Cook
  */
 public class Arguments implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 5783387184088929107L;
+
+    // The limit returned for "*", which doesn't limit the results.
+    public static final int NO_LIMIT = -1;
+
     private int pointer;
     private List<String> parameters;
 
@@ -33,16 +39,13 @@ public class Arguments implements Serializable {
      */
     public Arguments(String arguments) {
         // Throw an error if the last character isn't a semicolon.
-        if (!arguments.subSequence(arguments.length() - 1,arguments.length()).equals(";")) {
+        if (arguments.isEmpty() || arguments.charAt(arguments.length() - 1) != ';') {
             throw new IllegalArgumentException("Last character must be a semicolon.");
         }
 
-        // Remove the last character.
-        arguments = arguments.substring(0,arguments.length() - 1);
-
-        // Store the parameters.
+        // Store the parameters without the last character.
         this.pointer = 0;
-        this.parameters = CSV.parseCSV(arguments);
+        this.parameters = CSV.parseCSV(arguments,0,arguments.length() - 1);
     }
 
     /**
@@ -169,6 +172,41 @@ public class Arguments implements Serializable {
         return null;
     }
 
+    /**
+     * Returns the next limit of results, which is a positive integer
+     * or "*" for no limit. Null is returned if there is no next entry
+     * or the limit is invalid.
+     *
+     * @return the next limit, or NO_LIMIT for "*".
+     */
+    public Integer getNextLimit() {
+        // Get the next string.
+        String nextString = this.getNextString();
+
+        // If the next string doesn't exist, return null.
+        if (nextString == null) {
+            return null;
+        }
+
+        // Return if there is no limit.
+        if (nextString.equals("*")) {
+            return NO_LIMIT;
+        }
+
+        // Try to parse the limit.
+        try {
+            int limit = Integer.parseInt(nextString);
+            if (limit >= 0) {
+                return limit;
+            }
+        } catch (NumberFormatException ignored) {
+
+        }
+
+        // Return null (failed).
+        return null;
+    }
+
     /**
      * Returns the next list as a set of integers. The list format
      * of the string must be {int1,int2,...}.
@@ -13,6 +13,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public abstract class Request implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 1803262810382587810L;
+
     private Services services;
     private Connection connection;
     private Arguments arguments;
@@ -132,6 +135,27 @@ public abstract class Request implements Serializable {
         return this.handleRequest();
     }
 
+    /**
+     * Returns if the request can modify the services. Requests that
+     * only read the services don't need to be persisted.
+     *
+     * @return if the request can modify the services.
+     */
+    public boolean modifiesServices() {
+        return true;
+    }
+
+    /**
+     * Returns if performing the request again from the journal gives
+     * the same result. Requests that depend on something outside of
+     * the services, such as the network, can't be replayed.
+     *
+     * @return if the request can be replayed.
+     */
+    public boolean canBeReplayed() {
+        return true;
+    }
+
     /**
      * Returns the name of the request.
      *
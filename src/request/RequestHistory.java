@@ -9,6 +9,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class RequestHistory implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -282517520714960584L;
+
     private ArrayList<Request> pastRequests;
     private ArrayList<Request> undoneRequests;
 
@@ -12,6 +12,9 @@ import user.connection.User;
  * @author Zachary Cook
  */
 public abstract class AccountRequest extends ConnectedRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -9122095084813226102L;
+
     private User.PermissionLevel permissionLevel;
 
     /**
@@ -12,6 +12,9 @@ import user.connection.Connection;
  * @author Zachary Cook
  */
 public abstract class ConnectedRequest extends Request {
+    // The version of the saved class.
+    private static final long serialVersionUID = 6563711599721959527L;
+
     /**
      * Creates a request.
      *
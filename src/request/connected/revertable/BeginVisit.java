@@ -7,6 +7,7 @@ import request.Waypoint;
 import request.connected.AccountRequest;
 import request.response.Response;
 import time.Clock;
+import system.ChangeEvents;
 import system.Services;
 import time.Date;
 import user.Visitor;
@@ -22,6 +23,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class BeginVisit extends AccountRequest implements Waypoint {
+    // The version of the saved class.
+    private static final long serialVersionUID = 8659612929724947941L;
+
     private Date currentDate;
     private boolean currentlyClosed;
     private boolean wasCompleted;
@@ -108,6 +112,7 @@ public class BeginVisit extends AccountRequest implements Waypoint {
 
         // Create the visit.
         services.getVisitHistory().addVisit(visitor,this.currentDate);
+        ChangeEvents.visitStarted(services,visitor,false);
         this.wasCompleted = true;
         this.visitorPerformedOn = visitor;
         return this.sendResponse(visitor.getId() + "," + formattedDate + "," + formattedTime);
@@ -129,6 +134,7 @@ public class BeginVisit extends AccountRequest implements Waypoint {
 
         // Undo the visit.
         services.getVisitHistory().undoAddVisit(this.visitorPerformedOn);
+        ChangeEvents.visitStarted(services,this.visitorPerformedOn,true);
         this.wasCompleted = false;
 
         // Return true (success).
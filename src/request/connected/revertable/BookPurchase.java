@@ -7,6 +7,7 @@ import request.Parameter;
 import request.Waypoint;
 import request.connected.AccountRequest;
 import request.response.Response;
+import system.ChangeEvents;
 import system.Services;
 import time.Date;
 import user.connection.Connection;
@@ -22,6 +23,9 @@ import java.util.HashMap;
  * @author Zachary Cook
  */
 public class BookPurchase extends AccountRequest implements Waypoint {
+    // The version of the saved class.
+    private static final long serialVersionUID = 6010341467693025343L;
+
     private boolean wasCompleted;
     private Date currentDate;
     private ArrayList<Book> purchasedBooks;
@@ -104,6 +108,7 @@ public class BookPurchase extends AccountRequest implements Waypoint {
                 services.getBookInventory().getBook(book.getISBN()).addCopy();
                 services.getPurchaseHistory().registerPurchase(book,this.currentDate);
                 this.purchasedBooks.add(book);
+                ChangeEvents.bookPurchased(services,book,false);
             }
         }
 
@@ -114,7 +119,7 @@ public class BookPurchase extends AccountRequest implements Waypoint {
 
             // Create the list of authors.
             String authorsList = "";
-            for (Author author : book.getAuthors()) {
+            for (Author author : book.getAuthorsView()) {
                 if (!authorsList.equals("")) {
                     authorsList += ",";
                 }
@@ -149,6 +154,7 @@ public class BookPurchase extends AccountRequest implements Waypoint {
         for (Book book : this.purchasedBooks) {
             services.getBookInventory().getBook(book.getISBN()).removeCopy();
             services.getPurchaseHistory().unregisterPurchase(book,this.currentDate);
+            ChangeEvents.bookPurchased(services,book,true);
         }
 
         // Return true (success).
@@ -3,17 +3,21 @@ package request.connected.revertable;
 import books.Book;
 import books.Books;
 import books.transactions.Transaction;
+import books.transactions.VisitorBalance;
 import request.Arguments;
 import request.Parameter;
 import request.Waypoint;
 import request.connected.AccountRequest;
 import request.response.Response;
+import system.ChangeEvents;
 import system.Services;
 import time.Date;
 import user.Visitor;
 import user.connection.Connection;
 import user.connection.User;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -24,11 +28,15 @@ import java.util.HashMap;
  * @author Zachary Cook
  */
 public class BorrowBook extends AccountRequest implements Waypoint {
+    // The version of the saved class.
+    private static final long serialVersionUID = -8854243797098470420L;
+
     private boolean wasCompleted;
     private Date currentDate;
     private Date dueDate;
     private Visitor visitorAppliedTo;
     private ArrayList<Book> booksBorrowed;
+    private ArrayList<Integer> transactionIds;
 
     /**
      * Creates a request.
@@ -41,6 +49,7 @@ public class BorrowBook extends AccountRequest implements Waypoint {
         super(services,connection,arguments,User.PermissionLevel.VISITOR);
         this.wasCompleted = false;
         this.booksBorrowed = new ArrayList<>();
+        this.transactionIds = new ArrayList<>();
 
         // Get the current date and due date.
         this.currentDate = services.getClock().getDate();
@@ -139,33 +148,26 @@ public class BorrowBook extends AccountRequest implements Waypoint {
             }
         }
 
-        // Determine the amount of unreturned books and unpaid fees.
-        int unretunedBooks = 0;
-        int unpaidBalance = 0;
-        for (Transaction transaction : services.getTransactionHistory().getTransactionsByVisitor(visitor)) {
-            if (!transaction.getReturned()) {
-                unretunedBooks += 1;
-            }
-            if (!transaction.getLateFeedPaid()) {
-                unpaidBalance += transaction.calculateFee(this.currentDate);
-            }
-        }
+        // Get the amount of unreturned books and unpaid fees from the ledger. The fees are at the current date, even when the borrow is redone later.
+        VisitorBalance balance = services.getTransactionHistory().getBalance(visitor,services.getClock());
 
         // Return an error if there is an unpaid balance.
-        if (unpaidBalance > 0) {
-            return this.sendResponse("outstanding-fine," + unpaidBalance);
+        if (balance.getFees() > 0) {
+            return this.sendResponse("outstanding-fine," + balance.getFees());
         }
 
         // Return an error if there is 5 or more books borrowed.
-        if (unretunedBooks >= 5) {
+        if (balance.getUnreturnedBooks() >= 5) {
             return this.sendResponse("book-limit-exceeded");
         }
 
         // Borrow the books.
         for (Book book : books) {
             book.borrowCopy();
-            services.getTransactionHistory().registerTransaction(book,visitor,this.currentDate,this.dueDate);
+            Transaction transaction = services.getTransactionHistory().registerTransaction(book,visitor,this.currentDate,this.dueDate);
             this.booksBorrowed.add(book);
+            this.transactionIds.add(transaction.getId());
+            ChangeEvents.bookBorrowed(services,transaction,false);
         }
 
         // Return the request.response.
@@ -188,15 +190,26 @@ public class BorrowBook extends AccountRequest implements Waypoint {
             return false;
         }
 
+        // Find the transactions of borrows saved before their ids were kept.
+        if (this.transactionIds.isEmpty()) {
+            this.findTransactionIds();
+        }
+
         // Remove the books and purchase history.
         for (Book book : this.booksBorrowed) {
             book.returnCopy();
-            services.getTransactionHistory().unregisterTransaction(book,this.visitorAppliedTo,this.currentDate,this.dueDate);
+        }
+        for (int transactionId : this.transactionIds) {
+            Transaction transaction = services.getTransactionHistory().unregisterTransaction(transactionId);
+            if (transaction != null) {
+                ChangeEvents.bookBorrowed(services,transaction,true);
+            }
         }
 
         // Return true (success).
         this.wasCompleted = false;
         this.booksBorrowed.clear();
+        this.transactionIds.clear();
         return true;
     }
 
@@ -211,4 +224,34 @@ public class BorrowBook extends AccountRequest implements Waypoint {
         this.handleRequest();
         return true;
     }
-}
\ No newline at end of file
+    /**
+     * Finds the ids of the transactions of the borrowed books by their
+     * book, visitor and dates.
+     */
+    private void findTransactionIds() {
+        ArrayList<Transaction> transactions = this.getServices().getTransactionHistory().getTransactionsByVisitor(this.visitorAppliedTo);
+        for (Book book : this.booksBorrowed) {
+            for (Transaction transaction : transactions) {
+                if (transaction.getBook().equals(book) && transaction.getCheckedOut().equals(this.currentDate) && transaction.getDueDate().equals(this.dueDate) && !this.transactionIds.contains(transaction.getId())) {
+                    this.transactionIds.add(transaction.getId());
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the request. Borrows saved before the ids of their
+     * transactions were kept have their transactions found when undone.
+     *
+     * @param input the stream to read from.
+     * @throws IOException if the request can't be read.
+     * @throws ClassNotFoundException if a class of the request can't be found.
+     */
+    private void readObject(ObjectInputStream input) throws IOException,ClassNotFoundException {
+        input.defaultReadObject();
+        if (this.transactionIds == null) {
+            this.transactionIds = new ArrayList<>();
+        }
+    }
+}
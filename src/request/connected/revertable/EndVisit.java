@@ -6,6 +6,7 @@ import request.Waypoint;
 import request.connected.AccountRequest;
 import request.response.Response;
 import time.Clock;
+import system.ChangeEvents;
 import system.Services;
 import time.Date;
 import user.Visitor;
@@ -22,6 +23,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class EndVisit extends AccountRequest implements Waypoint {
+    // The version of the saved class.
+    private static final long serialVersionUID = -4483743330069580131L;
+
     private boolean wasCompleted;
     private Visitor visitorPerformedOn;
 
@@ -100,6 +104,7 @@ public class EndVisit extends AccountRequest implements Waypoint {
         if (visit == null) {
             return this.sendResponse("invalid-id");
         }
+        ChangeEvents.visitEnded(services,visit,false);
 
         // Format the time difference.
         int visitDuration = visit.getTimeOfDeparture().getSeconds() - visit.getDate().getSeconds();
@@ -137,7 +142,10 @@ public class EndVisit extends AccountRequest implements Waypoint {
         }
 
         // Undo the visit.
-        services.getVisitHistory().undoFinishVisit(this.visitorPerformedOn);
+        Visit visit = services.getVisitHistory().undoFinishVisit(this.visitorPerformedOn);
+        if (visit != null) {
+            ChangeEvents.visitEnded(services,visit,true);
+        }
         this.wasCompleted = false;
 
         // Return true (success).
@@ -6,6 +6,7 @@ import request.Parameter;
 import request.Waypoint;
 import request.connected.AccountRequest;
 import request.response.Response;
+import system.ChangeEvents;
 import system.Services;
 import time.Date;
 import user.Visitor;
@@ -22,6 +23,9 @@ import java.util.HashMap;
  * @author Zachary Cook
  */
 public class PayFine extends AccountRequest implements Waypoint {
+    // The version of the saved class.
+    private static final long serialVersionUID = -2245037509119027882L;
+
     private boolean wasCompleted;
     private HashMap<Transaction,Integer> transactionsToUndo;
 
@@ -95,14 +99,17 @@ public class PayFine extends AccountRequest implements Waypoint {
         // Get the current date and due date.
         Date currentDate = services.getClock().getDate();
 
-        // Determine the unpaid transactions.
-        int unpaidBalance = 0;
+        // Get the unpaid balance from the ledger and return errors for invalid payments.
+        int unpaidBalance = services.getTransactionHistory().getBalance(visitor,services.getClock()).getBalance();
+        if (amountToPay > unpaidBalance || amountToPay < 0) {
+            return this.sendResponse("invalid-amount," + amountToPay + "," + unpaidBalance);
+        }
+
+        // Determine the unpaid transactions. Closed transactions have no fee left to pay.
         ArrayList<Transaction> unpaidUnreturnedTransactions = new ArrayList<>();
         ArrayList<Transaction> unpaidReturnedTransactions = new ArrayList<>();
-        for (Transaction transaction : services.getTransactionHistory().getTransactionsByVisitor(visitor)) {
+        for (Transaction transaction : services.getTransactionHistory().getOpenTransactionsByVisitor(visitor)) {
             if (!transaction.getLateFeedPaid()) {
-                unpaidBalance += transaction.calculateFee(currentDate) - transaction.getPartialLateFeePaid();
-
                 if (transaction.getReturned()) {
                     unpaidReturnedTransactions.add(transaction);
                 } else {
@@ -111,11 +118,6 @@ public class PayFine extends AccountRequest implements Waypoint {
             }
         }
 
-        // Return errors for invalid payments.
-        if (amountToPay > unpaidBalance || amountToPay < 0) {
-            return this.sendResponse("invalid-amount," + amountToPay + "," + unpaidBalance);
-        }
-
         // Pay for the books.
         int balanceAfterward = unpaidBalance;
         unpaidReturnedTransactions.addAll(unpaidUnreturnedTransactions);
@@ -128,16 +130,23 @@ public class PayFine extends AccountRequest implements Waypoint {
                 transaction.incrementPartialLateFeePaid(lateFeeRemainder);
                 balanceAfterward += -lateFeeRemainder;
                 amountToPay += -lateFeeRemainder;
-                this.transactionsToUndo.put(transaction,amountToPay);
+                this.transactionsToUndo.put(transaction,lateFeeRemainder);
                 if (transaction.getReturned()) {
                     transaction.setLateFeeAsPaid(currentDate);
                 }
+                if (lateFeeRemainder > 0) {
+                    ChangeEvents.finePaid(services,transaction,lateFeeRemainder,false);
+                }
             } else {
                 transaction.incrementPartialLateFeePaid(amountToPay);
                 balanceAfterward += -amountToPay;
                 this.transactionsToUndo.put(transaction,amountToPay);
+                if (amountToPay > 0) {
+                    ChangeEvents.finePaid(services,transaction,amountToPay,false);
+                }
                 amountToPay = 0;
             }
+            services.getTransactionHistory().updateTransaction(transaction);
         }
 
         // Return the request.response.
@@ -161,6 +170,8 @@ public class PayFine extends AccountRequest implements Waypoint {
         for (Transaction transaction : this.transactionsToUndo.keySet()) {
             transaction.incrementPartialLateFeePaid(-this.transactionsToUndo.get(transaction));
             transaction.setLateFeeAsUnpaid();
+            this.getServices().getTransactionHistory().updateTransaction(transaction);
+            ChangeEvents.finePaid(this.getServices(),transaction,this.transactionsToUndo.get(transaction),true);
         }
 
         // Return true (success).
@@ -6,6 +6,7 @@ import request.Parameter;
 import request.Waypoint;
 import request.connected.AccountRequest;
 import request.response.Response;
+import system.ChangeEvents;
 import system.Services;
 import time.Date;
 import user.Visitor;
@@ -21,6 +22,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class ReturnBook extends AccountRequest implements Waypoint {
+    // The version of the saved class.
+    private static final long serialVersionUID = -53328001396867160L;
+
     private boolean wasCompleted;
     private Date currentDate;
     private ArrayList<Transaction> transactionsEnded;
@@ -101,7 +105,7 @@ public class ReturnBook extends AccountRequest implements Waypoint {
 
         // Get the transactions to that can be returned.
         ArrayList<Transaction> returnableTransactions = new ArrayList<>();
-        for (Transaction transaction : services.getTransactionHistory().getTransactionsByVisitor(visitor)) {
+        for (Transaction transaction : services.getTransactionHistory().getOpenTransactionsByVisitor(visitor)) {
             if (!transaction.getReturned()) {
                 returnableTransactions.add(transaction);
             }
@@ -140,10 +144,13 @@ public class ReturnBook extends AccountRequest implements Waypoint {
         for (Transaction transaction : transactionsToReturn) {
             transaction.getBook().returnCopy();
             transaction.setReturned(this.currentDate);
+            services.getTransactionHistory().updateTransaction(transaction);
             this.transactionsEnded.add(transaction);
 
             booksIdString += "," + (transaction.getBook().getId() - 1);
-            lateFee += transaction.calculateFee(this.currentDate);
+            int transactionFee = (int) transaction.calculateFee(this.currentDate);
+            lateFee += transactionFee;
+            ChangeEvents.bookReturned(services,transaction,transactionFee,false);
         }
 
         // Return a success if there is a late fee.
@@ -170,8 +177,11 @@ public class ReturnBook extends AccountRequest implements Waypoint {
 
         // Remove the books and purchase history.
         for (Transaction transaction : this.transactionsEnded) {
+            int transactionFee = (int) transaction.calculateFee(this.currentDate);
             transaction.getBook().borrowCopy();
             transaction.setUnreturned();
+            this.getServices().getTransactionHistory().updateTransaction(transaction);
+            ChangeEvents.bookReturned(this.getServices(),transaction,transactionFee,true);
         }
 
         // Return true (success).
@@ -1,14 +1,17 @@
 package request.connected.unrevertable;
 
+import books.transactions.DueDateQueue;
 import request.Arguments;
 import request.Parameter;
 import request.connected.AccountRequest;
 import request.response.Response;
+import system.ChangeEvents;
 import system.Services;
 import time.Date;
 import time.Time;
 import user.connection.Connection;
 import user.connection.User;
+import user.visit.Visit;
 
 import java.util.ArrayList;
 
@@ -19,6 +22,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class AdvanceTime extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = 7155196229325869538L;
+
     /**
      * Creates a request.
      *
@@ -95,7 +101,18 @@ public class AdvanceTime extends AccountRequest {
         // End visits if it is past closing or the day has changed.
         Date endingTime = services.getClock().getDate();
         if (beginningTime.getDay() != endingTime.getDay() || endingTime.getHours() >= 19) {
-            services.getVisitHistory().finishAllVisits(new Time(19,0,0));
+            for (Visit visit : services.getVisitHistory().finishAllVisits(new Time(19,0,0))) {
+                ChangeEvents.visitEnded(services,visit,false);
+            }
+        }
+
+        // Publish the loans that became overdue and the late fees that went up.
+        for (DueDateQueue.FeeStep step : services.getTransactionHistory().advanceDueDates(beginningTime,endingTime)) {
+            if (step.isOverdue()) {
+                ChangeEvents.bookOverdue(services,step.getTransaction(),step.getFee());
+            } else {
+                ChangeEvents.lateFeeIncreased(services,step.getTransaction(),step.getFee());
+            }
         }
 
         // Return success.
@@ -2,7 +2,9 @@ package request.connected.unrevertable;
 
 import books.Author;
 import books.Book;
+import books.BookPage;
 import books.Books;
+import books.store.BookStore;
 import request.Arguments;
 import request.Parameter;
 import request.connected.AccountRequest;
@@ -20,6 +22,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class BookStoreSearch extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -3344305164624240487L;
+
     /**
      * Creates a request.
      *
@@ -41,6 +46,30 @@ public class BookStoreSearch extends AccountRequest {
         return "search";
     }
 
+    /**
+     * Returns if the request can modify the services. Searching
+     * services other than the local one registers the found books
+     * in the book store.
+     *
+     * @return if the request can modify the services.
+     */
+    @Override
+    public boolean modifiesServices() {
+        return this.getServices().getBookStore().getCurrentSearchService() != BookStore.SearchService.LOCAL;
+    }
+
+    /**
+     * Returns if performing the request again from the journal gives
+     * the same result. Searching services other than the local one
+     * uses the network, and the found books can change.
+     *
+     * @return if the request can be replayed.
+     */
+    @Override
+    public boolean canBeReplayed() {
+        return this.getServices().getBookStore().getCurrentSearchService() == BookStore.SearchService.LOCAL;
+    }
+
     /**
      * Returns a list of the required parameters.
      *
@@ -103,16 +132,35 @@ public class BookStoreSearch extends AccountRequest {
             return this.sendResponse("invalid-sort-order");
         }
 
+        // Get the limit and offset of the page, if any. A limit of "*" returns every book.
+        int limit = Arguments.NO_LIMIT;
+        if (arguments.hasNext()) {
+            Integer nextLimit = arguments.getNextLimit();
+            if (nextLimit == null) {
+                return this.sendResponse("invalid-limit");
+            }
+            limit = nextLimit;
+        }
+        Integer offset = 0;
+        if (arguments.hasNext()) {
+            offset = arguments.getNextInteger();
+            if (offset == null || offset < 0) {
+                return this.sendResponse("invalid-offset");
+            }
+        }
+
         // Search and sort the books.
-        Books foundBooks = services.getBookStore().getBooks(title,authorsString,isbn,publisher);
-        foundBooks.sort(sortingMethod);
+        BookPage page = services.getBookStore().getBooks(title,authorsString,isbn,publisher,sortingMethod,offset,(limit == Arguments.NO_LIMIT ? Integer.MAX_VALUE : limit));
 
-        // Build the return string.
-        String results = Integer.toString(foundBooks.size());
-        for (Book book : foundBooks) {
+        // Build the return string. Pages also return the amount of books in the page.
+        StringBuilder results = new StringBuilder(Integer.toString(page.getTotal()));
+        if (limit != Arguments.NO_LIMIT) {
+            results.append(",").append(page.getBooks().size());
+        }
+        for (Book book : page.getBooks()) {
             // Create the list of authors.
             String authorsList = "";
-            for (Author author : book.getAuthors()) {
+            for (Author author : book.getAuthorsView()) {
                 if (!authorsList.equals("")) {
                     authorsList += ",";
                 }
@@ -121,10 +169,10 @@ public class BookStoreSearch extends AccountRequest {
             }
 
             // Add the result.
-            results += "\n" + book.getId() + "," + book.getISBN() + "," + book.getName() + ",{" + authorsList + "}," + book.getPublishedDate().formatDate() + ",";
+            results.append("\n").append(book.getId()).append(",").append(book.getISBN()).append(",").append(book.getName()).append(",{").append(authorsList).append("},").append(book.getPublishedDate().formatDate()).append(",");
         }
 
         // Return the result.
-        return this.sendResponse(results);
+        return this.sendResponse(results.toString());
     }
 }
\ No newline at end of file
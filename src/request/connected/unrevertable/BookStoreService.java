@@ -17,6 +17,9 @@ import java.util.ArrayList;
  * @author Zacharry Cook
  */
 public class BookStoreService extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -493884402299733805L;
+
     /**
      * Creates a request.
      *
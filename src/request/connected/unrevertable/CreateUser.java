@@ -17,6 +17,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class CreateUser extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -2742007159009405396L;
+
     /**
      * Creates a request.
      *
@@ -19,6 +19,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class CurrentDateTime extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = 6370737332878317066L;
+
     /**
      * Creates a request.
      *
@@ -40,6 +43,16 @@ public class CurrentDateTime extends AccountRequest {
         return "datetime";
     }
 
+    /**
+     * Returns if the request can modify the services.
+     *
+     * @return if the request can modify the services.
+     */
+    @Override
+    public boolean modifiesServices() {
+        return false;
+    }
+
     /**
      * Returns a list of the required parameters.
      *
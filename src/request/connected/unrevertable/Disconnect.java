@@ -15,6 +15,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class Disconnect extends ConnectedRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -663558760938308841L;
+
     /**
      * Creates a request.
      *
@@ -20,6 +20,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class FindBorrowedBooks extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -682025720012526958L;
+
     /**
      * Creates a request.
      *
@@ -41,6 +44,16 @@ public class FindBorrowedBooks extends AccountRequest {
         return "borrowed";
     }
 
+    /**
+     * Returns if the request can modify the services.
+     *
+     * @return if the request can modify the services.
+     */
+    @Override
+    public boolean modifiesServices() {
+        return false;
+    }
+
     /**
      * Returns a list of the required parameters.
      *
@@ -75,7 +88,7 @@ public class FindBorrowedBooks extends AccountRequest {
 
         // Determine the amount of unreturned books.
         ArrayList<Transaction> unreturnedBooks = new ArrayList<>();
-        for (Transaction transaction : services.getTransactionHistory().getTransactionsByVisitor(visitor)) {
+        for (Transaction transaction : services.getTransactionHistory().getOpenTransactionsByVisitor(visitor)) {
             if (!transaction.getReturned()) {
                 unreturnedBooks.add(transaction);
             }
@@ -0,0 +1,72 @@
+package request.connected.unrevertable;
+
+import request.Arguments;
+import request.Parameter;
+import request.connected.ConnectedRequest;
+import request.response.Response;
+import system.Services;
+import user.connection.Connection;
+
+import java.util.ArrayList;
+
+/**
+ * Request that takes the place of a read-only request in the request
+ * history of a connection when the journal is replayed. Like the request
+ * it replaces, it can't be undone and clears the requests to redo.
+ *
+ * @author Zachary Cook
+ */
+public class HistoryPlaceholder extends ConnectedRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -321831450410923900L;
+
+    /**
+     * Creates a request.
+     *
+     * @param services the services to use for the request.
+     * @param connection the connection to use.
+     */
+    public HistoryPlaceholder(Services services,Connection connection) {
+        super(services,connection,new Arguments(new ArrayList<>()));
+    }
+
+    /**
+     * Returns the name of the request.
+     *
+     * @return the name of the request.
+     */
+    @Override
+    public String getName() {
+        return "history-placeholder";
+    }
+
+    /**
+     * Returns if the request can modify the services.
+     *
+     * @return if the request can modify the services.
+     */
+    @Override
+    public boolean modifiesServices() {
+        return false;
+    }
+
+    /**
+     * Returns a list of the required parameters.
+     *
+     * @return a list of the required parameters.
+     */
+    @Override
+    public ArrayList<Parameter> getRequiredParameters() {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Returns a response for the request.
+     *
+     * @return the response of the request.
+     */
+    @Override
+    public Response handleRequest() {
+        return this.sendResponse();
+    }
+}
@@ -2,7 +2,9 @@ package request.connected.unrevertable;
 
 import books.Author;
 import books.Book;
+import books.BookPage;
 import books.Books;
+import books.search.FacetCounts;
 import request.Arguments;
 import request.Parameter;
 import request.connected.AccountRequest;
@@ -12,6 +14,9 @@ import user.connection.Connection;
 import user.connection.User;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Request for searching books that are owned by library and can
@@ -21,6 +26,21 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class LibraryBookSearch extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = 4812766130846251453L;
+
+    // The most values that are returned for each facet.
+    public static int MAX_FACET_VALUES = 10;
+
+    // The names of the facets that can be counted, in the order they are returned.
+    private static final LinkedHashMap<String,FacetCounts.Facet> FACET_NAMES = new LinkedHashMap<>();
+    static {
+        FACET_NAMES.put("author",FacetCounts.Facet.AUTHOR);
+        FACET_NAMES.put("publisher",FacetCounts.Facet.PUBLISHER);
+        FACET_NAMES.put("year",FacetCounts.Facet.YEAR);
+        FACET_NAMES.put("availability",FacetCounts.Facet.AVAILABILITY);
+    }
+
     /**
      * Creates a request.
      *
@@ -42,6 +62,16 @@ public class LibraryBookSearch extends AccountRequest {
         return "info";
     }
 
+    /**
+     * Returns if the request can modify the services.
+     *
+     * @return if the request can modify the services.
+     */
+    @Override
+    public boolean modifiesServices() {
+        return false;
+    }
+
     /**
      * Returns a list of the required parameters.
      *
@@ -102,16 +132,47 @@ public class LibraryBookSearch extends AccountRequest {
             return this.sendResponse("invalid-sort-order");
         }
 
+        // Get the limit and offset of the page, if any. A limit of "*" returns every book.
+        int limit = Arguments.NO_LIMIT;
+        if (arguments.hasNext()) {
+            Integer nextLimit = arguments.getNextLimit();
+            if (nextLimit == null) {
+                return this.sendResponse("invalid-limit");
+            }
+            limit = nextLimit;
+        }
+        Integer offset = 0;
+        if (arguments.hasNext()) {
+            offset = arguments.getNextInteger();
+            if (offset == null || offset < 0) {
+                return this.sendResponse("invalid-offset");
+            }
+        }
+
+        // Get the facets to count, if any.
+        EnumSet<FacetCounts.Facet> facets = EnumSet.noneOf(FacetCounts.Facet.class);
+        if (arguments.hasNext()) {
+            for (String facetName : arguments.getNextListAsStrings()) {
+                FacetCounts.Facet facet = FACET_NAMES.get(facetName.trim().toLowerCase());
+                if (facet == null) {
+                    return this.sendResponse("invalid-facet," + facetName);
+                }
+                facets.add(facet);
+            }
+        }
+
         // Search and sort the books.
-        Books foundBooks = services.getBookInventory().getBooks(title,authorsString,isbn,publisher);
-        foundBooks.sort(sortingMethod);
+        BookPage page = services.getBookInventory().getBooks(title,authorsString,isbn,publisher,sortingMethod,offset,(limit == Arguments.NO_LIMIT ? Integer.MAX_VALUE : limit),facets);
 
-        // Build the return string.
-        String results = Integer.toString(foundBooks.size());
-        for (Book book : foundBooks) {
+        // Build the return string. Pages also return the amount of books in the page.
+        StringBuilder results = new StringBuilder(Integer.toString(page.getTotal()));
+        if (limit != Arguments.NO_LIMIT) {
+            results.append(",").append(page.getBooks().size());
+        }
+        for (Book book : page.getBooks()) {
             // Create the list of authors.
             String authorsList = "";
-            for (Author author : book.getAuthors()) {
+            for (Author author : book.getAuthorsView()) {
                 if (!authorsList.equals("")) {
                     authorsList += ",";
                 }
@@ -120,10 +181,23 @@ public class LibraryBookSearch extends AccountRequest {
             }
 
             // Add the result.
-            results += "\n" + (book.getNumCopies() - book.getNumCopiesCheckedOut()) + "," + book.getId() + "," + book.getISBN() + ",\"" + book.getName() + "\",{" + authorsList + "}," + book.getPublishedDate().formatDate() + ",";
+            results.append("\n").append(book.getNumCopies() - book.getNumCopiesCheckedOut()).append(",").append(book.getId()).append(",").append(book.getISBN()).append(",\"").append(book.getName()).append("\",{").append(authorsList).append("},").append(book.getPublishedDate().formatDate()).append(",");
+        }
+
+        // Add the facet counts as "facet,{"value",count,...}".
+        for (Map.Entry<String,FacetCounts.Facet> facetName : FACET_NAMES.entrySet()) {
+            if (facets.contains(facetName.getValue())) {
+                results.append("\n").append(facetName.getKey()).append(",{");
+                String separator = "";
+                for (Map.Entry<String,Integer> count : page.getFacetCounts().getTopCounts(facetName.getValue(),MAX_FACET_VALUES)) {
+                    results.append(separator).append("\"").append(count.getKey()).append("\",").append(count.getValue());
+                    separator = ",";
+                }
+                results.append("}");
+            }
         }
 
         // Return the result.
-        return this.sendResponse(results);
+        return this.sendResponse(results.toString());
     }
 }
\ No newline at end of file
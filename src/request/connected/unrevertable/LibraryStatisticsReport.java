@@ -7,6 +7,7 @@ import request.Arguments;
 import request.Parameter;
 import request.connected.AccountRequest;
 import request.response.Response;
+import system.HistoryArchive;
 import system.Services;
 import time.Date;
 import time.Time;
@@ -15,7 +16,9 @@ import user.connection.Connection;
 import user.connection.User;
 import user.visit.Visit;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 
 /**
  * Request for getting a statistics report of the library.
@@ -24,6 +27,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class LibraryStatisticsReport extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -8973154563388511622L;
+
     /**
      * Creates a request.
      *
@@ -45,6 +51,16 @@ public class LibraryStatisticsReport extends AccountRequest {
         return "report";
     }
 
+    /**
+     * Returns if the request can modify the services.
+     *
+     * @return if the request can modify the services.
+     */
+    @Override
+    public boolean modifiesServices() {
+        return false;
+    }
+
     /**
      * Returns a list of the required parameters.
      *
@@ -77,9 +93,26 @@ public class LibraryStatisticsReport extends AccountRequest {
         // Get the current date.
         Date currentDate = services.getClock().getDate();
 
-        // Get the average visit length.
+        // Get the average visit length, starting with the archived visits.
+        HistoryArchive archive = services.getHistoryArchive();
+        long currentEpochSeconds = currentDate.getEpochSeconds();
         int averageVisitLength = 0;
         int visits = 0;
+        if (archive != null) {
+            try {
+                long[] arrivals = archive.readLongColumn(HistoryArchive.VISITS,HistoryArchive.VISIT_ARRIVAL);
+                int[] arrivalSeconds = archive.readIntColumn(HistoryArchive.VISITS,HistoryArchive.VISIT_ARRIVAL_SECONDS);
+                int[] departureSeconds = archive.readIntColumn(HistoryArchive.VISITS,HistoryArchive.VISIT_DEPARTURE_SECONDS);
+                for (int i = 0; i < arrivals.length; i++) {
+                    if (differenceInDays(arrivals[i],currentEpochSeconds) < dayLimit) {
+                        averageVisitLength = ((averageVisitLength * visits) + (departureSeconds[i] - arrivalSeconds[i])) / (visits + 1);
+                        visits += 1;
+                    }
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("Archived visits could not be read.",ex);
+            }
+        }
         for (Visit visit : services.getVisitHistory().getFinishedVisits()) {
             if (visit.getDate().differenceInDays(currentDate) < dayLimit) {
                 averageVisitLength = ((averageVisitLength * visits) + (visit.getTimeOfDeparture().getSeconds() - visit.getDate().getSeconds())) / (visits + 1);
@@ -104,6 +137,29 @@ public class LibraryStatisticsReport extends AccountRequest {
         int finesCollected = 0;
         int finesOutstanding = 0;
 
+        // Add the fines of the archived transactions of the visitors. They are
+        // closed, so no fee is owed and the paid fee is subtracted as owed.
+        if (archive != null) {
+            HashSet<Long> visitorIds = new HashSet<>();
+            for (Visitor visitor : services.getVisitorsRegistry().getVisitors()) {
+                visitorIds.add(Long.parseLong(visitor.getId()));
+            }
+            try {
+                long[] transactionVisitors = archive.readLongColumn(HistoryArchive.TRANSACTIONS,HistoryArchive.TRANSACTION_VISITOR);
+                long[] checkedOut = archive.readLongColumn(HistoryArchive.TRANSACTIONS,HistoryArchive.TRANSACTION_CHECKED_OUT);
+                long[] returned = archive.readLongColumn(HistoryArchive.TRANSACTIONS,HistoryArchive.TRANSACTION_RETURNED);
+                int[] feesPaid = archive.readIntColumn(HistoryArchive.TRANSACTIONS,HistoryArchive.TRANSACTION_FEE_PAID);
+                for (int i = 0; i < transactionVisitors.length; i++) {
+                    if (visitorIds.contains(transactionVisitors[i]) && (differenceInDays(checkedOut[i],currentEpochSeconds) < dayLimit || differenceInDays(returned[i],currentEpochSeconds) < dayLimit)) {
+                        finesCollected += feesPaid[i];
+                        finesOutstanding -= feesPaid[i];
+                    }
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("Archived transactions could not be read.",ex);
+            }
+        }
+
         for (Visitor visitor : services.getVisitorsRegistry().getVisitors()) {
             for (Transaction transaction : services.getTransactionHistory().getTransactionsByVisitor(visitor)) {
                 if (transaction.getCheckedOut().differenceInDays(currentDate) < dayLimit || !transaction.getReturned() || transaction.getReturnedDate().differenceInDays(currentDate) < dayLimit) {
@@ -133,4 +189,16 @@ public class LibraryStatisticsReport extends AccountRequest {
         // Return the result.
         return this.sendResponse(result);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the difference in days between an archived date and
+     * another date, the same as {@link Date#differenceInDays(Date)}.
+     *
+     * @param epochSeconds the seconds since the epoch of the archived date.
+     * @param otherEpochSeconds the seconds since the epoch of the date to compare to.
+     * @return the difference in days.
+     */
+    private static int differenceInDays(long epochSeconds,long otherEpochSeconds) {
+        return (int) ((otherEpochSeconds - epochSeconds) / (60 * 60 * 24));
+    }
+}
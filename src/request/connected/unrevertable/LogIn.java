@@ -16,6 +16,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class LogIn extends ConnectedRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = 5290318782132966948L;
+
     /**
      * Creates a request.
      *
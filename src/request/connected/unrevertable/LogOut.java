@@ -16,6 +16,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class LogOut extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = 5809834111396577351L;
+
     /**
      * Creates a request.
      *
@@ -18,6 +18,11 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class Redo extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -5799304910043958527L;
+
+    private boolean requestRedone;
+
     /**
      * Creates a request.
      *
@@ -27,6 +32,7 @@ public class Redo extends AccountRequest {
      */
     public Redo(Services services, Connection connection, Arguments arguments) {
         super(services,connection,arguments, User.PermissionLevel.VISITOR);
+        this.requestRedone = false;
     }
 
     /**
@@ -39,6 +45,18 @@ public class Redo extends AccountRequest {
         return "redo";
     }
 
+    /**
+     * Returns if the request can modify the services. Only a successful
+     * redo modifies the services. Whether a redo succeeds depends on the
+     * history of the connection, which includes read-only requests.
+     *
+     * @return if the request can modify the services.
+     */
+    @Override
+    public boolean modifiesServices() {
+        return this.requestRedone;
+    }
+
     /**
      * Returns a list of the required parameters.
      *
@@ -81,6 +99,7 @@ public class Redo extends AccountRequest {
         }
 
         // Register the request as completed.
+        this.requestRedone = true;
         connection.lastRequestRedone();
 
         // Return success.
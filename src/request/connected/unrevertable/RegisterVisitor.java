@@ -5,6 +5,7 @@ import request.Parameter;
 import request.connected.AccountRequest;
 import request.response.Response;
 import time.Clock;
+import system.ChangeEvents;
 import system.Services;
 import time.Date;
 import user.Name;
@@ -21,6 +22,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class RegisterVisitor extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -2778072775029235711L;
+
     /**
      * Creates a request.
      *
@@ -96,6 +100,7 @@ public class RegisterVisitor extends AccountRequest {
         } catch (IllegalArgumentException e) {
             return this.sendResponse("error," + e.getMessage());
         }
+        ChangeEvents.visitorRegistered(services,visitor);
 
         // Return the request.response.
         return this.sendResponse(visitor.getId() + "," + formattedDate + " " + formattedTime);
@@ -18,6 +18,11 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class Undo extends AccountRequest {
+    // The version of the saved class.
+    private static final long serialVersionUID = -4992051667919275205L;
+
+    private boolean requestUndone;
+
     /**
      * Creates a request.
      *
@@ -27,6 +32,7 @@ public class Undo extends AccountRequest {
      */
     public Undo(Services services,Connection connection,Arguments arguments) {
         super(services,connection,arguments,User.PermissionLevel.VISITOR);
+        this.requestUndone = false;
     }
 
     /**
@@ -39,6 +45,18 @@ public class Undo extends AccountRequest {
         return "undo";
     }
 
+    /**
+     * Returns if the request can modify the services. Only a successful
+     * undo modifies the services. Whether a undo succeeds depends on the
+     * history of the connection, which includes read-only requests.
+     *
+     * @return if the request can modify the services.
+     */
+    @Override
+    public boolean modifiesServices() {
+        return this.requestUndone;
+    }
+
     /**
      * Returns a list of the required parameters.
      *
@@ -81,6 +99,7 @@ public class Undo extends AccountRequest {
         }
 
         // Register the request as completed.
+        this.requestUndone = true;
         connection.lastRequestUndone();
 
         // Return success.
@@ -15,6 +15,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class Connect extends Request {
+    // The version of the saved class.
+    private static final long serialVersionUID = 2558858262605783476L;
+
     /**
      * Creates a request.
      *
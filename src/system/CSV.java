@@ -8,6 +8,9 @@ import java.util.ArrayList;
  * @author Zachary Cook
  */
 public class CSV {
+    // The tokenizers used by each thread.
+    private static final ThreadLocal<CSVTokenizer> TOKENIZERS = ThreadLocal.withInitial(CSVTokenizer::new);
+
     /**
      * Reads and parses a CSV line.
      *
@@ -15,38 +18,27 @@ public class CSV {
      * @return the parsed CSV line as a CSV.
      */
     public static ArrayList<String> parseCSV(String csvLine) {
-        ArrayList<String> parsedLine = new ArrayList<>();
-        String currentString = "";
-        boolean inBreak = false;
+        return parseCSV(csvLine,0,csvLine.length());
+    }
 
-        // Add the lines.
-        for (int i = 0; i < csvLine.length(); i++) {
-            // Get the character.
-            Character character = csvLine.charAt(i);
+    /**
+     * Reads and parses part of a CSV line.
+     *
+     * @param csvLine the line to parse.
+     * @param start the offset to start at.
+     * @param end the offset to end at, exclusive.
+     * @return the parsed CSV line as a CSV.
+     */
+    public static ArrayList<String> parseCSV(String csvLine,int start,int end) {
+        // Split the line.
+        CSVTokenizer tokenizer = TOKENIZERS.get();
+        int fieldCount = tokenizer.tokenize(csvLine,start,end);
 
-            // Interpret the character.
-            if (inBreak) {
-                if (character == '}' || character == '\"') {
-                    inBreak = false;
-                } else {
-                    currentString += character;
-                }
-            } else {
-                if (character == '{' || character == '\"') {
-                    inBreak = true;
-                } else if (character == ',') {
-                    parsedLine.add(currentString);
-                    currentString = "";
-                } else {
-                    currentString += character;
-                }
-            }
+        // Return the fields.
+        ArrayList<String> parsedLine = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            parsedLine.add(tokenizer.getString(i));
         }
-
-        // Push the last string.
-        parsedLine.add(currentString);
-
-        // Return the parse CSV lined.
         return parsedLine;
     }
 }
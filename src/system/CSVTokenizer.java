@@ -0,0 +1,219 @@
+package system;
+
+import java.util.Arrays;
+
+/**
+ * Splits CSV lines into fields without copying them. The fields are
+ * stored as offsets into the line, and are only turned into strings
+ * when they are requested. The quoting rules are the same as
+ * {@link CSV#parseCSV(String)}: commas inside {...} or "..." don't
+ * split fields, and the braces and quotes are removed from the fields.
+ *
+ * A tokenizer reuses its buffers between lines, so it isn't thread
+ * safe. Each thread should use its own tokenizer.
+ *
+ * @author Zachary Cook
+ */
+public class CSVTokenizer {
+    private CharSequence source;
+    private int fieldCount;
+    private int[] fieldStarts;
+    private int[] fieldEnds;
+    private int[] contentStarts;
+    private int[] contentEnds;
+    private StringBuilder builder;
+
+    /**
+     * Creates a CSV tokenizer.
+     */
+    public CSVTokenizer() {
+        this.fieldStarts = new int[8];
+        this.fieldEnds = new int[8];
+        this.contentStarts = new int[8];
+        this.contentEnds = new int[8];
+        this.builder = new StringBuilder();
+    }
+
+    /**
+     * Splits a line into fields.
+     *
+     * @param source the line to split.
+     * @return the amount of fields.
+     */
+    public int tokenize(CharSequence source) {
+        return this.tokenize(source,0,source.length());
+    }
+
+    /**
+     * Splits part of a line into fields.
+     *
+     * @param source the line to split.
+     * @param start the offset to start at.
+     * @param end the offset to end at, exclusive.
+     * @return the amount of fields.
+     */
+    public int tokenize(CharSequence source,int start,int end) {
+        this.source = source;
+        this.fieldCount = 0;
+
+        // Find the ends of the fields.
+        int fieldStart = start;
+        int firstMarker = -1;
+        int lastMarker = -1;
+        int markers = 0;
+        boolean inBreak = false;
+        for (int i = start; i < end; i++) {
+            char character = source.charAt(i);
+            if (inBreak) {
+                if (character == '}' || character == '\"') {
+                    inBreak = false;
+                    lastMarker = i;
+                    markers++;
+                }
+            } else {
+                if (character == '{' || character == '\"') {
+                    inBreak = true;
+                    if (markers == 0) {
+                        firstMarker = i;
+                    }
+                    lastMarker = i;
+                    markers++;
+                } else if (character == ',') {
+                    this.addField(fieldStart,i,firstMarker,lastMarker,markers);
+                    fieldStart = i + 1;
+                    markers = 0;
+                }
+            }
+        }
+
+        // Add the last field.
+        this.addField(fieldStart,end,firstMarker,lastMarker,markers);
+        return this.fieldCount;
+    }
+
+    /**
+     * Adds a field. If the braces or quotes of the field only wrap
+     * it, the content is stored as offsets. Otherwise, the content
+     * is built when the field is requested.
+     *
+     * @param start the offset of the start of the field.
+     * @param end the offset of the end of the field.
+     * @param firstMarker the offset of the first brace or quote.
+     * @param lastMarker the offset of the last brace or quote.
+     * @param markers the amount of braces and quotes.
+     */
+    private void addField(int start,int end,int firstMarker,int lastMarker,int markers) {
+        // Grow the buffers if they are full.
+        if (this.fieldCount == this.fieldStarts.length) {
+            int length = this.fieldStarts.length * 2;
+            this.fieldStarts = Arrays.copyOf(this.fieldStarts,length);
+            this.fieldEnds = Arrays.copyOf(this.fieldEnds,length);
+            this.contentStarts = Arrays.copyOf(this.contentStarts,length);
+            this.contentEnds = Arrays.copyOf(this.contentEnds,length);
+        }
+
+        // Store the field.
+        int field = this.fieldCount;
+        this.fieldStarts[field] = start;
+        this.fieldEnds[field] = end;
+        if (markers == 0) {
+            this.contentStarts[field] = start;
+            this.contentEnds[field] = end;
+        } else if (markers == 1 && firstMarker == start) {
+            this.contentStarts[field] = start + 1;
+            this.contentEnds[field] = end;
+        } else if (markers == 2 && firstMarker == start && lastMarker == end - 1) {
+            this.contentStarts[field] = start + 1;
+            this.contentEnds[field] = end - 1;
+        } else {
+            this.contentStarts[field] = -1;
+            this.contentEnds[field] = -1;
+        }
+        this.fieldCount++;
+    }
+
+    /**
+     * Returns the amount of fields of the last line.
+     *
+     * @return the amount of fields.
+     */
+    public int getFieldCount() {
+        return this.fieldCount;
+    }
+
+    /**
+     * Returns the offset of the start of a field, including braces and quotes.
+     *
+     * @param field the index of the field.
+     * @return the offset of the start of the field.
+     */
+    public int getFieldStart(int field) {
+        return this.fieldStarts[field];
+    }
+
+    /**
+     * Returns the offset of the end of a field, including braces and quotes.
+     *
+     * @param field the index of the field.
+     * @return the offset of the end of the field, exclusive.
+     */
+    public int getFieldEnd(int field) {
+        return this.fieldEnds[field];
+    }
+
+    /**
+     * Returns the offset of the start of the content of a field, or -1
+     * if the braces or quotes are inside of the field.
+     *
+     * @param field the index of the field.
+     * @return the offset of the start of the content.
+     */
+    public int getContentStart(int field) {
+        return this.contentStarts[field];
+    }
+
+    /**
+     * Returns the offset of the end of the content of a field, or -1
+     * if the braces or quotes are inside of the field.
+     *
+     * @param field the index of the field.
+     * @return the offset of the end of the content, exclusive.
+     */
+    public int getContentEnd(int field) {
+        return this.contentEnds[field];
+    }
+
+    /**
+     * Returns the content of a field as a string.
+     *
+     * @param field the index of the field.
+     * @return the content of the field.
+     */
+    public String getString(int field) {
+        // Return the content if it is stored as offsets.
+        if (this.contentStarts[field] != -1) {
+            return this.source.subSequence(this.contentStarts[field],this.contentEnds[field]).toString();
+        }
+
+        // Build the content without the braces and quotes.
+        this.builder.setLength(0);
+        boolean inBreak = false;
+        for (int i = this.fieldStarts[field]; i < this.fieldEnds[field]; i++) {
+            char character = this.source.charAt(i);
+            if (inBreak) {
+                if (character == '}' || character == '\"') {
+                    inBreak = false;
+                } else {
+                    this.builder.append(character);
+                }
+            } else {
+                if (character == '{' || character == '\"') {
+                    inBreak = true;
+                } else {
+                    this.builder.append(character);
+                }
+            }
+        }
+        return this.builder.toString();
+    }
+}
@@ -0,0 +1,176 @@
+package system;
+
+import books.Book;
+import books.transactions.Transaction;
+import com.google.gson.JsonObject;
+import user.Visitor;
+import user.visit.Visit;
+
+/**
+ * Publishes the change events of the requests that modify the services.
+ * Events of requests that are undone are published again with "undo"
+ * set to true, and redone requests publish their events again.
+ *
+ * @author Zachary Cook
+ */
+public class ChangeEvents {
+    /**
+     * Creates the fields of an event.
+     *
+     * @param undo whether the event is undone.
+     * @return the fields of the event.
+     */
+    private static JsonObject createFields(boolean undo) {
+        JsonObject fields = new JsonObject();
+        if (undo) {
+            fields.addProperty("undo",true);
+        }
+        return fields;
+    }
+
+    /**
+     * Adds the fields of a transaction to an event.
+     *
+     * @param fields the fields of the event.
+     * @param transaction the transaction to add.
+     */
+    private static void addTransaction(JsonObject fields,Transaction transaction) {
+        fields.addProperty("transaction",transaction.getId());
+        fields.addProperty("visitor",transaction.getVisitor().getId());
+        fields.addProperty("isbn",transaction.getBook().getISBN());
+    }
+
+    /**
+     * Publishes that a book was borrowed.
+     *
+     * @param services the services the change was made to.
+     * @param transaction the transaction of the loan.
+     * @param undo whether the loan was undone.
+     */
+    public static void bookBorrowed(Services services,Transaction transaction,boolean undo) {
+        JsonObject fields = createFields(undo);
+        addTransaction(fields,transaction);
+        fields.addProperty("checkedOut",transaction.getCheckedOut().formatDate());
+        fields.addProperty("due",transaction.getDueDate().formatDate());
+        services.publishEvent("BookBorrowed",fields);
+    }
+
+    /**
+     * Publishes that a book was returned.
+     *
+     * @param services the services the change was made to.
+     * @param transaction the transaction of the loan.
+     * @param fee the late fee of the loan.
+     * @param undo whether the return was undone.
+     */
+    public static void bookReturned(Services services,Transaction transaction,int fee,boolean undo) {
+        JsonObject fields = createFields(undo);
+        addTransaction(fields,transaction);
+        fields.addProperty("fee",fee);
+        services.publishEvent("BookReturned",fields);
+    }
+
+    /**
+     * Publishes that part of a fine was paid.
+     *
+     * @param services the services the change was made to.
+     * @param transaction the transaction the fine is for.
+     * @param amount the amount that was paid.
+     * @param undo whether the payment was undone.
+     */
+    public static void finePaid(Services services,Transaction transaction,int amount,boolean undo) {
+        JsonObject fields = createFields(undo);
+        addTransaction(fields,transaction);
+        fields.addProperty("amount",amount);
+        fields.addProperty("paid",transaction.getLateFeedPaid());
+        services.publishEvent("FinePaid",fields);
+    }
+
+    /**
+     * Publishes that an unreturned book became overdue.
+     *
+     * @param services the services the change was made to.
+     * @param transaction the transaction of the loan.
+     * @param fee the late fee of the loan.
+     */
+    public static void bookOverdue(Services services,Transaction transaction,int fee) {
+        JsonObject fields = createFields(false);
+        addTransaction(fields,transaction);
+        fields.addProperty("due",transaction.getDueDate().formatDate());
+        fields.addProperty("fee",fee);
+        services.publishEvent("BookOverdue",fields);
+    }
+
+    /**
+     * Publishes that the late fee of an unreturned book went up.
+     *
+     * @param services the services the change was made to.
+     * @param transaction the transaction of the loan.
+     * @param fee the late fee of the loan.
+     */
+    public static void lateFeeIncreased(Services services,Transaction transaction,int fee) {
+        JsonObject fields = createFields(false);
+        addTransaction(fields,transaction);
+        fields.addProperty("fee",fee);
+        services.publishEvent("LateFeeIncreased",fields);
+    }
+
+    /**
+     * Publishes that a copy of a book was purchased.
+     *
+     * @param services the services the change was made to.
+     * @param book the book that was purchased.
+     * @param undo whether the purchase was undone.
+     */
+    public static void bookPurchased(Services services,Book book,boolean undo) {
+        JsonObject fields = createFields(undo);
+        fields.addProperty("isbn",book.getISBN());
+        fields.addProperty("title",book.getName());
+        services.publishEvent("BookPurchased",fields);
+    }
+
+    /**
+     * Publishes that a visit was started.
+     *
+     * @param services the services the change was made to.
+     * @param visitor the visitor that arrived.
+     * @param undo whether the visit was undone.
+     */
+    public static void visitStarted(Services services,Visitor visitor,boolean undo) {
+        JsonObject fields = createFields(undo);
+        fields.addProperty("visitor",visitor.getId());
+        services.publishEvent("VisitStarted",fields);
+    }
+
+    /**
+     * Publishes that a visit was ended.
+     *
+     * @param services the services the change was made to.
+     * @param visit the visit that was ended.
+     * @param undo whether the end of the visit was undone.
+     */
+    public static void visitEnded(Services services,Visit visit,boolean undo) {
+        JsonObject fields = createFields(undo);
+        fields.addProperty("visitor",visit.getVisitor().getId());
+        fields.addProperty("arrival",visit.getDate().formatDate() + " " + visit.getDate().formatTime());
+        if (!undo) {
+            fields.addProperty("seconds",visit.getTimeOfDeparture().getSeconds() - visit.getDate().getSeconds());
+        }
+        services.publishEvent("VisitEnded",fields);
+    }
+
+    /**
+     * Publishes that a visitor was registered.
+     *
+     * @param services the services the change was made to.
+     * @param visitor the visitor that was registered.
+     */
+    public static void visitorRegistered(Services services,Visitor visitor) {
+        JsonObject fields = createFields(false);
+        fields.addProperty("visitor",visitor.getId());
+        fields.addProperty("name",visitor.getName());
+        fields.addProperty("address",visitor.getAddress());
+        fields.addProperty("phoneNumber",visitor.getPhoneNumber());
+        services.publishEvent("VisitorRegistered",fields);
+    }
+}
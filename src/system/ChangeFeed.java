@@ -0,0 +1,372 @@
+package system;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import time.Date;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordered feed of the changes made to the services, for systems outside
+ * of the library. Each event is a line of JSON with an offset, a type, the
+ * date of the library, and the fields of the event. Offsets start at 1 and
+ * are stored in the services, so events that are performed again when the
+ * journal is replayed are not written twice. Events are stored in segments
+ * named after the offset of their first event, so consumers can resume
+ * after the last offset they read.
+ *
+ * @author Zachary Cook
+ */
+public class ChangeFeed {
+    // The amount of events that are written to a segment before a new segment is started.
+    public static int SEGMENT_EVENTS = 10000;
+
+    private File baseFile;
+    private BufferedWriter writer;
+    private FileOutputStream outputStream;
+    private int segmentEvents;
+    private long writtenOffset;
+
+    /**
+     * Creates a change feed.
+     *
+     * @param baseFile the base file of the feed. Segments are stored
+     *                 next to it with the first offset as the extension.
+     */
+    public ChangeFeed(File baseFile) {
+        this.baseFile = baseFile;
+        this.writtenOffset = 0;
+    }
+
+    /**
+     * Creates a change feed.
+     *
+     * @param location the base file location of the feed.
+     */
+    public ChangeFeed(String location) {
+        this(new File(location));
+    }
+
+    /**
+     * Returns the offset of the last event written to the feed.
+     *
+     * @return the offset of the last event.
+     */
+    public long getWrittenOffset() {
+        return this.writtenOffset;
+    }
+
+    /**
+     * Returns the segments of the feed, ordered by their first offset.
+     *
+     * @return the first offsets of the segments.
+     */
+    private List<Long> getSegments() {
+        ArrayList<Long> segments = new ArrayList<>();
+
+        // Find the files that start with the base name.
+        File directory = this.baseFile.getAbsoluteFile().getParentFile();
+        String prefix = this.baseFile.getName() + ".";
+        String[] fileNames = directory.list();
+        if (fileNames == null) {
+            return segments;
+        }
+        for (String fileName : fileNames) {
+            if (fileName.startsWith(prefix)) {
+                try {
+                    segments.add(Long.parseLong(fileName.substring(prefix.length())));
+                } catch (NumberFormatException ignored) {
+
+                }
+            }
+        }
+
+        // Sort and return the segments.
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Returns the file for a segment.
+     *
+     * @param firstOffset the offset of the first event in the segment.
+     * @return the file of the segment.
+     */
+    private File getSegmentFile(long firstOffset) {
+        return new File(this.baseFile.getPath() + "." + firstOffset);
+    }
+
+    /**
+     * Returns the offset of an event line, or -1 if the line is invalid.
+     *
+     * @param line the line of the event.
+     * @return the offset of the event.
+     */
+    private static long getOffset(String line) {
+        try {
+            return new JsonParser().parse(line).getAsJsonObject().get("offset").getAsLong();
+        } catch (RuntimeException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Opens the feed for writing. Events after the last complete line
+     * of the last segment are removed.
+     *
+     * @throws IOException if the feed can't be read.
+     */
+    public void open() throws IOException {
+        this.close();
+        List<Long> segments = this.getSegments();
+        if (segments.isEmpty()) {
+            this.writtenOffset = 0;
+            this.startSegment(1);
+            return;
+        }
+
+        // Find the end of the last valid event of the last segment.
+        long lastSegment = segments.get(segments.size() - 1);
+        File segmentFile = this.getSegmentFile(lastSegment);
+        byte[] bytes = Files.readAllBytes(segmentFile.toPath());
+        long lastOffset = lastSegment - 1;
+        int validLength = 0;
+        int events = 0;
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                long offset = getOffset(new String(bytes,lineStart,i - lineStart,StandardCharsets.UTF_8));
+                if (offset == -1 || (events > 0 && offset != lastOffset + 1)) {
+                    break;
+                }
+                lastOffset = offset;
+                validLength = i + 1;
+                events++;
+                lineStart = i + 1;
+            }
+        }
+
+        // Remove the incomplete events and open the segment.
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile,"rw")) {
+            file.setLength(validLength);
+        }
+        this.writtenOffset = lastOffset;
+        this.segmentEvents = events;
+        this.outputStream = new FileOutputStream(segmentFile,true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(this.outputStream,StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Starts a new segment.
+     *
+     * @param firstOffset the offset of the first event in the segment.
+     */
+    private void startSegment(long firstOffset) throws IOException {
+        if (this.writer != null) {
+            this.writer.flush();
+            this.outputStream.getFD().sync();
+            this.writer.close();
+        }
+        this.segmentEvents = 0;
+        this.outputStream = new FileOutputStream(this.getSegmentFile(firstOffset),true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(this.outputStream,StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Appends an event to the feed. Events at or before the written
+     * offset were already written, and are ignored.
+     *
+     * @param offset the offset of the event.
+     * @param type the type of the event.
+     * @param date the date of the library when the event happened.
+     * @param fields the fields of the event.
+     */
+    public void append(long offset,String type,Date date,JsonObject fields) {
+        if (offset <= this.writtenOffset || this.writer == null) {
+            return;
+        }
+
+        // Create the event.
+        JsonObject event = new JsonObject();
+        event.addProperty("offset",offset);
+        event.addProperty("type",type);
+        event.addProperty("date",date.formatDate() + " " + date.formatTime());
+        for (Map.Entry<String,JsonElement> field : fields.entrySet()) {
+            event.add(field.getKey(),field.getValue());
+        }
+
+        // Write the event, starting a new segment if the current one is full.
+        try {
+            if (this.segmentEvents >= SEGMENT_EVENTS) {
+                this.startSegment(offset);
+            }
+            this.writer.write(event.toString());
+            this.writer.write('\n');
+            this.segmentEvents++;
+            this.writtenOffset = offset;
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the buffered events to the file.
+     */
+    public void flush() {
+        try {
+            if (this.writer != null) {
+                this.writer.flush();
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the buffered events to the file and syncs the file to disk.
+     *
+     * @throws IOException if the file can't be synced.
+     */
+    public void sync() throws IOException {
+        if (this.writer != null) {
+            this.writer.flush();
+            this.outputStream.getFD().sync();
+        }
+    }
+
+    /**
+     * Removes the events after an offset. This is used when the journal
+     * that was replayed ends before the feed, so the feed only contains
+     * events of requests that were kept.
+     *
+     * @param offset the offset of the last event to keep.
+     * @throws IOException if the feed can't be changed.
+     */
+    public void truncateAfter(long offset) throws IOException {
+        if (offset >= this.writtenOffset) {
+            return;
+        }
+        this.close();
+
+        // Delete the segments after the offset.
+        List<Long> segments = this.getSegments();
+        for (long segment : segments) {
+            if (segment > offset + 1 && !this.getSegmentFile(segment).delete()) {
+                throw new IOException("Unable to delete feed segment " + segment + ".");
+            }
+        }
+
+        // Shorten the last remaining segment to the offset.
+        long lastSegment = -1;
+        for (long segment : segments) {
+            if (segment <= offset + 1) {
+                lastSegment = segment;
+            }
+        }
+        if (lastSegment != -1) {
+            File segmentFile = this.getSegmentFile(lastSegment);
+            long length = 0;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(segmentFile),StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                while (line != null) {
+                    long lineOffset = getOffset(line);
+                    if (lineOffset == -1 || lineOffset > offset) {
+                        break;
+                    }
+                    length += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                    line = reader.readLine();
+                }
+            }
+            try (RandomAccessFile file = new RandomAccessFile(segmentFile,"rw")) {
+                file.setLength(length);
+            }
+        }
+
+        // Open the feed again.
+        this.open();
+    }
+
+    /**
+     * Reads the events after an offset. Consumers pass the offset of
+     * the last event they read to continue from it.
+     *
+     * @param afterOffset the offset of the last event that was read.
+     * @param maxEvents the maximum amount of events to read.
+     * @return the lines of the events.
+     * @throws IOException if the feed can't be read.
+     */
+    public List<String> readEvents(long afterOffset,int maxEvents) throws IOException {
+        this.flush();
+        ArrayList<String> events = new ArrayList<>();
+        List<Long> segments = this.getSegments();
+        for (int i = 0; i < segments.size() && events.size() < maxEvents; i++) {
+            // Skip the segments that end before the offset.
+            if (i + 1 < segments.size() && segments.get(i + 1) <= afterOffset + 1) {
+                continue;
+            }
+
+            // Read the events of the segment.
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(this.getSegmentFile(segments.get(i))),StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                while (line != null && events.size() < maxEvents) {
+                    long offset = getOffset(line);
+                    if (offset == -1 || offset > this.writtenOffset) {
+                        break;
+                    }
+                    if (offset > afterOffset) {
+                        events.add(line);
+                    }
+                    line = reader.readLine();
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Deletes the segments that only contain events at or before an
+     * offset, once every consumer has read past it.
+     *
+     * @param offset the offset read by every consumer.
+     */
+    public void deleteSegmentsUpTo(long offset) {
+        List<Long> segments = this.getSegments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (segments.get(i + 1) - 1 <= offset && !this.getSegmentFile(segments.get(i)).delete()) {
+                System.out.println("Unable to delete feed segment " + segments.get(i) + ".");
+            }
+        }
+    }
+
+    /**
+     * Syncs and closes the feed.
+     */
+    public void close() {
+        if (this.writer == null) {
+            return;
+        }
+        try {
+            this.sync();
+            this.writer.close();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        this.writer = null;
+        this.outputStream = null;
+    }
+}
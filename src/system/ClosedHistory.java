@@ -0,0 +1,173 @@
+package system;
+
+import books.Book;
+import books.purchases.PurchaseLog;
+import books.transactions.Transaction;
+import user.Visitor;
+import user.visit.Visit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * History of the services that is only needed by a few requests: closed
+ * transactions, finished visits and purchase logs. The history is kept
+ * encoded when the services are decoded, and is decoded the first time
+ * any of it is needed. Until then, it is copied as is when the services
+ * are encoded again.
+ *
+ * @author Zachary Cook
+ */
+class ClosedHistory {
+    private byte[] bytes;
+    private ArrayList<Visitor> visitors;
+    private ArrayList<Book> books;
+    private int maxTransactionId;
+    private int visitCount;
+    private ArrayList<Transaction> transactions;
+    private ArrayList<Visit> visits;
+    private ArrayList<PurchaseLog> purchaseLogs;
+
+    /**
+     * Creates a closed history.
+     *
+     * @param bytes the encoded history.
+     * @param visitors the visitors referenced by the history.
+     * @param books the books referenced by the history.
+     * @param maxTransactionId the highest id of the closed transactions.
+     * @param visitCount the amount of visits in the history.
+     */
+    ClosedHistory(byte[] bytes,ArrayList<Visitor> visitors,ArrayList<Book> books,int maxTransactionId,int visitCount) {
+        this.bytes = bytes;
+        this.visitors = visitors;
+        this.books = books;
+        this.maxTransactionId = maxTransactionId;
+        this.visitCount = visitCount;
+    }
+
+    /**
+     * Returns the encoded history.
+     *
+     * @return the encoded history.
+     */
+    byte[] getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Returns the visitors referenced by the history.
+     *
+     * @return the visitors referenced by the history.
+     */
+    ArrayList<Visitor> getVisitors() {
+        return this.visitors;
+    }
+
+    /**
+     * Returns the books referenced by the history.
+     *
+     * @return the books referenced by the history.
+     */
+    ArrayList<Book> getBooks() {
+        return this.books;
+    }
+
+    /**
+     * Returns the highest id of the closed transactions.
+     *
+     * @return the highest id of the closed transactions.
+     */
+    int getMaxTransactionId() {
+        return this.maxTransactionId;
+    }
+
+    /**
+     * Returns the amount of visits in the history.
+     *
+     * @return the amount of visits.
+     */
+    int getVisitCount() {
+        return this.visitCount;
+    }
+
+    /**
+     * Returns if the history has been decoded.
+     *
+     * @return if the history is loaded.
+     */
+    boolean isLoaded() {
+        return this.bytes == null;
+    }
+
+    /**
+     * Decodes the history, if it hasn't been decoded.
+     *
+     * @throws IllegalStateException if the history can't be decoded.
+     */
+    private void load() {
+        if (this.isLoaded()) {
+            return;
+        }
+        try {
+            ServicesCodec.decodeClosedHistory(this);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Closed history of the services could not be loaded.",ex);
+        }
+        this.bytes = null;
+    }
+
+    /**
+     * Sets the decoded history.
+     *
+     * @param transactions the closed transactions.
+     * @param visits the finished visits.
+     * @param purchaseLogs the purchase logs.
+     */
+    void setHistory(ArrayList<Transaction> transactions,ArrayList<Visit> visits,ArrayList<PurchaseLog> purchaseLogs) {
+        this.transactions = transactions;
+        this.visits = visits;
+        this.purchaseLogs = purchaseLogs;
+    }
+
+    /**
+     * Returns the closed transactions, decoding the history if needed.
+     *
+     * @return the closed transactions.
+     */
+    ArrayList<Transaction> getTransactions() {
+        this.load();
+        return this.transactions;
+    }
+
+    /**
+     * Returns the finished visits, decoding the history if needed.
+     *
+     * @return the finished visits.
+     */
+    ArrayList<Visit> getVisits() {
+        this.load();
+        return this.visits;
+    }
+
+    /**
+     * Returns the purchase logs, decoding the history if needed.
+     *
+     * @return the purchase logs.
+     */
+    ArrayList<PurchaseLog> getPurchaseLogs() {
+        this.load();
+        return this.purchaseLogs;
+    }
+
+    /**
+     * Sets the history to be loaded by the services when it is needed.
+     *
+     * @param services the services the history belongs to.
+     */
+    void attach(Services services) {
+        services.getTransactionHistory().setClosedTransactions(this::getTransactions,this.maxTransactionId);
+        services.getVisitHistory().setClosedVisits(this::getVisits,this.visitCount);
+        services.getPurchaseHistory().setClosedPurchaseLogs(this::getPurchaseLogs);
+        services.setClosedHistory(this);
+    }
+}
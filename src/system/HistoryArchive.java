@@ -0,0 +1,487 @@
+package system;
+
+import books.transactions.Transaction;
+import time.Date;
+import user.visit.Visit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk archive of old closed transactions and finished visits, so
+ * they don't stay on the heap. The archive is a sequence of blocks, and
+ * each block stores its records as columns of primitives with their own
+ * checksums, so a query only reads the columns it needs. The snapshots
+ * store the length of the archive they include, and the archive is
+ * truncated to that length when a snapshot is loaded.
+ *
+ * @author Zachary Cook
+ */
+public class HistoryArchive {
+    // The age in days of the closed history that is archived.
+    public static int ARCHIVE_AGE_DAYS = 30;
+
+    // The identifier at the start of each block.
+    private static final int BLOCK_MAGIC = 0x4C424841;
+
+    // The length of the block header (magic, type, row count).
+    private static final int HEADER_LENGTH = 9;
+
+    // The value stored for dates that don't exist.
+    public static final long NULL_DATE = Long.MIN_VALUE;
+
+    // The types of blocks.
+    public static final byte TRANSACTIONS = 1;
+    public static final byte VISITS = 2;
+
+    // The columns of the transaction blocks.
+    public static final int TRANSACTION_ID = 0;
+    public static final int TRANSACTION_VISITOR = 1;
+    public static final int TRANSACTION_BOOK = 2;
+    public static final int TRANSACTION_CHECKED_OUT = 3;
+    public static final int TRANSACTION_DUE = 4;
+    public static final int TRANSACTION_RETURNED = 5;
+    public static final int TRANSACTION_PAID = 6;
+    public static final int TRANSACTION_FEE_PAID = 7;
+
+    // The columns of the visit blocks.
+    public static final int VISIT_ID = 0;
+    public static final int VISIT_VISITOR = 1;
+    public static final int VISIT_ARRIVAL = 2;
+    public static final int VISIT_ARRIVAL_SECONDS = 3;
+    public static final int VISIT_DEPARTURE_SECONDS = 4;
+
+    // The width in bytes of the columns of each type of block.
+    private static final int[] TRANSACTION_WIDTHS = {4,8,8,8,8,8,8,4};
+    private static final int[] VISIT_WIDTHS = {4,8,8,4,4};
+
+    /**
+     * Location of a block in the archive.
+     */
+    private static class Block {
+        private long offset;
+        private byte type;
+        private int rows;
+
+        /**
+         * Creates a block.
+         *
+         * @param offset the offset of the block in the file.
+         * @param type the type of the block.
+         * @param rows the amount of rows in the block.
+         */
+        private Block(long offset,byte type,int rows) {
+            this.offset = offset;
+            this.type = type;
+            this.rows = rows;
+        }
+    }
+
+    private File file;
+    private FileChannel channel;
+    private ArrayList<Block> blocks;
+    private long length;
+
+    /**
+     * Creates a history archive.
+     *
+     * @param file the file of the archive.
+     */
+    public HistoryArchive(File file) {
+        this.file = file;
+        this.blocks = new ArrayList<>();
+        this.length = 0;
+    }
+
+    /**
+     * Creates a history archive.
+     *
+     * @param location the location of the archive.
+     */
+    public HistoryArchive(String location) {
+        this(new File(location));
+    }
+
+    /**
+     * Returns the widths of the columns of a type of block.
+     *
+     * @param type the type of the block.
+     * @return the widths of the columns.
+     */
+    private static int[] getWidths(byte type) {
+        return type == TRANSACTIONS ? TRANSACTION_WIDTHS : VISIT_WIDTHS;
+    }
+
+    /**
+     * Returns the length of a block.
+     *
+     * @param type the type of the block.
+     * @param rows the amount of rows in the block.
+     * @return the length of the block in bytes.
+     */
+    private static long getBlockLength(byte type,int rows) {
+        long length = HEADER_LENGTH;
+        for (int width : getWidths(type)) {
+            length += (long) width * rows + 4;
+        }
+        return length;
+    }
+
+    /**
+     * Opens the archive and removes anything after the length
+     * included in the loaded snapshot.
+     *
+     * @param length the length of the archive in the snapshot.
+     * @throws IOException if the archive is shorter than the length or invalid.
+     */
+    public void open(long length) throws IOException {
+        this.close();
+        this.blocks.clear();
+        this.channel = FileChannel.open(this.file.toPath(),StandardOpenOption.CREATE,StandardOpenOption.READ,StandardOpenOption.WRITE);
+        if (this.channel.size() < length) {
+            long size = this.channel.size();
+            this.close();
+            throw new IOException("Archive has " + size + " bytes but the snapshot includes " + length + " bytes.");
+        }
+
+        // Remove the blocks that aren't in the snapshot.
+        if (this.channel.size() > length) {
+            this.channel.truncate(length);
+            this.channel.force(true);
+        }
+
+        // Read the block headers.
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        while (offset < length) {
+            header.clear();
+            this.readFully(header,offset);
+            header.flip();
+            if (header.getInt() != BLOCK_MAGIC) {
+                this.close();
+                throw new IOException("Archive block at " + offset + " is invalid.");
+            }
+            byte type = header.get();
+            int rows = header.getInt();
+            this.blocks.add(new Block(offset,type,rows));
+            offset += getBlockLength(type,rows);
+        }
+        if (offset != length) {
+            this.close();
+            throw new IOException("Archive block at " + this.blocks.get(this.blocks.size() - 1).offset + " is incomplete.");
+        }
+        this.length = length;
+    }
+
+    /**
+     * Returns the length of the archive.
+     *
+     * @return the length of the archive in bytes.
+     */
+    public long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Returns the amount of rows of a type in the archive.
+     *
+     * @param type the type of the rows.
+     * @return the amount of rows.
+     */
+    public int getRows(byte type) {
+        int rows = 0;
+        for (Block block : this.blocks) {
+            if (block.type == type) {
+                rows += block.rows;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Appends transactions to the archive.
+     *
+     * @param transactions the transactions to append.
+     * @throws IOException if the transactions can't be written.
+     */
+    public void appendTransactions(List<Transaction> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        // Create the columns.
+        ByteBuffer[] columns = this.createColumns(TRANSACTIONS,transactions.size());
+        for (Transaction transaction : transactions) {
+            columns[TRANSACTION_ID].putInt(transaction.getId());
+            columns[TRANSACTION_VISITOR].putLong(Long.parseLong(transaction.getVisitor().getId()));
+            columns[TRANSACTION_BOOK].putLong(transaction.getBook().getISBN());
+            columns[TRANSACTION_CHECKED_OUT].putLong(getEpochSeconds(transaction.getCheckedOut()));
+            columns[TRANSACTION_DUE].putLong(getEpochSeconds(transaction.getDueDate()));
+            columns[TRANSACTION_RETURNED].putLong(getEpochSeconds(transaction.getReturnedDate()));
+            columns[TRANSACTION_PAID].putLong(getEpochSeconds(transaction.getLateFeePaidDate()));
+            columns[TRANSACTION_FEE_PAID].putInt(transaction.getPartialLateFeePaid());
+        }
+
+        // Write the block.
+        this.writeBlock(TRANSACTIONS,transactions.size(),columns);
+    }
+
+    /**
+     * Appends finished visits to the archive.
+     *
+     * @param visits the visits to append.
+     * @throws IOException if the visits can't be written.
+     */
+    public void appendVisits(List<Visit> visits) throws IOException {
+        if (visits.isEmpty()) {
+            return;
+        }
+
+        // Create the columns.
+        ByteBuffer[] columns = this.createColumns(VISITS,visits.size());
+        for (Visit visit : visits) {
+            columns[VISIT_ID].putInt(visit.getId());
+            columns[VISIT_VISITOR].putLong(Long.parseLong(visit.getVisitor().getId()));
+            columns[VISIT_ARRIVAL].putLong(getEpochSeconds(visit.getDate()));
+            columns[VISIT_ARRIVAL_SECONDS].putInt(visit.getDate().getSeconds());
+            columns[VISIT_DEPARTURE_SECONDS].putInt(visit.getTimeOfDeparture().getSeconds());
+        }
+
+        // Write the block.
+        this.writeBlock(VISITS,visits.size(),columns);
+    }
+
+    /**
+     * Creates the buffers for the columns of a block.
+     *
+     * @param type the type of the block.
+     * @param rows the amount of rows in the block.
+     * @return the buffers of the columns.
+     */
+    private ByteBuffer[] createColumns(byte type,int rows) {
+        int[] widths = getWidths(type);
+        ByteBuffer[] columns = new ByteBuffer[widths.length];
+        for (int i = 0; i < widths.length; i++) {
+            columns[i] = ByteBuffer.allocate(widths[i] * rows + 4);
+        }
+        return columns;
+    }
+
+    /**
+     * Writes a block to the end of the archive and syncs it.
+     *
+     * @param type the type of the block.
+     * @param rows the amount of rows in the block.
+     * @param columns the columns of the block, without their checksums.
+     * @throws IOException if the block can't be written.
+     */
+    private void writeBlock(byte type,int rows,ByteBuffer[] columns) throws IOException {
+        if (this.channel == null) {
+            throw new IOException("Archive is not open.");
+        }
+
+        // Create the header and add the checksums of the columns.
+        ByteBuffer[] buffers = new ByteBuffer[columns.length + 1];
+        buffers[0] = ByteBuffer.allocate(HEADER_LENGTH);
+        buffers[0].putInt(BLOCK_MAGIC);
+        buffers[0].put(type);
+        buffers[0].putInt(rows);
+        buffers[0].flip();
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].putInt((int) checksum(columns[i].array(),columns[i].position()));
+            columns[i].flip();
+            buffers[i + 1] = columns[i];
+        }
+
+        // Write and sync the block.
+        long blockLength = getBlockLength(type,rows);
+        this.channel.position(this.length);
+        long written = 0;
+        while (written < blockLength) {
+            written += this.channel.write(buffers);
+        }
+        this.channel.force(false);
+        this.blocks.add(new Block(this.length,type,rows));
+        this.length += blockLength;
+    }
+
+    /**
+     * Reads a column of longs from the blocks of a type.
+     *
+     * @param type the type of the blocks.
+     * @param column the column to read.
+     * @return the values of the column, in the order they were archived.
+     * @throws IOException if the column can't be read or is invalid.
+     */
+    public long[] readLongColumn(byte type,int column) throws IOException {
+        long[] values = new long[this.getRows(type)];
+        int index = 0;
+        for (Block block : this.blocks) {
+            if (block.type == type) {
+                ByteBuffer buffer = this.readColumn(block,column,8);
+                for (int i = 0; i < block.rows; i++) {
+                    values[index++] = buffer.getLong();
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads a column of ints from the blocks of a type.
+     *
+     * @param type the type of the blocks.
+     * @param column the column to read.
+     * @return the values of the column, in the order they were archived.
+     * @throws IOException if the column can't be read or is invalid.
+     */
+    public int[] readIntColumn(byte type,int column) throws IOException {
+        int[] values = new int[this.getRows(type)];
+        int index = 0;
+        for (Block block : this.blocks) {
+            if (block.type == type) {
+                ByteBuffer buffer = this.readColumn(block,column,4);
+                for (int i = 0; i < block.rows; i++) {
+                    values[index++] = buffer.getInt();
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads and checks a column of a block.
+     *
+     * @param block the block to read.
+     * @param column the column to read.
+     * @param width the expected width of the column.
+     * @return the values of the column.
+     * @throws IOException if the column can't be read or is invalid.
+     */
+    private ByteBuffer readColumn(Block block,int column,int width) throws IOException {
+        int[] widths = getWidths(block.type);
+        if (widths[column] != width) {
+            throw new IllegalArgumentException("Column " + column + " is " + widths[column] + " bytes wide.");
+        }
+
+        // Determine the offset of the column.
+        long offset = block.offset + HEADER_LENGTH;
+        for (int i = 0; i < column; i++) {
+            offset += (long) widths[i] * block.rows + 4;
+        }
+
+        // Read the column and compare the checksum.
+        ByteBuffer buffer = ByteBuffer.allocate(width * block.rows + 4);
+        this.readFully(buffer,offset);
+        int dataLength = width * block.rows;
+        if ((int) checksum(buffer.array(),dataLength) != buffer.getInt(dataLength)) {
+            throw new IOException("Archive column " + column + " of block at " + block.offset + " is damaged.");
+        }
+        buffer.flip();
+        buffer.limit(dataLength);
+        return buffer;
+    }
+
+    /**
+     * Reads from the archive until the buffer is full.
+     *
+     * @param buffer the buffer to read into.
+     * @param offset the offset to read from.
+     * @throws IOException if the archive ends before the buffer is full.
+     */
+    private void readFully(ByteBuffer buffer,long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = this.channel.read(buffer,offset + buffer.position());
+            if (read < 0) {
+                throw new IOException("Archive ended at " + (offset + buffer.position()) + ".");
+            }
+        }
+    }
+
+    /**
+     * Moves the closed history older than the archive age from the services
+     * to the archive. Transactions referenced by the request histories are
+     * kept, since undoing the requests changes them. History that isn't
+     * loaded is left alone, since it isn't on the heap.
+     *
+     * @param services the services to archive the history of.
+     * @return if any history was archived.
+     * @throws IOException if the history can't be written.
+     */
+    public boolean archiveHistory(Services services) throws IOException {
+        long cutoff = services.getClock().getDate().getEpochSeconds() - (ARCHIVE_AGE_DAYS * 60L * 60 * 24);
+
+        // Archive the closed transactions.
+        ArrayList<Transaction> transactions = new ArrayList<>();
+        if (!services.getTransactionHistory().hasUnloadedTransactions()) {
+            Set<Transaction> referencedTransactions = ServicesCodec.getReferencedTransactions(services);
+            transactions = services.getTransactionHistory().removeTransactions(transaction -> transaction.isClosed() && !referencedTransactions.contains(transaction) && isBefore(transaction.getReturnedDate(),cutoff) && isBefore(transaction.getLateFeePaidDate(),cutoff));
+            this.appendTransactions(transactions);
+        }
+
+        // Archive the oldest finished visits.
+        ArrayList<Visit> visits = new ArrayList<>();
+        if (!services.getVisitHistory().hasUnloadedVisits()) {
+            visits = services.getVisitHistory().removeFinishedVisits(visit -> isBefore(visit.getDate(),cutoff));
+            this.appendVisits(visits);
+        }
+
+        // Store the length of the archive for the next snapshot.
+        services.setArchiveLength(this.length);
+        return !transactions.isEmpty() || !visits.isEmpty();
+    }
+
+    /**
+     * Returns if a date is before a time. Missing dates are
+     * treated as being before.
+     *
+     * @param date the date to check, or null.
+     * @param epochSeconds the seconds since the epoch to compare to.
+     * @return if the date is before the time.
+     */
+    private static boolean isBefore(Date date,long epochSeconds) {
+        return date == null || date.getEpochSeconds() < epochSeconds;
+    }
+
+    /**
+     * Returns the seconds since the epoch of a date.
+     *
+     * @param date the date, or null.
+     * @return the seconds since the epoch, or NULL_DATE.
+     */
+    private static long getEpochSeconds(Date date) {
+        return date == null ? NULL_DATE : date.getEpochSeconds();
+    }
+
+    /**
+     * Closes the archive.
+     *
+     * @throws IOException if the archive can't be closed.
+     */
+    public void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+
+    /**
+     * Returns the CRC32 checksum of the bytes.
+     *
+     * @param bytes the bytes to check.
+     * @param length the amount of bytes to check.
+     * @return the checksum of the bytes.
+     */
+    private static long checksum(byte[] bytes,int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes,0,length);
+        return crc.getValue();
+    }
+}
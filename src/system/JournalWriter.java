@@ -0,0 +1,402 @@
+package system;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes requests to a journal on a dedicated thread so the requests
+ * don't wait for the disk. Requests are handed to the thread through a
+ * bounded queue, which blocks new requests when it is full. Maintenance
+ * of the journal, such as starting segments, goes through the same queue
+ * so it happens in order with the requests.
+ *
+ * @author Zachary Cook
+ */
+public class JournalWriter {
+    /**
+     * When a submitted request is acknowledged.
+     */
+    public enum Durability {
+        // Acknowledge once the request is in the queue.
+        ENQUEUED,
+        // Acknowledge once the request is written to the journal.
+        WRITTEN,
+        // Acknowledge once the request is synced to disk.
+        SYNCED
+    }
+
+    // The default durability of the submitted requests.
+    public static Durability DEFAULT_DURABILITY = Durability.WRITTEN;
+
+    // The amount of entries that can wait in the queue.
+    public static int QUEUE_CAPACITY = 1024;
+
+    /**
+     * The types of entries in the queue.
+     */
+    private enum EntryType {
+        REQUEST,
+        SYNC,
+        START_SEGMENT,
+        DELETE_SEGMENTS,
+        CLOSE
+    }
+
+    /**
+     * Entry in the queue for the writer thread.
+     */
+    private static class Entry {
+        private EntryType type;
+        private String request;
+        private long sequence;
+        private boolean syncRequired;
+
+        /**
+         * Creates an entry.
+         *
+         * @param type the type of the entry.
+         * @param request the request to write, if any.
+         * @param sequence the sequence of the entry.
+         * @param syncRequired if the journal must be synced after the entry.
+         */
+        private Entry(EntryType type,String request,long sequence,boolean syncRequired) {
+            this.type = type;
+            this.request = request;
+            this.sequence = sequence;
+            this.syncRequired = syncRequired;
+        }
+    }
+
+    private RequestJournal journal;
+    private Durability durability;
+    private ArrayBlockingQueue<Entry> queue;
+    private Thread thread;
+    private long submittedSequence;
+    private long writtenSequence;
+    private long syncedSequence;
+    private IOException failure;
+    private long flushCount;
+    private long totalFlushNanos;
+    private long maxFlushNanos;
+    private long lastFlushNanos;
+
+    /**
+     * Creates a journal writer and starts its thread. The requests
+     * of the journal must be read before it is used.
+     *
+     * @param journal the journal to write to.
+     * @param durability when submitted requests are acknowledged.
+     */
+    public JournalWriter(RequestJournal journal,Durability durability) {
+        this.journal = journal;
+        this.durability = durability;
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.submittedSequence = journal.getLastSequence();
+        this.writtenSequence = journal.getLastSequence();
+        this.syncedSequence = journal.getSyncedSequence();
+
+        // Start the thread.
+        this.thread = new Thread(this::writeEntries,"JournalWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Creates a journal writer with the default durability.
+     *
+     * @param journal the journal to write to.
+     */
+    public JournalWriter(RequestJournal journal) {
+        this(journal,DEFAULT_DURABILITY);
+    }
+
+    /**
+     * Returns the durability of the submitted requests.
+     *
+     * @return the durability of the requests.
+     */
+    public Durability getDurability() {
+        return this.durability;
+    }
+
+    /**
+     * Returns the sequence of the last submitted request.
+     *
+     * @return the sequence of the last submitted request.
+     */
+    public synchronized long getSubmittedSequence() {
+        return this.submittedSequence;
+    }
+
+    /**
+     * Returns the sequence of the last request written to the journal.
+     *
+     * @return the sequence of the last written request.
+     */
+    public synchronized long getWrittenSequence() {
+        return this.writtenSequence;
+    }
+
+    /**
+     * Returns the sequence of the last request synced to disk.
+     *
+     * @return the sequence of the last synced request.
+     */
+    public synchronized long getSyncedSequence() {
+        return this.syncedSequence;
+    }
+
+    /**
+     * Returns the amount of entries waiting in the queue.
+     *
+     * @return the depth of the queue.
+     */
+    public int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    /**
+     * Returns the amount of times entries were flushed to the journal.
+     *
+     * @return the amount of flushes.
+     */
+    public synchronized long getFlushCount() {
+        return this.flushCount;
+    }
+
+    /**
+     * Returns the time of the last flush in nanoseconds.
+     *
+     * @return the latency of the last flush.
+     */
+    public synchronized long getLastFlushNanos() {
+        return this.lastFlushNanos;
+    }
+
+    /**
+     * Returns the average time of the flushes in nanoseconds.
+     *
+     * @return the average latency of the flushes.
+     */
+    public synchronized long getAverageFlushNanos() {
+        return this.flushCount == 0 ? 0 : this.totalFlushNanos / this.flushCount;
+    }
+
+    /**
+     * Returns the longest time of the flushes in nanoseconds.
+     *
+     * @return the maximum latency of the flushes.
+     */
+    public synchronized long getMaxFlushNanos() {
+        return this.maxFlushNanos;
+    }
+
+    /**
+     * Submits a request to be written and waits until it meets the
+     * durability. This blocks if the queue is full. Requests must
+     * be submitted in the order they were performed.
+     *
+     * @param request the request to write.
+     * @return the sequence of the request.
+     * @throws IOException if the journal failed to write.
+     */
+    public long submit(String request) throws IOException {
+        // Add the request to the queue.
+        long sequence;
+        synchronized (this) {
+            this.submittedSequence += 1;
+            sequence = this.submittedSequence;
+        }
+        this.enqueue(new Entry(EntryType.REQUEST,request,sequence,this.durability == Durability.SYNCED));
+
+        // Wait for the request to be written or synced.
+        if (this.durability != Durability.ENQUEUED) {
+            this.await(sequence,this.durability);
+        }
+        return sequence;
+    }
+
+    /**
+     * Waits until the requests up to a sequence are synced to disk,
+     * regardless of the durability of the requests.
+     *
+     * @param sequence the sequence of the last request to wait for.
+     * @throws IOException if the journal failed to write or sync the requests.
+     */
+    public void awaitSynced(long sequence) throws IOException {
+        if (this.getSyncedSequence() < sequence) {
+            this.enqueue(new Entry(EntryType.SYNC,null,0,true));
+        }
+        this.await(sequence,Durability.SYNCED);
+    }
+
+    /**
+     * Starts a new journal segment after the submitted requests.
+     *
+     * @throws IOException if the writer is closed.
+     */
+    public void startSegment() throws IOException {
+        this.enqueue(new Entry(EntryType.START_SEGMENT,null,0,false));
+    }
+
+    /**
+     * Deletes the journal segments that only contain records up to
+     * the given sequence, after the submitted requests are written.
+     *
+     * @param sequence the last sequence that no longer needs to be kept.
+     * @throws IOException if the writer is closed.
+     */
+    public void deleteSegmentsUpTo(long sequence) throws IOException {
+        this.enqueue(new Entry(EntryType.DELETE_SEGMENTS,null,sequence,false));
+    }
+
+    /**
+     * Writes and syncs the submitted requests, closes the journal,
+     * and waits for the writer thread to stop.
+     */
+    public void close() {
+        try {
+            this.enqueue(new Entry(EntryType.CLOSE,null,0,true));
+            this.thread.join();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds an entry to the queue, waiting if the queue is full.
+     *
+     * @param entry the entry to add.
+     * @throws IOException if the writer thread has stopped.
+     */
+    private void enqueue(Entry entry) throws IOException {
+        if (!this.thread.isAlive()) {
+            throw new IOException("Journal writer is closed.");
+        }
+        try {
+            this.queue.put(entry);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the journal queue.",ex);
+        }
+    }
+
+    /**
+     * Waits until a request is written or synced.
+     *
+     * @param sequence the sequence of the request.
+     * @param durability the durability to wait for.
+     * @throws IOException if the journal failed to write.
+     */
+    private synchronized void await(long sequence,Durability durability) throws IOException {
+        while ((durability == Durability.SYNCED ? this.syncedSequence : this.writtenSequence) < sequence) {
+            if (this.failure != null) {
+                throw new IOException("Journal failed to write request " + sequence + ".",this.failure);
+            }
+            if (!this.thread.isAlive()) {
+                throw new IOException("Journal writer stopped before request " + sequence + " was written.");
+            }
+            try {
+                this.wait(RequestJournal.GROUP_COMMIT_INTERVAL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the journal.",ex);
+            }
+        }
+    }
+
+    /**
+     * Writes the entries in the queue until the writer is closed.
+     * Entries that are waiting together are written as one flush,
+     * and the journal is synced when it is idle.
+     */
+    private void writeEntries() {
+        ArrayList<Entry> entries = new ArrayList<>();
+        boolean closed = false;
+        while (!closed) {
+            // Wait for entries, and sync the journal if none arrive.
+            Entry firstEntry;
+            try {
+                firstEntry = this.queue.poll(RequestJournal.GROUP_COMMIT_INTERVAL_MILLIS,TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                firstEntry = new Entry(EntryType.CLOSE,null,0,true);
+            }
+            if (firstEntry == null) {
+                try {
+                    this.journal.sync();
+                } catch (IOException ex) {
+                    this.fail(ex);
+                }
+                this.publish(0);
+                continue;
+            }
+            entries.add(firstEntry);
+            this.queue.drainTo(entries);
+
+            // Write the entries.
+            long startTime = System.nanoTime();
+            boolean syncRequired = false;
+            try {
+                for (Entry entry : entries) {
+                    syncRequired |= entry.syncRequired;
+                    if (entry.type == EntryType.REQUEST) {
+                        this.journal.append(entry.request);
+                    } else if (entry.type == EntryType.START_SEGMENT) {
+                        this.journal.startSegment();
+                    } else if (entry.type == EntryType.DELETE_SEGMENTS) {
+                        this.journal.deleteSegmentsUpTo(entry.sequence);
+                    } else if (entry.type == EntryType.CLOSE) {
+                        closed = true;
+                    }
+                }
+
+                // Sync the journal if required.
+                if (syncRequired) {
+                    this.journal.sync();
+                }
+                if (closed) {
+                    this.journal.close();
+                }
+            } catch (IOException ex) {
+                this.fail(ex);
+            }
+
+            // Publish the written requests.
+            this.publish(System.nanoTime() - startTime);
+            entries.clear();
+        }
+    }
+
+    /**
+     * Stores a failure of the journal so waiting requests are notified.
+     *
+     * @param ex the failure of the journal.
+     */
+    private synchronized void fail(IOException ex) {
+        ex.printStackTrace();
+        this.failure = ex;
+        this.notifyAll();
+    }
+
+    /**
+     * Updates the written and synced sequences and the flush metrics,
+     * and notifies the waiting requests.
+     *
+     * @param flushNanos the time of the flush, or 0 if nothing was flushed.
+     */
+    private synchronized void publish(long flushNanos) {
+        this.writtenSequence = this.journal.getLastSequence();
+        this.syncedSequence = this.journal.getSyncedSequence();
+        if (flushNanos > 0) {
+            this.flushCount += 1;
+            this.totalFlushNanos += flushNanos;
+            this.maxFlushNanos = Math.max(this.maxFlushNanos,flushNanos);
+            this.lastFlushNanos = flushNanos;
+        }
+        this.notifyAll();
+    }
+}
@@ -14,6 +14,15 @@ public class LibraryBookManagementSystem {
     // The default file location for saving the services.
     public static String SERVICES_SAVE_LOCATION = "services_save";
 
+    // The default file location for the journal of requests.
+    public static String SERVICES_JOURNAL_LOCATION = "services_journal";
+
+    // The default file location for the archive of old history.
+    public static String SERVICES_ARCHIVE_LOCATION = "services_archive";
+
+    // The default file location for the feed of changes.
+    public static String SERVICES_FEED_LOCATION = "services_feed";
+
     protected Services services;
     private RequestCreator requestCreator;
 
@@ -85,7 +94,8 @@ public class LibraryBookManagementSystem {
         }
 
         // Store the request if a connection exists.
-        if (connection != null && !requestObject.getName().equals("undo") && !requestObject.getName().equals("redo")) {
+        boolean addedToHistory = (connection != null && !requestObject.getName().equals("undo") && !requestObject.getName().equals("redo"));
+        if (addedToHistory) {
             connection.addCompletedRequest(requestObject);
         }
 
@@ -93,7 +103,23 @@ public class LibraryBookManagementSystem {
         Response response = requestObject.getResponse();
         String responseString = response.getResponse();
 
+        // Notify that the request was performed.
+        this.requestPerformed(request,requestObject,addedToHistory);
+
         // Return the request.response.
         return responseString;
     }
+
+    /**
+     * Called after a request is performed. This is intended for
+     * extensions of the system that need to react to requests,
+     * such as persisting them.
+     *
+     * @param request the request string that was performed.
+     * @param requestObject the request that was performed.
+     * @param addedToHistory if the request was added to the request history of its connection.
+     */
+    protected void requestPerformed(String request,Request requestObject,boolean addedToHistory) {
+
+    }
 }
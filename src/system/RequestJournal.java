@@ -0,0 +1,371 @@
+package system;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the requests that modify the services. Each
+ * record is stored as its length, a CRC32 checksum, and the UTF-8 bytes
+ * of the request. Records are numbered by a sequence starting at 1 and
+ * are stored in segments named after the sequence of their first record,
+ * so segments covered by a snapshot can be deleted. Records are synced to
+ * disk in groups, so bursts of requests share a single sync.
+ *
+ * @author Zachary Cook
+ */
+public class RequestJournal {
+    // The amount of records that can be written before the journal is synced.
+    public static int GROUP_COMMIT_RECORDS = 32;
+
+    // The time in milliseconds that can pass before the journal is synced.
+    public static long GROUP_COMMIT_INTERVAL_MILLIS = 50;
+
+    private File baseFile;
+    private FileChannel channel;
+    private long lastSequence;
+    private long syncedSequence;
+    private int pendingRecords;
+    private long lastSyncTime;
+
+    /**
+     * Creates a request journal.
+     *
+     * @param baseFile the base file of the journal. Segments are stored
+     *                 next to it with the first sequence as the extension.
+     */
+    public RequestJournal(File baseFile) {
+        this.baseFile = baseFile;
+        this.lastSequence = 0;
+        this.syncedSequence = 0;
+        this.pendingRecords = 0;
+        this.lastSyncTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a request journal.
+     *
+     * @param location the base file location of the journal.
+     */
+    public RequestJournal(String location) {
+        this(new File(location));
+    }
+
+    /**
+     * Returns the sequence of the last record in the journal.
+     *
+     * @return the sequence of the last record.
+     */
+    public long getLastSequence() {
+        return this.lastSequence;
+    }
+
+    /**
+     * Returns the sequence of the last record synced to disk.
+     *
+     * @return the sequence of the last synced record.
+     */
+    public long getSyncedSequence() {
+        return this.syncedSequence;
+    }
+
+    /**
+     * Returns the segments of the journal, ordered by their first sequence.
+     *
+     * @return the first sequences of the segments.
+     */
+    private List<Long> getSegments() {
+        ArrayList<Long> segments = new ArrayList<>();
+
+        // Find the files that start with the base name.
+        File directory = this.baseFile.getAbsoluteFile().getParentFile();
+        String prefix = this.baseFile.getName() + ".";
+        String[] fileNames = directory.list();
+        if (fileNames == null) {
+            return segments;
+        }
+        for (String fileName : fileNames) {
+            if (fileName.startsWith(prefix)) {
+                try {
+                    segments.add(Long.parseLong(fileName.substring(prefix.length())));
+                } catch (NumberFormatException ignored) {
+
+                }
+            }
+        }
+
+        // Sort and return the segments.
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Returns the file for a segment.
+     *
+     * @param firstSequence the sequence of the first record in the segment.
+     * @return the file of the segment.
+     */
+    private File getSegmentFile(long firstSequence) {
+        return new File(this.baseFile.getPath() + "." + firstSequence);
+    }
+
+    /**
+     * Reads the requests stored in the journal after the given sequence.
+     * Reading stops at the first incomplete or corrupted record, which is
+     * removed so that new records are appended after the last valid one.
+     * If the journal ends before the sequence, a new segment is started
+     * after the sequence so new records keep their sequence when read.
+     * This must be called before appending to an existing journal.
+     *
+     * @param afterSequence the sequence covered by the loaded services.
+     * @return the requests in the order they were performed.
+     * @throws IOException if the journal can't be read or is missing
+     *                     records after the sequence.
+     */
+    public List<String> readRequests(long afterSequence) throws IOException {
+        ArrayList<String> requests = new ArrayList<>();
+        this.lastSequence = 0;
+
+        // Move a journal that was created without segments.
+        if (this.baseFile.exists() && this.getSegments().isEmpty()) {
+            if (!this.baseFile.renameTo(this.getSegmentFile(1))) {
+                throw new IOException("Unable to move journal " + this.baseFile);
+            }
+        }
+
+        // Read the segments.
+        List<Long> segments = this.getSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            // Skip the segment if the next segment starts before the sequence.
+            long firstSequence = segments.get(i);
+            if (i + 1 < segments.size() && segments.get(i + 1) <= afterSequence + 1) {
+                continue;
+            }
+
+            // Throw an error if records are missing.
+            long readSequence = Math.max(this.lastSequence,afterSequence);
+            if (firstSequence > readSequence + 1) {
+                throw new IOException("Journal is missing records " + (readSequence + 1) + " to " + (firstSequence - 1) + ".");
+            }
+            this.lastSequence = Math.max(this.lastSequence,firstSequence - 1);
+
+            // Read the segment and stop if it ended early.
+            boolean complete = this.readSegment(this.getSegmentFile(firstSequence),firstSequence,afterSequence,requests);
+            if (!complete) {
+                // Remove the segments after the invalid record.
+                for (int j = i + 1; j < segments.size(); j++) {
+                    System.out.println("Discarding journal segment after an incomplete record: " + this.getSegmentFile(segments.get(j)));
+                    if (!this.getSegmentFile(segments.get(j)).delete()) {
+                        throw new IOException("Unable to delete journal segment " + this.getSegmentFile(segments.get(j)));
+                    }
+                }
+                break;
+            }
+        }
+
+        // Start a new segment after the sequence if the journal ends before it.
+        if (this.lastSequence < afterSequence) {
+            System.out.println("Journal ends at record " + this.lastSequence + " before record " + afterSequence + "; starting a new segment.");
+            this.lastSequence = afterSequence;
+            FileChannel segmentChannel = FileChannel.open(this.getSegmentFile(afterSequence + 1).toPath(),StandardOpenOption.CREATE,StandardOpenOption.WRITE);
+            segmentChannel.force(true);
+            segmentChannel.close();
+        }
+
+        // Return the requests.
+        this.syncedSequence = this.lastSequence;
+        return requests;
+    }
+
+    /**
+     * Reads the requests in a segment after the given sequence.
+     *
+     * @param file the file of the segment.
+     * @param firstSequence the sequence of the first record in the segment.
+     * @param afterSequence the sequence to read after.
+     * @param requests the list to add the requests to.
+     * @return if the segment was read without an invalid record.
+     * @throws IOException if the segment can't be read.
+     */
+    private boolean readSegment(File file,long firstSequence,long afterSequence,List<String> requests) throws IOException {
+        long sequence = firstSequence;
+        long validLength = 0;
+
+        // Read the records until the end or an invalid record.
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            while (true) {
+                // Read the header of the record.
+                int length = input.readInt();
+                long checksum = input.readInt() & 0xFFFFFFFFL;
+                if (length < 0) {
+                    break;
+                }
+
+                // Read the request and stop if the checksum doesn't match.
+                byte[] bytes = new byte[length];
+                input.readFully(bytes);
+                if (checksum(bytes) != checksum) {
+                    break;
+                }
+
+                // Add the request if it is after the sequence.
+                if (sequence > afterSequence) {
+                    requests.add(new String(bytes,StandardCharsets.UTF_8));
+                }
+                this.lastSequence = Math.max(this.lastSequence,sequence);
+                validLength += 8 + length;
+                sequence += 1;
+            }
+        } catch (EOFException ignored) {
+
+        } finally {
+            input.close();
+        }
+
+        // Return if the segment is valid.
+        if (validLength == file.length()) {
+            return true;
+        }
+
+        // Remove the invalid end of the segment.
+        System.out.println("Journal ends with an incomplete record; discarding " + (file.length() - validLength) + " bytes.");
+        FileChannel truncateChannel = FileChannel.open(file.toPath(),StandardOpenOption.WRITE);
+        truncateChannel.truncate(validLength);
+        truncateChannel.force(true);
+        truncateChannel.close();
+        return false;
+    }
+
+    /**
+     * Appends a request to the journal. The journal is synced if enough
+     * records or time has passed since the last sync.
+     *
+     * @param request the request to append.
+     * @return the sequence of the request.
+     * @throws IOException if the request can't be written.
+     */
+    public long append(String request) throws IOException {
+        // Open the segment if it isn't open.
+        if (this.channel == null) {
+            List<Long> segments = this.getSegments();
+            long firstSequence = (segments.isEmpty() ? this.lastSequence + 1 : segments.get(segments.size() - 1));
+            this.channel = FileChannel.open(this.getSegmentFile(firstSequence).toPath(),StandardOpenOption.CREATE,StandardOpenOption.WRITE,StandardOpenOption.APPEND);
+        }
+
+        // Create the record.
+        byte[] bytes = request.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(8 + bytes.length);
+        record.putInt(bytes.length);
+        record.putInt((int) checksum(bytes));
+        record.put(bytes);
+        record.flip();
+
+        // Write the record.
+        while (record.hasRemaining()) {
+            this.channel.write(record);
+        }
+        this.lastSequence += 1;
+        this.pendingRecords += 1;
+
+        // Sync the group of records if the limits are reached.
+        if (this.pendingRecords >= GROUP_COMMIT_RECORDS || System.currentTimeMillis() - this.lastSyncTime >= GROUP_COMMIT_INTERVAL_MILLIS) {
+            this.sync();
+        }
+
+        // Return the sequence.
+        return this.lastSequence;
+    }
+
+    /**
+     * Syncs the written records to disk.
+     *
+     * @throws IOException if the journal can't be synced.
+     */
+    public void sync() throws IOException {
+        if (this.channel != null && this.pendingRecords > 0) {
+            this.channel.force(false);
+        }
+        this.pendingRecords = 0;
+        this.syncedSequence = this.lastSequence;
+        this.lastSyncTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Syncs and closes the current segment. The next record is
+     * appended to a new segment.
+     *
+     * @throws IOException if the segment can't be closed.
+     */
+    public void startSegment() throws IOException {
+        // Close the current segment.
+        this.close();
+
+        // Create the new segment.
+        File segmentFile = this.getSegmentFile(this.lastSequence + 1);
+        if (!segmentFile.exists()) {
+            this.channel = FileChannel.open(segmentFile.toPath(),StandardOpenOption.CREATE,StandardOpenOption.WRITE,StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Deletes the segments that only contain records up to the given
+     * sequence. This is intended to be used after the services for
+     * the sequence have been saved.
+     *
+     * @param sequence the last sequence that no longer needs to be kept.
+     * @throws IOException if a segment can't be deleted.
+     */
+    public void deleteSegmentsUpTo(long sequence) throws IOException {
+        List<Long> segments = this.getSegments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            // Stop if the next segment has records that need to be kept.
+            if (segments.get(i + 1) > sequence + 1) {
+                break;
+            }
+
+            // Delete the segment.
+            File segmentFile = this.getSegmentFile(segments.get(i));
+            if (!segmentFile.delete()) {
+                throw new IOException("Unable to delete journal segment " + segmentFile);
+            }
+        }
+    }
+
+    /**
+     * Syncs and closes the journal. It will be opened again if
+     * another request is appended.
+     *
+     * @throws IOException if the journal can't be closed.
+     */
+    public void close() throws IOException {
+        if (this.channel != null) {
+            this.sync();
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+
+    /**
+     * Returns the CRC32 checksum of the bytes.
+     *
+     * @param bytes the bytes to check.
+     * @return the checksum of the bytes.
+     */
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes,0,bytes.length);
+        return crc.getValue();
+    }
+}
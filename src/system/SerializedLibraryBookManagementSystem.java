@@ -1,24 +1,65 @@
 package system;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import request.Request;
+import request.connected.unrevertable.HistoryPlaceholder;
+import user.connection.Connection;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 /**
  * Extension of the LibraryBookManagementSystem to support saving the
- * services and loading them laster.
+ * services and loading them laster. Requests that modify the services
+ * are appended to a journal by a background writer. Read-only requests
+ * added to a request history aren't written themselves; their connection
+ * is marked in the journal before the next journaled request, so the
+ * replayed request histories are the same. Snapshots of the services
+ * are taken in the background, and only the journal after the newest
+ * snapshot is replayed when the system is loaded. Requests that can't
+ * be replayed, such as searches of Google Books, are followed by a
+ * snapshot. Old closed history is moved to an archive on disk when
+ * snapshots are taken. Changes are written to the change feed after
+ * their requests are submitted to the journal.
  *
  * @author Zachary Cook
  */
 public class SerializedLibraryBookManagementSystem extends LibraryBookManagementSystem {
+    // The start of the journal markers for read-only requests in a request history.
+    private static final String HISTORY_MARKER = "#history,";
+
+    private JournalWriter journalWriter;
+    private SnapshotStore snapshotStore;
+    private ServicesSnapshotter snapshotter;
+    private long savedSequence;
+    private boolean snapshotRequired;
+    private LinkedHashSet<Integer> historyConnectionIds;
+    private final Object saveLock = new Object();
+
     /**
      * Creates the serialized library book management system.
      *
      * @param services the services to use.
+     * @param journal the journal to append requests to, after its requests are read.
+     * @param snapshotStore the store to save snapshots to.
+     * @param savedSequence the last journal sequence covered by the services.
      */
-    public SerializedLibraryBookManagementSystem(Services services) {
+    public SerializedLibraryBookManagementSystem(Services services,RequestJournal journal,SnapshotStore snapshotStore,long savedSequence) {
         super(services);
+        this.journalWriter = new JournalWriter(journal);
+        this.snapshotStore = snapshotStore;
+        this.savedSequence = savedSequence;
+        this.historyConnectionIds = new LinkedHashSet<>();
+        this.snapshotter = new ServicesSnapshotter(this);
+    }
+
+    /**
+     * Creates the serialized library book management system.
+     *
+     * @param services the services to use.
+     */
+    public SerializedLibraryBookManagementSystem(Services services) {
+        this(services,new RequestJournal(SERVICES_JOURNAL_LOCATION),new SnapshotStore(SERVICES_SAVE_LOCATION),0);
     }
 
     /**
@@ -29,7 +70,10 @@ public class SerializedLibraryBookManagementSystem extends LibraryBookManagement
     }
 
     /**
-     * Performs a request and returns a request.response as a string.
+     * Performs a request and returns a request.response as
+     * a string. Requests are performed one at a time so
+     * snapshots see a consistent state. A snapshot is saved
+     * after requests that can't be replayed from the journal.
      *
      * @param request the request to make.
      * @return the request.response.
@@ -37,47 +81,263 @@ public class SerializedLibraryBookManagementSystem extends LibraryBookManagement
     @Override
     public String performRequest(String request) {
         // Perform the request.
-        String response = super.performRequest(request);
+        String response;
+        boolean snapshotRequired;
+        synchronized (this) {
+            response = super.performRequest(request);
+            snapshotRequired = this.snapshotRequired;
+            this.snapshotRequired = false;
+        }
 
-        // Save the services.
-        this.save();
+        // Save a snapshot so the request isn't replayed. Saving takes the lock itself.
+        if (snapshotRequired) {
+            this.save();
+        }
 
         // Return the request.response.
         return response;
     }
 
     /**
-     * Saves the current services.
+     * Returns the writer of the journal.
+     *
+     * @return the writer of the journal.
      */
-    public void save() {
+    public JournalWriter getJournalWriter() {
+        return this.journalWriter;
+    }
+
+    /**
+     * Submits the request to the journal if it can modify the services.
+     * Read-only requests added to the request history of their connection
+     * change what can be undone or redone, so their connection is marked
+     * in the journal before the next request that is submitted.
+     *
+     * @param request the request string that was performed.
+     * @param requestObject the request that was performed.
+     * @param addedToHistory if the request was added to the request history of its connection.
+     */
+    @Override
+    protected void requestPerformed(String request,Request requestObject,boolean addedToHistory) {
+        // Store the connection of read-only requests in a request history and return.
+        if (!requestObject.modifiesServices()) {
+            if (addedToHistory) {
+                this.historyConnectionIds.add(requestObject.getConnection().getId());
+            }
+            return;
+        }
+
+        // Submit the history markers and the request.
         try {
-            // Write the services.
-            FileOutputStream fileOut = new FileOutputStream(SERVICES_SAVE_LOCATION);
-            ObjectOutputStream objectOut = new ObjectOutputStream(fileOut);
-            objectOut.writeObject(this.services);
-            objectOut.close();
-        } catch (Exception ex) {
+            for (int connectionId : this.historyConnectionIds) {
+                this.journalWriter.submit(HISTORY_MARKER + connectionId + ";");
+            }
+            this.historyConnectionIds.clear();
+            this.journalWriter.submit(request);
+        } catch (IOException ex) {
             ex.printStackTrace();
         }
+
+        // Write the changes of the request.
+        if (this.services.getChangeFeed() != null) {
+            this.services.getChangeFeed().flush();
+        }
+
+        // Save a snapshot after the request if it can't be replayed.
+        if (!requestObject.canBeReplayed()) {
+            this.snapshotRequired = true;
+        }
+    }
+
+    /**
+     * Returns the amount of journaled requests that are not
+     * part of a snapshot.
+     *
+     * @return the amount of unsaved requests.
+     */
+    public synchronized long getUnsavedRequests() {
+        return this.journalWriter.getSubmittedSequence() - this.savedSequence;
+    }
+
+    /**
+     * Returns if the services or the request histories changed
+     * since the last snapshot.
+     *
+     * @return if there are unsaved changes.
+     */
+    private synchronized boolean hasUnsavedChanges() {
+        return this.getUnsavedRequests() > 0 || !this.historyConnectionIds.isEmpty();
     }
 
     /**
-     * Loads the library management system from file.
+     * Saves a snapshot of the current services and deletes the
+     * journal segments and snapshots that are no longer needed.
+     * The snapshot is only written once the requests it includes
+     * are synced to the journal.
+     */
+    public void save() {
+        synchronized (this.saveLock) {
+            try {
+                // Archive the old history, capture the services, and start a new journal segment.
+                byte[] image;
+                long sequence;
+                synchronized (this) {
+                    sequence = this.journalWriter.getSubmittedSequence();
+                    if (this.services.getChangeFeed() != null) {
+                        this.services.getChangeFeed().sync();
+                    }
+                    if (this.services.getHistoryArchive() != null) {
+                        this.services.getHistoryArchive().archiveHistory(this.services);
+                    }
+                    image = SnapshotStore.encode(this.services);
+                    this.historyConnectionIds.clear();
+                    this.journalWriter.startSegment();
+                }
+
+                // Wait for the journal to be synced up to the snapshot, since replaying after
+                // a snapshot that is newer than the journal would skip the next records.
+                this.journalWriter.awaitSynced(sequence);
+
+                // Write the snapshot.
+                this.snapshotStore.write(sequence,image);
+
+                // Delete the old snapshots and the journal they cover.
+                long oldestSequence = this.snapshotStore.deleteOldSnapshots();
+                synchronized (this) {
+                    this.savedSequence = sequence;
+                    this.journalWriter.deleteSegmentsUpTo(oldestSequence);
+                }
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Starts taking snapshots in the background.
+     */
+    public void startSnapshotter() {
+        this.snapshotter.start();
+    }
+
+    /**
+     * Stops the background snapshots, saves the unsaved requests,
+     * and closes the journal.
+     */
+    public void close() {
+        // Stop the snapshots.
+        this.snapshotter.stop();
+
+        // Save the unsaved requests.
+        if (this.hasUnsavedChanges()) {
+            this.save();
+        }
+
+        // Write the remaining requests and close the journal.
+        this.journalWriter.close();
+
+        // Close the archive and the change feed.
+        synchronized (this) {
+            if (this.services.getChangeFeed() != null) {
+                this.services.getChangeFeed().close();
+            }
+            try {
+                if (this.services.getHistoryArchive() != null) {
+                    this.services.getHistoryArchive().close();
+                }
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Replays a request from the journal. History markers add a placeholder
+     * to the request history of their connection instead of being performed.
+     *
+     * @param system the system to perform the requests with.
+     * @param services the services of the system.
+     * @param request the request to replay.
+     */
+    private static void replayRequest(LibraryBookManagementSystem system,Services services,String request) {
+        // Perform the request if it isn't a history marker.
+        if (!request.startsWith(HISTORY_MARKER)) {
+            system.performRequest(request);
+            return;
+        }
+
+        // Add the placeholder to the history of the connection.
+        int connectionId = Integer.parseInt(request.substring(HISTORY_MARKER.length(),request.length() - 1));
+        Connection connection = services.getClientConnections().getConnection(connectionId);
+        if (connection != null) {
+            connection.addCompletedRequest(new HistoryPlaceholder(services,connection));
+        }
+    }
+
+    /**
+     * Loads the library management system from file. The newest valid
+     * snapshot is loaded, falling back to older snapshots if it is invalid.
+     * A blank system is only created if nothing was saved before.
+     *
+     * @throws IllegalStateException if saves exist but none can be loaded.
      */
     public static SerializedLibraryBookManagementSystem loadFromFile() {
-        // Try to load the services.
-        try {
-            FileInputStream fileIn = new FileInputStream(SERVICES_SAVE_LOCATION);
-            ObjectInputStream objectIn = new ObjectInputStream(fileIn);
-            Object loadedServices = objectIn.readObject();
+        SnapshotStore snapshotStore = new SnapshotStore(SERVICES_SAVE_LOCATION);
+        RequestJournal journal = new RequestJournal(SERVICES_JOURNAL_LOCATION);
+        HistoryArchive archive = new HistoryArchive(SERVICES_ARCHIVE_LOCATION);
+        ChangeFeed changeFeed = new ChangeFeed(SERVICES_FEED_LOCATION);
 
-            objectIn.close();
-            return new SerializedLibraryBookManagementSystem((Services) loadedServices);
-        } catch (Exception ex) {
+        // Load the newest snapshot that is valid, the journal after it, and the archive it includes.
+        List<Long> snapshots = snapshotStore.getSnapshots();
+        Services services = null;
+        List<String> requests = null;
+        long savedSequence = 0;
+        for (long sequence : snapshots) {
+            try {
+                services = snapshotStore.read(sequence);
+                requests = journal.readRequests(sequence);
+                archive.open(services.getArchiveLength());
+                savedSequence = sequence;
+                break;
+            } catch (Exception ex) {
+                System.out.println("Unable to load snapshot " + sequence + " (" + ex.getMessage() + "); trying previous snapshot.");
+                services = null;
+            }
+        }
+
+        // Create a new services if nothing was saved, and throw an error if the saves are invalid.
+        if (services == null) {
+            if (!snapshots.isEmpty()) {
+                throw new IllegalStateException("None of the " + snapshots.size() + " snapshots of the system could be loaded.");
+            }
             System.out.println("Save of system not found; loading blank state.");
+            services = new Services();
+            try {
+                requests = journal.readRequests(0);
+                archive.open(0);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Journal or archive of the system could not be loaded.",ex);
+            }
+        }
+
+        // Replay the requests in the journal. Changes already in the feed are not written again.
+        services.setHistoryArchive(archive);
+        services.setChangeFeed(changeFeed);
+        try {
+            changeFeed.open();
+            LibraryBookManagementSystem replaySystem = new LibraryBookManagementSystem(services);
+            for (String request : requests) {
+                replayRequest(replaySystem,services,request);
+            }
+            changeFeed.truncateAfter(services.getLastEventOffset());
+            changeFeed.flush();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Change feed of the system could not be loaded.",ex);
         }
 
-        // Create a new system (fallback if unable to load).
-        return new SerializedLibraryBookManagementSystem();
+        // Create the system and start the snapshots.
+        SerializedLibraryBookManagementSystem system = new SerializedLibraryBookManagementSystem(services,journal,snapshotStore,savedSequence);
+        system.startSnapshotter();
+        return system;
     }
 }
@@ -4,6 +4,7 @@ import books.store.BookStore;
 import books.Inventory;
 import books.purchases.PurchaseHistory;
 import books.transactions.TransactionHistory;
+import com.google.gson.JsonObject;
 import time.Clock;
 import user.Name;
 import user.Registry;
@@ -21,6 +22,9 @@ import java.io.Serializable;
  * @author Zachary Cook
  */
 public class Services implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -6711303846534060544L;
+
     private TransactionHistory transactionHistory;
     private Inventory bookInventory;
     private VisitHistory visitHistory;
@@ -30,6 +34,11 @@ public class Services implements Serializable {
     private PurchaseHistory purchaseHistory;
     private ClientConnections clientConnections;
     private UserRegistry userRegistry;
+    private transient ClosedHistory closedHistory;
+    private transient HistoryArchive historyArchive;
+    private long archiveLength;
+    private transient ChangeFeed changeFeed;
+    private long lastEventOffset;
 
     /**
      * Creates the services.
@@ -51,6 +60,31 @@ public class Services implements Serializable {
         this.userRegistry.registerUser("root","password", User.PermissionLevel.EMPLOYEE,visitor);
     }
 
+    /**
+     * Creates the services from existing services.
+     *
+     * @param transactionHistory the transaction history.
+     * @param bookInventory the book inventory.
+     * @param visitHistory the visit history.
+     * @param visitorsRegistry the visitor registry.
+     * @param clock the system clock.
+     * @param bookStore the book store.
+     * @param purchaseHistory the purchase history.
+     * @param clientConnections the client connections.
+     * @param userRegistry the user registry.
+     */
+    public Services(TransactionHistory transactionHistory,Inventory bookInventory,VisitHistory visitHistory,Registry visitorsRegistry,Clock clock,BookStore bookStore,PurchaseHistory purchaseHistory,ClientConnections clientConnections,UserRegistry userRegistry) {
+        this.transactionHistory = transactionHistory;
+        this.bookInventory = bookInventory;
+        this.visitHistory = visitHistory;
+        this.visitorsRegistry = visitorsRegistry;
+        this.clock = clock;
+        this.bookStore = bookStore;
+        this.purchaseHistory = purchaseHistory;
+        this.clientConnections = clientConnections;
+        this.userRegistry = userRegistry;
+    }
+
     /**
      * Returns the transaction history object.
      *
@@ -131,4 +165,110 @@ public class Services implements Serializable {
     public UserRegistry getUserRegistry() {
         return this.userRegistry;
     }
+
+    /**
+     * Returns the archive of the old history, if any.
+     *
+     * @return the history archive, or null.
+     */
+    public HistoryArchive getHistoryArchive() {
+        return this.historyArchive;
+    }
+
+    /**
+     * Sets the archive of the old history.
+     *
+     * @param historyArchive the history archive.
+     */
+    public void setHistoryArchive(HistoryArchive historyArchive) {
+        this.historyArchive = historyArchive;
+    }
+
+    /**
+     * Returns the length of the history archive that belongs
+     * to the services.
+     *
+     * @return the length of the archive in bytes.
+     */
+    public long getArchiveLength() {
+        return this.archiveLength;
+    }
+
+    /**
+     * Sets the length of the history archive that belongs
+     * to the services.
+     *
+     * @param archiveLength the length of the archive in bytes.
+     */
+    public void setArchiveLength(long archiveLength) {
+        this.archiveLength = archiveLength;
+    }
+
+    /**
+     * Returns the feed the changes are written to, if any.
+     *
+     * @return the change feed, or null.
+     */
+    public ChangeFeed getChangeFeed() {
+        return this.changeFeed;
+    }
+
+    /**
+     * Sets the feed the changes are written to.
+     *
+     * @param changeFeed the change feed.
+     */
+    public void setChangeFeed(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Returns the offset of the last change event.
+     *
+     * @return the offset of the last event.
+     */
+    public long getLastEventOffset() {
+        return this.lastEventOffset;
+    }
+
+    /**
+     * Sets the offset of the last change event.
+     *
+     * @param lastEventOffset the offset of the last event.
+     */
+    public void setLastEventOffset(long lastEventOffset) {
+        this.lastEventOffset = lastEventOffset;
+    }
+
+    /**
+     * Publishes a change event. The offset is counted even without
+     * a change feed, so the offsets don't depend on the feed.
+     *
+     * @param type the type of the event.
+     * @param fields the fields of the event.
+     */
+    public void publishEvent(String type,JsonObject fields) {
+        this.lastEventOffset++;
+        if (this.changeFeed != null) {
+            this.changeFeed.append(this.lastEventOffset,type,this.clock.getDate(),fields);
+        }
+    }
+
+    /**
+     * Returns the closed history that was decoded with the services, if any.
+     *
+     * @return the closed history, or null.
+     */
+    ClosedHistory getClosedHistory() {
+        return this.closedHistory;
+    }
+
+    /**
+     * Sets the closed history that was decoded with the services.
+     *
+     * @param closedHistory the closed history.
+     */
+    void setClosedHistory(ClosedHistory closedHistory) {
+        this.closedHistory = closedHistory;
+    }
 }
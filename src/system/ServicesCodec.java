@@ -0,0 +1,1058 @@
+package system;
+
+import books.Author;
+import books.Book;
+import books.Books;
+import books.Inventory;
+import books.Publisher;
+import books.purchases.PurchaseHistory;
+import books.purchases.PurchaseLog;
+import books.store.BookStore;
+import books.store.GoogleSearch;
+import books.store.LocalSearch;
+import books.transactions.Transaction;
+import books.transactions.TransactionHistory;
+import request.RequestHistory;
+import time.Clock;
+import time.Date;
+import time.Time;
+import user.Name;
+import user.Registry;
+import user.Visitor;
+import user.connection.ClientConnections;
+import user.connection.Connection;
+import user.connection.User;
+import user.connection.UserRegistry;
+import user.visit.Visit;
+import user.visit.VisitHistory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary encoding of the services for snapshots. The services are stored
+ * as tables of primitives: books, visitors, transactions, visits, purchases
+ * and users reference each other by their index in the tables, dates are
+ * stored as seconds since the epoch, and author and publisher names are
+ * stored once in a string table. The request histories of the open
+ * connections are stored with Java serialization, with the objects in the
+ * tables replaced by references.
+ *
+ * Closed transactions, finished visits and purchase logs are stored in a
+ * separate section that only references the visitors and books it lists
+ * at its start, so it can be kept encoded until it is needed and copied
+ * to the next snapshot without being decoded. Transactions referenced by
+ * the request histories are never stored in the closed section.
+ *
+ * @author Zachary Cook
+ */
+public class ServicesCodec {
+    // The identifier at the start of encoded services.
+    public static final int CODEC_MAGIC = 0x4C425343;
+
+    // The version of the encoding.
+    public static final int CODEC_VERSION = 1;
+
+    // If the closed history is decoded the first time it is needed instead of on load.
+    public static boolean LAZY_CLOSED_HISTORY = true;
+
+    // The value stored for dates that don't exist.
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    // The types of times stored for visit departures.
+    private static final byte TIME_NONE = 0;
+    private static final byte TIME_OF_DAY = 1;
+    private static final byte TIME_DATE = 2;
+
+    // The types of objects replaced in the request histories.
+    private static final int REFERENCE_SERVICES = 0;
+    private static final int REFERENCE_BOOK = 1;
+    private static final int REFERENCE_VISITOR = 2;
+    private static final int REFERENCE_TRANSACTION = 3;
+    private static final int REFERENCE_USER = 4;
+    private static final int REFERENCE_CONNECTION = 5;
+
+    /**
+     * Reference to an object in the tables, used in place of
+     * the object in the request histories.
+     */
+    private static class Reference implements Serializable {
+        // The version of the saved class.
+        private static final long serialVersionUID = 1324484676157700462L;
+
+        private int type;
+        private int index;
+
+        /**
+         * Creates a reference.
+         *
+         * @param type the type of the object.
+         * @param index the index of the object in its table.
+         */
+        private Reference(int type,int index) {
+            this.type = type;
+            this.index = index;
+        }
+    }
+
+    private Services services;
+    private HashMap<String,Integer> stringIndexes;
+    private ArrayList<String> strings;
+    private IdentityHashMap<Book,Integer> bookIndexes;
+    private ArrayList<Book> books;
+    private IdentityHashMap<Visitor,Integer> visitorIndexes;
+    private ArrayList<Visitor> visitors;
+    private IdentityHashMap<Transaction,Integer> transactionIndexes;
+    private ArrayList<Transaction> transactions;
+    private Set<Transaction> historyTransactions;
+    private IdentityHashMap<User,Integer> userIndexes;
+    private ArrayList<User> users;
+    private IdentityHashMap<Connection,Integer> connectionIndexes;
+    private ArrayList<Connection> connections;
+    private HashMap<Long,Date> dates;
+
+    /**
+     * Creates a codec. A codec is only used for one encode or decode.
+     */
+    private ServicesCodec() {
+        this.stringIndexes = new HashMap<>();
+        this.strings = new ArrayList<>();
+        this.bookIndexes = new IdentityHashMap<>();
+        this.books = new ArrayList<>();
+        this.visitorIndexes = new IdentityHashMap<>();
+        this.visitors = new ArrayList<>();
+        this.transactionIndexes = new IdentityHashMap<>();
+        this.transactions = new ArrayList<>();
+        this.historyTransactions = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.userIndexes = new IdentityHashMap<>();
+        this.users = new ArrayList<>();
+        this.connectionIndexes = new IdentityHashMap<>();
+        this.connections = new ArrayList<>();
+        this.dates = new HashMap<>();
+    }
+
+    /**
+     * Encodes the services to a stream.
+     *
+     * @param services the services to encode.
+     * @param output the stream to write to.
+     * @throws IOException if the services can't be written.
+     */
+    public static void encode(Services services,OutputStream output) throws IOException {
+        new ServicesCodec().write(services,new DataOutputStream(output));
+    }
+
+    /**
+     * Decodes the services from a stream.
+     *
+     * @param input the stream to read from.
+     * @return the decoded services.
+     * @throws IOException if the services can't be read or are invalid.
+     */
+    public static Services decode(InputStream input) throws IOException {
+        return new ServicesCodec().read(new DataInputStream(input));
+    }
+
+    /**
+     * Decodes a closed history that was kept encoded.
+     *
+     * @param closedHistory the closed history to decode.
+     * @throws IOException if the history is invalid.
+     */
+    static void decodeClosedHistory(ClosedHistory closedHistory) throws IOException {
+        ServicesCodec codec = new ServicesCodec();
+        codec.visitors.addAll(closedHistory.getVisitors());
+        codec.books.addAll(closedHistory.getBooks());
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(closedHistory.getBytes()));
+        closedHistory.setHistory(codec.readTransactions(input),codec.readVisits(input),codec.readPurchaseLogs(input));
+    }
+
+    /**
+     * Returns the loaded transactions that are referenced by the request
+     * histories of the connections. These can't be moved out of the services,
+     * since undoing or redoing the requests changes them.
+     *
+     * @param services the services to check.
+     * @return the referenced transactions.
+     * @throws IOException if the request histories can't be serialized.
+     */
+    static Set<Transaction> getReferencedTransactions(Services services) throws IOException {
+        ServicesCodec codec = new ServicesCodec();
+        codec.services = services;
+        codec.historyTransactions.addAll(services.getTransactionHistory().getLoadedTransactions());
+
+        // Serialize the request histories without storing them.
+        ObjectOutputStream historyOutput = new ObjectOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+
+            }
+
+            @Override
+            public void write(byte[] b,int off,int len) {
+
+            }
+        }) {
+            {
+                this.enableReplaceObject(true);
+            }
+
+            @Override
+            protected Object replaceObject(Object object) {
+                return codec.replaceObject(object);
+            }
+        };
+        for (Connection connection : services.getClientConnections().getConnections()) {
+            historyOutput.writeObject(connection.getRequestHistory());
+        }
+        historyOutput.close();
+
+        // Return the transactions that were replaced by references.
+        Set<Transaction> referencedTransactions = Collections.newSetFromMap(new IdentityHashMap<>());
+        referencedTransactions.addAll(codec.transactions);
+        return referencedTransactions;
+    }
+
+    /**
+     * Adds a string to the string table.
+     *
+     * @param string the string to add.
+     */
+    private void addString(String string) {
+        if (!this.stringIndexes.containsKey(string)) {
+            this.stringIndexes.put(string,this.strings.size());
+            this.strings.add(string);
+        }
+    }
+
+    /**
+     * Adds a book to the book table.
+     *
+     * @param book the book to add.
+     */
+    private void addBook(Book book) {
+        if (book != null && !this.bookIndexes.containsKey(book)) {
+            this.bookIndexes.put(book,this.books.size());
+            this.books.add(book);
+
+            // Add the strings of the book.
+            for (Author author : book.getAuthorsView()) {
+                this.addString(author.getName());
+            }
+            if (book.getPublisher() != null) {
+                this.addString(book.getPublisher().getName());
+            }
+        }
+    }
+
+    /**
+     * Adds a visitor to the visitor table.
+     *
+     * @param visitor the visitor to add.
+     */
+    private void addVisitor(Visitor visitor) {
+        if (visitor != null && !this.visitorIndexes.containsKey(visitor)) {
+            this.visitorIndexes.put(visitor,this.visitors.size());
+            this.visitors.add(visitor);
+        }
+    }
+
+    /**
+     * Adds a transaction to the transaction table.
+     *
+     * @param transaction the transaction to add.
+     * @return the index of the transaction.
+     */
+    private int addTransaction(Transaction transaction) {
+        if (!this.transactionIndexes.containsKey(transaction)) {
+            this.transactionIndexes.put(transaction,this.transactions.size());
+            this.transactions.add(transaction);
+        }
+        return this.transactionIndexes.get(transaction);
+    }
+
+    /**
+     * Returns the index of an object in a table, or -1 if
+     * the object is null.
+     *
+     * @param indexes the indexes of the table.
+     * @param object the object to find.
+     * @return the index of the object.
+     */
+    private static <T> int indexOf(IdentityHashMap<T,Integer> indexes,T object) {
+        if (object == null) {
+            return -1;
+        }
+        return indexes.get(object);
+    }
+
+    /**
+     * Writes the services.
+     *
+     * @param services the services to write.
+     * @param output the stream to write to.
+     * @throws IOException if the services can't be written.
+     */
+    private void write(Services services,DataOutputStream output) throws IOException {
+        this.services = services;
+        BookStore bookStore = services.getBookStore();
+        ArrayList<Visit> unfinishedVisits = services.getVisitHistory().getUnfinishedVisits();
+        ArrayList<User> users = services.getUserRegistry().getUsers();
+        ArrayList<Connection> connections = services.getClientConnections().getConnections();
+
+        // Get the history, leaving the closed history encoded if it wasn't loaded.
+        ClosedHistory closedHistory = services.getClosedHistory();
+        boolean copyClosedHistory = (closedHistory != null && !closedHistory.isLoaded());
+        ArrayList<Transaction> transactions;
+        ArrayList<Visit> finishedVisits;
+        ArrayList<PurchaseLog> purchaseLogs;
+        if (copyClosedHistory) {
+            transactions = services.getTransactionHistory().getLoadedTransactions();
+            finishedVisits = services.getVisitHistory().getLoadedFinishedVisits();
+            purchaseLogs = services.getPurchaseHistory().getLoadedPurchaseLogs();
+        } else {
+            transactions = services.getTransactionHistory().getTransactions();
+            finishedVisits = services.getVisitHistory().getFinishedVisits();
+            purchaseLogs = services.getPurchaseHistory().getPurchaseLogs();
+        }
+
+        // Build the tables of books and visitors.
+        for (Book book : bookStore.getBooks()) {
+            this.addBook(book);
+        }
+        for (Book book : services.getBookInventory().getBooks()) {
+            this.addBook(book);
+        }
+        for (PurchaseLog purchaseLog : purchaseLogs) {
+            this.addBook(purchaseLog.getBook());
+        }
+        for (Visitor visitor : services.getVisitorsRegistry().getVisitors()) {
+            this.addVisitor(visitor);
+        }
+        for (User user : users) {
+            this.addVisitor(user.getVisitor());
+        }
+        for (Transaction transaction : transactions) {
+            this.addBook(transaction.getBook());
+            this.addVisitor(transaction.getVisitor());
+        }
+        for (Visit visit : finishedVisits) {
+            this.addVisitor(visit.getVisitor());
+        }
+        for (Visit visit : unfinishedVisits) {
+            this.addVisitor(visit.getVisitor());
+        }
+        if (copyClosedHistory) {
+            for (Book book : closedHistory.getBooks()) {
+                this.addBook(book);
+            }
+            for (Visitor visitor : closedHistory.getVisitors()) {
+                this.addVisitor(visitor);
+            }
+        }
+
+        // Build the tables of users and connections.
+        for (User user : users) {
+            this.userIndexes.put(user,this.users.size());
+            this.users.add(user);
+        }
+        for (Connection connection : connections) {
+            this.connectionIndexes.put(connection,this.connections.size());
+            this.connections.add(connection);
+        }
+
+        // Write the request histories of the connections, which adds the transactions they reference first.
+        this.historyTransactions.addAll(transactions);
+        ByteArrayOutputStream historyBytes = new ByteArrayOutputStream();
+        ObjectOutputStream historyOutput = new ObjectOutputStream(historyBytes) {
+            {
+                this.enableReplaceObject(true);
+            }
+
+            @Override
+            protected Object replaceObject(Object object) {
+                return ServicesCodec.this.replaceObject(object);
+            }
+        };
+        for (Connection connection : connections) {
+            historyOutput.writeObject(connection.getUser() != null && !this.userIndexes.containsKey(connection.getUser()) ? connection.getUser() : null);
+            historyOutput.writeObject(connection.getRequestHistory());
+        }
+        historyOutput.close();
+
+        // Separate the closed history from the transactions that are open or referenced.
+        ArrayList<Transaction> closedTransactions = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            if (!copyClosedHistory && !this.transactionIndexes.containsKey(transaction) && transaction.isClosed()) {
+                closedTransactions.add(transaction);
+            } else {
+                this.addTransaction(transaction);
+            }
+        }
+        ArrayList<Visit> closedVisits = new ArrayList<>();
+        ArrayList<PurchaseLog> closedPurchaseLogs = new ArrayList<>();
+        if (!copyClosedHistory) {
+            closedVisits = finishedVisits;
+            finishedVisits = new ArrayList<>();
+            closedPurchaseLogs = purchaseLogs;
+            purchaseLogs = new ArrayList<>();
+        }
+
+        // Write the header.
+        output.writeInt(CODEC_MAGIC);
+        output.writeInt(CODEC_VERSION);
+
+        // Write the string table.
+        output.writeInt(this.strings.size());
+        for (String string : this.strings) {
+            writeString(output,string);
+        }
+
+        // Write the books.
+        output.writeInt(this.books.size());
+        for (Book book : this.books) {
+            List<Author> authors = book.getAuthorsView();
+            output.writeInt(book.getId());
+            output.writeLong(book.getISBN());
+            writeString(output,book.getName());
+            output.writeInt(authors.size());
+            for (Author author : authors) {
+                output.writeInt(this.stringIndexes.get(author.getName()));
+            }
+            output.writeInt(book.getPublisher() == null ? -1 : this.stringIndexes.get(book.getPublisher().getName()));
+            writeDate(output,book.getPublishedDate());
+            output.writeInt(book.getPageCount());
+            output.writeInt(book.getNumCopies());
+            output.writeInt(book.getNumCopiesCheckedOut());
+        }
+
+        // Write the visitors.
+        output.writeInt(this.visitors.size());
+        for (Visitor visitor : this.visitors) {
+            writeString(output,visitor.getId());
+            writeString(output,visitor.getName());
+            writeString(output,visitor.getAddress());
+            writeString(output,visitor.getPhoneNumber());
+            writeDate(output,visitor.getRegistrationDate());
+        }
+
+        // Write the book store and inventory.
+        output.writeByte(bookStore.getCurrentSearchService().ordinal());
+        this.writeBooks(output,bookStore.getBooks());
+        this.writeBooks(output,bookStore.getLocalSearch().getStoreBooks());
+        this.writeBooks(output,bookStore.getGoogleSearch().getStoreBooks());
+        this.writeBooks(output,services.getBookInventory().getBooks());
+
+        // Write the registered visitors.
+        ArrayList<Visitor> registeredVisitors = services.getVisitorsRegistry().getVisitors();
+        output.writeInt(registeredVisitors.size());
+        for (Visitor visitor : registeredVisitors) {
+            output.writeInt(this.visitorIndexes.get(visitor));
+        }
+
+        // Write the open transactions, visits and purchases.
+        this.writeTransactions(output,this.transactions);
+        this.writeVisits(output,finishedVisits);
+        this.writeVisits(output,unfinishedVisits);
+        this.writePurchaseLogs(output,purchaseLogs);
+
+        // Write the clock.
+        writeDate(output,services.getClock().getDate());
+
+        // Write the users.
+        output.writeInt(this.users.size());
+        for (User user : this.users) {
+            writeString(output,user.getUsername());
+            writeString(output,user.getPassword());
+            output.writeByte(user.getPermissionLevel().ordinal());
+            output.writeInt(indexOf(this.visitorIndexes,user.getVisitor()));
+        }
+
+        // Write the connections.
+        output.writeInt(services.getClientConnections().getNextMaxId());
+        output.writeInt(this.connections.size());
+        for (Connection connection : this.connections) {
+            output.writeInt(connection.getId());
+            output.writeInt(connection.getUser() == null ? -1 : this.userIndexes.getOrDefault(connection.getUser(),-1));
+        }
+
+        // Write the closed history.
+        if (copyClosedHistory) {
+            this.writeClosedHistory(output,closedHistory.getBytes(),closedHistory.getVisitors(),closedHistory.getBooks(),closedHistory.getMaxTransactionId(),closedHistory.getVisitCount());
+        } else {
+            // Encode the closed history with its own tables of visitors and books.
+            ServicesCodec closedCodec = new ServicesCodec();
+            int maxTransactionId = 0;
+            for (Transaction transaction : closedTransactions) {
+                closedCodec.addVisitor(transaction.getVisitor());
+                closedCodec.addBook(transaction.getBook());
+                maxTransactionId = Math.max(maxTransactionId,transaction.getId());
+            }
+            for (Visit visit : closedVisits) {
+                closedCodec.addVisitor(visit.getVisitor());
+            }
+            for (PurchaseLog purchaseLog : closedPurchaseLogs) {
+                closedCodec.addBook(purchaseLog.getBook());
+            }
+            ByteArrayOutputStream closedBytes = new ByteArrayOutputStream();
+            DataOutputStream closedOutput = new DataOutputStream(closedBytes);
+            closedCodec.writeTransactions(closedOutput,closedTransactions);
+            closedCodec.writeVisits(closedOutput,closedVisits);
+            closedCodec.writePurchaseLogs(closedOutput,closedPurchaseLogs);
+            closedOutput.flush();
+            this.writeClosedHistory(output,closedBytes.toByteArray(),closedCodec.visitors,closedCodec.books,maxTransactionId,closedVisits.size());
+        }
+
+        // Write the state of the history archive.
+        output.writeLong(services.getArchiveLength());
+        output.writeInt(services.getTransactionHistory().getArchivedMaxId());
+        output.writeInt(services.getVisitHistory().getArchivedVisitCount());
+
+        // Write the offset of the change feed.
+        output.writeLong(services.getLastEventOffset());
+
+        // Write the highest transaction id.
+        output.writeInt(services.getTransactionHistory().getMaxId());
+
+        // Write the request histories.
+        output.writeInt(historyBytes.size());
+        historyBytes.writeTo(output);
+        output.flush();
+    }
+
+    /**
+     * Writes the closed history with the indexes of the visitors and
+     * books it references.
+     *
+     * @param output the stream to write to.
+     * @param bytes the encoded history.
+     * @param visitors the visitors referenced by the history.
+     * @param books the books referenced by the history.
+     * @param maxTransactionId the highest id of the closed transactions.
+     * @param visitCount the amount of visits in the history.
+     * @throws IOException if the history can't be written.
+     */
+    private void writeClosedHistory(DataOutputStream output,byte[] bytes,List<Visitor> visitors,List<Book> books,int maxTransactionId,int visitCount) throws IOException {
+        output.writeInt(maxTransactionId);
+        output.writeInt(visitCount);
+        output.writeInt(visitors.size());
+        for (Visitor visitor : visitors) {
+            output.writeInt(indexOf(this.visitorIndexes,visitor));
+        }
+        this.writeBooks(output,books);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Returns the reference to use in place of an object in
+     * the request histories.
+     *
+     * @param object the object being written.
+     * @return the reference of the object, or the object if it isn't in a table.
+     */
+    private Object replaceObject(Object object) {
+        if (object == this.services) {
+            return new Reference(REFERENCE_SERVICES,0);
+        } else if (object instanceof Book && this.bookIndexes.containsKey(object)) {
+            return new Reference(REFERENCE_BOOK,this.bookIndexes.get(object));
+        } else if (object instanceof Visitor && this.visitorIndexes.containsKey(object)) {
+            return new Reference(REFERENCE_VISITOR,this.visitorIndexes.get(object));
+        } else if (object instanceof Transaction && this.historyTransactions.contains(object)) {
+            return new Reference(REFERENCE_TRANSACTION,this.addTransaction((Transaction) object));
+        } else if (object instanceof User && this.userIndexes.containsKey(object)) {
+            return new Reference(REFERENCE_USER,this.userIndexes.get(object));
+        } else if (object instanceof Connection && this.connectionIndexes.containsKey(object)) {
+            return new Reference(REFERENCE_CONNECTION,this.connectionIndexes.get(object));
+        }
+        return object;
+    }
+
+    /**
+     * Returns the object for a reference in the request histories.
+     *
+     * @param object the object being read.
+     * @return the object of the reference, or the object if it isn't a reference.
+     */
+    private Object resolveObject(Object object) {
+        if (!(object instanceof Reference)) {
+            return object;
+        }
+
+        // Return the referenced object.
+        Reference reference = (Reference) object;
+        switch (reference.type) {
+            case REFERENCE_SERVICES:
+                return this.services;
+            case REFERENCE_BOOK:
+                return this.books.get(reference.index);
+            case REFERENCE_VISITOR:
+                return this.visitors.get(reference.index);
+            case REFERENCE_TRANSACTION:
+                return this.transactions.get(reference.index);
+            case REFERENCE_USER:
+                return this.users.get(reference.index);
+            case REFERENCE_CONNECTION:
+                return this.connections.get(reference.index);
+        }
+        return null;
+    }
+
+    /**
+     * Writes a list of books as indexes in the book table.
+     *
+     * @param output the stream to write to.
+     * @param books the books to write.
+     * @throws IOException if the books can't be written.
+     */
+    private void writeBooks(DataOutputStream output,List<Book> books) throws IOException {
+        output.writeInt(books.size());
+        for (Book book : books) {
+            output.writeInt(indexOf(this.bookIndexes,book));
+        }
+    }
+
+    /**
+     * Writes a list of transactions.
+     *
+     * @param output the stream to write to.
+     * @param transactions the transactions to write.
+     * @throws IOException if the transactions can't be written.
+     */
+    private void writeTransactions(DataOutputStream output,List<Transaction> transactions) throws IOException {
+        output.writeInt(transactions.size());
+        for (Transaction transaction : transactions) {
+            output.writeInt(transaction.getId());
+            output.writeInt(indexOf(this.visitorIndexes,transaction.getVisitor()));
+            output.writeInt(indexOf(this.bookIndexes,transaction.getBook()));
+            writeDate(output,transaction.getCheckedOut());
+            writeDate(output,transaction.getDueDate());
+            writeDate(output,transaction.getReturnedDate());
+            writeDate(output,transaction.getLateFeePaidDate());
+            output.writeInt(transaction.getPartialLateFeePaid());
+        }
+    }
+
+    /**
+     * Writes a list of purchase logs.
+     *
+     * @param output the stream to write to.
+     * @param purchaseLogs the purchase logs to write.
+     * @throws IOException if the purchase logs can't be written.
+     */
+    private void writePurchaseLogs(DataOutputStream output,List<PurchaseLog> purchaseLogs) throws IOException {
+        output.writeInt(purchaseLogs.size());
+        for (PurchaseLog purchaseLog : purchaseLogs) {
+            output.writeInt(indexOf(this.bookIndexes,purchaseLog.getBook()));
+            writeDate(output,purchaseLog.getPurchaseDate());
+        }
+    }
+
+    /**
+     * Writes a list of visits.
+     *
+     * @param output the stream to write to.
+     * @param visits the visits to write.
+     * @throws IOException if the visits can't be written.
+     */
+    private void writeVisits(DataOutputStream output,List<Visit> visits) throws IOException {
+        output.writeInt(visits.size());
+        for (Visit visit : visits) {
+            output.writeInt(visit.getId());
+            output.writeInt(indexOf(this.visitorIndexes,visit.getVisitor()));
+            writeDate(output,visit.getDate());
+
+            // Write the time of departure, which is either a time of day or a date.
+            Time departure = visit.getTimeOfDeparture();
+            if (departure == null) {
+                output.writeByte(TIME_NONE);
+            } else if (departure instanceof Date) {
+                output.writeByte(TIME_DATE);
+                writeDate(output,(Date) departure);
+            } else {
+                output.writeByte(TIME_OF_DAY);
+                output.writeInt(departure.getSeconds());
+            }
+        }
+    }
+
+    /**
+     * Reads the services.
+     *
+     * @param input the stream to read from.
+     * @return the services that were read.
+     * @throws IOException if the services can't be read or are invalid.
+     */
+    private Services read(DataInputStream input) throws IOException {
+        // Read the header.
+        if (input.readInt() != CODEC_MAGIC) {
+            throw new IOException("Data is not encoded services.");
+        }
+        int version = input.readInt();
+        if (version != CODEC_VERSION) {
+            throw new IOException("Unsupported services version " + version + ".");
+        }
+
+        // Read the string table.
+        int stringCount = input.readInt();
+        Author[] authors = new Author[stringCount];
+        Publisher[] publishers = new Publisher[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            this.strings.add(readString(input));
+        }
+
+        // Read the books.
+        int bookCount = input.readInt();
+        for (int i = 0; i < bookCount; i++) {
+            int id = input.readInt();
+            long isbn = input.readLong();
+            String name = readString(input);
+            int authorCount = input.readInt();
+            ArrayList<Author> bookAuthors = new ArrayList<>(authorCount);
+            for (int j = 0; j < authorCount; j++) {
+                int authorIndex = input.readInt();
+                if (authors[authorIndex] == null) {
+                    authors[authorIndex] = new Author(new Name(this.strings.get(authorIndex)));
+                }
+                bookAuthors.add(authors[authorIndex]);
+            }
+            int publisherIndex = input.readInt();
+            Publisher publisher = null;
+            if (publisherIndex != -1) {
+                if (publishers[publisherIndex] == null) {
+                    publishers[publisherIndex] = new Publisher(this.strings.get(publisherIndex));
+                }
+                publisher = publishers[publisherIndex];
+            }
+            Date publishedDate = this.readDate(input);
+            int pageCount = input.readInt();
+            int numCopies = input.readInt();
+            int numCopiesCheckedOut = input.readInt();
+            this.books.add(new Book(bookAuthors,publisher,isbn,publishedDate,pageCount,numCopies,numCopiesCheckedOut,name,id));
+        }
+
+        // Read the visitors.
+        int visitorCount = input.readInt();
+        for (int i = 0; i < visitorCount; i++) {
+            String id = readString(input);
+            String name = readString(input);
+            String address = readString(input);
+            String phoneNumber = readString(input);
+            Date registrationDate = this.readDate(input);
+            this.visitors.add(new Visitor(id,new Name(name),address,phoneNumber,registrationDate));
+        }
+
+        // Read the book store and inventory.
+        BookStore.SearchService searchService = BookStore.SearchService.values()[input.readByte()];
+        Books storeBooks = this.readBooks(input);
+        Books localStoreBooks = this.readBooks(input);
+        Books googleStoreBooks = this.readBooks(input);
+        BookStore bookStore = new BookStore(storeBooks,searchService,new LocalSearch(storeBooks,localStoreBooks),new GoogleSearch(storeBooks,googleStoreBooks));
+        Inventory inventory = new Inventory(this.readBooks(input));
+
+        // Read the registered visitors.
+        int registeredCount = input.readInt();
+        ArrayList<Visitor> registeredVisitors = new ArrayList<>(registeredCount);
+        for (int i = 0; i < registeredCount; i++) {
+            registeredVisitors.add(this.visitors.get(input.readInt()));
+        }
+        Registry registry = new Registry(registeredVisitors);
+
+        // Read the transactions.
+        TransactionHistory transactionHistory = new TransactionHistory();
+        this.transactions.addAll(this.readTransactions(input));
+        for (Transaction transaction : this.transactions) {
+            transactionHistory.registerTransaction(transaction);
+        }
+
+        // Read the visits.
+        ArrayList<Visit> finishedVisits = this.readVisits(input);
+        ArrayList<Visit> unfinishedVisits = this.readVisits(input);
+        VisitHistory visitHistory = new VisitHistory(finishedVisits,unfinishedVisits);
+
+        // Read the purchases.
+        PurchaseHistory purchaseHistory = new PurchaseHistory();
+        for (PurchaseLog purchaseLog : this.readPurchaseLogs(input)) {
+            purchaseHistory.registerPurchase(purchaseLog.getBook(),purchaseLog.getPurchaseDate());
+        }
+
+        // Read the clock.
+        Clock clock = new Clock(this.readDate(input));
+
+        // Read the users.
+        UserRegistry userRegistry = new UserRegistry();
+        int userCount = input.readInt();
+        for (int i = 0; i < userCount; i++) {
+            String username = readString(input);
+            String password = readString(input);
+            User.PermissionLevel permissionLevel = User.PermissionLevel.values()[input.readByte()];
+            User user = new User(username,password,permissionLevel,this.readVisitor(input));
+            this.users.add(user);
+            userRegistry.registerUser(user);
+        }
+
+        // Read the connections.
+        int nextMaxId = input.readInt();
+        int connectionCount = input.readInt();
+        for (int i = 0; i < connectionCount; i++) {
+            Connection connection = new Connection(input.readInt());
+            int userIndex = input.readInt();
+            if (userIndex != -1) {
+                connection.setUser(this.users.get(userIndex));
+            }
+            this.connections.add(connection);
+        }
+        ClientConnections clientConnections = new ClientConnections(nextMaxId,this.connections);
+
+        // Create the services.
+        this.services = new Services(transactionHistory,inventory,visitHistory,registry,clock,bookStore,purchaseHistory,clientConnections,userRegistry);
+
+        // Read the closed history, which is kept encoded until it is needed.
+        int maxTransactionId = input.readInt();
+        int visitCount = input.readInt();
+        int closedVisitorCount = input.readInt();
+        ArrayList<Visitor> closedVisitors = new ArrayList<>(closedVisitorCount);
+        for (int i = 0; i < closedVisitorCount; i++) {
+            closedVisitors.add(this.readVisitor(input));
+        }
+        ArrayList<Book> closedBooks = new ArrayList<>(this.readBooks(input));
+        byte[] closedBytes = new byte[input.readInt()];
+        input.readFully(closedBytes);
+        ClosedHistory closedHistory = new ClosedHistory(closedBytes,closedVisitors,closedBooks,maxTransactionId,visitCount);
+        closedHistory.attach(this.services);
+
+        // Load the closed history if it isn't loaded lazily.
+        if (!LAZY_CLOSED_HISTORY) {
+            transactionHistory.getTransactions();
+            visitHistory.getFinishedVisits();
+            purchaseHistory.getPurchaseLogs();
+        }
+
+        // Read the state of the history archive.
+        this.services.setArchiveLength(input.readLong());
+        transactionHistory.setArchivedMaxId(input.readInt());
+        visitHistory.setArchivedVisitCount(input.readInt());
+
+        // Read the offset of the change feed.
+        this.services.setLastEventOffset(input.readLong());
+
+        // Read the highest transaction id.
+        transactionHistory.setMaxId(input.readInt());
+
+        // Read the request histories of the connections.
+        byte[] historyBytes = new byte[input.readInt()];
+        input.readFully(historyBytes);
+        ObjectInputStream historyInput = new ObjectInputStream(new ByteArrayInputStream(historyBytes)) {
+            {
+                this.enableResolveObject(true);
+            }
+
+            @Override
+            protected Object resolveObject(Object object) {
+                return ServicesCodec.this.resolveObject(object);
+            }
+        };
+        try {
+            for (Connection connection : this.connections) {
+                User unregisteredUser = (User) historyInput.readObject();
+                if (unregisteredUser != null) {
+                    connection.setUser(unregisteredUser);
+                }
+                connection.setRequestHistory((RequestHistory) historyInput.readObject());
+            }
+        } catch (ClassNotFoundException | ClassCastException ex) {
+            throw new IOException("Request histories are invalid.",ex);
+        } finally {
+            historyInput.close();
+        }
+
+        // Return the services.
+        return this.services;
+    }
+
+    /**
+     * Reads a book index and returns the book.
+     *
+     * @param input the stream to read from.
+     * @return the book, or null.
+     * @throws IOException if the index can't be read.
+     */
+    private Book readBook(DataInputStream input) throws IOException {
+        int index = input.readInt();
+        return index == -1 ? null : this.books.get(index);
+    }
+
+    /**
+     * Reads a visitor index and returns the visitor.
+     *
+     * @param input the stream to read from.
+     * @return the visitor, or null.
+     * @throws IOException if the index can't be read.
+     */
+    private Visitor readVisitor(DataInputStream input) throws IOException {
+        int index = input.readInt();
+        return index == -1 ? null : this.visitors.get(index);
+    }
+
+    /**
+     * Reads a list of books stored as indexes in the book table.
+     *
+     * @param input the stream to read from.
+     * @return the books.
+     * @throws IOException if the books can't be read.
+     */
+    private Books readBooks(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        Books books = new Books();
+        books.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            books.add(this.readBook(input));
+        }
+        return books;
+    }
+
+    /**
+     * Reads a list of transactions.
+     *
+     * @param input the stream to read from.
+     * @return the transactions.
+     * @throws IOException if the transactions can't be read.
+     */
+    private ArrayList<Transaction> readTransactions(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        ArrayList<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = input.readInt();
+            Visitor visitor = this.readVisitor(input);
+            Book book = this.readBook(input);
+            Date checkedOut = this.readDate(input);
+            Date dueDate = this.readDate(input);
+            Date returnedDate = this.readDate(input);
+            Date lateFeePaidDate = this.readDate(input);
+            int partialLateFeePaid = input.readInt();
+            transactions.add(new Transaction(id,visitor,book,checkedOut,dueDate,returnedDate,lateFeePaidDate,partialLateFeePaid));
+        }
+        return transactions;
+    }
+
+    /**
+     * Reads a list of purchase logs.
+     *
+     * @param input the stream to read from.
+     * @return the purchase logs.
+     * @throws IOException if the purchase logs can't be read.
+     */
+    private ArrayList<PurchaseLog> readPurchaseLogs(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        ArrayList<PurchaseLog> purchaseLogs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = this.readBook(input);
+            purchaseLogs.add(new PurchaseLog(book,this.readDate(input)));
+        }
+        return purchaseLogs;
+    }
+
+    /**
+     * Reads a list of visits.
+     *
+     * @param input the stream to read from.
+     * @return the visits.
+     * @throws IOException if the visits can't be read.
+     */
+    private ArrayList<Visit> readVisits(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        ArrayList<Visit> visits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = input.readInt();
+            Visitor visitor = this.readVisitor(input);
+            Date date = this.readDate(input);
+
+            // Read the time of departure.
+            Time departure = null;
+            byte departureType = input.readByte();
+            if (departureType == TIME_DATE) {
+                departure = this.readDate(input);
+            } else if (departureType == TIME_OF_DAY) {
+                departure = new Time(input.readInt());
+            }
+            visits.add(new Visit(id,visitor,date,departure));
+        }
+        return visits;
+    }
+
+    /**
+     * Writes a date as seconds since the epoch.
+     *
+     * @param output the stream to write to.
+     * @param date the date to write, or null.
+     * @throws IOException if the date can't be written.
+     */
+    private static void writeDate(DataOutputStream output,Date date) throws IOException {
+        output.writeLong(date == null ? NULL_DATE : date.getEpochSeconds());
+    }
+
+    /**
+     * Reads a date stored as seconds since the epoch. Dates can't be
+     * changed, so dates at the same time share the same object.
+     *
+     * @param input the stream to read from.
+     * @return the date, or null.
+     * @throws IOException if the date can't be read.
+     */
+    private Date readDate(DataInputStream input) throws IOException {
+        long epochSeconds = input.readLong();
+        if (epochSeconds == NULL_DATE) {
+            return null;
+        }
+        return this.dates.computeIfAbsent(epochSeconds,Date::fromEpochSeconds);
+    }
+
+    /**
+     * Writes a string as its length and UTF-8 bytes.
+     *
+     * @param output the stream to write to.
+     * @param string the string to write, or null.
+     * @throws IOException if the string can't be written.
+     */
+    private static void writeString(DataOutputStream output,String string) throws IOException {
+        if (string == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads a string stored as its length and UTF-8 bytes.
+     *
+     * @param input the stream to read from.
+     * @return the string, or null.
+     * @throws IOException if the string can't be read.
+     */
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes,StandardCharsets.UTF_8);
+    }
+}
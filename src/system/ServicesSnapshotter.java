@@ -0,0 +1,92 @@
+package system;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the services of a system in the background so the journal
+ * that has to be replayed on startup stays short. A snapshot is taken
+ * when enough requests have been journaled or when the interval has
+ * passed with unsaved requests.
+ *
+ * @author Zachary Cook
+ */
+public class ServicesSnapshotter {
+    // The amount of journaled requests that causes a snapshot.
+    public static long SNAPSHOT_RECORD_THRESHOLD = 1000;
+
+    // The time in milliseconds between snapshots with unsaved requests.
+    public static long SNAPSHOT_INTERVAL_MILLIS = 5 * 60 * 1000;
+
+    // The time in milliseconds between checking for a snapshot.
+    public static long CHECK_INTERVAL_MILLIS = 1000;
+
+    private SerializedLibraryBookManagementSystem system;
+    private ScheduledExecutorService executor;
+    private long lastSnapshotTime;
+
+    /**
+     * Creates a snapshotter.
+     *
+     * @param system the system to save.
+     */
+    public ServicesSnapshotter(SerializedLibraryBookManagementSystem system) {
+        this.system = system;
+    }
+
+    /**
+     * Starts checking for snapshots in the background.
+     */
+    public synchronized void start() {
+        if (this.executor != null) {
+            return;
+        }
+
+        // Create the executor on a daemon thread so it doesn't keep the program open.
+        this.lastSnapshotTime = System.currentTimeMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            Thread thread = new Thread(runnable,"ServicesSnapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::checkSnapshot,CHECK_INTERVAL_MILLIS,CHECK_INTERVAL_MILLIS,TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops checking for snapshots and waits for a running
+     * snapshot to complete.
+     */
+    public synchronized void stop() {
+        if (this.executor == null) {
+            return;
+        }
+
+        // Stop the executor.
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(1,TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        this.executor = null;
+    }
+
+    /**
+     * Takes a snapshot if enough requests or time has passed.
+     */
+    private void checkSnapshot() {
+        // Return if there is nothing to save.
+        long unsavedRequests = this.system.getUnsavedRequests();
+        if (unsavedRequests == 0) {
+            return;
+        }
+
+        // Take a snapshot if a limit is reached.
+        long currentTime = System.currentTimeMillis();
+        if (unsavedRequests >= SNAPSHOT_RECORD_THRESHOLD || currentTime - this.lastSnapshotTime >= SNAPSHOT_INTERVAL_MILLIS) {
+            this.system.save();
+            this.lastSnapshotTime = currentTime;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package system;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Stores point-in-time images of the services. Each image is named after
+ * the sequence of the last journal record it covers, so the journal only
+ * needs to be replayed after that sequence. A save from before the journal
+ * existed is treated as covering sequence 0. Images end with a checksum
+ * and are only moved into place once they are completely on disk.
+ *
+ * @author Zachary Cook
+ */
+public class SnapshotStore {
+    // The amount of snapshots to keep, including the newest.
+    public static int RETAINED_SNAPSHOTS = 2;
+
+    // The identifiers at the start and end of the snapshot files.
+    private static final int SNAPSHOT_MAGIC = 0x4C424D53;
+    private static final int FOOTER_MAGIC = 0x454E4453;
+
+    // The version of the snapshot files.
+    private static final int SNAPSHOT_VERSION = 2;
+
+    // The lengths of the header (magic, version, sequence, length) and footer (checksum, magic).
+    private static final int HEADER_LENGTH = 24;
+    private static final int FOOTER_LENGTH = 8;
+
+    // The extension of snapshots that are being written.
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private File baseFile;
+    private HashSet<Long> invalidSnapshots;
+
+    /**
+     * Creates a snapshot store.
+     *
+     * @param baseFile the base file of the snapshots. Snapshots are stored
+     *                 next to it with the sequence as the extension.
+     */
+    public SnapshotStore(File baseFile) {
+        this.baseFile = baseFile;
+        this.invalidSnapshots = new HashSet<>();
+    }
+
+    /**
+     * Creates a snapshot store.
+     *
+     * @param location the base file location of the snapshots.
+     */
+    public SnapshotStore(String location) {
+        this(new File(location));
+    }
+
+    /**
+     * Returns the file for a snapshot.
+     *
+     * @param sequence the sequence covered by the snapshot.
+     * @return the file of the snapshot.
+     */
+    private File getSnapshotFile(long sequence) {
+        return new File(this.baseFile.getPath() + "." + sequence);
+    }
+
+    /**
+     * Returns the sequences of the stored snapshots, newest first.
+     *
+     * @return the sequences of the snapshots.
+     */
+    public List<Long> getSnapshots() {
+        ArrayList<Long> snapshots = new ArrayList<>();
+
+        // Find the files that start with the base name.
+        File directory = this.baseFile.getAbsoluteFile().getParentFile();
+        String prefix = this.baseFile.getName() + ".";
+        String[] fileNames = directory.list();
+        if (fileNames != null) {
+            for (String fileName : fileNames) {
+                if (fileName.startsWith(prefix)) {
+                    try {
+                        snapshots.add(Long.parseLong(fileName.substring(prefix.length())));
+                    } catch (NumberFormatException ignored) {
+
+                    }
+                }
+            }
+        }
+
+        // Sort the snapshots.
+        Collections.sort(snapshots,Collections.reverseOrder());
+
+        // Add a save from before the journal existed.
+        if (this.baseFile.exists() && !snapshots.contains(0L)) {
+            snapshots.add(0L);
+        }
+
+        // Return the snapshots.
+        return snapshots;
+    }
+
+    /**
+     * Encodes the services as a snapshot image.
+     *
+     * @param services the services to encode.
+     * @return the encoded services.
+     * @throws IOException if the services can't be encoded.
+     */
+    public static byte[] encode(Services services) throws IOException {
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        ServicesCodec.encode(services,byteOut);
+        return byteOut.toByteArray();
+    }
+
+    /**
+     * Returns the temporary file a snapshot is written to
+     * before it is moved into place.
+     *
+     * @param sequence the sequence covered by the snapshot.
+     * @return the temporary file of the snapshot.
+     */
+    private File getTemporaryFile(long sequence) {
+        return new File(this.getSnapshotFile(sequence).getPath() + TEMPORARY_EXTENSION);
+    }
+
+    /**
+     * Writes a snapshot. The snapshot is written to a temporary file
+     * with a checksum, synced to disk, and then moved into place, so a
+     * crash while writing never leaves a partial snapshot.
+     *
+     * @param sequence the last journal sequence covered by the snapshot.
+     * @param image the encoded services.
+     * @throws IOException if the snapshot can't be written.
+     */
+    public void write(long sequence,byte[] image) throws IOException {
+        // Create the header.
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(SNAPSHOT_MAGIC);
+        header.putInt(SNAPSHOT_VERSION);
+        header.putLong(sequence);
+        header.putLong(image.length);
+        header.flip();
+
+        // Create the footer with the checksum of the header and image.
+        CRC32 crc = new CRC32();
+        crc.update(header.array(),0,HEADER_LENGTH);
+        crc.update(image,0,image.length);
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_LENGTH);
+        footer.putInt((int) crc.getValue());
+        footer.putInt(FOOTER_MAGIC);
+        footer.flip();
+
+        // Write the temporary file and sync it.
+        File temporaryFile = this.getTemporaryFile(sequence);
+        ByteBuffer[] buffers = {header,ByteBuffer.wrap(image),footer};
+        FileChannel channel = FileChannel.open(temporaryFile.toPath(),StandardOpenOption.CREATE,StandardOpenOption.WRITE,StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            while (footer.hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+
+        // Move the snapshot into place and sync the directory.
+        Files.move(temporaryFile.toPath(),this.getSnapshotFile(sequence).toPath(),StandardCopyOption.ATOMIC_MOVE,StandardCopyOption.REPLACE_EXISTING);
+        this.syncDirectory();
+        this.invalidSnapshots.remove(sequence);
+    }
+
+    /**
+     * Syncs the directory of the snapshots so renamed files are
+     * stored. Not all platforms can sync directories, in which
+     * case this does nothing.
+     */
+    private void syncDirectory() {
+        try {
+            FileChannel directoryChannel = FileChannel.open(this.baseFile.getAbsoluteFile().getParentFile().toPath(),StandardOpenOption.READ);
+            try {
+                directoryChannel.force(true);
+            } finally {
+                directoryChannel.close();
+            }
+        } catch (IOException ignored) {
+
+        }
+    }
+
+    /**
+     * Reads a snapshot and verifies its checksum. Snapshots that are
+     * invalid are not counted as retained snapshots when old snapshots
+     * are deleted.
+     *
+     * @param sequence the sequence covered by the snapshot.
+     * @return the services of the snapshot.
+     * @throws IOException if the snapshot can't be read or is invalid.
+     */
+    public Services read(long sequence) throws IOException {
+        try {
+            return this.readSnapshot(sequence);
+        } catch (IOException ex) {
+            this.invalidSnapshots.add(sequence);
+            throw ex;
+        }
+    }
+
+    /**
+     * Reads a snapshot and verifies its checksum.
+     *
+     * @param sequence the sequence covered by the snapshot.
+     * @return the services of the snapshot.
+     * @throws IOException if the snapshot can't be read or is invalid.
+     */
+    private Services readSnapshot(long sequence) throws IOException {
+        // Read a save from before the journal existed.
+        if (sequence == 0 && !this.getSnapshotFile(0).exists()) {
+            return decode(new FileInputStream(this.baseFile));
+        }
+
+        // Read and validate the header.
+        byte[] bytes = Files.readAllBytes(this.getSnapshotFile(sequence).toPath());
+        if (bytes.length < HEADER_LENGTH + FOOTER_LENGTH) {
+            throw new IOException("Snapshot " + sequence + " is incomplete.");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Snapshot " + sequence + " has an invalid header.");
+        }
+        int version = buffer.getInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Snapshot " + sequence + " has unsupported version " + version + ".");
+        }
+        if (buffer.getLong() != sequence) {
+            throw new IOException("Snapshot " + sequence + " is for a different sequence.");
+        }
+        long length = buffer.getLong();
+        if (length != bytes.length - HEADER_LENGTH - FOOTER_LENGTH) {
+            throw new IOException("Snapshot " + sequence + " is incomplete.");
+        }
+
+        // Validate the footer and checksum.
+        buffer.position(bytes.length - FOOTER_LENGTH);
+        long checksum = buffer.getInt() & 0xFFFFFFFFL;
+        if (buffer.getInt() != FOOTER_MAGIC) {
+            throw new IOException("Snapshot " + sequence + " has an invalid footer.");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes,0,bytes.length - FOOTER_LENGTH);
+        if (crc.getValue() != checksum) {
+            throw new IOException("Snapshot " + sequence + " has an invalid checksum.");
+        }
+
+        // Read the services.
+        return decode(new ByteArrayInputStream(bytes,HEADER_LENGTH,(int) length));
+    }
+
+    /**
+     * Decodes the services from a stream and closes the stream.
+     * Services saved with Java serialization are still read.
+     *
+     * @param input the stream to read.
+     * @return the decoded services.
+     * @throws IOException if the services can't be decoded.
+     */
+    private static Services decode(InputStream input) throws IOException {
+        BufferedInputStream bufferedIn = new BufferedInputStream(input,1 << 16);
+        try {
+            // Read the services with the codec if they start with the codec header.
+            bufferedIn.mark(4);
+            int magic = new DataInputStream(bufferedIn).readInt();
+            bufferedIn.reset();
+            if (magic == ServicesCodec.CODEC_MAGIC) {
+                return ServicesCodec.decode(bufferedIn);
+            }
+
+            // Read the services with Java serialization.
+            return (Services) new ObjectInputStream(bufferedIn).readObject();
+        } catch (ClassNotFoundException | ClassCastException ex) {
+            throw new IOException("Snapshot does not contain services.",ex);
+        } finally {
+            bufferedIn.close();
+        }
+    }
+
+    /**
+     * Deletes the snapshots older than the retained snapshots. Snapshots
+     * that failed to be read are deleted if a valid snapshot exists.
+     *
+     * @return the sequence of the oldest retained snapshot.
+     * @throws IOException if a snapshot can't be deleted.
+     */
+    public long deleteOldSnapshots() throws IOException {
+        // Delete the snapshots that failed to be read.
+        List<Long> snapshots = new ArrayList<>(this.getSnapshots());
+        snapshots.removeAll(this.invalidSnapshots);
+        if (!snapshots.isEmpty()) {
+            for (long sequence : this.invalidSnapshots) {
+                this.deleteSnapshot(sequence);
+            }
+            this.invalidSnapshots.clear();
+        }
+
+        // Delete the snapshots that were not completely written.
+        File directory = this.baseFile.getAbsoluteFile().getParentFile();
+        String prefix = this.baseFile.getName() + ".";
+        String[] fileNames = directory.list();
+        if (fileNames != null) {
+            for (String fileName : fileNames) {
+                if (fileName.startsWith(prefix) && fileName.endsWith(TEMPORARY_EXTENSION)) {
+                    new File(directory,fileName).delete();
+                }
+            }
+        }
+
+        // Delete the snapshots after the retained snapshots.
+        for (int i = RETAINED_SNAPSHOTS; i < snapshots.size(); i++) {
+            this.deleteSnapshot(snapshots.get(i));
+        }
+
+        // Return the oldest retained snapshot.
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        return snapshots.get(Math.min(RETAINED_SNAPSHOTS,snapshots.size()) - 1);
+    }
+
+    /**
+     * Deletes a snapshot.
+     *
+     * @param sequence the sequence covered by the snapshot.
+     * @throws IOException if the snapshot can't be deleted.
+     */
+    private void deleteSnapshot(long sequence) throws IOException {
+        File snapshotFile = (sequence == 0 && !this.getSnapshotFile(0).exists()) ? this.baseFile : this.getSnapshotFile(sequence);
+        if (snapshotFile.exists() && !snapshotFile.delete()) {
+            throw new IOException("Unable to delete snapshot " + snapshotFile);
+        }
+    }
+}
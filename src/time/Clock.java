@@ -8,6 +8,9 @@ import java.io.Serializable;
  * @author Joey Zhen
  */
 public class Clock implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 915795941870868120L;
+
     private Date currentDate;
     private TimeState currentState;
 
@@ -1,19 +1,31 @@
 package time;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 
 /**
- * Class representing a date.
+ * Class representing a date. The date is stored as the seconds since
+ * the epoch in UTC, and the year, month and day are calculated from the
+ * seconds once, so comparing dates doesn't create any objects.
  *
  * @author Joey Zhen
  * @author Michael Dolan
  */
 public class Date extends Time implements Serializable {
-    private java.util.Date date;
-    private int year;
-    private int month;
-    private int day;
+    // The version of the saved class.
+    private static final long serialVersionUID = 7220062887758983413L;
+
+    // The seconds in a day.
+    private static final int DAY_SECONDS = 60 * 60 * 24;
+
+    private final long epochSeconds;
+    private final int year;
+    private final int month;
+    private final int day;
+    private transient long readEpochSeconds;
 
     /**
      * Creates a data object.
@@ -26,17 +38,70 @@ public class Date extends Time implements Serializable {
      * @param seconds the seconds of the date.
      */
     public Date(int month,int day,int year,int hours,int minutes,int seconds) {
-        super(hours,minutes,seconds);
+        this(toEpochSeconds(month,day,year,hours,minutes,seconds));
+    }
 
-        // Create the date.
-        this.date = new java.util.Date(year - 1900,month - 1,day,hours,minutes,seconds);
+    /**
+     * Creates a date from the seconds since the epoch.
+     *
+     * @param epochSeconds the seconds since the epoch.
+     */
+    private Date(long epochSeconds) {
+        super((int) Math.floorMod(epochSeconds,(long) DAY_SECONDS));
+        this.epochSeconds = epochSeconds;
 
-        // Store the date information.
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(this.date);
-        this.year = calendar.get(Calendar.YEAR);
-        this.month = calendar.get(Calendar.MONTH) + 1;
-        this.day = calendar.get(Calendar.DAY_OF_MONTH);
+        // Determine the year, month and day from the days since the epoch.
+        long days = Math.floorDiv(epochSeconds,(long) DAY_SECONDS) + 719468;
+        long era = Math.floorDiv(days,146097);
+        int dayOfEra = (int) (days - (era * 146097));
+        int yearOfEra = (dayOfEra - (dayOfEra / 1460) + (dayOfEra / 36524) - (dayOfEra / 146096)) / 365;
+        int dayOfYear = dayOfEra - ((365 * yearOfEra) + (yearOfEra / 4) - (yearOfEra / 100));
+        int shiftedMonth = ((5 * dayOfYear) + 2) / 153;
+        this.day = dayOfYear - (((153 * shiftedMonth) + 2) / 5) + 1;
+        this.month = (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        this.year = (int) (yearOfEra + (era * 400) + (this.month <= 2 ? 1 : 0));
+    }
+
+    /**
+     * Creates a date from the seconds since the epoch.
+     *
+     * @param epochSeconds the seconds since the epoch.
+     * @return the date at the seconds.
+     */
+    public static Date fromEpochSeconds(long epochSeconds) {
+        return new Date(epochSeconds);
+    }
+
+    /**
+     * Returns the seconds since the epoch of a date. Fields outside of
+     * their range carry over to the next field, so the 32nd day of a
+     * month is the first day of the next month.
+     *
+     * @param month the month of the date.
+     * @param day the day of the date.
+     * @param year the year of the date.
+     * @param hours the hours of the date.
+     * @param minutes the minutes of the date.
+     * @param seconds the seconds of the date.
+     * @return the seconds since the epoch.
+     */
+    private static long toEpochSeconds(int month,int day,int year,int hours,int minutes,int seconds) {
+        // Carry the months over to the years, and start the years in March so the leap day is last.
+        long fullYear = year + Math.floorDiv(month - 1,12);
+        int fullMonth = Math.floorMod(month - 1,12) + 1;
+        if (fullMonth <= 2) {
+            fullYear -= 1;
+        }
+
+        // Determine the days since the epoch of the first day of the month.
+        long era = Math.floorDiv(fullYear,400);
+        long yearOfEra = fullYear - (era * 400);
+        long dayOfYear = ((153 * ((fullMonth + 9) % 12)) + 2) / 5;
+        long dayOfEra = (yearOfEra * 365) + (yearOfEra / 4) - (yearOfEra / 100) + dayOfYear;
+        long days = (era * 146097) + dayOfEra - 719468 + (day - 1);
+
+        // Add the time of the day.
+        return (days * DAY_SECONDS) + (hours * 3600L) + (minutes * 60L) + seconds;
     }
 
     /**
@@ -93,12 +158,17 @@ public class Date extends Time implements Serializable {
      * @return the timestamp in seconds.
      */
     public int getTimestamp() {
-        // Create the calender object.
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(this.date);
+        return (int) this.epochSeconds;
+    }
 
-        // Return the total time in seconds.
-        return (int) (calendar.getTimeInMillis() / 1000);
+    /**
+     * Returns the seconds since the epoch. Unlike the timestamp,
+     * this doesn't overflow for dates far from the epoch.
+     *
+     * @return the seconds since the epoch.
+     */
+    public long getEpochSeconds() {
+        return this.epochSeconds;
     }
 
     /**
@@ -150,7 +220,7 @@ public class Date extends Time implements Serializable {
      */
     @Override
     public int hashCode() {
-        return this.toString().hashCode();
+        return Long.hashCode(this.epochSeconds);
     }
 
     /**
@@ -168,9 +238,9 @@ public class Date extends Time implements Serializable {
             return false;
         }
 
-        // Cast the object and return if the hashcodes are the same.
+        // Cast the object and return if the seconds are the same.
         Date date = (Date) obj;
-        return this.hashCode() == date.hashCode();
+        return this.epochSeconds == date.epochSeconds;
     }
 
     /**
@@ -180,7 +250,7 @@ public class Date extends Time implements Serializable {
      * @return if the date is given after the given date.
      */
     public boolean after(Date otherDate) {
-        return otherDate.getTimestamp() < this.getTimestamp();
+        return otherDate.epochSeconds < this.epochSeconds;
     }
 
     /**
@@ -192,9 +262,52 @@ public class Date extends Time implements Serializable {
      */
     public int differenceInDays(Date otherDate) {
         // Determine the difference in seconds.
-        int secondsBetween = otherDate.getTimestamp() - this.getTimestamp();
+        long secondsBetween = otherDate.epochSeconds - this.epochSeconds;
 
         // Convert and return the seconds to days.
-        return secondsBetween / (60 * 60 * 24);
+        return (int) (secondsBetween / DAY_SECONDS);
+    }
+
+    /**
+     * Reads the seconds since the epoch of the date, which are used
+     * to create the date that replaces it. Dates saved before the
+     * seconds since the epoch were stored have their seconds determined
+     * from the year, month, day and time they were saved with.
+     *
+     * @param input the stream to read from.
+     * @throws IOException if the date can't be read.
+     * @throws ClassNotFoundException if a class of the date can't be found.
+     */
+    private void readObject(ObjectInputStream input) throws IOException,ClassNotFoundException {
+        // Read the seconds of dates that store them.
+        ObjectInputStream.GetField fields = input.readFields();
+        if (!fields.defaulted("epochSeconds")) {
+            this.readEpochSeconds = fields.get("epochSeconds",0L);
+            return;
+        }
+
+        // Determine the year of older dates, which was stored in the era of the java.util.Date.
+        int year = fields.get("year",0);
+        Object date = fields.get("date",null);
+        if (date instanceof java.util.Date) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTime((java.util.Date) date);
+            if (calendar.get(Calendar.ERA) == GregorianCalendar.BC) {
+                year = 1 - year;
+            }
+        }
+
+        // Determine the seconds from the date and time.
+        this.readEpochSeconds = toEpochSeconds(fields.get("month",0),fields.get("day",0),year,this.hours,this.minutes,this.seconds);
+    }
+
+    /**
+     * Replaces a read date with a date created from its seconds
+     * since the epoch, so the fields of the date are final.
+     *
+     * @return the date to use.
+     */
+    private Object readResolve() {
+        return new Date(this.readEpochSeconds);
     }
 }
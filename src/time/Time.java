@@ -10,6 +10,9 @@ import java.io.Serializable;
  * @author Bendrix Bailey
  */
 public class Time implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -1233499175392617813L;
+
     protected int hours;
     protected int minutes;
     protected int seconds;
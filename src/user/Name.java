@@ -8,6 +8,9 @@ import java.io.Serializable;
  * @author Joey Zhen
  */
 public class Name implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -2372099411947752413L;
+
     private String name;
 
     /**
@@ -11,6 +11,9 @@ import java.util.ArrayList;
  * @author Joey Zhen
  */
 public class Registry implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -1176668925548564457L;
+
     private ArrayList<Visitor> visitors;
 
     /**
@@ -20,6 +23,15 @@ public class Registry implements Serializable {
         this.visitors = new ArrayList<>();
     }
 
+    /**
+     * Creates a registry of existing visitors.
+     *
+     * @param visitors the registered visitors.
+     */
+    public Registry(ArrayList<Visitor> visitors) {
+        this.visitors = visitors;
+    }
+
     /**
      * Returns the next id to register a user.
      */
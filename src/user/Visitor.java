@@ -10,6 +10,9 @@ import java.io.Serializable;
  * @author Joey Zhen
  */
 public class Visitor implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 3620562229449141673L;
+
     // The required length for user ids.
     public int USER_ID_LENGTH = 10;
 
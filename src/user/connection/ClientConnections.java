@@ -1,7 +1,9 @@
 package user.connection;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * Stores the current connections.
@@ -9,6 +11,9 @@ import java.util.HashMap;
  * @author Joey Zhen
  */
 public class ClientConnections implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 429897702198888535L;
+
     private int nextMaxId;
     private HashMap<Integer,Connection> connections;
 
@@ -20,6 +25,38 @@ public class ClientConnections implements Serializable {
         this.connections = new HashMap<>();
     }
 
+    /**
+     * Creates the connections with existing connections.
+     *
+     * @param nextMaxId the next id if no lower ids are open.
+     * @param connections the open connections.
+     */
+    public ClientConnections(int nextMaxId,List<Connection> connections) {
+        this.nextMaxId = nextMaxId;
+        this.connections = new HashMap<>();
+        for (Connection connection : connections) {
+            this.connections.put(connection.getId(),connection);
+        }
+    }
+
+    /**
+     * Returns the next id if no lower ids are open.
+     *
+     * @return the next max id.
+     */
+    public int getNextMaxId() {
+        return this.nextMaxId;
+    }
+
+    /**
+     * Returns the open connections.
+     *
+     * @return the open connections.
+     */
+    public ArrayList<Connection> getConnections() {
+        return new ArrayList<>(this.connections.values());
+    }
+
     /**
      * Returns the next possible id for the connections.
      *
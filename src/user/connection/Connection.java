@@ -12,6 +12,9 @@ import java.io.Serializable;
  * @author Joey Zhen
  */
 public class Connection implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = 8205732849653599103L;
+
     private int id;
     private User user;
     private RequestHistory requestHistory;
@@ -54,6 +57,25 @@ public class Connection implements Serializable {
         this.user = user;
     }
 
+    /**
+     * Returns the history of requests of the connection.
+     *
+     * @return the request history.
+     */
+    public RequestHistory getRequestHistory() {
+        return this.requestHistory;
+    }
+
+    /**
+     * Sets the history of requests of the connection. This
+     * is intended for loading a saved connection.
+     *
+     * @param requestHistory the request history.
+     */
+    public void setRequestHistory(RequestHistory requestHistory) {
+        this.requestHistory = requestHistory;
+    }
+
     /**
      * Returns if the connection can manipulate the data
      * for the given visitor.
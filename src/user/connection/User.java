@@ -10,6 +10,9 @@ import java.io.Serializable;
  * @author Joey Zhen
  */
 public class User implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -6279727383539174916L;
+
     private String username;
     private String password;
     private PermissionLevel permissionLevel;
@@ -77,6 +80,16 @@ public class User implements Serializable {
         return this.username;
     }
 
+    /**
+     * Returns the password of the user. This is intended
+     * for saving the user.
+     *
+     * @return the password of the user.
+     */
+    public String getPassword() {
+        return this.password;
+    }
+
     /**
      * Returns the associated visitor.
      *
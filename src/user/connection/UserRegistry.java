@@ -3,6 +3,7 @@ package user.connection;
 import user.Visitor;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
 
 /**
@@ -12,6 +13,9 @@ import java.util.HashMap;
  * @author Zachary Cook
  */
 public class UserRegistry implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -4947269067449208214L;
+
     private HashMap<String,User> usersByName;
     private HashMap<Visitor,User> usersByVisitor;
 
@@ -38,9 +42,26 @@ public class UserRegistry implements Serializable {
         }
 
         // Add the user.
-        User user = new User(username,password,permissionLevel,visitor);
-        this.usersByName.put(username,user);
-        this.usersByVisitor.put(visitor,user);
+        this.registerUser(new User(username,password,permissionLevel,visitor));
+    }
+
+    /**
+     * Adds an existing user to the registry.
+     *
+     * @param user the user to add.
+     */
+    public void registerUser(User user) {
+        this.usersByName.put(user.getUsername(),user);
+        this.usersByVisitor.put(user.getVisitor(),user);
+    }
+
+    /**
+     * Returns the registered users.
+     *
+     * @return the registered users.
+     */
+    public ArrayList<User> getUsers() {
+        return new ArrayList<>(this.usersByName.values());
     }
 
     /**
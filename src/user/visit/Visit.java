@@ -12,6 +12,9 @@ import java.io.Serializable;
  * @author Joey Zhen
  */
 public class Visit implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -5557883220516366331L;
+
     private int id;
     private Visitor visitor;
     private Date date;
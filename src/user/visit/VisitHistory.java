@@ -4,8 +4,13 @@ import time.Date;
 import time.Time;
 import user.Visitor;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * This class stores all visit history, and allows history for each user and each day to be fetched.
@@ -15,9 +20,15 @@ import java.util.ArrayList;
  */
 
 public class VisitHistory implements Serializable {
+    // The version of the saved class.
+    private static final long serialVersionUID = -2063756050916583053L;
+
     private ArrayList<Visit> finishedVisits;
     private ArrayList<Visit> unfinishedVisits;
     private int visitId;
+    private transient Supplier<? extends List<Visit>> closedVisitsLoader;
+    private transient int closedVisitCount;
+    private int archivedVisitCount;
 
     /**
      * Creates the visit history.
@@ -28,6 +39,94 @@ public class VisitHistory implements Serializable {
         this.visitId = 0;
     }
 
+    /**
+     * Creates the visit history with existing visits.
+     *
+     * @param finishedVisits the visits that have ended.
+     * @param unfinishedVisits the visits that haven't ended.
+     */
+    public VisitHistory(ArrayList<Visit> finishedVisits,ArrayList<Visit> unfinishedVisits) {
+        this.finishedVisits = finishedVisits;
+        this.unfinishedVisits = unfinishedVisits;
+        this.visitId = 0;
+    }
+
+    /**
+     * Sets the closed visits to load the first time all of the finished
+     * visits are needed. The closed visits finished before the finished
+     * visits in the history.
+     *
+     * @param loader the loader of the closed visits.
+     * @param count the amount of closed visits.
+     */
+    public void setClosedVisits(Supplier<? extends List<Visit>> loader,int count) {
+        this.closedVisitsLoader = loader;
+        this.closedVisitCount = count;
+    }
+
+    /**
+     * Returns if the closed visits haven't been loaded.
+     *
+     * @return if the closed visits are unloaded.
+     */
+    public boolean hasUnloadedVisits() {
+        return this.closedVisitsLoader != null;
+    }
+
+    /**
+     * Loads the closed visits, if they haven't been loaded.
+     */
+    private void loadClosedVisits() {
+        if (this.closedVisitsLoader != null) {
+            ArrayList<Visit> finishedVisits = new ArrayList<>(this.closedVisitsLoader.get());
+            finishedVisits.addAll(this.finishedVisits);
+            this.finishedVisits = finishedVisits;
+            this.closedVisitsLoader = null;
+            this.closedVisitCount = 0;
+        }
+    }
+
+    /**
+     * Returns the amount of archived visits.
+     *
+     * @return the amount of archived visits.
+     */
+    public int getArchivedVisitCount() {
+        return this.archivedVisitCount;
+    }
+
+    /**
+     * Sets the amount of archived visits.
+     *
+     * @param archivedVisitCount the amount of archived visits.
+     */
+    public void setArchivedVisitCount(int archivedVisitCount) {
+        this.archivedVisitCount = archivedVisitCount;
+    }
+
+    /**
+     * Removes the oldest finished visits that match a filter so they
+     * can be archived. Visits are removed in order until one doesn't
+     * match, so the archived visits stay before the remaining visits.
+     *
+     * @param filter the filter of the visits to remove.
+     * @return the removed visits, in the order they finished.
+     */
+    public ArrayList<Visit> removeFinishedVisits(Predicate<Visit> filter) {
+        // Determine the amount of visits to remove.
+        this.loadClosedVisits();
+        int count = 0;
+        while (count < this.finishedVisits.size() && filter.test(this.finishedVisits.get(count))) {
+            count += 1;
+        }
+
+        // Remove and return the visits.
+        ArrayList<Visit> removedVisits = new ArrayList<>(this.finishedVisits.subList(0,count));
+        this.finishedVisits.subList(0,count).clear();
+        this.archivedVisitCount += count;
+        return removedVisits;
+    }
+
     /**
      * Returns if the visitor has an open visit.
      *
@@ -51,6 +150,17 @@ public class VisitHistory implements Serializable {
      * @return the finished visits.
      */
     public ArrayList<Visit> getFinishedVisits() {
+        this.loadClosedVisits();
+        return new ArrayList<>(this.finishedVisits);
+    }
+
+    /**
+     * Returns the finished visits that are loaded, without loading
+     * the closed visits.
+     *
+     * @return the loaded finished visits.
+     */
+    public ArrayList<Visit> getLoadedFinishedVisits() {
         return new ArrayList<>(this.finishedVisits);
     }
 
@@ -71,7 +181,7 @@ public class VisitHistory implements Serializable {
      */
     public Visit addVisit(Visitor visitor,Date visitDate){
         // Create the visit.
-        this.visitId = this.finishedVisits.size() + this.unfinishedVisits.size();
+        this.visitId = this.archivedVisitCount + this.closedVisitCount + this.finishedVisits.size() + this.unfinishedVisits.size();
         Visit visit = new Visit(visitId, visitor, visitDate);
 
         // Register the visit as unfinished and return the visit.
@@ -134,8 +244,9 @@ public class VisitHistory implements Serializable {
      * Undoes finishing a visitor.
      *
      * @param visitor the visitor to remove the visit for.
+     * @return the visit that was continued, or null.
      */
-    public void undoFinishVisit(Visitor visitor) {
+    public Visit undoFinishVisit(Visitor visitor) {
         // Get the index to remove.
         int indexToRemove = -1;
         for (int i = 0; i < this.finishedVisits.size(); i++) {
@@ -145,28 +256,39 @@ public class VisitHistory implements Serializable {
             }
         }
 
+        // Search the closed visits if the visitor has no newer visit.
+        if (indexToRemove == -1 && this.closedVisitsLoader != null) {
+            this.loadClosedVisits();
+            return this.undoFinishVisit(visitor);
+        }
+
         // Remove the last index.
         if (indexToRemove != -1) {
             Visit visit = this.finishedVisits.remove(indexToRemove);
             visit.undoEndVisit();
             this.unfinishedVisits.add(visit);
+            return visit;
         }
+        return null;
     }
 
     /**
      * Finishes all of the unfinished visits.
      *
      * @param visitEndTime the time of the ended visit
+     * @return the visits that were ended.
      */
-    public void finishAllVisits(Time visitEndTime) {
+    public ArrayList<Visit> finishAllVisits(Time visitEndTime) {
         // End the visits.
         for (Visit visit : this.unfinishedVisits) {
             visit.endVisit(visitEndTime);
         }
 
         // Move all the visits.
+        ArrayList<Visit> endedVisits = new ArrayList<>(this.unfinishedVisits);
         this.finishedVisits.addAll(this.unfinishedVisits);
         this.unfinishedVisits.clear();
+        return endedVisits;
     }
 
     /**
@@ -176,6 +298,7 @@ public class VisitHistory implements Serializable {
      */
     public Time averageVisitTime(){
         // Return 0 if there are no finished visits.
+        this.loadClosedVisits();
         if (this.finishedVisits.size() == 0) {
             return new Time(0);
         }
@@ -189,4 +312,15 @@ public class VisitHistory implements Serializable {
         // Determine and return the average.
         return new Time(totalSeconds/this.finishedVisits.size());
     }
+
+    /**
+     * Loads the closed visits before the history is serialized.
+     *
+     * @param output the stream to write to.
+     * @throws IOException if the history can't be written.
+     */
+    private void writeObject(ObjectOutputStream output) throws IOException {
+        this.loadClosedVisits();
+        output.defaultWriteObject();
+    }
 }
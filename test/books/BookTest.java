@@ -4,7 +4,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import time.Date;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -93,6 +96,26 @@ public class BookTest {
         assertEquals(CuT.getAuthors().get(0), new Author("John","Doe"), "Author isn't correct.");
     }
 
+    /**
+     * Tests the {@link Book#getAuthorsView()} method.
+     */
+    @Test
+    public void test_getAuthorsView() {
+        assertEquals(CuT.getAuthorsView().get(0), new Author("John","Doe"), "Author isn't correct.");
+        assertSame(CuT.getAuthorsView(), CuT.getAuthorsView(), "Authors were copied.");
+        assertThrows(UnsupportedOperationException.class, () -> CuT.getAuthorsView().clear(), "Authors can be changed.");
+    }
+
+    /**
+     * Tests the lowercase keys of the book.
+     */
+    @Test
+    public void test_lowercaseKeys() {
+        assertEquals(CuT.getLowercaseName(), "test book", "Name is incorrect.");
+        assertArrayEquals(CuT.getLowercaseAuthorNames(), new String[] {"john doe"}, "Author names are incorrect.");
+        assertEquals(CuT.getLowercasePublisher(), "test publisher", "Publisher is incorrect.");
+    }
+
     /**
      * Tests the {@link Book#getPublisher()} method.
      */
@@ -0,0 +1,244 @@
+package books.search;
+
+import books.Author;
+import books.Book;
+import books.BookPage;
+import books.Books;
+import books.Publisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import time.Date;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BookIndex} class.
+ *
+ * @author Zachary Cook
+ */
+public class BookIndexTest {
+    // The words used for the names of the books.
+    private static final String[] WORDS = {"Running","the","Sun","Harry","Potter","and","Chamber","of","Secrets","Java","2nd","Edition","O'Reilly","Media","Doe","Jane","sun-rise"};
+
+    private Books books;
+    private BookIndex CuT;
+
+    /**
+     * Returns a random name made from the words.
+     *
+     * @param random the random number generator.
+     * @param maxWords the maximum amount of words.
+     * @return the name.
+     */
+    private static String getRandomName(Random random,int maxWords) {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(maxWords);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                name.append(random.nextBoolean() ? " " : ": ");
+            }
+            name.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        // Create the books.
+        Random random = new Random(5);
+        Date blankDate = new Date(0,0,0,0,0,0);
+        this.books = new Books();
+        for (int i = 0; i < 300; i++) {
+            ArrayList<Author> authors = new ArrayList<>();
+            int authorCount = 1 + random.nextInt(2);
+            for (int j = 0; j < authorCount; j++) {
+                authors.add(new Author(getRandomName(random,1),getRandomName(random,1)));
+            }
+            Publisher publisher = new Publisher(getRandomName(random,2));
+            long isbn = 9780000000000L + random.nextInt(1000000);
+            Date publishedDate = new Date(1 + random.nextInt(12),1 + random.nextInt(28),1800 + random.nextInt(300),0,0,0);
+            int copies = random.nextInt(5);
+            this.books.add(new Book(authors,publisher,isbn,random.nextInt(10) == 0 ? blankDate : publishedDate,100,copies,random.nextInt(copies + 1),getRandomName(random,4),i));
+        }
+
+        // Create the component under testing.
+        this.CuT = new BookIndex(this.books);
+    }
+
+    /**
+     * Asserts the index returns the same books as filtering every book.
+     *
+     * @param title the title of the book.
+     * @param authors the authors of the book.
+     * @param isbn the ISBN of the book.
+     * @param publisher the publisher of the book.
+     */
+    private void assertSameBooks(String title,String authors,String isbn,String publisher) {
+        Books expectedBooks = this.books.filterBooks(title,authors,isbn,publisher);
+        Books actualBooks = this.CuT.filterBooks(title,authors,isbn,publisher);
+        assertEquals(actualBooks,expectedBooks,"Books are incorrect for \"" + title + "\", \"" + authors + "\", \"" + isbn + "\", \"" + publisher + "\".");
+    }
+
+    /**
+     * Tests the index returns the same books for substrings of words.
+     */
+    @Test
+    public void test_substrings() {
+        for (String search : Arrays.asList("unn","Running","RUN","ing","e","2n","'","O'R","ly M","-","sun-","n-r","Sun Harry","un H","*","","  ","the ",": Ha","xyz")) {
+            this.assertSameBooks(search,"*","*","*");
+            this.assertSameBooks("*",search,"*","*");
+            this.assertSameBooks("*","*","*",search);
+        }
+        assertTrue(this.CuT.filterBooks("unn","*","*","*").size() > 0,"Books weren't found.");
+    }
+
+    /**
+     * Tests the index returns the same books for random searches.
+     */
+    @Test
+    public void test_randomSearches() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            // Create a search from part of an existing book.
+            Book book = this.books.get(random.nextInt(this.books.size()));
+            String name = book.getName();
+            int start = random.nextInt(name.length());
+            int end = start + random.nextInt(name.length() - start + 1);
+            String authors = book.getAuthors().get(0).getName() + ", " + getRandomName(random,1).substring(1);
+
+            // Assert the books are the same.
+            this.assertSameBooks(name.substring(start,end),"*","*","*");
+            this.assertSameBooks(name.substring(start,end),authors,"*","*");
+            this.assertSameBooks("*",authors,"*",book.getPublisher().toString().substring(1));
+        }
+    }
+
+    /**
+     * Tests the index returns the same books for parts of ISBN numbers.
+     */
+    @Test
+    public void test_isbnSearches() {
+        for (String search : Arrays.asList("9","97","978","0000","9780","12","555","-1","1a","","*")) {
+            this.assertSameBooks("*","*",search,"*");
+        }
+        Random random = new Random(9);
+        for (int i = 0; i < 200; i++) {
+            String isbn = Long.toString(this.books.get(random.nextInt(this.books.size())).getISBN());
+            int start = random.nextInt(isbn.length());
+            int end = start + random.nextInt(isbn.length() - start + 1);
+            this.assertSameBooks("*","*",isbn.substring(start,end),"*");
+            this.assertSameBooks("*","*",isbn.substring(start,end) + random.nextInt(10),"*");
+        }
+    }
+
+    /**
+     * Asserts the index returns the same books as filtering and sorting every book.
+     *
+     * @param title the title of the book.
+     * @param authors the authors of the book.
+     * @param sortingMethod the method to sort the books by.
+     */
+    private void assertSameSortedBooks(String title,String authors,Books.SortingMethod sortingMethod) {
+        Books expectedBooks = this.books.filterBooks(title,authors,"*","*");
+        expectedBooks.sort(sortingMethod);
+        Books actualBooks = this.CuT.filterBooks(title,authors,"*","*",sortingMethod);
+        assertEquals(actualBooks,expectedBooks,"Books are incorrect for \"" + title + "\", \"" + authors + "\", " + sortingMethod + ".");
+    }
+
+    /**
+     * Tests the index returns the same books for sorted searches.
+     */
+    @Test
+    public void test_sortedSearches() {
+        for (Books.SortingMethod sortingMethod : Books.SortingMethod.values()) {
+            for (String search : Arrays.asList("*","","e","Sun","unn","Harry Potter","xyz")) {
+                this.assertSameSortedBooks(search,"*",sortingMethod);
+                this.assertSameSortedBooks("*",search,sortingMethod);
+            }
+
+            // Add a book and assert the orders are updated.
+            Book book = new Book(new Author("Aaron","Sun"),new Publisher("Publisher"),1,new Date(1,1,2100,0,0,0),100,9,0,"A Sun");
+            this.books.add(book);
+            this.assertSameSortedBooks("*","*",sortingMethod);
+            this.assertSameSortedBooks("sun","*",sortingMethod);
+            this.books.remove(book);
+            this.CuT = new BookIndex(this.books);
+        }
+    }
+
+    /**
+     * Tests the index returns pages of the sorted books.
+     */
+    @Test
+    public void test_pages() {
+        for (Books.SortingMethod sortingMethod : Books.SortingMethod.values()) {
+            for (String search : Arrays.asList("*","e","Harry Potter")) {
+                Books sortedBooks = this.CuT.filterBooks(search,"*","*","*",sortingMethod);
+                for (int offset : new int[] {0,1,7,sortedBooks.size() - 1,sortedBooks.size(),sortedBooks.size() + 5}) {
+                    for (int limit : new int[] {0,1,3,50,Integer.MAX_VALUE}) {
+                        BookPage page = this.CuT.filterBooks(search,"*","*","*",sortingMethod,offset,limit);
+                        assertEquals(page.getTotal(),sortedBooks.size(),"Total is incorrect.");
+                        assertEquals(page.getBooks(),BookPage.fromBooks(sortedBooks,offset,limit).getBooks(),"Page is incorrect.");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests finding books by ISBN number.
+     */
+    @Test
+    public void test_getBook() {
+        for (Book book : this.books) {
+            assertEquals(this.CuT.getBook(book.getISBN()).getISBN(),book.getISBN(),"Book is incorrect.");
+        }
+        assertSame(this.CuT.getBook(this.books.get(0).getISBN()),this.books.get(0),"Book is incorrect.");
+        assertNull(this.CuT.getBook(1),"Book was found.");
+    }
+
+    /**
+     * Tests books that are added after the index is created are found.
+     */
+    @Test
+    public void test_update() {
+        Books newBooks = new Books();
+        BookIndex index = new BookIndex(newBooks);
+        assertEquals(index.filterBooks("sequel","*","*","*").size(),0,"Books were found.");
+
+        // Add a book and assert it is found.
+        Book book = new Book(new Author("John","Doe"),new Publisher("Publisher 1"),1,new Date(0,0,0,0,0,0),100,1,0,"Test Book: The Sequel");
+        newBooks.add(book);
+        assertEquals(index.filterBooks("sequel","*","*","*").size(),1,"Book wasn't found.");
+        assertEquals(index.filterBooks("*","doe","*","*").get(0),book,"Book wasn't found.");
+        assertEquals(index.filterBooks("*","*","*","lisher 1").get(0),book,"Book wasn't found.");
+        assertSame(index.getBook(1),book,"Book wasn't found.");
+    }
+
+    /**
+     * Tests books without a title or publisher name, such as some
+     * results of Google Books, are indexed with empty names.
+     */
+    @Test
+    public void test_missingNames() {
+        Books newBooks = new Books();
+        BookIndex index = new BookIndex(newBooks);
+        Book book = new Book(new Author("John","Doe"),new Publisher(null),1,new Date(0,0,0,0,0,0),100,1,0,null);
+        newBooks.add(book);
+        newBooks.add(new Book(new Author("Jane","Doe"),new Publisher("Publisher 1"),2,new Date(0,0,0,0,0,0),100,1,0,"Test Book"));
+
+        // Assert the book is found by the other fields and not by the missing names.
+        assertEquals(index.filterBooks("*","*","*","*").size(),2,"Books weren't found.");
+        assertEquals(index.filterBooks("*","john","*","*").get(0),book,"Book wasn't found.");
+        assertEquals(index.filterBooks("test","*","*","*").size(),1,"Book without a title was found.");
+        assertEquals(index.filterBooks("*","*","*","publisher").size(),1,"Book without a publisher was found.");
+        assertSame(index.getBook(1),book,"Book wasn't found.");
+    }
+}
@@ -0,0 +1,91 @@
+package books.search;
+
+import books.Author;
+import books.Book;
+import books.Publisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import time.Date;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link FacetCounts} class.
+ *
+ * @author Zachary Cook
+ */
+public class FacetCountsTest {
+    private FacetCounts CuT;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.CuT = new FacetCounts(EnumSet.of(FacetCounts.Facet.AUTHOR,FacetCounts.Facet.AVAILABILITY));
+    }
+
+    /**
+     * Tests the add method.
+     */
+    @Test
+    public void test_add() {
+        ArrayList<Author> authors = new ArrayList<>();
+        authors.add(new Author("John","Doe"));
+        authors.add(new Author("Jane","Doe"));
+        this.CuT.add(new Book(authors,new Publisher("Publisher"),1,new Date(1,1,2000,0,0,0),100,1,1,"Test Book 1",1));
+        this.CuT.add(new Book(new Author("John","Doe"),new Publisher("Publisher"),2,new Date(1,1,2001,0,0,0),100,1,0,"Test Book 2"));
+
+        // Assert the counts are correct.
+        List<Map.Entry<String,Integer>> authorCounts = this.CuT.getTopCounts(FacetCounts.Facet.AUTHOR,10);
+        assertEquals(authorCounts.size(),2,"Author count is incorrect.");
+        assertEquals(authorCounts.get(0).getKey(),"John Doe","Author is incorrect.");
+        assertEquals((int) authorCounts.get(0).getValue(),2,"Count is incorrect.");
+        assertEquals(authorCounts.get(1).getKey(),"Jane Doe","Author is incorrect.");
+        assertEquals((int) authorCounts.get(1).getValue(),1,"Count is incorrect.");
+        List<Map.Entry<String,Integer>> availabilityCounts = this.CuT.getTopCounts(FacetCounts.Facet.AVAILABILITY,10);
+        assertEquals(availabilityCounts.size(),2,"Availability count is incorrect.");
+        assertEquals(availabilityCounts.get(0).getKey(),"available","Availability is incorrect.");
+        assertEquals(availabilityCounts.get(1).getKey(),"unavailable","Availability is incorrect.");
+
+        // Assert facets that aren't counted are empty.
+        assertTrue(this.CuT.getTopCounts(FacetCounts.Facet.YEAR,10).isEmpty(),"Year was counted.");
+        assertEquals(this.CuT.getFacets(),EnumSet.of(FacetCounts.Facet.AUTHOR,FacetCounts.Facet.AVAILABILITY),"Facets are incorrect.");
+    }
+
+    /**
+     * Tests the getTopCounts method with a maximum.
+     */
+    @Test
+    public void test_getTopCountsMaximum() {
+        for (int i = 0; i < 5; i++) {
+            this.CuT.add(new Book(new Author("Author",Integer.toString(i)),new Publisher("Publisher"),i,new Date(1,1,2000,0,0,0),100,1,0,"Test Book"));
+        }
+
+        // Assert the values with the same count are ordered by value.
+        List<Map.Entry<String,Integer>> authorCounts = this.CuT.getTopCounts(FacetCounts.Facet.AUTHOR,3);
+        assertEquals(authorCounts.size(),3,"Author count is incorrect.");
+        assertEquals(authorCounts.get(0).getKey(),"Author 0","Author is incorrect.");
+        assertEquals(authorCounts.get(2).getKey(),"Author 2","Author is incorrect.");
+    }
+
+    /**
+     * Tests books without a publisher name aren't counted as publishers.
+     */
+    @Test
+    public void test_addMissingPublisher() {
+        this.CuT = new FacetCounts(EnumSet.of(FacetCounts.Facet.PUBLISHER));
+        this.CuT.add(new Book(new Author("John","Doe"),new Publisher(null),1,new Date(1,1,2000,0,0,0),100,1,0,"Test Book 1"));
+        this.CuT.add(new Book(new Author("John","Doe"),new Publisher("Publisher"),2,new Date(1,1,2000,0,0,0),100,1,0,"Test Book 2"));
+
+        // Assert only the publisher with a name is counted.
+        List<Map.Entry<String,Integer>> publisherCounts = this.CuT.getTopCounts(FacetCounts.Facet.PUBLISHER,10);
+        assertEquals(publisherCounts.size(),1,"Publisher count is incorrect.");
+        assertEquals(publisherCounts.get(0).getKey(),"Publisher","Publisher is incorrect.");
+    }
+}
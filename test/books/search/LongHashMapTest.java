@@ -0,0 +1,63 @@
+package books.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link LongHashMap} class.
+ *
+ * @author Zachary Cook
+ */
+public class LongHashMapTest {
+    private LongHashMap<String> CuT;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.CuT = new LongHashMap<>();
+    }
+
+    /**
+     * Tests the putIfAbsent method.
+     */
+    @Test
+    public void test_putIfAbsent() {
+        assertNull(this.CuT.putIfAbsent(9780000000001L,"Book 1"),"Value wasn't set.");
+        assertNull(this.CuT.putIfAbsent(0,"Book 2"),"Value wasn't set.");
+        assertEquals(this.CuT.putIfAbsent(9780000000001L,"Book 3"),"Book 1","Existing value is incorrect.");
+        assertEquals(this.CuT.get(9780000000001L),"Book 1","Value was replaced.");
+        assertEquals(this.CuT.get(0),"Book 2","Value is incorrect.");
+        assertNull(this.CuT.get(1),"Value was found.");
+        assertEquals(this.CuT.size(),2,"Size is incorrect.");
+    }
+
+    /**
+     * Tests the map grows without losing keys.
+     */
+    @Test
+    public void test_resize() {
+        // Add random keys to both maps.
+        Random random = new Random(3);
+        HashMap<Long,String> expected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            long key = random.nextBoolean() ? random.nextLong() : random.nextInt(5000);
+            if (!expected.containsKey(key)) {
+                expected.put(key,Integer.toString(i));
+            }
+            this.CuT.putIfAbsent(key,Integer.toString(i));
+        }
+
+        // Assert the keys are the same.
+        assertEquals(this.CuT.size(),expected.size(),"Size is incorrect.");
+        for (Long key : expected.keySet()) {
+            assertEquals(this.CuT.get(key),expected.get(key),"Value is incorrect.");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package books.search;
+
+import books.Author;
+import books.Book;
+import books.Books;
+import books.Publisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import time.Date;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ParallelScan} class.
+ *
+ * @author Zachary Cook
+ */
+public class ParallelScanTest {
+    private int parallelThreshold;
+    private int chunkBooks;
+    private Books books;
+    private ParallelScan CuT;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.parallelThreshold = ParallelScan.PARALLEL_THRESHOLD;
+        this.chunkBooks = ParallelScan.CHUNK_BOOKS;
+
+        // Create the books.
+        Random random = new Random(11);
+        Date blankDate = new Date(0,0,0,0,0,0);
+        this.books = new Books();
+        for (int i = 0; i < 1000; i++) {
+            ArrayList<Author> authors = new ArrayList<>();
+            authors.add(new Author("Author","" + (char) ('a' + random.nextInt(26))));
+            authors.add(new Author("Author","" + (char) ('a' + random.nextInt(26))));
+            this.books.add(new Book(authors,new Publisher("Publisher"),i,blankDate,100,1,0,"Book " + i,i));
+        }
+        this.CuT = new ParallelScan(this.books);
+    }
+
+    /**
+     * Resets the thresholds.
+     */
+    @AfterEach
+    public void tearDown() {
+        ParallelScan.PARALLEL_THRESHOLD = this.parallelThreshold;
+        ParallelScan.CHUNK_BOOKS = this.chunkBooks;
+    }
+
+    /**
+     * Returns a plan that searches for books with two authors.
+     *
+     * @return the plan for the search.
+     */
+    private QueryPlan createPlan() {
+        QueryPlan plan = new QueryPlan(this.books.size());
+        plan.addPredicate(new AuthorFilter(new RootContainer(this.books),"r a, r b"));
+        return plan;
+    }
+
+    /**
+     * Tests the parallel scan finds the same books in order.
+     */
+    @Test
+    public void test_scan() {
+        // Scan the books on one thread.
+        ParallelScan.PARALLEL_THRESHOLD = Integer.MAX_VALUE;
+        int[] expectedPositions = this.CuT.scan(this.createPlan(),null).toArray();
+        assertEquals(expectedPositions.length,this.books.filterBooks("*","r a, r b","*","*").size(),"Books are incorrect.");
+
+        // Scan the books in parallel and assert they are the same.
+        ParallelScan.PARALLEL_THRESHOLD = 1;
+        ParallelScan.CHUNK_BOOKS = 7;
+        assertArrayEquals(this.CuT.scan(this.createPlan(),null).toArray(),expectedPositions,"Books are incorrect.");
+
+        // Assert candidates are scanned in parallel.
+        PostingList candidates = new PostingList();
+        for (int i = 0; i < this.books.size(); i += 3) {
+            candidates.add(i);
+        }
+        int[] candidatePositions = this.CuT.scan(this.createPlan(),candidates).toArray();
+        for (int position : candidatePositions) {
+            assertEquals(position % 3,0,"Position wasn't a candidate.");
+        }
+        ParallelScan.PARALLEL_THRESHOLD = Integer.MAX_VALUE;
+        assertArrayEquals(candidatePositions,this.CuT.scan(this.createPlan(),candidates).toArray(),"Books are incorrect.");
+    }
+}
@@ -0,0 +1,117 @@
+package books.search;
+
+import books.Author;
+import books.Book;
+import books.Books;
+import books.Publisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import time.Date;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link QueryPlan} class.
+ *
+ * @author Zachary Cook
+ */
+public class QueryPlanTest {
+    private Book book;
+    private RootContainer rootContainer;
+    private ArrayList<String> checkedFilters;
+    private QueryPlan CuT;
+
+    /**
+     * Filter that records when it is checked.
+     */
+    private class RecordingFilter extends TitleFilter {
+        private String name;
+
+        /**
+         * Creates the filter.
+         *
+         * @param name the name to record.
+         * @param filterString the string to use for filtering.
+         */
+        private RecordingFilter(String name,String filterString) {
+            super(rootContainer,filterString);
+            this.name = name;
+        }
+
+        /**
+         * Returns if a book passes this filter.
+         *
+         * @param book the book to check.
+         * @return whether the book passes the filter.
+         */
+        @Override
+        public boolean matches(Book book) {
+            checkedFilters.add(this.name);
+            return super.matches(book);
+        }
+    }
+
+    /**
+     * Returns a posting list with positions.
+     *
+     * @param positions the positions to add.
+     * @return the posting list.
+     */
+    private static PostingList createPostingList(int... positions) {
+        PostingList postingList = new PostingList();
+        for (int position : positions) {
+            postingList.add(position);
+        }
+        return postingList;
+    }
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.book = new Book(new Author("John","Doe"),new Publisher("Publisher"),1,new Date(0,0,0,0,0,0),100,1,0,"Test Book");
+        this.rootContainer = new RootContainer(new Books());
+        this.checkedFilters = new ArrayList<>();
+        this.CuT = new QueryPlan(100);
+    }
+
+    /**
+     * Tests the candidates come from the most selective predicate.
+     */
+    @Test
+    public void test_getCandidates() {
+        assertNull(this.CuT.getCandidates(),"Candidates were narrowed.");
+        this.CuT.addPredicate(new RecordingFilter("unindexed","Test"));
+        assertNull(this.CuT.getCandidates(),"Candidates were narrowed.");
+        this.CuT.addPredicate(new RecordingFilter("common","Test"),50,() -> createPostingList(1,2,3));
+        this.CuT.addPredicate(new RecordingFilter("rare","Book"),2,() -> createPostingList(4,5));
+        this.CuT.addPredicate(new RecordingFilter("short","Te"),-1,() -> createPostingList(6));
+        assertEquals(this.CuT.getCandidates().toArray()[0],4,"Candidates are incorrect.");
+
+        // Assert every book is checked if the most selective predicate is common.
+        QueryPlan commonPlan = new QueryPlan(100);
+        commonPlan.addPredicate(new RecordingFilter("common","Test"),50,() -> createPostingList(1,2,3));
+        assertNull(commonPlan.getCandidates(),"Candidates were narrowed.");
+    }
+
+    /**
+     * Tests the predicates are checked most selective first.
+     */
+    @Test
+    public void test_matches() {
+        this.CuT.addPredicate(new RecordingFilter("unindexed","Test"));
+        this.CuT.addPredicate(new RecordingFilter("common","Test"),50,() -> createPostingList());
+        this.CuT.addPredicate(new RecordingFilter("rare","Book"),2,() -> createPostingList());
+        assertTrue(this.CuT.matches(this.book),"Book didn't match.");
+        assertEquals(this.checkedFilters.toString(),"[rare, common, unindexed]","Order is incorrect.");
+
+        // Assert the other predicates aren't checked after one fails.
+        this.checkedFilters.clear();
+        this.CuT.addPredicate(new RecordingFilter("missing","Other"),0,() -> createPostingList());
+        assertFalse(this.CuT.matches(this.book),"Book matched.");
+        assertEquals(this.checkedFilters.toString(),"[missing]","Predicates were checked.");
+    }
+}
@@ -0,0 +1,56 @@
+package books.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TrigramIndex} class.
+ *
+ * @author Zachary Cook
+ */
+public class TrigramIndexTest {
+    private TrigramIndex CuT;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.CuT = new TrigramIndex();
+        this.CuT.add(0,"Running");
+        this.CuT.add(1,"The Sun");
+        this.CuT.add(2,"Sunny Days");
+        this.CuT.add(2,"Gunning");
+    }
+
+    /**
+     * Asserts the positions of a posting list.
+     *
+     * @param postingList the posting list to check.
+     * @param positions the expected positions.
+     */
+    private static void assertPositions(PostingList postingList,int... positions) {
+        assertEquals(postingList.size(),positions.length,"Size is incorrect.");
+        for (int i = 0; i < positions.length; i++) {
+            assertEquals(postingList.get(i),positions[i],"Position is incorrect.");
+        }
+    }
+
+    /**
+     * Tests the find method.
+     */
+    @Test
+    public void test_find() {
+        assertPositions(this.CuT.find("unn"),0,2);
+        assertPositions(this.CuT.find("RUNNING"),0);
+        assertPositions(this.CuT.find(" su"),1);
+        assertPositions(this.CuT.find("sun"),1,2);
+        assertPositions(this.CuT.find("unny d"),2);
+        assertPositions(this.CuT.find("xyz"));
+        assertPositions(this.CuT.find("unnun"));
+        assertNull(this.CuT.find("un"),"Short search wasn't ignored.");
+        assertNull(this.CuT.find(""),"Short search wasn't ignored.");
+    }
+}
@@ -0,0 +1,67 @@
+package books.store;
+
+import books.Author;
+import books.Book;
+import books.Books;
+import books.Publisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import time.Date;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BookStore} class.
+ *
+ * @author Zachary Cook
+ */
+public class BookStoreTest {
+    private Books books;
+    private LocalSearch localSearch;
+    private BookStore CuT;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.books = new Books();
+        this.localSearch = new LocalSearch(this.books,new Books());
+        this.CuT = new BookStore(this.books,BookStore.SearchService.LOCAL,this.localSearch,new GoogleSearch(this.books));
+
+        // Add the books.
+        Date blankDate = new Date(0,0,0,0,0,0);
+        for (int i = 0; i < 100; i++) {
+            ArrayList<Author> authors = new ArrayList<>(Collections.singletonList(new Author("John","Doe")));
+            this.localSearch.addBook(9780000000000L + i,"Book " + i,authors,new Publisher("Publisher"),blankDate,100);
+        }
+    }
+
+    /**
+     * Tests the getBook method.
+     */
+    @Test
+    public void test_getBook() {
+        for (int id = 1; id <= 100; id++) {
+            assertEquals(this.CuT.getBook(id).getId(),id,"Book is incorrect.");
+            assertEquals(this.CuT.getBook(id).getISBN(),9780000000000L + id - 1,"Book is incorrect.");
+        }
+        assertNull(this.CuT.getBook(0),"Book was found.");
+        assertNull(this.CuT.getBook(101),"Book was found.");
+        assertNull(this.CuT.getBook(-1),"Book was found.");
+    }
+
+    /**
+     * Tests the getBook method when the books aren't ordered by id.
+     */
+    @Test
+    public void test_getBookUnordered() {
+        Collections.reverse(this.books);
+        for (int id = 1; id <= 100; id++) {
+            assertEquals(this.CuT.getBook(id).getId(),id,"Book is incorrect.");
+        }
+    }
+}
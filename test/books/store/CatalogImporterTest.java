@@ -0,0 +1,120 @@
+package books.store;
+
+import books.Book;
+import books.Books;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link CatalogImporter} class.
+ *
+ * @author Zachary Cook
+ */
+public class CatalogImporterTest {
+    @TempDir
+    public Path directory;
+
+    private File catalogFile;
+    private ArrayList<String> lines;
+    private int chunkSize;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() throws IOException {
+        // Create a catalog with invalid lines and line endings.
+        this.lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            this.lines.add((9780000000000L + i) + ",\"Book " + i + "\",{Jane Doe,John Doe},\"Publisher\",2013-12-" + (10 + i % 20) + "," + (100 + i));
+        }
+        this.lines.set(10,"978000000001X,\"Invalid ISBN\",{Jane Doe},\"Publisher\",2013,100");
+        this.lines.set(50,"9780000000050,\"Invalid Date\",{Jane Doe},\"Publisher\",2013-A,100");
+        this.lines.set(150,"9780000000150,\"Missing Fields\"");
+        this.lines.set(199,"9780000000199,\"Programovací jazyk C\",{Brian W. Kernighan},\"Computer Press\",2017-02-21,288");
+        this.catalogFile = new File(this.directory.toFile(),"books.txt");
+        Files.write(this.catalogFile.toPath(),(String.join("\r\n",this.lines.subList(0,100)) + "\n\n" + String.join("\n",this.lines.subList(100,200)) + "\n").getBytes(StandardCharsets.UTF_8));
+
+        // Use small chunks so the catalog is split.
+        this.chunkSize = CatalogImporter.CHUNK_SIZE;
+        CatalogImporter.CHUNK_SIZE = 512;
+    }
+
+    /**
+     * Resets the chunk size.
+     */
+    @AfterEach
+    public void tearDown() {
+        CatalogImporter.CHUNK_SIZE = this.chunkSize;
+    }
+
+    /**
+     * Tests that the import is the same as adding the lines in order.
+     */
+    @Test
+    public void test_importBooks() throws IOException {
+        // Import the catalog in parallel and one line at a time.
+        LocalSearch search = new LocalSearch(new Books());
+        CatalogImporter CuT = new CatalogImporter(this.catalogFile,new ForkJoinPool(4));
+        assertEquals(CuT.importBooks(search),197,"Books are missing.");
+        LocalSearch expectedSearch = new LocalSearch(new Books());
+        for (String line : this.lines) {
+            expectedSearch.addBookFromCSV(line);
+        }
+
+        // Assert the books and ids are the same.
+        Books books = search.getStoreBooks();
+        Books expectedBooks = expectedSearch.getStoreBooks();
+        assertEquals(books.size(),expectedBooks.size(),"Books are missing.");
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            Book expectedBook = expectedBooks.get(i);
+            assertEquals(book.getId(),i + 1,"Id is incorrect.");
+            assertEquals(book.getISBN(),expectedBook.getISBN(),"ISBN changed.");
+            assertEquals(book.getName(),expectedBook.getName(),"Name changed.");
+            assertEquals(book.getAuthors(),expectedBook.getAuthors(),"Authors changed.");
+            assertEquals(book.getPublishedDate(),expectedBook.getPublishedDate(),"Date changed.");
+            assertEquals(book.getPageCount(),expectedBook.getPageCount(),"Page count changed.");
+        }
+        assertEquals(books.get(196).getName(),"Programovací jazyk C","Name wasn't decoded.");
+    }
+
+    /**
+     * Tests that the invalid lines are rejected with their location.
+     */
+    @Test
+    public void test_rejects() throws IOException {
+        CatalogImporter CuT = new CatalogImporter(this.catalogFile);
+        CuT.importBooks(new LocalSearch(new Books()));
+
+        // Assert the rejects are in order, counting the blank line.
+        ArrayList<CatalogImporter.Reject> rejects = CuT.getRejects();
+        assertEquals(rejects.size(),3,"Rejects are missing.");
+        assertEquals(rejects.get(0).getLineNumber(),11,"Line number is incorrect.");
+        assertEquals(rejects.get(1).getLineNumber(),51,"Line number is incorrect.");
+        assertEquals(rejects.get(2).getLineNumber(),152,"Line number is incorrect.");
+        assertTrue(rejects.get(0).getReason().startsWith("ISBN number invalid"),"Reason is incorrect.");
+        assertTrue(rejects.get(1).getReason().startsWith("Published date invalid"),"Reason is incorrect.");
+        assertTrue(rejects.get(2).getReason().startsWith("Fields missing"),"Reason is incorrect.");
+        assertEquals(rejects.get(2).getLine(),this.lines.get(150),"Line is incorrect.");
+
+        // Assert the offsets point to the lines.
+        byte[] bytes = Files.readAllBytes(this.catalogFile.toPath());
+        for (CatalogImporter.Reject reject : rejects) {
+            String line = new String(bytes,(int) reject.getOffset(),reject.getLine().length(),StandardCharsets.UTF_8);
+            assertEquals(line,reject.getLine(),"Offset is incorrect.");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package books.transactions;
+
+import books.Author;
+import books.Book;
+import books.Publisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import time.Date;
+import user.Visitor;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link DueDateQueue} class.
+ *
+ * @author Zachary Cook
+ */
+public class DueDateQueueTest {
+    private DueDateQueue CuT;
+    private Date currentDate;
+    private Book book;
+    private Visitor visitor1;
+    private Visitor visitor2;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.currentDate = new Date(1,1,2019,8,0,0);
+        this.CuT = new DueDateQueue(this.currentDate.getEpochSeconds());
+        this.book = new Book(new Author("John","Doe"),new Publisher("Publisher"),1,new Date(0,0,0,0,0,0),100,5,0,"Test Book");
+        this.visitor1 = new Visitor("0000000001","Jane","Doe","Test Address","1234567890");
+        this.visitor2 = new Visitor("0000000002","John","Doe","Test Address","1234567890");
+    }
+
+    /**
+     * Tests the getFee method matches the late fee of the transactions.
+     */
+    @Test
+    public void test_getFee() {
+        Date dueDate = new Date(1,8,2019,0,0,0);
+        Transaction transaction = new Transaction(1,this.visitor1,this.book,this.currentDate,dueDate);
+        for (int hours = 0; hours < 24 * 120; hours += 5) {
+            Date date = this.currentDate.advance(0,0,0,hours,0,0);
+            assertEquals(DueDateQueue.getFee(dueDate.getEpochSeconds(),date.getEpochSeconds()),(int) transaction.calculateFee(date),"Fee is incorrect for " + date);
+        }
+        assertEquals(DueDateQueue.getFee(dueDate.getEpochSeconds(),dueDate.getEpochSeconds()),0,"Fee is incorrect.");
+        assertEquals(DueDateQueue.getFee(dueDate.getEpochSeconds(),dueDate.getEpochSeconds() + 1),10,"Fee is incorrect.");
+    }
+
+    /**
+     * Tests the advance method.
+     */
+    @Test
+    public void test_advance() {
+        Transaction transaction1 = new Transaction(1,this.visitor1,this.book,this.currentDate,new Date(1,8,2019,0,0,0));
+        Transaction transaction2 = new Transaction(2,this.visitor1,this.book,this.currentDate,new Date(1,10,2019,0,0,0));
+        Transaction transaction3 = new Transaction(3,this.visitor2,this.book,this.currentDate,new Date(2,1,2019,0,0,0));
+        this.CuT.add(transaction1);
+        this.CuT.add(transaction2);
+        this.CuT.add(transaction3);
+        assertEquals(this.CuT.getAccruedFees(this.visitor1),0,"Fees are incorrect.");
+
+        // Advance past the first due date and assert the loan is overdue.
+        ArrayList<DueDateQueue.FeeStep> steps = this.CuT.advance(new Date(1,9,2019,8,0,0).getEpochSeconds());
+        assertEquals(steps.size(),1,"Step count is incorrect.");
+        assertSame(steps.get(0).getTransaction(),transaction1,"Transaction is incorrect.");
+        assertEquals(steps.get(0).getFee(),10,"Fee is incorrect.");
+        assertTrue(steps.get(0).isOverdue(),"Step isn't overdue.");
+        assertEquals(this.CuT.getAccruedFees(this.visitor1),10,"Fees are incorrect.");
+
+        // Advance a week and assert the steps are in order.
+        steps = this.CuT.advance(new Date(1,16,2019,8,0,0).getEpochSeconds());
+        assertEquals(steps.size(),2,"Step count is incorrect.");
+        assertSame(steps.get(0).getTransaction(),transaction2,"Transaction is incorrect.");
+        assertTrue(steps.get(0).isOverdue(),"Step isn't overdue.");
+        assertSame(steps.get(1).getTransaction(),transaction1,"Transaction is incorrect.");
+        assertEquals(steps.get(1).getFee(),12,"Fee is incorrect.");
+        assertFalse(steps.get(1).isOverdue(),"Step is overdue.");
+        assertEquals(this.CuT.getAccruedFees(this.visitor1),22,"Fees are incorrect.");
+        assertEquals(this.CuT.getAccruedFees(this.visitor2),0,"Fees are incorrect.");
+
+        // Remove a loan and assert its fee is removed.
+        this.CuT.remove(transaction1);
+        assertEquals(this.CuT.getAccruedFees(this.visitor1),10,"Fees are incorrect.");
+        assertEquals(this.CuT.size(),2,"Size is incorrect.");
+        steps = this.CuT.advance(new Date(1,20,2019,8,0,0).getEpochSeconds());
+        assertEquals(steps.size(),1,"Removed loan was stepped.");
+        assertSame(steps.get(0).getTransaction(),transaction2,"Transaction is incorrect.");
+
+        // Advance far past the due dates and assert the fees stop at the maximum.
+        this.CuT.advance(new Date(12,1,2019,8,0,0).getEpochSeconds());
+        assertEquals(this.CuT.getAccruedFees(this.visitor1),30,"Fees are incorrect.");
+        assertEquals(this.CuT.getAccruedFees(this.visitor2),30,"Fees are incorrect.");
+        assertTrue(this.CuT.advance(new Date(12,31,2019,8,0,0).getEpochSeconds()).isEmpty(),"Fee went past the maximum.");
+    }
+
+    /**
+     * Tests adding a loan that is already overdue.
+     */
+    @Test
+    public void test_addOverdue() {
+        this.CuT.advance(new Date(2,1,2019,8,0,0).getEpochSeconds());
+        Transaction transaction = new Transaction(1,this.visitor1,this.book,this.currentDate,new Date(1,8,2019,0,0,0));
+        this.CuT.add(transaction);
+
+        // Assert the past steps are counted without being returned.
+        assertEquals(this.CuT.getAccruedFees(this.visitor1),(int) transaction.calculateFee(new Date(2,1,2019,8,0,0)),"Fees are incorrect.");
+        ArrayList<DueDateQueue.FeeStep> steps = this.CuT.advance(new Date(2,6,2019,8,0,0).getEpochSeconds());
+        assertEquals(steps.size(),1,"Step count is incorrect.");
+        assertEquals(steps.get(0).getFee(),(int) transaction.calculateFee(new Date(2,6,2019,8,0,0)),"Fee is incorrect.");
+
+        // Add the loan again and assert it isn't counted twice.
+        this.CuT.add(transaction);
+        assertEquals(this.CuT.getAccruedFees(this.visitor1),steps.get(0).getFee(),"Fees are incorrect.");
+        assertEquals(this.CuT.size(),1,"Size is incorrect.");
+    }
+}
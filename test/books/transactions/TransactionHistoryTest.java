@@ -5,6 +5,7 @@ import books.Book;
 import books.Publisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import time.Clock;
 import time.Date;
 import user.Name;
 import user.Visitor;
@@ -100,4 +101,203 @@ class TransactionHistoryTest {
         assertEquals(CuT.getTransactionsCheckedOutOn(out1).get(0), transaction1,"Transaction is incorrect.");
         assertEquals(CuT.getTransactionsDueOn(in1).get(0), transaction1,"Transaction is incorrect.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the transactions by visitor are updated when transactions are registered and unregistered.
+     */
+    @Test
+    public void test_transactionsByVisitor() {
+        // Create the dates.
+        Date out1 = new Date(1,1,2019,1,1,1);
+        Date in1 = new Date(1,8,2019,1,1,1);
+
+        // Register the transactions.
+        Book otherBook = new Book(new Author(new Name("author","two")),new Publisher("publisher2"),20,new Date(0,0,0,0,0,0),100,1,0,"book 2");
+        Transaction transaction1 = CuT.registerTransaction(book1,visitor1,out1,in1);
+        Transaction transaction2 = CuT.registerTransaction(otherBook,visitor2,out1,in1);
+        Transaction transaction3 = CuT.registerTransaction(otherBook,visitor1,out1,in1);
+        assertEquals(transaction1.getId(),1,"Id is incorrect.");
+        assertEquals(transaction3.getId(),3,"Id is incorrect.");
+
+        // Assert the transactions are correct.
+        assertEquals(CuT.getTransactionsByVisitor(visitor1).size(),2,"Transaction count is incorrect.");
+        assertEquals(CuT.getTransactionsByVisitor(visitor1).get(0),transaction1,"Transaction is incorrect.");
+        assertEquals(CuT.getTransactionsByVisitor(visitor1).get(1),transaction3,"Transaction is incorrect.");
+        assertEquals(CuT.getTransactionsByVisitor(visitor2).get(0),transaction2,"Transaction is incorrect.");
+        assertTrue(CuT.getTransactionsByVisitor(visitor3).isEmpty(),"Transactions were found.");
+        assertEquals(CuT.getOpenTransactionsByVisitor(visitor1).size(),2,"Open transaction count is incorrect.");
+
+        // Unregister a transaction and assert it was removed.
+        assertEquals(CuT.unregisterTransaction(3),transaction3,"Transaction is incorrect.");
+        assertNull(CuT.unregisterTransaction(3),"Transaction was removed twice.");
+        assertEquals(CuT.getTransactionsByVisitor(visitor1).size(),1,"Transaction count is incorrect.");
+        assertEquals(CuT.getOpenTransactionsByVisitor(visitor1).size(),1,"Open transaction count is incorrect.");
+        assertEquals(CuT.getTransactionsByVisitor(visitor2).get(0),transaction2,"Transaction is incorrect.");
+    }
+
+    /**
+     * Tests the open transactions by visitor are updated when transactions are closed and reopened.
+     */
+    @Test
+    public void test_openTransactionsByVisitor() {
+        // Create the dates.
+        Date out1 = new Date(1,1,2019,1,1,1);
+        Date in1 = new Date(1,8,2019,1,1,1);
+
+        // Register the transaction and return it.
+        Transaction transaction1 = CuT.registerTransaction(book1,visitor1,out1,in1);
+        assertEquals(CuT.getOpenTransactionsByVisitor(visitor1).get(0),transaction1,"Transaction is incorrect.");
+        transaction1.setReturned(out1);
+        assertTrue(CuT.getOpenTransactionsByVisitor(visitor1).isEmpty(),"Closed transaction was returned.");
+        assertEquals(CuT.getTransactionsByVisitor(visitor1).get(0),transaction1,"Closed transaction is missing.");
+
+        // Reopen the transaction and assert it is open.
+        transaction1.setUnreturned();
+        CuT.updateTransaction(transaction1);
+        assertEquals(CuT.getOpenTransactionsByVisitor(visitor1).get(0),transaction1,"Transaction is incorrect.");
+
+        // Assert a transaction that isn't in the history isn't reopened.
+        CuT.updateTransaction(new Transaction(2,visitor1,book1,out1,in1));
+        assertEquals(CuT.getOpenTransactionsByVisitor(visitor1).size(),1,"Open transaction count is incorrect.");
+    }
+
+    /**
+     * Tests the ids of the transactions aren't reused.
+     */
+    @Test
+    public void test_maxId() {
+        // Create the dates.
+        Date out1 = new Date(1,1,2019,1,1,1);
+        Date in1 = new Date(1,8,2019,1,1,1);
+
+        // Assert the ids continue after unregistered transactions.
+        assertEquals(CuT.registerTransaction(book1,visitor1,out1,in1).getId(),1,"Id is incorrect.");
+        assertEquals(CuT.registerTransaction(book1,visitor1,out1,in1).getId(),2,"Id is incorrect.");
+        CuT.unregisterTransaction(2);
+        assertEquals(CuT.registerTransaction(book1,visitor1,out1,in1).getId(),3,"Id was reused.");
+        assertEquals(CuT.getMaxId(),3,"Max id is incorrect.");
+
+        // Assert the ids continue after registered and archived ids.
+        CuT.registerTransaction(new Transaction(10,visitor2,book1,out1,in1));
+        assertEquals(CuT.registerTransaction(book1,visitor1,out1,in1).getId(),11,"Id is incorrect.");
+        CuT.setArchivedMaxId(20);
+        assertEquals(CuT.registerTransaction(book1,visitor1,out1,in1).getId(),21,"Id is incorrect.");
+        CuT.setMaxId(5);
+        assertEquals(CuT.getMaxId(),21,"Max id was lowered.");
+    }
+
+    /**
+     * Tests the late fees of the unreturned loans are updated when the due dates are advanced.
+     */
+    @Test
+    public void test_advanceDueDates() {
+        // Create the dates.
+        Date out1 = new Date(1,1,2019,8,0,0);
+        Date in1 = new Date(1,8,2019,0,0,0);
+        Clock clock = new Clock(out1);
+
+        // Register the transaction and advance past the due date.
+        Transaction transaction1 = CuT.registerTransaction(book1,visitor1,out1,in1);
+        assertEquals(CuT.getAccruedFees(visitor1,clock),0,"Fees are incorrect.");
+        clock.advanceTime(15,0);
+        Date later = clock.getDate();
+        assertEquals(CuT.advanceDueDates(out1,later).size(),2,"Step count is incorrect.");
+        assertEquals(CuT.getAccruedFees(visitor1,clock),12,"Fees are incorrect.");
+
+        // Return the book and assert the fee is removed.
+        transaction1.setReturned(later);
+        CuT.updateTransaction(transaction1);
+        assertEquals(CuT.getAccruedFees(visitor1,clock),0,"Fees are incorrect.");
+
+        // Undo the return and assert the fee is added back.
+        transaction1.setUnreturned();
+        CuT.updateTransaction(transaction1);
+        assertEquals(CuT.getAccruedFees(visitor1,clock),12,"Fees are incorrect.");
+        CuT.unregisterTransaction(transaction1.getId());
+        assertEquals(CuT.getAccruedFees(visitor1,clock),0,"Fees are incorrect.");
+    }
+
+    /**
+     * Tests the due dates are created at the date of the clock when they
+     * are first used, such as after the history is read.
+     */
+    @Test
+    public void test_createDueDatesAtClock() {
+        // Create the dates.
+        Date out1 = new Date(1,1,2019,8,0,0);
+        Date in1 = new Date(1,8,2019,0,0,0);
+        Clock clock = new Clock(out1);
+
+        // Register the transaction and assert the fee is at the date of the clock.
+        CuT.registerTransaction(book1,visitor1,out1,in1);
+        clock.advanceTime(15,0);
+        assertEquals(CuT.getBalance(visitor1,clock),new VisitorBalance(1,12,0),"Balance is incorrect.");
+
+        // Advance the clock and assert the fee follows it.
+        Date previousDate = clock.getDate();
+        clock.advanceTime(7,0);
+        assertEquals(CuT.advanceDueDates(previousDate,clock.getDate()).size(),1,"Step count is incorrect.");
+        assertEquals(CuT.getBalance(visitor1,clock),new VisitorBalance(1,14,0),"Balance is incorrect.");
+        assertTrue(CuT.checkBalances(clock),"Balances aren't consistent.");
+    }
+
+    /**
+     * Tests the balances of the visitors are updated when transactions are changed.
+     */
+    @Test
+    public void test_getBalance() {
+        // Create the dates.
+        Date out1 = new Date(1,1,2019,8,0,0);
+        Date in1 = new Date(1,8,2019,0,0,0);
+        Clock clock = new Clock(out1);
+
+        // Register the transactions and assert the balance.
+        Transaction transaction1 = CuT.registerTransaction(book1,visitor1,out1,in1);
+        Transaction transaction2 = CuT.registerTransaction(book1,visitor1,out1,in1);
+        CuT.registerTransaction(book1,visitor2,out1,in1);
+        assertEquals(CuT.getBalance(visitor1,clock),new VisitorBalance(2,0,0),"Balance is incorrect.");
+        assertEquals(CuT.getBalance(visitor3,clock),new VisitorBalance(0,0,0),"Balance is incorrect.");
+
+        // Advance past the due date and assert the fees were added.
+        clock.advanceTime(15,0);
+        Date later = clock.getDate();
+        CuT.advanceDueDates(out1,later);
+        assertEquals(CuT.getBalance(visitor1,clock),new VisitorBalance(2,24,0),"Balance is incorrect.");
+
+        // Return a book and pay part of the fee.
+        transaction1.setReturned(later);
+        CuT.updateTransaction(transaction1);
+        transaction2.incrementPartialLateFeePaid(5);
+        CuT.updateTransaction(transaction2);
+        assertEquals(CuT.getBalance(visitor1,clock),new VisitorBalance(1,24,5),"Balance is incorrect.");
+        assertEquals(CuT.getBalance(visitor1,clock).getBalance(),19,"Balance is incorrect.");
+
+        // Pay the returned book and assert the fee was removed.
+        transaction1.incrementPartialLateFeePaid(12);
+        transaction1.setLateFeeAsPaid(later);
+        CuT.updateTransaction(transaction1);
+        assertEquals(CuT.getBalance(visitor1,clock),new VisitorBalance(1,12,5),"Balance is incorrect.");
+        assertEquals(CuT.getBalance(visitor2,clock),new VisitorBalance(1,12,0),"Balance is incorrect.");
+        assertTrue(CuT.checkBalances(clock),"Balances aren't consistent.");
+    }
+
+    /**
+     * Tests the balances are created again when they are inconsistent.
+     */
+    @Test
+    public void test_checkBalances() {
+        // Create the dates.
+        Date out1 = new Date(1,1,2019,8,0,0);
+        Date in1 = new Date(1,8,2019,0,0,0);
+        Clock clock = new Clock(out1);
+
+        // Change a transaction without updating the history and assert the balance is corrected.
+        Transaction transaction1 = CuT.registerTransaction(book1,visitor1,out1,in1);
+        assertEquals(CuT.getBalance(visitor1,clock),new VisitorBalance(1,0,0),"Balance is incorrect.");
+        transaction1.setReturned(out1);
+        assertEquals(CuT.getBalance(visitor1,clock),new VisitorBalance(1,0,0),"Balance was updated.");
+        assertFalse(CuT.checkBalances(clock),"Balances are consistent.");
+        assertEquals(CuT.getBalance(visitor1,clock),new VisitorBalance(0,0,0),"Balance wasn't corrected.");
+        assertTrue(CuT.checkBalances(clock),"Balances aren't consistent.");
+    }
+}
@@ -0,0 +1,137 @@
+package system;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link CSVTokenizer} class.
+ *
+ * @author Zachary Cook
+ */
+public class CSVTokenizerTest {
+    private CSVTokenizer CuT;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.CuT = new CSVTokenizer();
+    }
+
+    /**
+     * Parses a CSV line the way the original parser did.
+     *
+     * @param csvLine the line to parse.
+     * @return the parsed line.
+     */
+    private static ArrayList<String> parseCharacters(String csvLine) {
+        ArrayList<String> parsedLine = new ArrayList<>();
+        StringBuilder currentString = new StringBuilder();
+        boolean inBreak = false;
+        for (char character : csvLine.toCharArray()) {
+            if (inBreak) {
+                if (character == '}' || character == '\"') {
+                    inBreak = false;
+                } else {
+                    currentString.append(character);
+                }
+            } else {
+                if (character == '{' || character == '\"') {
+                    inBreak = true;
+                } else if (character == ',') {
+                    parsedLine.add(currentString.toString());
+                    currentString.setLength(0);
+                } else {
+                    currentString.append(character);
+                }
+            }
+        }
+        parsedLine.add(currentString.toString());
+        return parsedLine;
+    }
+
+    /**
+     * Returns the fields of the last tokenized line.
+     *
+     * @return the fields of the line.
+     */
+    private ArrayList<String> getFields() {
+        ArrayList<String> fields = new ArrayList<>();
+        for (int i = 0; i < this.CuT.getFieldCount(); i++) {
+            fields.add(this.CuT.getString(i));
+        }
+        return fields;
+    }
+
+    /**
+     * Tests that the quoting rules are the same as the original parser.
+     */
+    @Test
+    public void test_quoting() {
+        String[] lines = {
+                "",
+                ",",
+                "Test1,Test2,Test3",
+                "{Test1,Test2,Test3}",
+                "1,borrow,{10,11},0000000001",
+                "9781450431835,\"Daniels' Running Formula-3rd Edition\",{Jack Daniels},\"Human Kinetics\",2013-12-31,306",
+                "a{b,c}d,e",
+                "\"a}b,c",
+                "{a,b",
+                "{},\"\",x",
+                "a\"b\"c\"d,e\"f",
+                "}a},{{b}",
+        };
+        for (String line : lines) {
+            assertEquals(this.CuT.tokenize(line),parseCharacters(line).size(),"Field count changed for " + line);
+            assertEquals(this.getFields(),parseCharacters(line),"Fields changed for " + line);
+        }
+    }
+
+    /**
+     * Tests that random lines are the same as the original parser.
+     */
+    @Test
+    public void test_randomLines() {
+        Random random = new Random(1);
+        char[] characters = {'a','b',',','{','}','\"',' '};
+        for (int i = 0; i < 10000; i++) {
+            char[] line = new char[random.nextInt(20)];
+            for (int j = 0; j < line.length; j++) {
+                line[j] = characters[random.nextInt(characters.length)];
+            }
+            String string = new String(line);
+            this.CuT.tokenize(string);
+            assertEquals(this.getFields(),parseCharacters(string),"Fields changed for " + string);
+            assertEquals(CSV.parseCSV(string),parseCharacters(string),"Fields changed for " + string);
+        }
+    }
+
+    /**
+     * Tests the offsets of the fields.
+     */
+    @Test
+    public void test_offsets() {
+        String line = "1,borrow,{10,11},a{b}c;";
+        assertEquals(this.CuT.tokenize(line,0,line.length() - 1),4,"Field count is incorrect.");
+        assertEquals(this.CuT.getFieldStart(2),9,"Start is incorrect.");
+        assertEquals(this.CuT.getFieldEnd(2),16,"End is incorrect.");
+        assertEquals(this.CuT.getContentStart(2),10,"Content start is incorrect.");
+        assertEquals(this.CuT.getContentEnd(2),15,"Content end is incorrect.");
+        assertEquals(this.CuT.getContentStart(3),-1,"Inner braces have content offsets.");
+        assertEquals(this.getFields(),Arrays.asList("1","borrow","10,11","abc"),"Fields are incorrect.");
+
+        // Assert the buffers grow for long lines.
+        String[] fields = new String[100];
+        Arrays.fill(fields,"x");
+        assertEquals(this.CuT.tokenize(String.join(",",fields)),100,"Field count is incorrect.");
+        assertEquals(this.CuT.getFieldStart(99),198,"Start is incorrect.");
+    }
+}
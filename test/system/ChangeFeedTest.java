@@ -0,0 +1,222 @@
+package system;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ChangeFeed} class.
+ *
+ * @author Zachary Cook
+ */
+public class ChangeFeedTest {
+    @TempDir
+    public Path directory;
+
+    private File feedFile;
+    private int segmentEvents;
+
+    // The requests that are performed on the system.
+    private static final String[] REQUESTS = {
+            "connect;",
+            "1,login,root,password;",
+            "1,register,John,Doe,Test Address,1234567890;",
+            "1,buy,1,10;",
+            "1,arrive,0000000001;",
+            "1,borrow,{10},0000000001;",
+            "1,undo;",
+            "1,redo;",
+            "1,advance,7,0;",
+            "1,advance,7,0;",
+            "1,return,0000000001,9;",
+            "1,pay,5,0000000001;",
+    };
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.feedFile = new File(this.directory.toFile(),"services_feed");
+        this.segmentEvents = ChangeFeed.SEGMENT_EVENTS;
+    }
+
+    /**
+     * Resets the segment size.
+     */
+    @AfterEach
+    public void tearDown() {
+        ChangeFeed.SEGMENT_EVENTS = this.segmentEvents;
+    }
+
+    /**
+     * Performs the requests on a new system that writes to the feed.
+     *
+     * @param feed the feed to write to.
+     * @return the services of the system.
+     */
+    private Services performRequests(ChangeFeed feed) {
+        Services services = new Services();
+        services.setChangeFeed(feed);
+        LibraryBookManagementSystem system = new LibraryBookManagementSystem(services);
+        for (String request : REQUESTS) {
+            system.performRequest(request);
+        }
+        return services;
+    }
+
+    /**
+     * Returns the types of events, with undone events prefixed with "-".
+     *
+     * @param events the lines of the events.
+     * @return the types of the events.
+     */
+    private static List<String> getTypes(List<String> events) {
+        ArrayList<String> types = new ArrayList<>();
+        for (String line : events) {
+            JsonObject event = new JsonParser().parse(line).getAsJsonObject();
+            types.add((event.has("undo") ? "-" : "") + event.get("type").getAsString());
+        }
+        return types;
+    }
+
+    /**
+     * Tests that the requests publish their events in order.
+     */
+    @Test
+    public void test_events() throws IOException {
+        ChangeFeed CuT = new ChangeFeed(this.feedFile);
+        CuT.open();
+        Services services = this.performRequests(CuT);
+
+        // Assert the events are in order.
+        List<String> events = CuT.readEvents(0,100);
+        assertEquals(getTypes(events),Arrays.asList("VisitorRegistered","BookPurchased","VisitStarted","BookBorrowed","-BookBorrowed","BookBorrowed","VisitEnded","BookOverdue","LateFeeIncreased","BookReturned","FinePaid"),"Events are incorrect.");
+        assertEquals(services.getLastEventOffset(),11,"Offset is incorrect.");
+        assertEquals(CuT.getWrittenOffset(),11,"Offset is incorrect.");
+
+        // Assert the fields of an event.
+        JsonObject event = new JsonParser().parse(events.get(9)).getAsJsonObject();
+        assertEquals(event.get("offset").getAsLong(),10,"Offset is incorrect.");
+        assertEquals(event.get("visitor").getAsString(),"0000000001","Visitor is incorrect.");
+        assertEquals(event.get("fee").getAsInt(),12,"Fee is incorrect.");
+        assertEquals(new JsonParser().parse(events.get(10)).getAsJsonObject().get("amount").getAsInt(),5,"Amount is incorrect.");
+
+        // Assert the late fees of the overdue book.
+        assertEquals(new JsonParser().parse(events.get(7)).getAsJsonObject().get("fee").getAsInt(),10,"Fee is incorrect.");
+        assertEquals(new JsonParser().parse(events.get(8)).getAsJsonObject().get("fee").getAsInt(),12,"Fee is incorrect.");
+
+        // Assert consumers can resume after an offset.
+        assertEquals(getTypes(CuT.readEvents(9,100)),Arrays.asList("BookReturned","FinePaid"),"Events are incorrect.");
+        assertEquals(CuT.readEvents(9,1).size(),1,"Maximum events was ignored.");
+        CuT.close();
+    }
+
+    /**
+     * Tests that replayed requests don't write their events again.
+     */
+    @Test
+    public void test_replay() throws IOException {
+        ChangeFeed CuT = new ChangeFeed(this.feedFile);
+        CuT.open();
+        this.performRequests(CuT);
+        CuT.close();
+
+        // Add an incomplete event, and perform the requests again.
+        try (FileOutputStream outputStream = new FileOutputStream(new File(this.feedFile.getPath() + ".1"),true)) {
+            outputStream.write("{\"offset\":12,\"ty".getBytes(StandardCharsets.UTF_8));
+        }
+        CuT = new ChangeFeed(this.feedFile);
+        CuT.open();
+        assertEquals(CuT.getWrittenOffset(),11,"Incomplete event wasn't removed.");
+        Services services = this.performRequests(CuT);
+        services.publishEvent("Test",new JsonObject());
+        assertEquals(CuT.readEvents(0,100).size(),12,"Events were written again.");
+
+        // Assert events after the replayed requests are removed.
+        CuT.truncateAfter(8);
+        assertEquals(CuT.getWrittenOffset(),8,"Events weren't removed.");
+        assertEquals(CuT.readEvents(0,100).size(),8,"Events weren't removed.");
+        CuT.close();
+    }
+
+    /**
+     * Tests that the feed is split into segments.
+     */
+    @Test
+    public void test_segments() throws IOException {
+        ChangeFeed.SEGMENT_EVENTS = 4;
+        ChangeFeed CuT = new ChangeFeed(this.feedFile);
+        CuT.open();
+        this.performRequests(CuT);
+        CuT.flush();
+
+        // Assert the segments are named after their first event.
+        assertTrue(new File(this.feedFile.getPath() + ".5").exists(),"Segment wasn't started.");
+        assertTrue(new File(this.feedFile.getPath() + ".9").exists(),"Segment wasn't started.");
+        assertEquals(CuT.readEvents(5,100).size(),6,"Events are missing.");
+
+        // Assert the segments read by consumers are deleted.
+        CuT.deleteSegmentsUpTo(8);
+        assertFalse(new File(this.feedFile.getPath() + ".1").exists(),"Segment wasn't deleted.");
+        assertTrue(new File(this.feedFile.getPath() + ".9").exists(),"Segment was deleted.");
+        assertEquals(CuT.readEvents(8,100).size(),3,"Events are missing.");
+        CuT.close();
+    }
+
+    /**
+     * Tests that undoing a payment of several late fees publishes the
+     * amounts that were paid to each loan.
+     */
+    @Test
+    public void test_undoFinePaid() throws IOException {
+        ChangeFeed CuT = new ChangeFeed(this.feedFile);
+        CuT.open();
+        Services services = new Services();
+        services.setChangeFeed(CuT);
+        LibraryBookManagementSystem system = new LibraryBookManagementSystem(services);
+        system.performRequest("connect;");
+        system.performRequest("1,login,root,password;");
+        system.performRequest("1,register,John,Doe,Test Address,1234567890;");
+        system.performRequest("1,buy,2,10;");
+        system.performRequest("1,borrow,{10,10},0000000001;");
+        system.performRequest("1,advance,7,0;");
+        system.performRequest("1,advance,7,0;");
+
+        // Pay all of the first late fee and part of the second, and undo the payment.
+        assertEquals(system.performRequest("1,pay,20,0000000001;"),"1,pay,success,4;","Payment failed.");
+        assertEquals(system.performRequest("1,undo;"),"1,undo,success;","Payment not undone.");
+        assertEquals(system.performRequest("1,pay,100,0000000001;"),"1,pay,invalid-amount,100,24;","Payment not undone.");
+
+        // Assert the undone amounts cancel the paid amounts.
+        int paid = 0;
+        int undone = 0;
+        for (String line : CuT.readEvents(0,100)) {
+            JsonObject event = new JsonParser().parse(line).getAsJsonObject();
+            if (event.get("type").getAsString().equals("FinePaid")) {
+                if (event.has("undo")) {
+                    undone += event.get("amount").getAsInt();
+                } else {
+                    paid += event.get("amount").getAsInt();
+                }
+            }
+        }
+        assertEquals(paid,20,"Paid amount is incorrect.");
+        assertEquals(undone,20,"Undone amount is incorrect.");
+        CuT.close();
+    }
+}
@@ -0,0 +1,166 @@
+package system;
+
+import books.transactions.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link HistoryArchive} class.
+ *
+ * @author Zachary Cook
+ */
+public class HistoryArchiveTest {
+    @TempDir
+    public Path directory;
+
+    private HistoryArchive CuT;
+    private File archiveFile;
+    private LibraryBookManagementSystem system;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() throws IOException {
+        // Create the component under testing.
+        this.archiveFile = new File(this.directory.toFile(),"services_archive");
+        this.CuT = new HistoryArchive(this.archiveFile);
+        this.CuT.open(0);
+
+        // Create a system with closed transactions and finished visits.
+        this.system = new LibraryBookManagementSystem();
+        this.system.performRequest("connect;");
+        this.system.performRequest("1,login,root,password;");
+        this.system.performRequest("1,register,John,Doe,Test Address,1234567890;");
+        this.system.performRequest("1,register,Jane,Doe,Test Address,1234567890;");
+        this.system.performRequest("1,buy,3,17,10,11,12,12;");
+        this.system.performRequest("1,arrive,0000000001;");
+        this.system.performRequest("1,arrive,0000000002;");
+        this.system.performRequest("1,borrow,{10,11},0000000001;");
+        this.system.performRequest("1,borrow,{12},0000000002;");
+        this.system.performRequest("1,advance,0,2;");
+        this.system.performRequest("1,depart,0000000001;");
+        this.system.performRequest("1,advance,7,0;");
+        this.system.performRequest("1,advance,7,0;");
+        this.system.performRequest("1,return,0000000001,9;");
+        this.system.performRequest("1,return,0000000001,10;");
+        this.system.performRequest("1,pay,24,0000000001;");
+
+        // Disconnect so the transactions can't be undone, and advance past the archive age.
+        this.system.performRequest("1,disconnect;");
+        this.system.performRequest("connect;");
+        this.system.performRequest("1,login,root,password;");
+        for (int i = 0; i < 5; i++) {
+            this.system.performRequest("1,advance,7,0;");
+        }
+    }
+
+    /**
+     * Tests that the archived history is still included in the report.
+     */
+    @Test
+    public void test_archiveHistory() throws IOException {
+        Services services = this.system.getServices();
+        String report = this.system.performRequest("1,report;");
+        String recentReport = this.system.performRequest("1,report,40;");
+
+        // Archive the history and assert it was removed from the services.
+        services.setHistoryArchive(this.CuT);
+        assertTrue(this.CuT.archiveHistory(services),"History wasn't archived.");
+        assertEquals(this.CuT.getRows(HistoryArchive.TRANSACTIONS),2,"Transactions weren't archived.");
+        assertEquals(this.CuT.getRows(HistoryArchive.VISITS),2,"Visits weren't archived.");
+        assertEquals(services.getTransactionHistory().getTransactions().size(),1,"Open transaction was archived.");
+        assertEquals(services.getVisitHistory().getFinishedVisits().size(),0,"Visits weren't removed.");
+        assertEquals(services.getArchiveLength(),this.CuT.getLength(),"Archive length not stored.");
+
+        // Assert the reports are unchanged.
+        assertEquals(this.system.performRequest("1,report;"),report,"Report changed.");
+        assertEquals(this.system.performRequest("1,report,40;"),recentReport,"Report changed.");
+
+        // Assert the ids of archived transactions aren't reused.
+        this.system.performRequest("1,arrive,0000000001;");
+        this.system.performRequest("1,borrow,{11},0000000001;");
+        assertNotNull(services.getTransactionHistory().getTransaction(4),"Transaction id was reused.");
+
+        // Assert the state of the archive is encoded.
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ServicesCodec.encode(services,output);
+        Services decodedServices = ServicesCodec.decode(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(decodedServices.getArchiveLength(),this.CuT.getLength(),"Archive length changed.");
+        assertEquals(decodedServices.getTransactionHistory().getArchivedMaxId(),2,"Archived id changed.");
+        assertEquals(decodedServices.getVisitHistory().getArchivedVisitCount(),2,"Archived visits changed.");
+    }
+
+    /**
+     * Tests archiving the history after the timestamps of 2038 overflow.
+     */
+    @Test
+    public void test_archiveHistoryAfter2038() throws IOException {
+        Services services = this.system.getServices();
+        services.getClock().advanceTime(365 * 20,0);
+        assertEquals(services.getClock().getDate().getYear(),2039,"Year is incorrect.");
+        String report = this.system.performRequest("1,report;");
+        String recentReport = this.system.performRequest("1,report,40;");
+
+        // Archive the history and assert the reports are unchanged.
+        services.setHistoryArchive(this.CuT);
+        assertTrue(this.CuT.archiveHistory(services),"History wasn't archived.");
+        assertEquals(this.CuT.getRows(HistoryArchive.TRANSACTIONS),2,"Transactions weren't archived.");
+        assertEquals(this.CuT.getRows(HistoryArchive.VISITS),2,"Visits weren't archived.");
+        assertEquals(this.system.performRequest("1,report;"),report,"Report changed.");
+        assertEquals(this.system.performRequest("1,report,40;"),recentReport,"Report changed.");
+    }
+
+    /**
+     * Tests that the archive is truncated to the length in a snapshot.
+     */
+    @Test
+    public void test_truncate() throws IOException {
+        ArrayList<Transaction> transactions = this.system.getServices().getTransactionHistory().getTransactions();
+        this.CuT.appendTransactions(transactions.subList(0,1));
+        long length = this.CuT.getLength();
+        this.CuT.appendTransactions(transactions.subList(1,3));
+        this.CuT.close();
+
+        // Assert the second block is removed.
+        this.CuT.open(length);
+        assertEquals(this.CuT.getRows(HistoryArchive.TRANSACTIONS),1,"Block wasn't removed.");
+        assertEquals(this.archiveFile.length(),length,"File wasn't truncated.");
+        assertEquals(this.CuT.readIntColumn(HistoryArchive.TRANSACTIONS,HistoryArchive.TRANSACTION_ID)[0],transactions.get(0).getId(),"Transaction changed.");
+
+        // Assert an archive shorter than the snapshot is rejected.
+        assertThrows(IOException.class,() -> this.CuT.open(length + 1),"Short archive was opened.");
+    }
+
+    /**
+     * Tests that damaged columns are rejected.
+     */
+    @Test
+    public void test_damagedColumn() throws IOException {
+        this.CuT.appendTransactions(this.system.getServices().getTransactionHistory().getTransactions());
+        assertEquals(this.CuT.readLongColumn(HistoryArchive.TRANSACTIONS,HistoryArchive.TRANSACTION_BOOK).length,3,"Rows are missing.");
+
+        // Change a byte in the first column.
+        RandomAccessFile file = new RandomAccessFile(this.archiveFile,"rw");
+        file.seek(10);
+        int value = file.read();
+        file.seek(10);
+        file.write(value ^ 0xFF);
+        file.close();
+
+        // Assert only the damaged column is rejected.
+        assertThrows(IOException.class,() -> this.CuT.readIntColumn(HistoryArchive.TRANSACTIONS,HistoryArchive.TRANSACTION_ID),"Damaged column was read.");
+        assertEquals(this.CuT.readLongColumn(HistoryArchive.TRANSACTIONS,HistoryArchive.TRANSACTION_BOOK).length,3,"Undamaged column wasn't read.");
+    }
+}
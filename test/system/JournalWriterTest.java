@@ -0,0 +1,113 @@
+package system;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link JournalWriter} class.
+ *
+ * @author Zachary Cook
+ */
+public class JournalWriterTest {
+    @TempDir
+    public Path directory;
+
+    private File journalFile;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.journalFile = new File(this.directory.toFile(),"services_journal");
+    }
+
+    /**
+     * Creates a journal writer for a new journal.
+     *
+     * @param durability the durability of the writer.
+     * @return the journal writer.
+     */
+    private JournalWriter createWriter(JournalWriter.Durability durability) throws IOException {
+        RequestJournal journal = new RequestJournal(this.journalFile);
+        journal.readRequests(0);
+        return new JournalWriter(journal,durability);
+    }
+
+    /**
+     * Tests that synced requests are on disk when they are acknowledged.
+     */
+    @Test
+    public void test_synced() throws IOException {
+        JournalWriter CuT = this.createWriter(JournalWriter.Durability.SYNCED);
+        assertEquals(CuT.submit("connect;"),1,"Sequence is incorrect.");
+        assertEquals(CuT.submit("1,login,root,password;"),2,"Sequence is incorrect.");
+
+        // Assert the requests are synced and can be read.
+        assertEquals(CuT.getSyncedSequence(),2,"Synced sequence is incorrect.");
+        assertEquals(new RequestJournal(this.journalFile).readRequests(0),Arrays.asList("connect;","1,login,root,password;"),"Requests are incorrect.");
+        assertTrue(CuT.getFlushCount() > 0,"Flushes not counted.");
+        CuT.close();
+    }
+
+    /**
+     * Tests that enqueued requests are written when the writer is closed.
+     */
+    @Test
+    public void test_enqueued() throws IOException {
+        JournalWriter CuT = this.createWriter(JournalWriter.Durability.ENQUEUED);
+        for (int i = 0; i < 100; i++) {
+            CuT.submit("request" + i);
+        }
+        CuT.close();
+
+        // Assert the requests were written and the queue is empty.
+        assertEquals(CuT.getQueueDepth(),0,"Queue isn't empty.");
+        assertEquals(CuT.getSyncedSequence(),100,"Synced sequence is incorrect.");
+        assertEquals(new RequestJournal(this.journalFile).readRequests(0).size(),100,"Requests are missing.");
+        assertThrows(IOException.class,() -> CuT.submit("request"),"Closed writer accepted a request.");
+    }
+
+    /**
+     * Tests waiting for enqueued requests to be synced.
+     */
+    @Test
+    public void test_awaitSynced() throws IOException {
+        JournalWriter CuT = this.createWriter(JournalWriter.Durability.ENQUEUED);
+        for (int i = 0; i < 100; i++) {
+            CuT.submit("request" + i);
+        }
+
+        // Assert the requests are synced and can be read.
+        CuT.awaitSynced(100);
+        assertTrue(CuT.getSyncedSequence() >= 100,"Requests aren't synced.");
+        assertEquals(new RequestJournal(this.journalFile).readRequests(0).size(),100,"Requests are missing.");
+        CuT.close();
+    }
+
+    /**
+     * Tests that segments are started and deleted in order with the requests.
+     */
+    @Test
+    public void test_segments() throws IOException {
+        JournalWriter CuT = this.createWriter(JournalWriter.Durability.WRITTEN);
+        CuT.submit("request1");
+        CuT.submit("request2");
+        CuT.startSegment();
+        CuT.submit("request3");
+        CuT.deleteSegmentsUpTo(2);
+        CuT.close();
+
+        // Assert the first segment was deleted.
+        assertFalse(new File(this.directory.toFile(),"services_journal.1").exists(),"Old segment not deleted.");
+        assertEquals(new RequestJournal(this.journalFile).readRequests(2),Arrays.asList("request3"),"Requests are incorrect.");
+    }
+}
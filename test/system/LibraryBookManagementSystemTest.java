@@ -288,6 +288,26 @@ public class LibraryBookManagementSystemTest {
                 "14,9780062101891,Harry Potter Page to Screen,{Bob McCabe},2011/10/25,;");
     }
 
+    /**
+     * Tests searching the book store with pages.
+     */
+    @Test
+    public void test_servicePages() {
+        // Log in root.
+        this.logInRoot();
+
+        // Assert the pages of the local search.
+        this.assertRequest("1,search,Harry Potter,*,*,*,title,2,5;","1,search,8,2\n" +
+                "11,9781781100486,Harry Potter and the Sorcerer's Stone,{J.K. Rowling},2015/12/08,\n" +
+                "12,9781338029994,Harry Potter Coloring Book,{Inc. Scholastic},2015/11/10,;");
+        this.assertRequest("1,search,Harry Potter,*,*,*,title,*,7;","1,search,8\n" +
+                "14,9780062101891,Harry Potter Page to Screen,{Bob McCabe},2011/10/25,;");
+        this.assertRequest("1,search,Harry Potter,*,*,*,title,0;","1,search,8,0;");
+        this.assertRequest("1,search,Harry Potter,*,*,*,title,-1;","1,search,invalid-limit;");
+        this.assertRequest("1,search,Harry Potter,*,*,*,title,a;","1,search,invalid-limit;");
+        this.assertRequest("1,search,Harry Potter,*,*,*,title,*,a;","1,search,invalid-offset;");
+    }
+
     /**
      * Tests registering visitors.
      */
@@ -436,6 +456,30 @@ public class LibraryBookManagementSystemTest {
                 "3,17,9780545387200,\"The Hunger Games Trilogy\",{Suzanne Collins},2011/05/01,\n" +
                 "3,10,9781781100516,\"Harry Potter and the Prisoner of Azkaban\",{J.K. Rowling},1999/07/08,\n" +
                 "3,11,9781781100486,\"Harry Potter and the Sorcerer's Stone\",{J.K. Rowling},2015/12/08,;");
+
+
+        // Searching with pages.
+        this.assertRequest("1,info,*,*,*,*,publish-date,2;","1,info,4,2\n" +
+                "3,11,9781781100486,\"Harry Potter and the Sorcerer's Stone\",{J.K. Rowling},2015/12/08,\n" +
+                "6,12,9781338029994,\"Harry Potter Coloring Book\",{Inc. Scholastic},2015/11/10,;");
+        this.assertRequest("1,info,*,*,*,*,title,2,3;","1,info,4,1\n" +
+                "3,17,9780545387200,\"The Hunger Games Trilogy\",{Suzanne Collins},2011/05/01,;");
+        this.assertRequest("1,info,*,*,*,*,title,2,4;","1,info,4,0;");
+        this.assertRequest("1,info,*,*,*,*,title,0;","1,info,4,0;");
+        this.assertRequest("1,info,*,*,*,*,title,-1;","1,info,invalid-limit;");
+        this.assertRequest("1,info,*,*,*,*,title,2,a;","1,info,invalid-offset;");
+
+        // Searching with facets.
+        this.assertRequest("1,info,*,*,*,*,title,*,0,{year,availability};","1,info,4\n" +
+                "3,10,9781781100516,\"Harry Potter and the Prisoner of Azkaban\",{J.K. Rowling},1999/07/08,\n" +
+                "3,11,9781781100486,\"Harry Potter and the Sorcerer's Stone\",{J.K. Rowling},2015/12/08,\n" +
+                "6,12,9781338029994,\"Harry Potter Coloring Book\",{Inc. Scholastic},2015/11/10,\n" +
+                "3,17,9780545387200,\"The Hunger Games Trilogy\",{Suzanne Collins},2011/05/01,\n" +
+                "year,{\"2015\",2,\"1999\",1,\"2011\",1}\n" +
+                "availability,{\"available\",4};");
+        this.assertRequest("1,info,*,{J.K. Rowling},*,*,title,0,0,{author};","1,info,2,0\n" +
+                "author,{\"J.K. Rowling\",2};");
+        this.assertRequest("1,info,*,*,*,*,title,*,0,{genre};","1,info,invalid-facet,genre;");
     }
 
     /**
@@ -719,6 +763,9 @@ public class LibraryBookManagementSystemTest {
         // Borrow 5 books.
         this.assertRequest("1,borrow,{10,10,11};","1,borrow,2019/01/20;");
         this.assertRequest("1,borrow,{11,10};","1,borrow,2019/01/20;");
+
+        // Assert the balances weren't changed by the undos.
+        assertTrue(CuT.getServices().getTransactionHistory().checkBalances(CuT.getServices().getClock()),"Balances aren't consistent.");
     }
 
     /**
@@ -0,0 +1,225 @@
+package system;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RequestJournal} class.
+ *
+ * @author Zachary Cook
+ */
+public class RequestJournalTest {
+    @TempDir
+    public Path directory;
+
+    private File baseFile;
+    private RequestJournal CuT;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        this.baseFile = new File(this.directory.toFile(),"services_journal");
+        this.CuT = new RequestJournal(this.baseFile);
+    }
+
+    /**
+     * Returns the file of a segment of the journal.
+     *
+     * @param firstSequence the sequence of the first record in the segment.
+     * @return the file of the segment.
+     */
+    private File getSegmentFile(long firstSequence) {
+        return new File(this.baseFile.getPath() + "." + firstSequence);
+    }
+
+    /**
+     * Appends requests to the journal and closes it.
+     *
+     * @param requests the requests to append.
+     */
+    private void append(String... requests) throws IOException {
+        for (String request : requests) {
+            this.CuT.append(request);
+        }
+        this.CuT.close();
+    }
+
+    /**
+     * Tests appending and reading requests.
+     */
+    @Test
+    public void test_readRequests() throws IOException {
+        this.CuT.readRequests(0);
+        assertEquals(this.CuT.append("1,datetime;"),1,"Sequence is incorrect.");
+        assertEquals(this.CuT.append("1,advance,1;"),2,"Sequence is incorrect.");
+        this.CuT.close();
+        assertEquals(this.CuT.getSyncedSequence(),2,"Synced sequence is incorrect.");
+
+        // Assert the requests are read after the sequences.
+        RequestJournal journal = new RequestJournal(this.baseFile);
+        assertEquals(journal.readRequests(0),Arrays.asList("1,datetime;","1,advance,1;"),"Requests are incorrect.");
+        assertEquals(journal.getLastSequence(),2,"Last sequence is incorrect.");
+        assertEquals(journal.readRequests(1),Collections.singletonList("1,advance,1;"),"Requests are incorrect.");
+        assertEquals(journal.readRequests(2),Collections.emptyList(),"Requests are incorrect.");
+    }
+
+    /**
+     * Tests that an incomplete record at the end of the journal
+     * is removed and replaced by the next record.
+     */
+    @Test
+    public void test_truncateIncompleteRecord() throws IOException {
+        this.CuT.readRequests(0);
+        this.append("1,datetime;","1,advance,1;");
+        long validLength = this.getSegmentFile(1).length();
+
+        // Write part of a record, like when the system stops while writing.
+        DataOutputStream output = new DataOutputStream(new FileOutputStream(this.getSegmentFile(1),true));
+        output.writeInt(20);
+        output.writeInt(0);
+        output.write("1,adv".getBytes(StandardCharsets.UTF_8));
+        output.close();
+
+        // Assert the record is discarded and the next record replaces it.
+        RequestJournal journal = new RequestJournal(this.baseFile);
+        assertEquals(journal.readRequests(0),Arrays.asList("1,datetime;","1,advance,1;"),"Requests are incorrect.");
+        assertEquals(this.getSegmentFile(1).length(),validLength,"Incomplete record not removed.");
+        assertEquals(journal.append("1,advance,2;"),3,"Sequence is incorrect.");
+        journal.close();
+        assertEquals(new RequestJournal(this.baseFile).readRequests(1),Arrays.asList("1,advance,1;","1,advance,2;"),"Requests are incorrect.");
+    }
+
+    /**
+     * Tests that reading stops at a record that doesn't match its
+     * checksum, and that the segments after it are removed.
+     */
+    @Test
+    public void test_checksumMismatch() throws IOException {
+        this.CuT.readRequests(0);
+        this.CuT.append("1,datetime;");
+        this.CuT.append("1,advance,1;");
+        this.CuT.startSegment();
+        this.append("1,advance,2;");
+
+        // Change a byte of the second request.
+        RandomAccessFile file = new RandomAccessFile(this.getSegmentFile(1),"rw");
+        file.seek(file.length() - 2);
+        int value = file.read();
+        file.seek(file.length() - 2);
+        file.write(value ^ 0xFF);
+        file.close();
+
+        // Assert the requests after the changed record are discarded.
+        RequestJournal journal = new RequestJournal(this.baseFile);
+        assertEquals(journal.readRequests(0),Collections.singletonList("1,datetime;"),"Requests are incorrect.");
+        assertEquals(journal.getLastSequence(),1,"Last sequence is incorrect.");
+        assertFalse(this.getSegmentFile(3).exists(),"Segment after the changed record not removed.");
+    }
+
+    /**
+     * Tests that an error is thrown when records after the
+     * sequence are missing.
+     */
+    @Test
+    public void test_missingRecords() throws IOException {
+        this.CuT.readRequests(0);
+        this.CuT.append("1,datetime;");
+        this.CuT.append("1,advance,1;");
+        this.CuT.startSegment();
+        this.append("1,advance,2;");
+        this.CuT.deleteSegmentsUpTo(2);
+
+        // Assert the records before the remaining segment can't be read.
+        assertThrows(IOException.class,() -> new RequestJournal(this.baseFile).readRequests(1),"Missing records not detected.");
+        assertEquals(new RequestJournal(this.baseFile).readRequests(2),Collections.singletonList("1,advance,2;"),"Requests are incorrect.");
+    }
+
+    /**
+     * Tests that records appended to a journal that ends before the
+     * snapshot sequence are read after the snapshot.
+     */
+    @Test
+    public void test_journalEndsBeforeSnapshot() throws IOException {
+        this.CuT.readRequests(0);
+        this.append("1,datetime;","1,advance,1;","1,advance,2;");
+
+        // Read after a snapshot newer than the journal and append requests.
+        RequestJournal journal = new RequestJournal(this.baseFile);
+        assertEquals(journal.readRequests(5),Collections.emptyList(),"Requests are incorrect.");
+        assertEquals(journal.append("1,advance,3;"),6,"Sequence is incorrect.");
+        assertEquals(journal.append("1,advance,4;"),7,"Sequence is incorrect.");
+        journal.close();
+
+        // Assert the requests are read after the snapshot, and records before it are missing.
+        assertTrue(this.getSegmentFile(6).exists(),"Segment not started after the snapshot.");
+        assertEquals(new RequestJournal(this.baseFile).readRequests(5),Arrays.asList("1,advance,3;","1,advance,4;"),"Requests are incorrect.");
+        assertEquals(new RequestJournal(this.baseFile).readRequests(6),Collections.singletonList("1,advance,4;"),"Requests are incorrect.");
+        assertThrows(IOException.class,() -> new RequestJournal(this.baseFile).readRequests(2),"Missing records not detected.");
+    }
+
+    /**
+     * Tests that a journal created without segments is moved to
+     * the first segment.
+     */
+    @Test
+    public void test_moveUnsegmentedJournal() throws IOException {
+        // Write a journal without segments.
+        byte[] bytes = "1,datetime;".getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(bytes,0,bytes.length);
+        DataOutputStream output = new DataOutputStream(new FileOutputStream(this.baseFile));
+        output.writeInt(bytes.length);
+        output.writeInt((int) crc.getValue());
+        output.write(bytes);
+        output.close();
+
+        // Assert the journal is moved and read.
+        assertEquals(this.CuT.readRequests(0),Collections.singletonList("1,datetime;"),"Requests are incorrect.");
+        assertFalse(this.baseFile.exists(),"Journal not moved.");
+        assertTrue(this.getSegmentFile(1).exists(),"Segment not created.");
+        assertEquals(this.CuT.append("1,advance,1;"),2,"Sequence is incorrect.");
+    }
+
+    /**
+     * Tests deleting the segments covered by a sequence.
+     */
+    @Test
+    public void test_deleteSegmentsUpTo() throws IOException {
+        this.CuT.readRequests(0);
+        this.CuT.append("1,datetime;");
+        this.CuT.append("1,advance,1;");
+        this.CuT.startSegment();
+        this.CuT.append("1,advance,2;");
+        this.CuT.startSegment();
+        this.append("1,advance,3;");
+
+        // Assert a segment with records after the sequence is kept.
+        this.CuT.deleteSegmentsUpTo(2);
+        assertFalse(this.getSegmentFile(1).exists(),"Covered segment not deleted.");
+        assertTrue(this.getSegmentFile(3).exists(),"Segment deleted.");
+        this.CuT.deleteSegmentsUpTo(3);
+        assertFalse(this.getSegmentFile(3).exists(),"Covered segment not deleted.");
+        assertTrue(this.getSegmentFile(4).exists(),"Segment deleted.");
+
+        // Assert the last segment is kept even if it is covered.
+        this.CuT.deleteSegmentsUpTo(10);
+        assertTrue(this.getSegmentFile(4).exists(),"Last segment deleted.");
+        assertEquals(new RequestJournal(this.baseFile).readRequests(3),Collections.singletonList("1,advance,3;"),"Requests are incorrect.");
+    }
+}
@@ -0,0 +1,215 @@
+package system;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behavior tests for the {@link SerializedLibraryBookManagementSystem} class.
+ *
+ * @author Zachary Cook
+ */
+public class SerializedLibraryBookManagementSystemTest {
+    @TempDir
+    public Path directory;
+
+    private SerializedLibraryBookManagementSystem CuT;
+    private String[] locations;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        // Store the save locations and save to the temporary directory.
+        this.locations = new String[] {LibraryBookManagementSystem.SERVICES_SAVE_LOCATION,LibraryBookManagementSystem.SERVICES_JOURNAL_LOCATION,LibraryBookManagementSystem.SERVICES_ARCHIVE_LOCATION,LibraryBookManagementSystem.SERVICES_FEED_LOCATION};
+        LibraryBookManagementSystem.SERVICES_SAVE_LOCATION = new File(this.directory.toFile(),"services_save").getPath();
+        LibraryBookManagementSystem.SERVICES_JOURNAL_LOCATION = new File(this.directory.toFile(),"services_journal").getPath();
+        LibraryBookManagementSystem.SERVICES_ARCHIVE_LOCATION = new File(this.directory.toFile(),"services_archive").getPath();
+        LibraryBookManagementSystem.SERVICES_FEED_LOCATION = new File(this.directory.toFile(),"services_feed").getPath();
+    }
+
+    /**
+     * Closes the system and restores the save locations.
+     */
+    @AfterEach
+    public void tearDown() {
+        if (this.CuT != null) {
+            this.CuT.close();
+        }
+        LibraryBookManagementSystem.SERVICES_SAVE_LOCATION = this.locations[0];
+        LibraryBookManagementSystem.SERVICES_JOURNAL_LOCATION = this.locations[1];
+        LibraryBookManagementSystem.SERVICES_ARCHIVE_LOCATION = this.locations[2];
+        LibraryBookManagementSystem.SERVICES_FEED_LOCATION = this.locations[3];
+    }
+
+    /**
+     * Closes the system and loads it again from the saves.
+     */
+    private void restart() {
+        this.CuT.close();
+        this.CuT = SerializedLibraryBookManagementSystem.loadFromFile();
+    }
+
+    /**
+     * Stops the system without saving a snapshot, like when it crashes,
+     * and loads it again from the journal.
+     */
+    private void crash() {
+        this.CuT.getJournalWriter().close();
+        this.CuT = SerializedLibraryBookManagementSystem.loadFromFile();
+    }
+
+    /**
+     * Asserts that a request returns the intended request.response.
+     *
+     * @param request the request to make.
+     * @param result the intended result.
+     */
+    private void assertRequest(String request,String result) {
+        assertEquals(this.CuT.performRequest(request),result,"Results don't match.");
+    }
+
+    /**
+     * Tests upgrading from a save written with Java serialization by
+     * the first version of the system.
+     */
+    @Test
+    public void test_loadBaselineSave() throws IOException {
+        Files.copy(new File("test/system/baseline_services_save").toPath(),new File(this.directory.toFile(),"services_save").toPath());
+
+        // Load the save and assert the loans and fees are kept.
+        this.CuT = SerializedLibraryBookManagementSystem.loadFromFile();
+        this.assertRequest("1,datetime;","1,datetime,2019/01/13,11:00:00;");
+        this.assertRequest("1,pay,1000,0000000001;","1,pay,invalid-amount,1000,26;");
+        this.assertRequest("1,pay,1000,0000000002;","1,pay,invalid-amount,1000,10;");
+
+        // Change the system and assert the changes are kept after a restart.
+        this.assertRequest("1,pay,6,0000000001;","1,pay,success,20;");
+        this.assertRequest("1,advance,7,0;","1,advance,success;");
+        this.restart();
+        this.assertRequest("1,datetime;","1,datetime,2019/01/20,11:00:00;");
+        this.assertRequest("1,pay,1000,0000000001;","1,pay,invalid-amount,1000,24;");
+        this.assertRequest("1,pay,1000,0000000002;","1,pay,invalid-amount,1000,12;");
+        this.assertRequest("1,borrowed,0000000001;","1,borrowed,2\n" +
+                "10,9781781100516,Harry Potter and the Prisoner of Azkaban,2019/01/01\n" +
+                "17,9780545387200,The Hunger Games Trilogy,2019/01/01;");
+    }
+
+    /**
+     * Tests that undoing and redoing requests is the same after the
+     * journal is replayed, including after read-only requests.
+     */
+    @Test
+    public void test_undoAfterRestart() {
+        this.CuT = SerializedLibraryBookManagementSystem.loadFromFile();
+        this.assertRequest("connect;","connect,1;");
+        this.assertRequest("1,login,root,password;","1,login,success;");
+        this.assertRequest("1,register,John,Doe,Test Address,1234567890;","1,register,0000000001,2019/01/01 08:00:00;");
+        this.assertRequest("1,arrive,0000000001;","1,arrive,0000000001,2019/01/01,08:00:00;");
+
+        // Assert a read-only request can't be undone after a restart.
+        this.assertRequest("1,datetime;","1,datetime,2019/01/01,08:00:00;");
+        this.assertRequest("1,undo;","1,undo,cannot-undo;");
+        this.restart();
+        this.assertRequest("1,undo;","1,undo,cannot-undo;");
+
+        // Assert a read-only request followed by a journaled request can't be undone after a crash.
+        this.assertRequest("1,advance,0,1;","1,advance,success;");
+        this.assertRequest("1,datetime;","1,datetime,2019/01/01,09:00:00;");
+        this.assertRequest("connect;","connect,2;");
+        this.crash();
+        this.assertRequest("1,undo;","1,undo,cannot-undo;");
+
+        // Assert a request can be undone and redone after restarts.
+        this.assertRequest("1,depart,0000000001;","1,depart,0000000001,09:00:00,01:00:00;");
+        this.crash();
+        this.assertRequest("1,undo;","1,undo,success;");
+        this.assertRequest("1,info,*,*;","1,info,0;");
+        this.restart();
+        this.assertRequest("1,redo;","1,redo,cannot-redo;");
+        this.assertRequest("1,depart,0000000001;","1,depart,0000000001,09:00:00,01:00:00;");
+        this.restart();
+        this.assertRequest("1,undo;","1,undo,success;");
+        this.crash();
+        this.assertRequest("1,redo;","1,redo,success;");
+        this.assertRequest("1,depart,0000000001;","1,depart,invalid-id;");
+    }
+
+    /**
+     * Tests that read-only requests aren't written to the journal.
+     */
+    @Test
+    public void test_readOnlyRequestsNotJournaled() {
+        this.CuT = SerializedLibraryBookManagementSystem.loadFromFile();
+        this.assertRequest("connect;","connect,1;");
+        this.assertRequest("1,login,root,password;","1,login,success;");
+        long sequence = this.CuT.getJournalWriter().getSubmittedSequence();
+
+        // Assert the searches and reports leave the journal sequence unchanged.
+        this.assertRequest("1,info,*,*;","1,info,0;");
+        this.CuT.performRequest("1,report;");
+        this.CuT.performRequest("1,datetime;");
+        assertEquals(this.CuT.getJournalWriter().getSubmittedSequence(),sequence,"Read-only requests were journaled.");
+
+        // Assert one marker is journaled before the next request.
+        this.assertRequest("1,advance,1;","1,advance,success;");
+        assertEquals(this.CuT.getJournalWriter().getSubmittedSequence(),sequence + 2,"Marker wasn't journaled.");
+    }
+
+    /**
+     * Tests that searches of Google Books are followed by a snapshot
+     * so they aren't replayed from the journal.
+     */
+    @Test
+    public void test_snapshotAfterGoogleSearch() {
+        this.CuT = SerializedLibraryBookManagementSystem.loadFromFile();
+        this.assertRequest("connect;","connect,1;");
+        this.assertRequest("1,login,root,password;","1,login,success;");
+        this.CuT.performRequest("1,search,Harry Potter;");
+        assertTrue(this.CuT.getUnsavedRequests() > 0,"Local search saved.");
+
+        // Assert searching Google Books saves a snapshot that includes the search.
+        this.assertRequest("1,service,google;","1,service,success;");
+        this.CuT.performRequest("1,search,Harry Potter;");
+        assertEquals(this.CuT.getUnsavedRequests(),0L,"Search not saved.");
+    }
+
+    /**
+     * Tests that redoing a borrow after a restart uses the late fees at
+     * the current date instead of the date the borrow was made.
+     */
+    @Test
+    public void test_redoBorrowAfterRestart() {
+        this.CuT = SerializedLibraryBookManagementSystem.loadFromFile();
+        this.assertRequest("connect;","connect,1;");
+        this.assertRequest("1,login,root,password;","1,login,success;");
+        this.assertRequest("1,register,John,Doe,Test Address,1234567890;","1,register,0000000001,2019/01/01 08:00:00;");
+        this.assertRequest("1,buy,3,10,11;","1,buy,2\n" +
+                "9781781100516,Harry Potter and the Prisoner of Azkaban,{J.K. Rowling},1999/07/08,3,\n" +
+                "9781781100486,Harry Potter and the Sorcerer's Stone,{J.K. Rowling},2015/12/08,3,;");
+
+        // Borrow and undo the books on another connection, and advance past the due date.
+        this.assertRequest("connect;","connect,2;");
+        this.assertRequest("2,login,root,password;","2,login,success;");
+        this.assertRequest("2,borrow,{10,11},0000000001;","2,borrow,2019/01/08;");
+        this.assertRequest("2,undo;","2,undo,success;");
+        this.assertRequest("1,advance,7,0;","1,advance,success;");
+        this.assertRequest("1,advance,7,0;","1,advance,success;");
+
+        // Restart, redo the borrow, and assert the late fees are at the current date.
+        this.restart();
+        this.assertRequest("2,redo;","2,redo,success;");
+        this.assertRequest("1,pay,1000,0000000001;","1,pay,invalid-amount,1000,24;");
+        this.assertRequest("1,advance,7,0;","1,advance,success;");
+        this.assertRequest("1,pay,1000,0000000001;","1,pay,invalid-amount,1000,28;");
+    }
+}
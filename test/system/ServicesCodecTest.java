@@ -0,0 +1,200 @@
+package system;
+
+import books.Book;
+import books.transactions.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import time.Date;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ServicesCodec} class.
+ *
+ * @author Zachary Cook
+ */
+public class ServicesCodecTest {
+    private LibraryBookManagementSystem system;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() {
+        // Create the system and add state to all of the services.
+        this.system = new LibraryBookManagementSystem();
+        this.system.performRequest("connect;");
+        this.system.performRequest("1,login,root,password;");
+        this.system.performRequest("1,register,John,Doe,Test Address,1234567890;");
+        this.system.performRequest("1,register,Jane,Doe,Test Address,1234567890;");
+        this.system.performRequest("1,create,JaneDoe,password456,visitor,0000000002;");
+        this.system.performRequest("1,buy,3,17,10,11,12,12;");
+        this.system.performRequest("1,arrive,0000000001;");
+        this.system.performRequest("1,arrive,0000000002;");
+        this.system.performRequest("1,borrow,{10,11},0000000001;");
+        this.system.performRequest("1,borrow,{12},0000000002;");
+        this.system.performRequest("1,advance,0,2;");
+        this.system.performRequest("1,depart,0000000001;");
+        this.system.performRequest("1,advance,7,0;");
+        this.system.performRequest("1,advance,7,0;");
+        this.system.performRequest("1,return,0000000001,9;");
+        this.system.performRequest("1,pay,5,0000000001;");
+    }
+
+    /**
+     * Encodes and decodes the services of the system.
+     *
+     * @return the decoded services.
+     */
+    private Services roundTrip() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ServicesCodec.encode(this.system.getServices(),output);
+        return ServicesCodec.decode(new ByteArrayInputStream(output.toByteArray()));
+    }
+
+    /**
+     * Tests that the decoded services respond the same as the original.
+     */
+    @Test
+    public void test_responses() throws IOException {
+        LibraryBookManagementSystem decodedSystem = new LibraryBookManagementSystem(this.roundTrip());
+
+        // Assert that requests have the same responses.
+        String[] requests = {
+                "1,undo;",
+                "1,redo;",
+                "1,undo;",
+                "1,borrowed,0000000001;",
+                "1,datetime;",
+                "1,info,*,*,*,*,title;",
+                "1,borrowed,0000000001;",
+                "1,borrowed,0000000002;",
+                "1,report;",
+                "1,search,Harry Potter,*,*,*,title;",
+                "1,depart,0000000002;",
+                "1,register,Jim,Doe,Test Address,1234567890;",
+                "1,login,JaneDoe,password456;",
+                "connect;",
+        };
+        for (String request : requests) {
+            assertEquals(decodedSystem.performRequest(request),this.system.performRequest(request),"Response changed for " + request);
+        }
+    }
+
+    /**
+     * Tests that objects shared between services are still shared.
+     */
+    @Test
+    public void test_sharedObjects() throws IOException {
+        Services services = this.roundTrip();
+
+        // Assert the inventory uses the book store books.
+        Book inventoryBook = services.getBookInventory().getBook(9781781100516L);
+        assertSame(inventoryBook,services.getBookStore().getBook(inventoryBook.getId()),"Inventory book isn't the store book.");
+
+        // Assert the transactions use the registered visitors and the inventory books.
+        for (Transaction transaction : services.getTransactionHistory().getTransactions()) {
+            assertSame(transaction.getVisitor(),services.getVisitorsRegistry().getVisitor(transaction.getVisitor().getId()),"Transaction visitor isn't registered visitor.");
+            assertSame(transaction.getBook(),services.getBookInventory().getBook(transaction.getBook().getISBN()),"Transaction book isn't inventory book.");
+        }
+        assertEquals(services.getTransactionHistory().getTransactions().size(),3,"Transactions are missing.");
+        assertSame(services.getClientConnections().getConnection(1).getUser(),services.getUserRegistry().getUser("root"),"Connection user isn't registered user.");
+    }
+
+    /**
+     * Tests that the state of the transactions is kept.
+     */
+    @Test
+    public void test_transactionState() throws IOException {
+        Services services = this.roundTrip();
+
+        // Assert the transactions are the same.
+        for (Transaction transaction : this.system.getServices().getTransactionHistory().getTransactions()) {
+            Transaction decodedTransaction = services.getTransactionHistory().getTransaction(transaction.getId());
+            assertEquals(decodedTransaction,transaction,"Transaction changed.");
+            assertEquals(decodedTransaction.getReturnedDate(),transaction.getReturnedDate(),"Returned date changed.");
+            assertEquals(decodedTransaction.getLateFeePaidDate(),transaction.getLateFeePaidDate(),"Late fee date changed.");
+            assertEquals(decodedTransaction.getPartialLateFeePaid(),transaction.getPartialLateFeePaid(),"Partial payment changed.");
+        }
+        assertEquals(services.getTransactionHistory().getMaxId(),this.system.getServices().getTransactionHistory().getMaxId(),"Max transaction id changed.");
+    }
+
+    /**
+     * Tests that the closed history is only loaded when it is needed.
+     */
+    @Test
+    public void test_closedHistory() throws IOException {
+        // Close the transactions of a visitor, and disconnect so they can't be undone.
+        this.system.performRequest("1,disconnect;");
+        this.system.performRequest("connect;");
+        this.system.performRequest("1,login,root,password;");
+        this.system.performRequest("1,return,0000000001,10;");
+        this.system.performRequest("1,pay,19,0000000001;");
+        this.system.performRequest("1,disconnect;");
+
+        // Assert the closed history isn't loaded by requests that only need open transactions.
+        Services services = this.roundTrip();
+        LibraryBookManagementSystem decodedSystem = new LibraryBookManagementSystem(services);
+        String[] requests = {
+                "connect;",
+                "1,login,root,password;",
+                "1,borrowed,0000000001;",
+                "1,borrowed,0000000002;",
+        };
+        for (String request : requests) {
+            assertEquals(decodedSystem.performRequest(request),this.system.performRequest(request),"Response changed for " + request);
+        }
+        assertTrue(services.getTransactionHistory().hasUnloadedTransactions(),"Closed transactions were loaded.");
+        assertTrue(services.getVisitHistory().hasUnloadedVisits(),"Closed visits were loaded.");
+        assertTrue(services.getPurchaseHistory().hasUnloadedPurchaseLogs(),"Closed purchases were loaded.");
+        assertEquals(services.getTransactionHistory().getLoadedTransactions().size(),1,"Closed transactions were loaded.");
+
+        // Assert the closed history is kept when it is encoded again without being loaded.
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ServicesCodec.encode(services,output);
+        services = ServicesCodec.decode(new ByteArrayInputStream(output.toByteArray()));
+        decodedSystem = new LibraryBookManagementSystem(services);
+
+        // Assert the closed history is loaded by the report.
+        assertEquals(decodedSystem.performRequest("1,report;"),this.system.performRequest("1,report;"),"Response changed.");
+        assertFalse(services.getTransactionHistory().hasUnloadedTransactions(),"Closed transactions weren't loaded.");
+        assertEquals(services.getTransactionHistory().getTransactions().size(),3,"Transactions are missing.");
+        assertEquals(services.getVisitHistory().getFinishedVisits().size(),2,"Visits are missing.");
+        assertSame(services.getTransactionHistory().getTransaction(2).getBook(),services.getBookInventory().getBook(9781781100486L),"Closed transaction book isn't inventory book.");
+    }
+
+    /**
+     * Tests that the default registration date is kept.
+     */
+    @Test
+    public void test_dates() {
+        Date date = new Date(0,0,0,0,0,0);
+        assertEquals(Date.fromEpochSeconds(date.getEpochSeconds()),date,"Date changed.");
+        date = new Date(1,1,2019,8,30,15);
+        assertEquals(Date.fromEpochSeconds(date.getEpochSeconds()),date,"Date changed.");
+    }
+
+    /**
+     * Tests that data that isn't encoded services is rejected.
+     */
+    @Test
+    public void test_invalidHeader() {
+        assertThrows(IOException.class,() -> ServicesCodec.decode(new ByteArrayInputStream(new byte[] {1,2,3,4,5,6,7,8})),"Invalid data was decoded.");
+    }
+
+    /**
+     * Tests that services encoded with another version are rejected.
+     */
+    @Test
+    public void test_unsupportedVersion() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ServicesCodec.encode(this.system.getServices(),output);
+        byte[] bytes = output.toByteArray();
+        bytes[7] = (byte) (ServicesCodec.CODEC_VERSION + 1);
+        assertThrows(IOException.class,() -> ServicesCodec.decode(new ByteArrayInputStream(bytes)),"Unsupported version was decoded.");
+    }
+}
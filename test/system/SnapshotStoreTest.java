@@ -0,0 +1,150 @@
+package system;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SnapshotStore} class.
+ *
+ * @author Zachary Cook
+ */
+public class SnapshotStoreTest {
+    @TempDir
+    public Path directory;
+
+    private SnapshotStore CuT;
+    private byte[] image;
+
+    /**
+     * Sets up the unit tests.
+     */
+    @BeforeEach
+    public void setup() throws IOException {
+        // Create the component under testing.
+        this.CuT = new SnapshotStore(new File(this.directory.toFile(),"services_save"));
+
+        // Create the image of a system with a registered visitor.
+        LibraryBookManagementSystem system = new LibraryBookManagementSystem();
+        system.performRequest("connect;");
+        system.performRequest("1,login,root,password;");
+        system.performRequest("1,register,John,Doe,Test Address,1234567890;");
+        this.image = SnapshotStore.encode(system.getServices());
+    }
+
+    /**
+     * Tests writing and reading snapshots.
+     */
+    @Test
+    public void test_readWrite() throws IOException {
+        this.CuT.write(5,this.image);
+        this.CuT.write(12,this.image);
+
+        // Assert the snapshots are listed and read.
+        assertEquals(this.CuT.getSnapshots(),Arrays.asList(12L,5L),"Snapshots are incorrect.");
+        assertNotNull(this.CuT.read(12).getVisitorsRegistry().getVisitor("0000000001"),"Visitor not loaded.");
+        assertFalse(new File(this.directory.toFile(),"services_save.12.tmp").exists(),"Temporary file not moved.");
+    }
+
+    /**
+     * Tests that damaged snapshots are rejected.
+     */
+    @Test
+    public void test_damagedSnapshots() throws IOException {
+        this.CuT.write(5,this.image);
+        File snapshotFile = new File(this.directory.toFile(),"services_save.5");
+
+        // Assert a changed byte is rejected.
+        RandomAccessFile file = new RandomAccessFile(snapshotFile,"rw");
+        file.seek(100);
+        int value = file.read();
+        file.seek(100);
+        file.write(value ^ 0xFF);
+        assertThrows(IOException.class,() -> this.CuT.read(5),"Changed snapshot was read.");
+
+        // Assert a truncated snapshot is rejected.
+        file.setLength(file.length() / 2);
+        file.close();
+        assertThrows(IOException.class,() -> this.CuT.read(5),"Truncated snapshot was read.");
+    }
+
+    /**
+     * Tests deleting old snapshots.
+     */
+    @Test
+    public void test_deleteOldSnapshots() throws IOException {
+        this.CuT.write(5,this.image);
+        this.CuT.write(12,this.image);
+        this.CuT.write(20,this.image);
+        new File(this.directory.toFile(),"services_save.25.tmp").createNewFile();
+
+        // Assert the old snapshot and temporary file are deleted.
+        assertEquals(this.CuT.deleteOldSnapshots(),12,"Oldest retained snapshot is incorrect.");
+        assertEquals(this.CuT.getSnapshots(),Arrays.asList(20L,12L),"Snapshots are incorrect.");
+        assertFalse(new File(this.directory.toFile(),"services_save.25.tmp").exists(),"Temporary file not deleted.");
+    }
+
+    /**
+     * Tests that snapshots that failed to be read aren't retained.
+     */
+    @Test
+    public void test_deleteInvalidSnapshots() throws IOException {
+        this.CuT.write(5,this.image);
+        this.CuT.write(12,this.image);
+
+        // Damage and read the newest snapshot.
+        RandomAccessFile file = new RandomAccessFile(new File(this.directory.toFile(),"services_save.12"),"rw");
+        file.setLength(10);
+        file.close();
+        assertThrows(IOException.class,() -> this.CuT.read(12),"Damaged snapshot was read.");
+
+        // Assert the damaged snapshot is deleted instead of the valid snapshot.
+        this.CuT.write(20,this.image);
+        assertEquals(this.CuT.deleteOldSnapshots(),5,"Oldest retained snapshot is incorrect.");
+        assertEquals(this.CuT.getSnapshots(),Arrays.asList(20L,5L),"Snapshots are incorrect.");
+    }
+
+    /**
+     * Tests reading a save written with Java serialization by the first
+     * version of the system. The save has 2 visitors with 3 unreturned
+     * books and 1 overdue returned book, and its last request paid 4
+     * dollars of the late fees.
+     */
+    @Test
+    public void test_readBaselineSave() throws IOException {
+        Files.copy(new File("test/system/baseline_services_save").toPath(),new File(this.directory.toFile(),"services_save").toPath());
+
+        // Assert the save is read.
+        assertEquals(this.CuT.getSnapshots(),Arrays.asList(0L),"Snapshots are incorrect.");
+        Services services = this.CuT.read(0);
+        assertEquals(services.getClock().getDate().formatDate(),"2019/01/13","Date is incorrect.");
+        assertEquals(services.getClock().getDate().formatTime(),"11:00:00","Time is incorrect.");
+        assertNotNull(services.getVisitorsRegistry().getVisitor("0000000002"),"Visitor not loaded.");
+
+        // Assert the request history is loaded.
+        LibraryBookManagementSystem system = new LibraryBookManagementSystem(services);
+        assertEquals(system.performRequest("1,undo;"),"1,undo,success;","Payment not undone.");
+        assertEquals(system.performRequest("1,redo;"),"1,redo,success;","Payment not redone.");
+
+        // Assert the loans and fees are loaded.
+        assertEquals(system.performRequest("1,borrowed,0000000001;"),"1,borrowed,2\n" +
+                "10,9781781100516,Harry Potter and the Prisoner of Azkaban,2019/01/01\n" +
+                "17,9780545387200,The Hunger Games Trilogy,2019/01/01;","Borrowed books are incorrect.");
+        assertEquals(system.performRequest("1,pay,1000,0000000001;"),"1,pay,invalid-amount,1000,26;","Balance is incorrect.");
+        assertEquals(system.performRequest("1,pay,1000,0000000002;"),"1,pay,invalid-amount,1000,10;","Balance is incorrect.");
+
+        // Assert the late fees go up with the time.
+        assertEquals(system.performRequest("1,advance,7,0;"),"1,advance,success;","Time not advanced.");
+        assertEquals(system.performRequest("1,pay,1000,0000000001;"),"1,pay,invalid-amount,1000,30;","Balance is incorrect.");
+        assertEquals(system.performRequest("1,pay,1000,0000000002;"),"1,pay,invalid-amount,1000,12;","Balance is incorrect.");
+    }
+}
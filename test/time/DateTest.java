@@ -2,6 +2,12 @@ package time;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -103,4 +109,62 @@ public class DateTest {
         // Run the assertions.
         assertEquals(CuT1,CuT2,"Dates aren't equal.");
     }
+
+    /**
+     * Tests the {@link Date#getEpochSeconds()} and {@link Date#fromEpochSeconds(long)} methods.
+     */
+    @Test
+    public void test_epochSeconds() {
+        // Run the assertions for the seconds of dates.
+        assertEquals(new Date(1,1,1970,0,0,0).getEpochSeconds(),0,"Seconds are incorrect.");
+        assertEquals(new Date(3,14,2019,5,2,30).getEpochSeconds(),1552539750L,"Seconds are incorrect.");
+        assertEquals(new Date(12,31,1969,23,59,59).getEpochSeconds(),-1,"Seconds are incorrect.");
+
+        // Run the assertions for the dates of seconds.
+        Date CuT = Date.fromEpochSeconds(1552539750L);
+        assertEquals(CuT,new Date(3,14,2019,5,2,30),"Date is incorrect.");
+        assertEquals(CuT.formatDate(),"2019/03/14","Date is incorrect.");
+        assertEquals(CuT.formatTime(),"05:02:30","Time is incorrect.");
+        assertEquals(Date.fromEpochSeconds(-1).toString(),"12/31/1969 23:59:59","Date is incorrect.");
+        assertEquals(Date.fromEpochSeconds(new Date(2,29,2000,0,0,0).getEpochSeconds()).toString(),"2/29/2000 0:00:00","Leap day is incorrect.");
+    }
+
+    /**
+     * Tests fields outside of their range carry over to the next field.
+     */
+    @Test
+    public void test_overflow() {
+        assertEquals(new Date(1,32,2019,0,0,0),new Date(2,1,2019,0,0,0),"Day didn't carry over.");
+        assertEquals(new Date(13,1,2019,0,0,0),new Date(1,1,2020,0,0,0),"Month didn't carry over.");
+        assertEquals(new Date(3,0,2020,0,0,0),new Date(2,29,2020,0,0,0),"Day didn't carry back.");
+        assertEquals(new Date(1,1,2019,25,0,0).toString(),"1/2/2019 1:00:00","Hours didn't carry over.");
+        assertEquals(new Date(0,0,0,0,0,0).toString(),"11/30/-1 0:00:00","Date is incorrect.");
+    }
+
+    /**
+     * Tests the {@link Date#hashCode()} method.
+     */
+    @Test
+    public void test_hashCode() {
+        assertEquals(new Date(3,14,2019,5,2,30).hashCode(),new Date(3,14,2019,5,2,30).hashCode(),"Hash codes aren't equal.");
+        assertNotEquals(new Date(3,14,2019,5,2,30),new Date(3,14,2019,5,2,31),"Dates are equal.");
+    }
+
+    /**
+     * Tests the date is the same after it is serialized.
+     */
+    @Test
+    public void test_serialization() throws IOException,ClassNotFoundException {
+        Date date = new Date(3,14,2019,5,2,30);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ObjectOutputStream objectOutput = new ObjectOutputStream(output);
+        objectOutput.writeObject(date);
+        objectOutput.close();
+
+        // Assert the read date is the same.
+        Date readDate = (Date) new ObjectInputStream(new ByteArrayInputStream(output.toByteArray())).readObject();
+        assertEquals(readDate,date,"Date changed.");
+        assertEquals(readDate.toString(),"3/14/2019 5:02:30","Date is incorrect.");
+        assertEquals(readDate.formatDate(),"2019/03/14","Date is incorrect.");
+    }
 }